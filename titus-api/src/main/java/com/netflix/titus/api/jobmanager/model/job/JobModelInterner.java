@@ -0,0 +1,189 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.api.jobmanager.model.job;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.Registry;
+
+/**
+ * Deduplicates strings and immutable sub-objects of the core job model. Jobs of the same application usually have
+ * identical containers, images and attribute maps, and all tasks of a job share the job id and the task context keys.
+ * Entities decoded from the store or converted from GRPC get a private copy of each of them, which on large cells
+ * dominates the heap usage. Interning replaces the copies with a canonical instance.
+ * <p>
+ * The canonical instances are held weakly, and are shared process-wide, so entities loaded from different sources
+ * (store, replicated snapshot) share the same sub-objects. Each interner instance reports its own metrics under
+ * '&lt;metricRoot&gt;.interner':
+ * <ul>
+ * <li>hits - number of objects replaced with a canonical instance, tagged by kind</li>
+ * <li>bytesSaved - estimated amount of heap released by the replacement, tagged by kind</li>
+ * </ul>
+ * The byte counts are shallow size estimates for a 64-bit JVM with compressed references. Nested objects that are
+ * interned on their own are accounted separately.
+ */
+public class JobModelInterner {
+
+    private static final int STRING_OVERHEAD = 40;
+    private static final int MAP_OVERHEAD = 48;
+    private static final int MAP_ENTRY_SIZE = 32;
+    private static final int IMAGE_SIZE = 24;
+    private static final int CONTAINER_SIZE = 200;
+
+    private static final Interner<String> STRINGS = Interners.newWeakInterner();
+    private static final Interner<Map<String, String>> MAPS = Interners.newWeakInterner();
+    private static final Interner<Image> IMAGES = Interners.newWeakInterner();
+    private static final Interner<Container> CONTAINERS = Interners.newWeakInterner();
+
+    private final KindMetrics stringMetrics;
+    private final KindMetrics mapMetrics;
+    private final KindMetrics imageMetrics;
+    private final KindMetrics containerMetrics;
+
+    public JobModelInterner(String metricRoot, Registry registry) {
+        String root = metricRoot + ".interner.";
+        this.stringMetrics = new KindMetrics(root, "string", registry);
+        this.mapMetrics = new KindMetrics(root, "map", registry);
+        this.imageMetrics = new KindMetrics(root, "image", registry);
+        this.containerMetrics = new KindMetrics(root, "container", registry);
+    }
+
+    public <E extends JobDescriptor.JobDescriptorExt> Job<E> intern(Job<E> job) {
+        return job.toBuilder().withJobDescriptor(intern(job.getJobDescriptor())).build();
+    }
+
+    public <E extends JobDescriptor.JobDescriptorExt> JobDescriptor<E> intern(JobDescriptor<E> jobDescriptor) {
+        return jobDescriptor.toBuilder()
+                .withApplicationName(intern(jobDescriptor.getApplicationName()))
+                .withCapacityGroup(intern(jobDescriptor.getCapacityGroup()))
+                .withAttributes(intern(jobDescriptor.getAttributes()))
+                .withContainer(intern(jobDescriptor.getContainer()))
+                .build();
+    }
+
+    /**
+     * Task context values are mostly task specific, so only the strings within it are interned, not the map itself.
+     */
+    public Task intern(Task task) {
+        List<TaskStatus> statusHistory = task.getStatusHistory() == null
+                ? null
+                : task.getStatusHistory().stream().map(this::intern).collect(Collectors.toList());
+        return task.toBuilder()
+                .withJobId(intern(task.getJobId()))
+                .withStatus(intern(task.getStatus()))
+                .withStatusHistory(statusHistory)
+                .withTaskContext(internEntries(task.getTaskContext()))
+                .build();
+    }
+
+    /**
+     * Reason messages are free-form, and almost always unique, so only the reason codes are interned.
+     */
+    public TaskStatus intern(TaskStatus status) {
+        if (status == null) {
+            return null;
+        }
+        return status.toBuilder()
+                .withReasonCode(intern(status.getReasonCode()))
+                .build();
+    }
+
+    public Container intern(Container container) {
+        if (container == null) {
+            return null;
+        }
+        Container withInternedFields = container.toBuilder()
+                .withImage(intern(container.getImage()))
+                .withAttributes(intern(container.getAttributes()))
+                .withEnv(intern(container.getEnv()))
+                .withSoftConstraints(intern(container.getSoftConstraints()))
+                .withHardConstraints(intern(container.getHardConstraints()))
+                .build();
+        return intern(CONTAINERS, withInternedFields, containerMetrics, CONTAINER_SIZE);
+    }
+
+    public Image intern(Image image) {
+        if (image == null) {
+            return null;
+        }
+        Image withInternedFields = Image.newBuilder()
+                .withName(intern(image.getName()))
+                .withTag(intern(image.getTag()))
+                .withDigest(intern(image.getDigest()))
+                .build();
+        return intern(IMAGES, withInternedFields, imageMetrics, IMAGE_SIZE);
+    }
+
+    public Map<String, String> intern(Map<String, String> map) {
+        if (map == null) {
+            return null;
+        }
+        if (map.isEmpty()) {
+            return ImmutableMap.of();
+        }
+        Map<String, String> withInternedEntries = internEntries(map);
+        return intern(MAPS, withInternedEntries, mapMetrics, MAP_OVERHEAD + map.size() * MAP_ENTRY_SIZE);
+    }
+
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        return intern(STRINGS, value, stringMetrics, STRING_OVERHEAD + 2 * value.length());
+    }
+
+    /**
+     * Maps decoded from the store may have null values, so the result is an unmodifiable {@link HashMap}, not
+     * {@link ImmutableMap}, which does not allow them.
+     */
+    private Map<String, String> internEntries(Map<String, String> map) {
+        if (map == null || map.isEmpty()) {
+            return map;
+        }
+        Map<String, String> result = new HashMap<>(map.size() * 2);
+        map.forEach((key, value) -> result.put(intern(key), intern(value)));
+        return Collections.unmodifiableMap(result);
+    }
+
+    private static <T> T intern(Interner<T> interner, T value, KindMetrics metrics, long size) {
+        T canonical = interner.intern(value);
+        if (canonical != value) {
+            metrics.hits.increment();
+            metrics.bytesSaved.increment(size);
+        }
+        return canonical;
+    }
+
+    private static class KindMetrics {
+
+        private final Counter hits;
+        private final Counter bytesSaved;
+
+        private KindMetrics(String root, String kind, Registry registry) {
+            this.hits = registry.counter(root + "hits", "kind", kind);
+            this.bytesSaved = registry.counter(root + "bytesSaved", "kind", kind);
+        }
+    }
+}
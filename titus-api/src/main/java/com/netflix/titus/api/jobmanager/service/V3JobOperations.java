@@ -16,6 +16,9 @@
 
 package com.netflix.titus.api.jobmanager.service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
 
@@ -65,6 +68,16 @@ public interface V3JobOperations extends ReadOnlyJobOperations {
      */
     Completable updateTask(String taskId, Function<Task, Optional<Task>> changeFunction, Trigger trigger, String reason);
 
+    /**
+     * Applies the provided update functions to tasks of the given job. Implementations may apply all of them
+     * in a single change action. The default implementation updates each task independently.
+     */
+    default Completable updateTasks(String jobId, Map<String, Function<Task, Optional<Task>>> changeFunctions, Trigger trigger, String reason) {
+        List<Completable> updates = new ArrayList<>();
+        changeFunctions.forEach((taskId, changeFunction) -> updates.add(updateTask(taskId, changeFunction, trigger, reason)));
+        return Completable.merge(updates);
+    }
+
     /**
      * Called by scheduler when a task is assigned to an agent. The new task state is written to store first, and next
      * internal models are updated.
@@ -16,6 +16,7 @@
 
 package com.netflix.titus.api.jobmanager.store;
 
+import java.util.Collection;
 import java.util.List;
 
 import com.netflix.titus.api.jobmanager.model.job.Job;
@@ -79,6 +80,21 @@ public interface JobStore {
      */
     Observable<Pair<List<Task>, Integer>> retrieveTasksForJob(String jobId);
 
+    /**
+     * Retrieve all the tasks for the given collection of jobs. The result contains one item per job, with the job id,
+     * and the tasks of that job. Stores that can read tasks more efficiently than one job at a time (for example with
+     * a full table scan during bootstrap) should override this method.
+     *
+     * @param jobIds      ids of active jobs
+     * @param concurrency maximum number of {@link #retrieveTasksForJob(String)} requests executed in parallel
+     */
+    default Observable<Pair<String, Pair<List<Task>, Integer>>> retrieveTasksForJobs(Collection<String> jobIds, int concurrency) {
+        return Observable.from(jobIds).flatMap(
+                jobId -> retrieveTasksForJob(jobId).map(tasksAndErrors -> Pair.of(jobId, tasksAndErrors)),
+                concurrency
+        );
+    }
+
     /**
      * Retrieve a specific task.
      *
@@ -87,6 +103,25 @@ public interface JobStore {
      */
     Observable<Task> retrieveTask(String taskId);
 
+    /**
+     * Retrieve the last write time of each active job record, as { jobId, timestamp in milliseconds } pairs. Allows
+     * finding job records modified after a given point in time, without reading them.
+     *
+     * @return the write timestamps or an error if the store does not track them
+     */
+    default Observable<Pair<String, Long>> retrieveActiveJobWriteTimestamps() {
+        return Observable.error(new UnsupportedOperationException("Record write timestamps not supported by " + getClass().getSimpleName()));
+    }
+
+    /**
+     * Retrieve the last write time of each active task record, as { taskId, timestamp in milliseconds } pairs.
+     *
+     * @return the write timestamps or an error if the store does not track them
+     */
+    default Observable<Pair<String, Long>> retrieveActiveTaskWriteTimestamps() {
+        return Observable.error(new UnsupportedOperationException("Record write timestamps not supported by " + getClass().getSimpleName()));
+    }
+
     /**
      * Store a new task.
      *
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.api.json;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.netflix.titus.common.util.PropertiesExt;
+import com.netflix.titus.common.util.ReflectionExt;
+
+/**
+ * Jackson property filter including only the requested fields (with the nested field paths given in the dot notation).
+ * The field selector is compiled into a tree of {@link ProjectionNode}s. Each node memoizes the include/exclude
+ * decision per bean class and property name, so once a class was serialized with a given projection, filtering its
+ * properties costs only a map lookup.
+ */
+class FieldsFilter extends SimpleBeanPropertyFilter {
+
+    static final String FILTER_ID = "titusFilter";
+
+    private final ProjectionNode root;
+
+    FieldsFilter(Collection<String> fields) {
+        this.root = ProjectionNode.compile(PropertiesExt.fullSplit(fields));
+    }
+
+    @Override
+    public void serializeAsField(Object pojo, JsonGenerator jgen, SerializerProvider provider, PropertyWriter writer) throws Exception {
+        ProjectionNode selectorNode = findNode(jgen.getOutputContext().getParent());
+        if (selectorNode != null && selectorNode.isIncluded(pojo.getClass(), writer)) {
+            writer.serializeAsField(pojo, jgen, provider);
+            return;
+        }
+        if (!jgen.canOmitFields()) {
+            writer.serializeAsOmittedField(pojo, jgen, provider);
+        }
+    }
+
+    private ProjectionNode findNode(JsonStreamContext outputContext) {
+        if (outputContext.inArray()) {
+            return findNode(outputContext.getParent());
+        }
+        if (outputContext.getParent() == null) {
+            return root;
+        }
+        ProjectionNode node = findNode(outputContext.getParent());
+        if (node == null) {
+            return null;
+        }
+        if (node.enabled) {
+            return node;
+        }
+        return node.children.get(outputContext.getCurrentName());
+    }
+
+    private static class ProjectionNode {
+
+        private final boolean enabled;
+        private final Map<String, ProjectionNode> children;
+
+        /**
+         * Bean class -> property name -> include decision.
+         */
+        private final ConcurrentMap<Class<?>, ConcurrentMap<String, Boolean>> decisions = new ConcurrentHashMap<>();
+
+        private ProjectionNode(boolean enabled, Map<String, ProjectionNode> children) {
+            this.enabled = enabled;
+            this.children = children;
+        }
+
+        private boolean isIncluded(Class<?> beanClass, PropertyWriter writer) {
+            if (enabled) {
+                return true;
+            }
+            ConcurrentMap<String, Boolean> classDecisions = decisions.computeIfAbsent(beanClass, c -> new ConcurrentHashMap<>());
+            Boolean included = classDecisions.get(writer.getName());
+            if (included == null) {
+                included = resolve(writer);
+                classDecisions.put(writer.getName(), included);
+            }
+            return included;
+        }
+
+        private boolean resolve(PropertyWriter writer) {
+            ProjectionNode childNode = children.get(writer.getName());
+            if (childNode == null) {
+                return false;
+            }
+            boolean isNested = !childNode.children.isEmpty() && !isPrimitive(writer);
+            return isNested || childNode.enabled;
+        }
+
+        private static boolean isPrimitive(PropertyWriter writer) {
+            if (writer instanceof BeanPropertyWriter) {
+                BeanPropertyWriter bw = (BeanPropertyWriter) writer;
+                return ReflectionExt.isPrimitiveOrWrapper(bw.getType().getRawClass());
+            }
+            return false;
+        }
+
+        private static ProjectionNode compile(PropertiesExt.PropertyNode<Boolean> propertyNode) {
+            Map<String, ProjectionNode> children = new HashMap<>();
+            propertyNode.getChildren().forEach((name, child) -> children.put(name, compile(child)));
+            return new ProjectionNode(propertyNode.getValue().orElse(Boolean.FALSE), children);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.api.json;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Bounded cache of {@link ObjectWriter}s with a fields filter applied (see {@link ObjectMappers#applyFieldsFilter(ObjectMapper, Collection)}).
+ * Writers are keyed by the normalized (trimmed, sorted, deduplicated) field set, so the same projection requested
+ * with the fields given in a different order reuses the same writer, together with its Jackson serializer caches.
+ * A field set with no non-blank names (for example <code>fields=,</code>) selects the unfiltered writer.
+ */
+public class FieldsFilterWriterCache {
+
+    private final ObjectMapper original;
+    private final ObjectWriter unfilteredWriter;
+    private final Cache<List<String>, ObjectWriter> writers;
+
+    public FieldsFilterWriterCache(ObjectMapper original, int maxSize) {
+        this.original = original;
+        this.unfilteredWriter = original.writer();
+        this.writers = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public ObjectWriter getWriter(Collection<String> fields) {
+        List<String> normalized = normalize(fields);
+        if (normalized.isEmpty()) {
+            return unfilteredWriter;
+        }
+        return writers.get(normalized, key -> ObjectMappers.applyFieldsFilter(original, key).writer());
+    }
+
+    static List<String> normalize(Collection<String> fields) {
+        return fields.stream()
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+    }
+}
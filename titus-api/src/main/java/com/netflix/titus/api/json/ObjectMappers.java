@@ -20,22 +20,18 @@ import java.io.IOException;
 import java.util.Collection;
 
 import com.fasterxml.jackson.annotation.JsonView;
-import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.JsonStreamContext;
 import com.fasterxml.jackson.core.Version;
 import com.fasterxml.jackson.databind.AnnotationIntrospector;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.introspect.Annotated;
 import com.fasterxml.jackson.databind.module.SimpleModule;
-import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
-import com.fasterxml.jackson.databind.ser.PropertyWriter;
-import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
 import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.google.common.base.Preconditions;
 import com.netflix.titus.api.agent.model.AgentInstance;
@@ -154,8 +150,6 @@ import com.netflix.titus.api.scheduler.store.mixin.OperatorMixin;
 import com.netflix.titus.api.scheduler.store.mixin.ShouldMixin;
 import com.netflix.titus.api.scheduler.store.mixin.SystemSelectorMixin;
 import com.netflix.titus.api.store.v2.ResourceDimensionMixin;
-import com.netflix.titus.common.util.PropertiesExt;
-import com.netflix.titus.common.util.ReflectionExt;
 import rx.exceptions.Exceptions;
 
 /**
@@ -168,7 +162,8 @@ public class ObjectMappers {
     private static final ObjectMapper JACKSON_DEFAULT = new ObjectMapper();
     private static final ObjectMapper DEFAULT = createDefaultMapper();
     private static final ObjectMapper COMPACT = createCompactMapper();
-    private static final ObjectMapper STORE = createStoreMapper();
+    private static final ObjectMapper STORE = createStoreMapper(new ObjectMapper());
+    private static final ObjectMapper STORE_SMILE = createStoreMapper(new ObjectMapper(createSmileFactory()));
     private static final ObjectMapper APP_SCALE_STORE = createAppScalePolicyMapper();
 
     /**
@@ -196,10 +191,34 @@ public class ObjectMappers {
         return STORE;
     }
 
+    /**
+     * Binary (Smile) variant of {@link #storeMapper()}. It uses the same mixins, so the data model and its evolution
+     * rules are identical to the JSON store format, but the encoding is more compact and faster to parse.
+     */
+    public static ObjectMapper storeSmileMapper() {
+        return STORE_SMILE;
+    }
+
     public static ObjectMapper appScalePolicyMapper() {
         return APP_SCALE_STORE;
     }
 
+    public static byte[] writeValueAsBytes(ObjectMapper objectMapper, Object object) {
+        try {
+            return objectMapper.writeValueAsBytes(object);
+        } catch (JsonProcessingException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    public static <T> T readValue(ObjectMapper objectMapper, byte[] bytes, Class<T> clazz) {
+        try {
+            return objectMapper.readValue(bytes, clazz);
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
     public static String writeValueAsString(ObjectMapper objectMapper, Object object) {
         try {
             return objectMapper.writeValueAsString(object);
@@ -222,7 +241,6 @@ public class ObjectMappers {
     public static ObjectMapper applyFieldsFilter(ObjectMapper original, Collection<String> fields) {
         Preconditions.checkArgument(!fields.isEmpty(), "Fields filter, with no field names provided");
 
-        PropertiesExt.PropertyNode<Boolean> rootNode = PropertiesExt.fullSplit(fields);
         SimpleModule module = new SimpleModule() {
             @Override
             public void setupModule(SetupContext context) {
@@ -231,62 +249,7 @@ public class ObjectMappers {
             }
         };
         ObjectMapper newMapper = original.copy().registerModule(module);
-
-        SimpleBeanPropertyFilter filter = new SimpleBeanPropertyFilter() {
-
-            private PropertiesExt.PropertyNode<Boolean> findNode(JsonStreamContext outputContext) {
-                if (outputContext.inArray()) {
-                    return findNode(outputContext.getParent());
-                }
-                if (outputContext.getParent() == null) {
-                    return rootNode;
-                }
-                PropertiesExt.PropertyNode<Boolean> node = findNode(outputContext.getParent());
-                if (node == null) {
-                    return null;
-                }
-                if (isEnabled(node)) {
-                    return node;
-                }
-                return node.getChildren().get(outputContext.getCurrentName());
-            }
-
-            @Override
-            public void serializeAsField(Object pojo, JsonGenerator jgen, SerializerProvider provider, PropertyWriter writer) throws Exception {
-                PropertiesExt.PropertyNode<Boolean> selectorNode = findNode(jgen.getOutputContext().getParent());
-                if (selectorNode != null) {
-                    boolean enabled = isEnabled(selectorNode);
-                    if (!enabled) {
-                        PropertiesExt.PropertyNode<Boolean> childNode = selectorNode.getChildren().get(writer.getName());
-                        if (childNode != null) {
-                            boolean isNested = !childNode.getChildren().isEmpty() && !isPrimitive(writer);
-                            enabled = isNested || isEnabled(childNode);
-                        }
-                    }
-                    if (enabled) {
-                        writer.serializeAsField(pojo, jgen, provider);
-                        return;
-                    }
-                }
-                if (!jgen.canOmitFields()) {
-                    writer.serializeAsOmittedField(pojo, jgen, provider);
-                }
-            }
-
-            private boolean isPrimitive(PropertyWriter writer) {
-                if (writer instanceof BeanPropertyWriter) {
-                    BeanPropertyWriter bw = (BeanPropertyWriter) writer;
-                    return ReflectionExt.isPrimitiveOrWrapper(bw.getType().getRawClass());
-                }
-                return false;
-            }
-
-            private Boolean isEnabled(PropertiesExt.PropertyNode<Boolean> childNode) {
-                return childNode.getValue().orElse(Boolean.FALSE);
-            }
-        };
-
-        newMapper.setFilterProvider(new SimpleFilterProvider().addFilter("titusFilter", filter));
+        newMapper.setFilterProvider(new SimpleFilterProvider().addFilter(FieldsFilter.FILTER_ID, new FieldsFilter(fields)));
         return newMapper;
     }
 
@@ -300,7 +263,7 @@ public class ObjectMappers {
         public Object findFilterId(Annotated ann) {
             Object id = super.findFilterId(ann);
             if (id == null && ann.getRawType().getName().startsWith("com.netflix.titus")) {
-                id = "titusFilter";
+                id = FieldsFilter.FILTER_ID;
             }
             return id;
         }
@@ -336,9 +299,18 @@ public class ObjectMappers {
         return objectMapper;
     }
 
-    private static ObjectMapper createStoreMapper() {
-        ObjectMapper objectMapper = new ObjectMapper();
+    /**
+     * Task attributes, image names, and other repeated string values are shared within a single record, so
+     * back-references make a noticeable difference in the encoded record size.
+     */
+    private static SmileFactory createSmileFactory() {
+        SmileFactory smileFactory = new SmileFactory();
+        smileFactory.configure(SmileGenerator.Feature.CHECK_SHARED_NAMES, true);
+        smileFactory.configure(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES, true);
+        return smileFactory;
+    }
 
+    private static ObjectMapper createStoreMapper(ObjectMapper objectMapper) {
         objectMapper.registerModule(new Jdk8Module());
 
         // Common
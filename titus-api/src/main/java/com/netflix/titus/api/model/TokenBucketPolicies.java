@@ -41,7 +41,7 @@ public final class TokenBucketPolicies {
 
         FixedIntervalTokenBucketRefillPolicy refillPolicy = (FixedIntervalTokenBucketRefillPolicy) policy.getRefillPolicy();
 
-        return Limiters.createFixedIntervalTokenBucket(
+        return Limiters.createLockFreeFixedIntervalTokenBucket(
                 name,
                 policy.getCapacity(),
                 policy.getInitialNumberOfTokens(),
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.api.jobmanager.model.job;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.spectator.api.DefaultRegistry;
+import com.netflix.spectator.api.Registry;
+import com.netflix.titus.api.jobmanager.model.job.ext.BatchJobExt;
+import com.netflix.titus.api.json.ObjectMappers;
+import com.netflix.titus.testkit.model.job.JobGenerator;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JobModelInternerTest {
+
+    private static final ObjectMapper MAPPER = ObjectMappers.storeMapper();
+
+    private final Registry registry = new DefaultRegistry();
+
+    private final JobModelInterner interner = new JobModelInterner("test", registry);
+
+    @Test
+    public void testJobSubObjectsAreShared() throws Exception {
+        Job<BatchJobExt> job = JobGenerator.oneBatchJob();
+        Job<?> first = interner.intern(copyOf(job, Job.class));
+        Job<?> second = interner.intern(copyOf(job, Job.class));
+
+        assertThat(second).isEqualTo(job);
+        assertThat(second.getJobDescriptor().getContainer()).isSameAs(first.getJobDescriptor().getContainer());
+        assertThat(second.getJobDescriptor().getAttributes()).isSameAs(first.getJobDescriptor().getAttributes());
+        assertThat(second.getJobDescriptor().getApplicationName()).isSameAs(first.getJobDescriptor().getApplicationName());
+
+        assertThat(registry.counter("test.interner.hits", "kind", "container").count()).isGreaterThanOrEqualTo(1);
+        assertThat(registry.counter("test.interner.bytesSaved", "kind", "string").count()).isGreaterThan(0);
+    }
+
+    @Test
+    public void testTaskStringsAreShared() throws Exception {
+        Task task = JobGenerator.oneBatchTask();
+        Task first = interner.intern(copyOf(task, Task.class));
+        Task second = interner.intern(copyOf(task, Task.class));
+
+        assertThat(second).isEqualTo(task);
+        assertThat(second.getJobId()).isSameAs(first.getJobId());
+        second.getTaskContext().forEach((key, value) -> assertThat(value).isSameAs(first.getTaskContext().get(key)));
+    }
+
+    @Test
+    public void testNullValuedEntriesArePreserved() {
+        Map<String, String> env = new HashMap<>();
+        env.put("NAME", "value");
+        env.put("EMPTY", null);
+
+        Map<String, String> first = interner.intern(env);
+        assertThat(first).containsEntry("NAME", "value").containsEntry("EMPTY", null).hasSize(2);
+        assertThat(interner.intern(new HashMap<>(env))).isSameAs(first);
+    }
+
+    @Test
+    public void testReasonMessageIsNotInterned() {
+        TaskStatus status = TaskStatus.newBuilder()
+                .withState(TaskState.Started)
+                .withReasonCode(new String("normal"))
+                .withReasonMessage(new String("free form message"))
+                .build();
+        TaskStatus first = interner.intern(status);
+        TaskStatus second = interner.intern(status.toBuilder().withReasonCode(new String("normal")).withReasonMessage(new String("free form message")).build());
+
+        assertThat(second.getReasonCode()).isSameAs(first.getReasonCode());
+        assertThat(second.getReasonMessage()).isNotSameAs(first.getReasonMessage());
+    }
+
+    private static <T> T copyOf(Object value, Class<T> type) throws Exception {
+        return MAPPER.readValue(MAPPER.writeValueAsString(value), type);
+    }
+}
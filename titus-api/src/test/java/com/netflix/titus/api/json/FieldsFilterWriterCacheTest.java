@@ -0,0 +1,70 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.api.json;
+
+import java.util.Collections;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.netflix.titus.api.model.ResourceDimension;
+import org.junit.Test;
+
+import static com.netflix.titus.api.json.ObjectMappers.compactMapper;
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FieldsFilterWriterCacheTest {
+
+    private final FieldsFilterWriterCache cache = new FieldsFilterWriterCache(compactMapper(), 2);
+
+    @Test
+    public void testWriterIsReusedForTheSameNormalizedFieldSet() {
+        ObjectWriter writer = cache.getWriter(asList("cpu", "memoryMB"));
+        assertThat(cache.getWriter(asList(" memoryMB", "cpu", "cpu"))).isSameAs(writer);
+        assertThat(cache.getWriter(Collections.singletonList("cpu"))).isNotSameAs(writer);
+    }
+
+    @Test
+    public void testCachedWriterAppliesFieldsFilter() throws Exception {
+        ResourceDimension resources = ResourceDimension.newBuilder()
+                .withCpus(2)
+                .withMemoryMB(1024)
+                .withDiskMB(10_000)
+                .withNetworkMbs(128)
+                .build();
+        ObjectWriter writer = cache.getWriter(Collections.singletonList("memoryMB"));
+
+        // Serialize twice, so the second pass goes through the memoized filter decisions.
+        writer.writeValueAsString(resources);
+        String json = writer.writeValueAsString(resources);
+
+        assertThat(json).contains("memoryMB").doesNotContain("diskMB").doesNotContain("networkMbs");
+    }
+
+    @Test
+    public void testBlankFieldSetFallsBackToUnfilteredWriter() throws Exception {
+        ResourceDimension resources = ResourceDimension.newBuilder()
+                .withCpus(2)
+                .withMemoryMB(1024)
+                .withDiskMB(10_000)
+                .withNetworkMbs(128)
+                .build();
+
+        String json = cache.getWriter(asList(" ", "")).writeValueAsString(resources);
+
+        assertThat(json).isEqualTo(compactMapper().writeValueAsString(resources));
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.benchmark.api;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableMap;
+import com.netflix.archaius.ConfigProxyFactory;
+import com.netflix.archaius.DefaultDecoder;
+import com.netflix.archaius.DefaultPropertyFactory;
+import com.netflix.archaius.config.MapConfig;
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.JobDescriptor;
+import com.netflix.titus.api.jobmanager.model.job.ext.BatchJobExt;
+import com.netflix.titus.api.jobmanager.model.job.sanitizer.JobConfiguration;
+import com.netflix.titus.api.jobmanager.model.job.sanitizer.JobSanitizerBuilder;
+import com.netflix.titus.api.model.ResourceDimension;
+import com.netflix.titus.common.model.sanitizer.EntitySanitizer;
+import com.netflix.titus.common.model.sanitizer.VerifierMode;
+import com.netflix.titus.common.model.validator.ValidationError;
+import com.netflix.titus.testkit.model.job.JobDescriptorGenerator;
+import com.netflix.titus.testkit.model.job.JobGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the job descriptor sanitization and validation, as executed for each job submitted via the API, and
+ * the validation of a full job, as executed for each job loaded from the store during bootstrap. Both the strict
+ * and the permissive verifier modes are measured, as they run different sets of the SpEL expressions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntitySanitizerBenchmark {
+
+    private static final MapConfig CONFIG = MapConfig.from(ImmutableMap.of(
+            "titusMaster.job.configuration.defaultSecurityGroups", "sg-12345,sg-34567",
+            "titusMaster.job.configuration.defaultIamRole", "iam-12345"
+    ));
+
+    @Param({"Permissive", "Strict"})
+    public String verifierMode;
+
+    private EntitySanitizer sanitizer;
+    private JobDescriptor<BatchJobExt> jobDescriptor;
+    private Job<BatchJobExt> job;
+
+    @Setup
+    public void setUp() {
+        JobConfiguration configuration = new ConfigProxyFactory(CONFIG, new DefaultDecoder(), new DefaultPropertyFactory(CONFIG))
+                .newProxy(JobConfiguration.class);
+        this.sanitizer = new JobSanitizerBuilder()
+                .withVerifierMode(VerifierMode.valueOf(verifierMode))
+                .withJobConstraintConfiguration(configuration)
+                .withMaxContainerSizeResolver(capacityGroup -> ResourceDimension.newBuilder()
+                        .withCpus(configuration.getCpuMax())
+                        .withGpu(configuration.getGpuMax())
+                        .withMemoryMB(configuration.getMemoryMegabytesMax())
+                        .withDiskMB(configuration.getDiskMegabytesMax())
+                        .withNetworkMbs(configuration.getNetworkMbpsMax())
+                        .build())
+                .build();
+        this.jobDescriptor = JobDescriptorGenerator.oneTaskBatchJobDescriptor();
+        this.job = JobGenerator.batchJobs(jobDescriptor).getValue();
+    }
+
+    @Benchmark
+    public Optional<JobDescriptor<BatchJobExt>> sanitize() {
+        return sanitizer.sanitize(jobDescriptor);
+    }
+
+    @Benchmark
+    public Set<ValidationError> validate() {
+        return sanitizer.validate(jobDescriptor);
+    }
+
+    @Benchmark
+    public Set<ValidationError> validateJob() {
+        return sanitizer.validate(job);
+    }
+}
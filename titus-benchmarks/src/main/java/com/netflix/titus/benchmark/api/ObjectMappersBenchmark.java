@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.benchmark.api;
+
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.json.ObjectMappers;
+import com.netflix.titus.testkit.model.job.JobGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the job and task serialization with the store object mapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObjectMappersBenchmark {
+
+    private static final ObjectMapper MAPPER = ObjectMappers.storeMapper();
+
+    private Job<?> job;
+    private Task task;
+    private String jobJson;
+    private String taskJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        this.job = JobGenerator.oneBatchJob();
+        this.task = JobGenerator.oneBatchTask();
+        this.jobJson = MAPPER.writeValueAsString(job);
+        this.taskJson = MAPPER.writeValueAsString(task);
+    }
+
+    @Benchmark
+    public String serializeJob() throws Exception {
+        return MAPPER.writeValueAsString(job);
+    }
+
+    @Benchmark
+    public Job deserializeJob() throws Exception {
+        return MAPPER.readValue(jobJson, Job.class);
+    }
+
+    @Benchmark
+    public String serializeTask() throws Exception {
+        return MAPPER.writeValueAsString(task);
+    }
+
+    @Benchmark
+    public Task deserializeTask() throws Exception {
+        return MAPPER.readValue(taskJson, Task.class);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.benchmark.common.limiter;
+
+import java.util.concurrent.TimeUnit;
+
+import com.netflix.titus.common.util.limiter.Limiters;
+import com.netflix.titus.common.util.limiter.tokenbucket.TokenBucket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the throughput of the synchronized and the lock free fixed interval token buckets, with a single
+ * bucket shared by an increasing number of threads. The bucket is refilled frequently, so the refill path is
+ * exercised together with the token take.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenBucketBenchmark {
+
+    private static final long CAPACITY = 1_000_000;
+
+    @Param({"synchronized", "lockFree"})
+    public String implementation;
+
+    private TokenBucket tokenBucket;
+
+    @Setup
+    public void setUp() {
+        if (implementation.equals("lockFree")) {
+            tokenBucket = Limiters.createLockFreeFixedIntervalTokenBucket("benchmark", CAPACITY, CAPACITY, CAPACITY, 1, TimeUnit.MILLISECONDS);
+        } else {
+            tokenBucket = Limiters.createFixedIntervalTokenBucket("benchmark", CAPACITY, CAPACITY, CAPACITY, 1, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean tryTake1Thread() {
+        return tokenBucket.tryTake();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean tryTake4Threads() {
+        return tokenBucket.tryTake();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean tryTake16Threads() {
+        return tokenBucket.tryTake();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public boolean tryTake64Threads() {
+        return tokenBucket.tryTake();
+    }
+}
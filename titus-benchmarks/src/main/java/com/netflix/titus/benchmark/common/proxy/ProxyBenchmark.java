@@ -0,0 +1,112 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.benchmark.common.proxy;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+import com.netflix.titus.common.runtime.TitusRuntimes;
+import com.netflix.titus.common.util.proxy.LoggingProxyBuilder.Priority;
+import com.netflix.titus.common.util.proxy.ProxyCatalog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the per call overhead of the proxies from {@link ProxyCatalog}, compared to a direct call, and to a plain
+ * JDK proxy calling the target with {@link java.lang.reflect.Method#invoke(Object, Object...)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProxyBenchmark {
+
+    public interface EchoApi {
+        String echo(String message);
+    }
+
+    public static class EchoApiImpl implements EchoApi {
+        @Override
+        public String echo(String message) {
+            return message;
+        }
+    }
+
+    private static final String MESSAGE = "message";
+
+    private EchoApi direct;
+    private EchoApi reflective;
+    private EchoApi guarding;
+    private EchoApi spectator;
+    private EchoApi logging;
+
+    @Setup
+    public void setUp() {
+        EchoApiImpl instance = new EchoApiImpl();
+
+        this.direct = instance;
+        this.reflective = (EchoApi) Proxy.newProxyInstance(
+                EchoApi.class.getClassLoader(),
+                new Class<?>[]{EchoApi.class},
+                (proxy, method, args) -> method.invoke(instance, args)
+        );
+        this.guarding = ProxyCatalog.createGuardingProxy(EchoApi.class, instance, () -> true);
+        this.spectator = ProxyCatalog.createSpectatorProxy(EchoApi.class, instance, TitusRuntimes.internal());
+        this.logging = ProxyCatalog.createLoggingProxy(EchoApi.class, instance)
+                .request(Priority.NEVER)
+                .reply(Priority.NEVER)
+                .observableReply(Priority.NEVER)
+                .exception(Priority.NEVER)
+                .observableError(Priority.NEVER)
+                .build();
+    }
+
+    @Benchmark
+    public String directCall() {
+        return direct.echo(MESSAGE);
+    }
+
+    @Benchmark
+    public String reflectiveProxy() {
+        return reflective.echo(MESSAGE);
+    }
+
+    @Benchmark
+    public String guardingProxy() {
+        return guarding.echo(MESSAGE);
+    }
+
+    @Benchmark
+    public String spectatorProxy() {
+        return spectator.echo(MESSAGE);
+    }
+
+    @Benchmark
+    public String loggingProxy() {
+        return logging.echo(MESSAGE);
+    }
+}
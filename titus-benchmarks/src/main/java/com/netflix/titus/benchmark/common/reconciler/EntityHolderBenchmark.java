@@ -0,0 +1,80 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.benchmark.common.reconciler;
+
+import java.util.concurrent.TimeUnit;
+
+import com.netflix.titus.common.framework.reconciler.EntityHolder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the {@link EntityHolder} update operations, as executed for a job with the given number of tasks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityHolderBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int childCount;
+
+    private EntityHolder root;
+    private EntityHolder updatedChild;
+
+    @Setup
+    public void setUp() {
+        EntityHolder holder = EntityHolder.newRoot("job", "jobEntity");
+        for (int i = 0; i < childCount; i++) {
+            holder = holder.addChild(EntityHolder.newRoot("task#" + i, "taskEntity#" + i));
+        }
+        this.root = holder;
+        this.updatedChild = EntityHolder.newRoot("task#" + (childCount / 2), "updatedTaskEntity");
+    }
+
+    @Benchmark
+    public EntityHolder updateChild() {
+        return root.addChild(updatedChild);
+    }
+
+    @Benchmark
+    public EntityHolder updateRootEntity() {
+        return root.setEntity("updatedJobEntity");
+    }
+
+    @Benchmark
+    public EntityHolder addTag() {
+        return root.addTag("tag", "value");
+    }
+
+    @Benchmark
+    public Object removeChild() {
+        return root.removeChild(updatedChild.getId());
+    }
+}
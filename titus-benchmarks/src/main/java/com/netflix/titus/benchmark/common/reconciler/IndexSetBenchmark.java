@@ -0,0 +1,79 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.benchmark.common.reconciler;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.netflix.titus.common.data.generator.DataGenerator;
+import com.netflix.titus.common.framework.reconciler.EntityHolder;
+import com.netflix.titus.common.framework.reconciler.internal.IndexSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of rebuilding the reconciliation framework index set, which happens after each change of
+ * the reference model.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndexSetBenchmark {
+
+    private static final String INDEX_ID = "byId";
+
+    @Param({"100", "1000", "10000"})
+    public int entityCount;
+
+    private IndexSet<EntityHolder> indexSet;
+    private List<EntityHolder> entities;
+
+    @Setup
+    public void setUp() {
+        Comparator<EntityHolder> comparator = Comparator.comparing(EntityHolder::getId);
+        this.indexSet = IndexSet.newIndexSet(Collections.singletonMap(INDEX_ID, comparator));
+        this.entities = DataGenerator.range(0, entityCount)
+                .map(idx -> EntityHolder.newRoot("entity#" + idx, idx))
+                .random()
+                .toList();
+        this.indexSet = indexSet.apply(entities);
+    }
+
+    @Benchmark
+    public IndexSet<EntityHolder> apply() {
+        return indexSet.apply(entities);
+    }
+
+    @Benchmark
+    public List<EntityHolder> applyAndGetOrdered() {
+        return indexSet.apply(entities).getOrdered(INDEX_ID);
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.benchmark.master.scheduler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.netflix.fenzo.ConstraintEvaluator;
+import com.netflix.fenzo.TaskRequest;
+import com.netflix.fenzo.TaskTrackerState;
+import com.netflix.fenzo.VirtualMachineCurrentState;
+import com.netflix.titus.api.jobmanager.model.job.BatchJobTask;
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.ext.BatchJobExt;
+import com.netflix.titus.api.jobmanager.service.V3JobOperations;
+import com.netflix.titus.api.model.Tier;
+import com.netflix.titus.master.config.MasterConfiguration;
+import com.netflix.titus.master.jobmanager.service.common.V3QueueableTask;
+import com.netflix.titus.master.scheduler.constraint.SystemHardConstraint;
+import com.netflix.titus.master.scheduler.constraint.SystemSoftConstraint;
+import com.netflix.titus.master.scheduler.constraint.TaskCache;
+import com.netflix.titus.master.scheduler.constraint.V3ConstraintEvaluatorTransformer;
+import com.netflix.titus.master.scheduler.constraint.V3UniqueHostConstraint;
+import com.netflix.titus.master.scheduler.fitness.JobSpreadingFitnessCalculator;
+import com.netflix.titus.master.scheduler.fitness.JobTypeFitnessCalculator;
+import com.netflix.titus.testkit.model.job.JobDescriptorGenerator;
+import com.netflix.titus.testkit.model.job.JobGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Measures the cost of the Titus constraint evaluator and fitness calculators, which Fenzo calls for each
+ * (task, agent) pair in a scheduling iteration. The agent runs tasks from other jobs only, so each evaluation
+ * scans all of them. The agent state is a stub only mock, which does not record the invocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FenzoEvaluatorsBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int runningTasks;
+
+    private final V3UniqueHostConstraint uniqueHostConstraint = new V3UniqueHostConstraint();
+    private final JobTypeFitnessCalculator jobTypeFitnessCalculator = new JobTypeFitnessCalculator();
+    private final JobSpreadingFitnessCalculator jobSpreadingFitnessCalculator = new JobSpreadingFitnessCalculator();
+
+    private V3ConstraintEvaluatorTransformer transformer;
+    private SystemSoftConstraint systemSoftConstraint;
+    private SystemHardConstraint systemHardConstraint;
+
+    private V3QueueableTask taskRequest;
+    private VirtualMachineCurrentState targetVM;
+    private TaskTrackerState taskTrackerState;
+
+    @Setup
+    public void setUp() {
+        this.transformer = new V3ConstraintEvaluatorTransformer(
+                mock(MasterConfiguration.class, withSettings().stubOnly()),
+                new TaskCache(mock(V3JobOperations.class, withSettings().stubOnly()))
+        );
+        this.systemSoftConstraint = mock(SystemSoftConstraint.class, withSettings().stubOnly());
+        this.systemHardConstraint = mock(SystemHardConstraint.class, withSettings().stubOnly());
+
+        List<Job<BatchJobExt>> jobs = JobGenerator.batchJobs(JobDescriptorGenerator.oneTaskBatchJobDescriptor()).getValues(runningTasks + 1);
+        this.taskRequest = newQueueableTask(jobs.get(0));
+
+        List<TaskRequest> running = new ArrayList<>();
+        for (Job<BatchJobExt> job : jobs.subList(1, jobs.size())) {
+            running.add(newQueueableTask(job));
+        }
+
+        this.targetVM = mock(VirtualMachineCurrentState.class, withSettings().stubOnly());
+        when(targetVM.getRunningTasks()).thenReturn(running);
+        when(targetVM.getTasksCurrentlyAssigned()).thenReturn(Collections.emptyList());
+
+        this.taskTrackerState = mock(TaskTrackerState.class, withSettings().stubOnly());
+    }
+
+    @Benchmark
+    public ConstraintEvaluator.Result uniqueHostConstraint() {
+        return uniqueHostConstraint.evaluate(taskRequest, targetVM, taskTrackerState);
+    }
+
+    @Benchmark
+    public double jobTypeFitness() {
+        return jobTypeFitnessCalculator.calculateFitness(taskRequest, targetVM, taskTrackerState);
+    }
+
+    @Benchmark
+    public double jobSpreadingFitness() {
+        return jobSpreadingFitnessCalculator.calculateFitness(taskRequest, targetVM, taskTrackerState);
+    }
+
+    private V3QueueableTask newQueueableTask(Job<BatchJobExt> job) {
+        BatchJobTask task = JobGenerator.batchTasks(job).getValue();
+        return new V3QueueableTask(Tier.Flex, null, job, task,
+                () -> Collections.singleton(task.getId()),
+                transformer, systemSoftConstraint, systemHardConstraint
+        );
+    }
+}
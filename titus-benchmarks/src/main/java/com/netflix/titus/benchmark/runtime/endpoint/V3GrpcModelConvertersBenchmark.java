@@ -0,0 +1,94 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.benchmark.runtime.endpoint;
+
+import java.util.concurrent.TimeUnit;
+
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.ext.BatchJobExt;
+import com.netflix.titus.runtime.endpoint.common.EmptyLogStorageInfo;
+import com.netflix.titus.runtime.endpoint.common.LogStorageInfo;
+import com.netflix.titus.runtime.endpoint.v3.grpc.V3GrpcModelConverters;
+import com.netflix.titus.testkit.model.job.JobGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the core to GRPC model conversion of jobs and tasks, in both directions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class V3GrpcModelConvertersBenchmark {
+
+    private static final LogStorageInfo<Task> LOG_STORAGE_INFO = EmptyLogStorageInfo.empty();
+
+    private Job<BatchJobExt> job;
+    private Task task;
+    private com.netflix.titus.grpc.protogen.Job grpcJob;
+    private com.netflix.titus.grpc.protogen.Task grpcTask;
+
+    @Setup
+    public void setUp() {
+        this.job = JobGenerator.oneBatchJob();
+        this.task = JobGenerator.batchTasks(job).getValue();
+        this.grpcJob = V3GrpcModelConverters.toGrpcJob(job);
+        this.grpcTask = V3GrpcModelConverters.toGrpcTask(task, LOG_STORAGE_INFO);
+    }
+
+    @Benchmark
+    public com.netflix.titus.grpc.protogen.Job toGrpcJob() {
+        return V3GrpcModelConverters.toGrpcJob(job);
+    }
+
+    @Benchmark
+    public Job toCoreJob() {
+        return V3GrpcModelConverters.toCoreJob(grpcJob);
+    }
+
+    @Benchmark
+    public Job jobRoundTrip() {
+        return V3GrpcModelConverters.toCoreJob(V3GrpcModelConverters.toGrpcJob(job));
+    }
+
+    @Benchmark
+    public com.netflix.titus.grpc.protogen.Task toGrpcTask() {
+        return V3GrpcModelConverters.toGrpcTask(task, LOG_STORAGE_INFO);
+    }
+
+    @Benchmark
+    public Task toCoreTask() {
+        return V3GrpcModelConverters.toCoreTask(job, grpcTask);
+    }
+
+    @Benchmark
+    public Task taskRoundTrip() {
+        return V3GrpcModelConverters.toCoreTask(job, V3GrpcModelConverters.toGrpcTask(task, LOG_STORAGE_INFO));
+    }
+}
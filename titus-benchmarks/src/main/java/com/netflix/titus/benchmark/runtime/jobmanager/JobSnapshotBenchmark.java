@@ -0,0 +1,87 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.benchmark.runtime.jobmanager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.TaskState;
+import com.netflix.titus.api.jobmanager.model.job.TaskStatus;
+import com.netflix.titus.api.jobmanager.model.job.ext.BatchJobExt;
+import com.netflix.titus.runtime.connector.jobmanager.JobSnapshot;
+import com.netflix.titus.testkit.model.job.JobDescriptorGenerator;
+import com.netflix.titus.testkit.model.job.JobGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of applying a single task update to the replicated job snapshot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JobSnapshotBenchmark {
+
+    private static final int TASKS_PER_JOB = 10;
+
+    @Param({"100", "1000", "5000"})
+    public int jobCount;
+
+    private JobSnapshot snapshot;
+    private Task updatedTask;
+
+    @Setup
+    public void setUp() {
+        Map<String, Job<?>> jobsById = new HashMap<>();
+        Map<String, List<Task>> tasksByJobId = new HashMap<>();
+
+        List<Job<BatchJobExt>> jobs = JobGenerator.batchJobs(JobDescriptorGenerator.batchJobDescriptor(TASKS_PER_JOB)).getValues(jobCount);
+        for (Job<BatchJobExt> job : jobs) {
+            jobsById.put(job.getId(), job);
+            tasksByJobId.put(job.getId(), new ArrayList<>(JobGenerator.batchTasks(job).getValues(TASKS_PER_JOB)));
+        }
+        this.snapshot = new JobSnapshot("benchmark", jobsById, tasksByJobId);
+
+        Task task = tasksByJobId.get(jobs.get(jobCount / 2).getId()).get(0);
+        this.updatedTask = task.toBuilder()
+                .withStatus(TaskStatus.newBuilder().withState(TaskState.Started).withReasonCode("benchmark").build())
+                .build();
+    }
+
+    @Benchmark
+    public Optional<JobSnapshot> updateTask() {
+        return snapshot.updateTask(updatedTask);
+    }
+}
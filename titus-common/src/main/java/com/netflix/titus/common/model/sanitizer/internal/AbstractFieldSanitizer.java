@@ -18,6 +18,7 @@ package com.netflix.titus.common.model.sanitizer.internal;
 
 import java.lang.reflect.Field;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
@@ -31,18 +32,27 @@ abstract class AbstractFieldSanitizer<CONTEXT> implements Function<Object, Optio
     protected Optional<Object> apply(Object entity, CONTEXT context) {
         JavaBeanReflection javaBeanRefl = JavaBeanReflection.forType(entity.getClass());
 
-        Map<Field, Object> fixedValues = new HashMap<>();
-        javaBeanRefl.getFields().forEach(field -> {
-            Object fieldValue = javaBeanRefl.getFieldValue(entity, field);
-            sanitizeFieldValue(field, fieldValue, context).ifPresent(newValue -> fixedValues.put(field, newValue));
-        });
+        // Most entities need no change, so the map is created only when the first fixed value is found.
+        Map<Field, Object> fixedValues = null;
+        List<JavaBeanReflection.BeanField> beanFields = javaBeanRefl.getBeanFields();
+        for (int i = 0; i < beanFields.size(); i++) {
+            JavaBeanReflection.BeanField beanField = beanFields.get(i);
+            Object fieldValue = javaBeanRefl.getFieldValue(entity, beanField.getField());
+            Optional<Object> newValue = sanitizeFieldValue(beanField, fieldValue, context);
+            if (newValue.isPresent()) {
+                if (fixedValues == null) {
+                    fixedValues = new HashMap<>();
+                }
+                fixedValues.put(beanField.getField(), newValue.get());
+            }
+        }
 
-        if (fixedValues.isEmpty()) {
+        if (fixedValues == null) {
             return Optional.empty();
         }
 
         return Optional.of(javaBeanRefl.create(entity, fixedValues));
     }
 
-    protected abstract Optional<Object> sanitizeFieldValue(Field field, Object value, CONTEXT context);
+    protected abstract Optional<Object> sanitizeFieldValue(JavaBeanReflection.BeanField beanField, Object value, CONTEXT context);
 }
@@ -24,11 +24,8 @@ import java.util.function.Function;
 
 import com.google.common.base.Preconditions;
 import com.netflix.titus.common.model.sanitizer.FieldSanitizer;
-import com.netflix.titus.common.util.ReflectionExt;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
-import org.springframework.expression.ExpressionParser;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
 
 import static com.netflix.titus.common.util.ReflectionExt.isNumeric;
 import static java.lang.String.format;
@@ -41,7 +38,6 @@ public class AnnotationBasedSanitizer extends AbstractFieldSanitizer<Object> {
 
     private final static ConcurrentMap<Field, SanitizerInfo> FIELD_SANITIZER_INFOS = new ConcurrentHashMap<>();
 
-    private final ExpressionParser parser = new SpelExpressionParser();
     private final EvaluationContext spelContext;
     private final Function<Class<?>, Boolean> innerEntityPredicate;
 
@@ -57,7 +53,9 @@ public class AnnotationBasedSanitizer extends AbstractFieldSanitizer<Object> {
     }
 
     @Override
-    protected Optional<Object> sanitizeFieldValue(Field field, Object value, Object context) {
+    protected Optional<Object> sanitizeFieldValue(JavaBeanReflection.BeanField beanField, Object value, Object context) {
+        Field field = beanField.getField();
+
         // If has annotation, sanitize
         SanitizerInfo sanitizerInfo = getSanitizerInfo(field);
         if (sanitizerInfo != EMPTY_SANITIZER_INFO) {
@@ -71,8 +69,7 @@ public class AnnotationBasedSanitizer extends AbstractFieldSanitizer<Object> {
             return Optional.empty();
         }
         // Skip primitive type or enum or collections/maps/optional
-        Class<?> fieldType = field.getType();
-        if (ReflectionExt.isStandardDataType(fieldType) || value.getClass().isEnum() || ReflectionExt.isContainerType(field)) {
+        if (beanField.isLeaf() || value.getClass().isEnum()) {
             return Optional.empty();
         }
 
@@ -142,6 +139,10 @@ public class AnnotationBasedSanitizer extends AbstractFieldSanitizer<Object> {
     }
 
     private SanitizerInfo getSanitizerInfo(Field field) {
+        SanitizerInfo sanitizerInfo = FIELD_SANITIZER_INFOS.get(field);
+        if (sanitizerInfo != null) {
+            return sanitizerInfo;
+        }
         return FIELD_SANITIZER_INFOS.computeIfAbsent(field, f -> {
             FieldSanitizer annotation = f.getAnnotation(FieldSanitizer.class);
             return annotation == null ? EMPTY_SANITIZER_INFO : buildSanitizerInfo(field, annotation);
@@ -169,7 +170,7 @@ public class AnnotationBasedSanitizer extends AbstractFieldSanitizer<Object> {
         }
         Preconditions.checkArgument(!(hasSanitizer && hasAdjuster), "Sanitizer and adjuster cannot be used at the same time in field: " + field);
 
-        Expression adjusterExpression = !hasAdjuster ? null : parser.parseExpression(annotation.adjuster());
+        Expression adjusterExpression = !hasAdjuster ? null : SpELExpressions.parse(annotation.adjuster());
         return new SanitizerInfo(numeric, serializer, Optional.ofNullable(adjusterExpression), annotation.atLeast(), annotation.atMost());
     }
 
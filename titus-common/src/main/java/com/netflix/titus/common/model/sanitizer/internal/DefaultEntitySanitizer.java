@@ -23,6 +23,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -56,13 +58,15 @@ public class DefaultEntitySanitizer implements EntitySanitizer {
                                   Map<String, Object> registeredBeans,
                                   Function<Class<?>, Optional<ConstraintValidator<?, ?>>> applicationValidatorFactory) {
 
-        Supplier<EvaluationContext> spelContextFactory = () -> {
-            StandardEvaluationContext context = new StandardEvaluationContext();
-            registeredFunctions.forEach(context::registerFunction);
-            context.setBeanResolver((ctx, beanName) -> registeredBeans.get(beanName));
-            context.setMethodResolvers(Collections.singletonList(new ReflectiveMethodResolver()));
-            return context;
-        };
+        // A single evaluation context is shared by all expressions, so the property and method resolution caches
+        // it holds are built once, and not per validator instance.
+        StandardEvaluationContext spelContext = new StandardEvaluationContext();
+        registeredFunctions.forEach(spelContext::registerFunction);
+        spelContext.setBeanResolver((ctx, beanName) -> registeredBeans.get(beanName));
+        spelContext.setMethodResolvers(Collections.singletonList(new ReflectiveMethodResolver()));
+        Supplier<EvaluationContext> spelContextFactory = () -> spelContext;
+
+        Function<Class<?>, Boolean> cachedIncludesPredicate = cached(includesPredicate);
 
         this.validator = Validation.buildDefaultValidatorFactory()
                 .usingContext()
@@ -72,12 +76,12 @@ public class DefaultEntitySanitizer implements EntitySanitizer {
 
         List<Function<Object, Optional<Object>>> allSanitizers = new ArrayList<>();
         if (annotationSanitizersEnabled) {
-            allSanitizers.add(new AnnotationBasedSanitizer(spelContextFactory.get(), includesPredicate));
+            allSanitizers.add(new AnnotationBasedSanitizer(spelContext, cachedIncludesPredicate));
         }
         if (stdValueSanitizersEnabled) {
-            allSanitizers.add(new StdValueSanitizer(includesPredicate));
+            allSanitizers.add(new StdValueSanitizer(cachedIncludesPredicate));
         }
-        allSanitizers.add(new TemplateSanitizer(templateResolver, includesPredicate));
+        allSanitizers.add(new TemplateSanitizer(templateResolver, cachedIncludesPredicate));
         allSanitizers.addAll(sanitizers);
         this.sanitizers = allSanitizers;
     }
@@ -97,4 +101,20 @@ public class DefaultEntitySanitizer implements EntitySanitizer {
         }
         return sanitized == entity ? Optional.empty() : Optional.of((T) sanitized);
     }
+
+    /**
+     * The includes predicate is evaluated for each nested value of a sanitized entity, and is typically based on the
+     * class package name, which is expensive to resolve. As the predicate depends on the type only, its results are cached.
+     */
+    private static Function<Class<?>, Boolean> cached(Function<Class<?>, Boolean> includesPredicate) {
+        ConcurrentMap<Class<?>, Boolean> results = new ConcurrentHashMap<>();
+        return type -> {
+            Boolean result = results.get(type);
+            if (result == null) {
+                result = includesPredicate.apply(type);
+                results.put(type, result);
+            }
+            return result;
+        };
+    }
 }
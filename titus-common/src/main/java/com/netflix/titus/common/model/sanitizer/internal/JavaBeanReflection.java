@@ -28,17 +28,24 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import com.google.common.base.Preconditions;
+import com.netflix.titus.common.model.sanitizer.Template;
+import com.netflix.titus.common.util.ReflectionExt;
 
 import static com.netflix.titus.common.util.ReflectionExt.getAllFields;
 import static java.lang.String.format;
 import static java.util.Arrays.stream;
 
+/**
+ * Per class reflection plan, computed once for each entity type. Besides the constructor and the fields it maps to,
+ * it keeps field properties, which the sanitizers would otherwise resolve for each visited entity.
+ */
 class JavaBeanReflection {
 
     private static final ConcurrentMap<Class<?>, JavaBeanReflection> CACHE = new ConcurrentHashMap<>();
 
     private final Constructor<?> constructor;
     private final List<Field> fields;
+    private final List<BeanField> beanFields;
 
     JavaBeanReflection(Class<?> entityType) {
         Preconditions.checkArgument(entityType.getConstructors().length == 1, "Expected single constructor in class %s", entityType);
@@ -54,6 +61,7 @@ class JavaBeanReflection {
                     return field;
                 })
                 .collect(Collectors.toList());
+        this.beanFields = fields.stream().map(BeanField::new).collect(Collectors.toList());
     }
 
     Object create(Object entity, Map<Field, Object> overrides) {
@@ -77,6 +85,10 @@ class JavaBeanReflection {
         return fields;
     }
 
+    List<BeanField> getBeanFields() {
+        return beanFields;
+    }
+
     Object getFieldValue(Object entity, Field field) {
         try {
             return field.get(entity);
@@ -86,6 +98,53 @@ class JavaBeanReflection {
     }
 
     static JavaBeanReflection forType(Class<?> entityType) {
-        return CACHE.computeIfAbsent(entityType, JavaBeanReflection::new);
+        // Lookup first, as computeIfAbsent locks the map bin even if the value is present.
+        JavaBeanReflection javaBeanRefl = CACHE.get(entityType);
+        return javaBeanRefl != null ? javaBeanRefl : CACHE.computeIfAbsent(entityType, JavaBeanReflection::new);
+    }
+
+    static class BeanField {
+
+        private final Field field;
+        private final Class<?> type;
+        private final boolean primitive;
+        private final boolean leaf;
+        private final Template template;
+
+        private BeanField(Field field) {
+            this.field = field;
+            this.type = field.getType();
+            this.primitive = type.isPrimitive();
+            this.leaf = ReflectionExt.isStandardDataType(type) || ReflectionExt.isContainerType(field);
+            this.template = field.getAnnotation(Template.class);
+        }
+
+        Field getField() {
+            return field;
+        }
+
+        String getName() {
+            return field.getName();
+        }
+
+        Class<?> getType() {
+            return type;
+        }
+
+        boolean isPrimitive() {
+            return primitive;
+        }
+
+        /**
+         * Returns true for fields of a standard data type (primitives, their wrappers, strings, etc), or a container
+         * type (collections, maps, optional), which are never processed as nested entities.
+         */
+        boolean isLeaf() {
+            return leaf;
+        }
+
+        Template getTemplate() {
+            return template;
+        }
     }
 }
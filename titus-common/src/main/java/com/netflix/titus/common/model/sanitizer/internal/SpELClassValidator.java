@@ -25,15 +25,12 @@ import com.netflix.titus.common.model.sanitizer.ClassInvariant;
 import com.netflix.titus.common.model.sanitizer.VerifierMode;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
-import org.springframework.expression.ExpressionParser;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
 
 /**
  * Spring EL JavaBean validation framework class-level validator.
  */
 public class SpELClassValidator implements ConstraintValidator<ClassInvariant, Object> {
 
-    private final ExpressionParser parser = new SpelExpressionParser();
     private final VerifierMode verifierMode;
     private final Supplier<EvaluationContext> spelContextFactory;
 
@@ -52,9 +49,9 @@ public class SpELClassValidator implements ConstraintValidator<ClassInvariant, O
         this.enabled = verifierMode.includes(constraintAnnotation.mode());
         if (enabled) {
             if (!constraintAnnotation.condition().isEmpty()) {
-                this.conditionExpression = parser.parseExpression(constraintAnnotation.condition());
+                this.conditionExpression = SpELExpressions.parse(constraintAnnotation.condition());
             } else if (!constraintAnnotation.expr().isEmpty()) {
-                this.exprExpression = parser.parseExpression(constraintAnnotation.expr());
+                this.exprExpression = SpELExpressions.parse(constraintAnnotation.expr());
             }
             this.spelContext = spelContextFactory.get();
         }
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.common.model.sanitizer.internal;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.common.TemplateParserContext;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+/**
+ * Spring EL expression parsing shared by the sanitizer and validators. Expressions are parsed in the mixed compiler
+ * mode, in which an expression is compiled to bytecode after it was evaluated a number of times in the interpreted
+ * mode. If an expression cannot be compiled, or its compiled form fails (for example when evaluated against an object
+ * of a different type), SpEL falls back to the interpreted mode.
+ */
+final class SpELExpressions {
+
+    private static final ExpressionParser PARSER = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.MIXED, SpELExpressions.class.getClassLoader())
+    );
+
+    private static final TemplateParserContext TEMPLATE_PARSER_CONTEXT = new TemplateParserContext();
+
+    /**
+     * Message templates come mostly from a fixed set of annotations, but class level validators may build them
+     * dynamically, so the cache is bounded.
+     */
+    private static final int MAX_CACHED_TEMPLATES = 1_000;
+
+    private static final LoadingCache<String, Expression> TEMPLATES = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_TEMPLATES)
+            .build(template -> PARSER.parseExpression(template, TEMPLATE_PARSER_CONTEXT));
+
+    private SpELExpressions() {
+    }
+
+    static Expression parse(String expression) {
+        return PARSER.parseExpression(expression);
+    }
+
+    static Expression parseTemplate(String template) {
+        return TEMPLATES.get(template);
+    }
+}
@@ -24,12 +24,9 @@ import com.netflix.titus.common.model.sanitizer.FieldInvariant;
 import com.netflix.titus.common.model.sanitizer.VerifierMode;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
-import org.springframework.expression.ExpressionParser;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
 
 public class SpELFieldValidator implements ConstraintValidator<FieldInvariant, Object> {
 
-    private final ExpressionParser parser = new SpelExpressionParser();
     private final VerifierMode verifierMode;
     private final Supplier<EvaluationContext> spelContextFactory;
 
@@ -46,7 +43,7 @@ public class SpELFieldValidator implements ConstraintValidator<FieldInvariant, O
     public void initialize(FieldInvariant constraintAnnotation) {
         this.enabled = verifierMode.includes(constraintAnnotation.mode());
         if (enabled) {
-            this.expression = parser.parseExpression(constraintAnnotation.value());
+            this.expression = SpELExpressions.parse(constraintAnnotation.value());
             this.spelContext = spelContextFactory.get();
         }
     }
@@ -16,7 +16,6 @@
 
 package com.netflix.titus.common.model.sanitizer.internal;
 
-import java.lang.reflect.Field;
 import java.util.Optional;
 import java.util.function.Function;
 
@@ -34,11 +33,11 @@ public class StdValueSanitizer extends AbstractFieldSanitizer<Object> {
     }
 
     @Override
-    protected Optional<Object> sanitizeFieldValue(Field field, Object fieldValue, Object context) {
-        Class<?> fieldType = field.getType();
-        if (fieldType.isPrimitive()) {
+    protected Optional<Object> sanitizeFieldValue(JavaBeanReflection.BeanField beanField, Object fieldValue, Object context) {
+        if (beanField.isPrimitive()) {
             return Optional.empty();
         }
+        Class<?> fieldType = beanField.getType();
         if (fieldType == String.class) {
             return doStringCleanup((String) fieldValue);
         }
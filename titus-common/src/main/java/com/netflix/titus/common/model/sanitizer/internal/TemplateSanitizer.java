@@ -16,14 +16,12 @@
 
 package com.netflix.titus.common.model.sanitizer.internal;
 
-import java.lang.reflect.Field;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
 
 import com.netflix.titus.common.model.sanitizer.Template;
-import com.netflix.titus.common.util.ReflectionExt;
 
 /**
  */
@@ -44,38 +42,38 @@ public class TemplateSanitizer extends AbstractFieldSanitizer<String> {
     }
 
     @Override
-    protected Optional<Object> sanitizeFieldValue(Field field, Object value, String path) {
-        String fieldPath = path.isEmpty() ? field.getName() : path + '.' + field.getName();
+    protected Optional<Object> sanitizeFieldValue(JavaBeanReflection.BeanField beanField, Object value, String path) {
+        String fieldPath = path.isEmpty() ? beanField.getName() : path + '.' + beanField.getName();
         if (value == null) {
-            return isEnabled(field) ? templateResolver.apply(fieldPath) : Optional.empty();
+            return isEnabled(beanField) ? templateResolver.apply(fieldPath) : Optional.empty();
         }
-        Class<?> fieldType = field.getType();
+        Class<?> fieldType = beanField.getType();
 
         // Process empty collection/map/optional/string
         if (Collection.class.isAssignableFrom(fieldType)) {
             Collection<?> collectionValue = (Collection<?>) value;
-            if (collectionValue.isEmpty() && replaceEmptyValue(field)) {
+            if (collectionValue.isEmpty() && replaceEmptyValue(beanField)) {
                 return templateResolver.apply(fieldPath);
             }
         } else if (Map.class.isAssignableFrom(fieldType)) {
             Map<?, ?> mapValue = (Map<?, ?>) value;
-            if (mapValue.isEmpty() && replaceEmptyValue(field)) {
+            if (mapValue.isEmpty() && replaceEmptyValue(beanField)) {
                 return templateResolver.apply(fieldPath);
             }
         } else if (Optional.class == fieldType) {
             Optional optionalValue = (Optional) value;
-            if (!optionalValue.isPresent() && replaceEmptyValue(field)) {
+            if (!optionalValue.isPresent() && replaceEmptyValue(beanField)) {
                 return templateResolver.apply(fieldPath);
             }
         } else if (String.class == fieldType) {
             String stringValue = (String) value;
-            if (stringValue.isEmpty() && replaceEmptyValue(field)) {
+            if (stringValue.isEmpty() && replaceEmptyValue(beanField)) {
                 return templateResolver.apply(fieldPath);
             }
         }
 
         // Skip primitive type or collections/maps/optional
-        if (ReflectionExt.isStandardDataType(fieldType) || ReflectionExt.isContainerType(field)) {
+        if (beanField.isLeaf()) {
             return Optional.empty();
         }
 
@@ -85,12 +83,12 @@ public class TemplateSanitizer extends AbstractFieldSanitizer<String> {
         return apply(value, fieldPath);
     }
 
-    private static boolean isEnabled(Field field) {
-        return field.getAnnotation(Template.class) != null;
+    private static boolean isEnabled(JavaBeanReflection.BeanField beanField) {
+        return beanField.getTemplate() != null;
     }
 
-    private static boolean replaceEmptyValue(Field field) {
-        Template annotation = field.getAnnotation(Template.class);
+    private static boolean replaceEmptyValue(JavaBeanReflection.BeanField beanField) {
+        Template annotation = beanField.getTemplate();
         return annotation != null && annotation.onEmpty();
     }
 }
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.common.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.base.Preconditions;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.MapEntry;
+import com.google.protobuf.Message;
+import com.netflix.titus.common.util.tuple.Pair;
+
+/**
+ * Compiled form of a field name set (with nested fields given in the dot notation), used to create protobuf objects
+ * with only the indicated fields included. Unlike {@link ProtobufCopy}, which walks all fields of each copied
+ * object, the mask is resolved once per message type to the list of included field descriptors, and only those
+ * fields are visited. A mask should be compiled once per query, and applied to all query results.
+ * <p>
+ * Converters from the core model may also use {@link #includes(Descriptors.FieldDescriptor)} to skip building
+ * the excluded fields at all.
+ */
+public final class ProtobufFieldMask {
+
+    private final Set<String> names;
+    private final Map<String, Optional<ProtobufFieldMask>> fields;
+    private final ConcurrentMap<Descriptors.Descriptor, List<Descriptors.FieldDescriptor>> resolvedFields = new ConcurrentHashMap<>();
+
+    private ProtobufFieldMask(Set<String> names, Map<String, Optional<ProtobufFieldMask>> fields) {
+        this.names = names;
+        this.fields = fields;
+    }
+
+    /**
+     * Returns true if the given field (as a whole or some of its nested fields) is included in the mask.
+     */
+    public boolean includes(Descriptors.FieldDescriptor field) {
+        return fields.containsKey(field.getName());
+    }
+
+    /**
+     * Returns true if the given name is one of the names this mask was compiled from. Used for filtering map entries
+     * by key. As in {@link ProtobufCopy}, the names are not split here, so keys with dots can be selected
+     * (for example 'task.index' with 'taskContext.task.index').
+     */
+    public boolean includes(String name) {
+        return names.contains(name);
+    }
+
+    /**
+     * Returns a mask for the nested fields of the given field, or {@link Optional#empty()} if the field is included
+     * as a whole (or not included at all).
+     */
+    public Optional<ProtobufFieldMask> getNestedMask(Descriptors.FieldDescriptor field) {
+        return fields.getOrDefault(field.getName(), Optional.empty());
+    }
+
+    /**
+     * Applies the mask to a message, which is not yet projected.
+     */
+    public <T extends Message> T apply(T entity) {
+        Message.Builder builder = entity.newBuilderForType();
+        for (Descriptors.FieldDescriptor field : resolve(entity.getDescriptorForType())) {
+            if (field.isRepeated()) {
+                if (entity.getRepeatedFieldCount(field) > 0) {
+                    copyRepeated(entity, builder, field);
+                }
+            } else if (entity.hasField(field)) {
+                Object value = entity.getField(field);
+                Optional<ProtobufFieldMask> nested = getNestedMask(field);
+                if (nested.isPresent() && value instanceof Message) {
+                    builder.setField(field, nested.get().apply((Message) value));
+                } else {
+                    builder.setField(field, value);
+                }
+            }
+        }
+        return (T) builder.build();
+    }
+
+    /**
+     * Applies the mask to the given field value of a message built directly by a converter.
+     */
+    public <T extends Message> T applyNested(Descriptors.FieldDescriptor field, T value) {
+        Optional<ProtobufFieldMask> nested = getNestedMask(field);
+        return nested.isPresent() ? nested.get().apply(value) : value;
+    }
+
+    private void copyRepeated(Message entity, Message.Builder builder, Descriptors.FieldDescriptor field) {
+        Optional<ProtobufFieldMask> nested = getNestedMask(field);
+        int count = entity.getRepeatedFieldCount(field);
+        if (!nested.isPresent()) {
+            for (int i = 0; i < count; i++) {
+                builder.addRepeatedField(field, entity.getRepeatedField(field, i));
+            }
+            return;
+        }
+        ProtobufFieldMask nestedMask = nested.get();
+        for (int i = 0; i < count; i++) {
+            Object item = entity.getRepeatedField(field, i);
+            if (item instanceof MapEntry) {
+                // Maps with string keys are filtered by key, others are copied as is.
+                Object key = ((MapEntry) item).getKey();
+                if (!(key instanceof String) || nestedMask.includes((String) key)) {
+                    builder.addRepeatedField(field, item);
+                }
+            } else if (item instanceof Message) {
+                builder.addRepeatedField(field, nestedMask.apply((Message) item));
+            } else {
+                builder.addRepeatedField(field, item);
+            }
+        }
+    }
+
+    private List<Descriptors.FieldDescriptor> resolve(Descriptors.Descriptor descriptor) {
+        return resolvedFields.computeIfAbsent(descriptor, d -> {
+            List<Descriptors.FieldDescriptor> included = new ArrayList<>(fields.size());
+            fields.keySet().forEach(name -> {
+                Descriptors.FieldDescriptor field = d.findFieldByName(name);
+                if (field != null) {
+                    included.add(field);
+                }
+            });
+            return Collections.unmodifiableList(included);
+        });
+    }
+
+    public static ProtobufFieldMask compile(Collection<String> fieldNames) {
+        Preconditions.checkArgument(!fieldNames.isEmpty(), "Field mask, with no field names provided");
+        return compileNonEmpty(new HashSet<>(fieldNames));
+    }
+
+    private static ProtobufFieldMask compileNonEmpty(Set<String> fieldNames) {
+        Set<String> wholeFields = new HashSet<>();
+        Map<String, Set<String>> nestedFields = new HashMap<>();
+        for (String name : fieldNames) {
+            Pair<String, String> parts = PropertiesExt.split(name, 1);
+            if (parts == null) {
+                if (!name.isEmpty()) {
+                    wholeFields.add(name);
+                }
+            } else {
+                nestedFields.computeIfAbsent(parts.getLeft(), n -> new HashSet<>()).add(parts.getRight());
+            }
+        }
+
+        Map<String, Optional<ProtobufFieldMask>> fields = new HashMap<>();
+        wholeFields.forEach(name -> fields.put(name, Optional.empty()));
+        nestedFields.forEach((name, nested) -> {
+            // Field requested as a whole wins over its nested field selection.
+            if (!wholeFields.contains(name)) {
+                fields.put(name, Optional.of(compileNonEmpty(nested)));
+            }
+        });
+        return new ProtobufFieldMask(fieldNames, fields);
+    }
+}
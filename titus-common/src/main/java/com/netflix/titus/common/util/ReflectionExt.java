@@ -138,6 +138,12 @@ public final class ReflectionExt {
     }
 
     public static Optional<Method> findInterfaceMethod(Method method) {
+        // This method is called on each proxied method invocation. As computeIfAbsent locks the map bin even if the
+        // value is present, lookup the cache first.
+        Optional<Method> cached = FIND_INTERFACE_METHOD_CACHE.get(method);
+        if (cached != null) {
+            return cached;
+        }
         return FIND_INTERFACE_METHOD_CACHE.computeIfAbsent(method, m -> {
             if (method.getDeclaringClass().isInterface()) {
                 return Optional.of(method);
@@ -28,4 +28,16 @@ public class Caches {
                 .build();
         return new InstrumentedCache<>(metricNameRoot, cache, registry);
     }
+
+    /**
+     * Cache with weak keys, compared by identity. Suitable for memoizing values computed from immutable objects.
+     */
+    public static <K, V> Cache<K, V> instrumentedIdentityCacheWithMaxSize(long maxSize, String metricNameRoot, Registry registry) {
+        com.github.benmanes.caffeine.cache.Cache<K, V> cache = Caffeine.newBuilder()
+                .weakKeys()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        return new InstrumentedCache<>(metricNameRoot, cache, registry);
+    }
 }
@@ -21,6 +21,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import javax.inject.Singleton;
@@ -60,17 +62,11 @@ public class ProxyMethodInterceptor implements MethodInterceptor {
                 }
             });
 
-    private final LoadingCache<ClassMethodPair, Optional<InstanceWrapper>> methodToWrapperMap = CacheBuilder.newBuilder()
-            .build(new CacheLoader<ClassMethodPair, Optional<InstanceWrapper>>() {
-                @Override
-                public Optional<InstanceWrapper> load(ClassMethodPair id) throws Exception {
-                    InstanceWrapper wrapper = instanceToWrapperMap.get(id.instanceType);
-                    if (wrapper.isWrapped(id.method)) {
-                        return Optional.of(wrapper);
-                    }
-                    return Optional.empty();
-                }
-            });
+    /**
+     * Intercepted method to its binding. The binding is resolved on the first call, so subsequent calls cost
+     * a single map lookup.
+     */
+    private final ConcurrentMap<Method, Optional<MethodBinding>> methodBindings = new ConcurrentHashMap<>();
 
     private final Provider<ActivationLifecycle> activationLifecycle;
     private final Provider<TitusRuntime> titusRuntimeProvider;
@@ -83,16 +79,27 @@ public class ProxyMethodInterceptor implements MethodInterceptor {
 
     @Override
     public Object invoke(MethodInvocation methodInvocation) throws Throwable {
-        Class<?> instanceType = ((Method) methodInvocation.getStaticPart()).getDeclaringClass();
-        Method effectiveMethod = ReflectionExt.findInterfaceMethod(methodInvocation.getMethod()).orElse(methodInvocation.getMethod());
-        ClassMethodPair id = new ClassMethodPair(instanceType, effectiveMethod);
-        Optional<InstanceWrapper> wrapper = methodToWrapperMap.get(id);
-        if (wrapper.isPresent()) {
-            return wrapper.get().invoke(methodInvocation, effectiveMethod);
+        Method method = (Method) methodInvocation.getStaticPart();
+        Optional<MethodBinding> binding = methodBindings.get(method);
+        if (binding == null) {
+            binding = methodBindings.computeIfAbsent(method, this::resolveBinding);
+        }
+        if (binding.isPresent()) {
+            return binding.get().invoke(methodInvocation);
         }
         return methodInvocation.proceed();
     }
 
+    private Optional<MethodBinding> resolveBinding(Method method) {
+        Class<?> instanceType = method.getDeclaringClass();
+        Method effectiveMethod = ReflectionExt.findInterfaceMethod(method).orElse(method);
+        InstanceWrapper wrapper = instanceToWrapperMap.getUnchecked(instanceType);
+        if (wrapper.isWrapped(effectiveMethod)) {
+            return Optional.of(new MethodBinding(wrapper, effectiveMethod));
+        }
+        return Optional.empty();
+    }
+
     private InstanceWrapper buildProxy(Class<?> instanceType) {
         Optional<ProxyConfiguration> configurationOpt = findProxyConfiguration(instanceType);
         if (!configurationOpt.isPresent()) {
@@ -129,37 +136,17 @@ public class ProxyMethodInterceptor implements MethodInterceptor {
         return Optional.of(interf);
     }
 
-    static class ClassMethodPair {
-        private final Class<?> instanceType;
-        private final Method method;
-
-        ClassMethodPair(Class<?> instanceType, Method method) {
-            this.instanceType = instanceType;
-            this.method = method;
-        }
-
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) {
-                return true;
-            }
-            if (o == null || getClass() != o.getClass()) {
-                return false;
-            }
-
-            ClassMethodPair that = (ClassMethodPair) o;
+    static class MethodBinding {
+        private final InstanceWrapper wrapper;
+        private final Method effectiveMethod;
 
-            if (instanceType != that.instanceType) {
-                return false;
-            }
-            return method != null ? method.equals(that.method) : that.method == null;
+        MethodBinding(InstanceWrapper wrapper, Method effectiveMethod) {
+            this.wrapper = wrapper;
+            this.effectiveMethod = effectiveMethod;
         }
 
-        @Override
-        public int hashCode() {
-            int result = instanceType != null ? instanceType.hashCode() : 0;
-            result = 31 * result + (method != null ? method.hashCode() : 0);
-            return result;
+        Object invoke(MethodInvocation methodInvocation) throws Throwable {
+            return wrapper.invoke(methodInvocation, effectiveMethod);
         }
     }
 
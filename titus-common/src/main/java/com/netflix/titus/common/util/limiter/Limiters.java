@@ -23,6 +23,7 @@ import com.netflix.titus.common.util.limiter.tokenbucket.RefillStrategy;
 import com.netflix.titus.common.util.limiter.tokenbucket.TokenBucket;
 import com.netflix.titus.common.util.limiter.tokenbucket.internal.DefaultTokenBucket;
 import com.netflix.titus.common.util.limiter.tokenbucket.internal.FixedIntervalRefillStrategy;
+import com.netflix.titus.common.util.limiter.tokenbucket.internal.LockFreeTokenBucket;
 
 public class Limiters {
 
@@ -41,4 +42,14 @@ public class Limiters {
         return tokenBucket;
     }
 
+    /**
+     * Create a {@link TokenBucket} with a fixed interval refill, which behaves the same way as the one created by
+     * {@link #createFixedIntervalTokenBucket(String, long, long, long, long, TimeUnit)}, but does not use locks.
+     * Use it for buckets shared by many concurrent callers.
+     */
+    public static TokenBucket createLockFreeFixedIntervalTokenBucket(String name, long capacity, long initialNumberOfTokens,
+                                                                     long numberOfTokensPerInterval, long interval, TimeUnit unit) {
+        return new LockFreeTokenBucket(name, capacity, initialNumberOfTokens, numberOfTokensPerInterval, interval, unit, Stopwatch.createStarted());
+    }
+
 }
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.common.util.limiter.tokenbucket.internal;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Stopwatch;
+import com.google.common.base.Strings;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.netflix.titus.common.util.DateTimeExt;
+import com.netflix.titus.common.util.limiter.tokenbucket.RefillStrategy;
+import com.netflix.titus.common.util.limiter.tokenbucket.TokenBucket;
+
+/**
+ * {@link TokenBucket} with a fixed interval refill, equivalent to {@link DefaultTokenBucket} combined with
+ * {@link FixedIntervalRefillStrategy}, but without locks. The number of tokens and the last refill time are kept
+ * together in a single immutable state object, which is updated with compare-and-set. The refill is computed from
+ * the state, so it is applied atomically with the token take.
+ */
+public class LockFreeTokenBucket implements TokenBucket {
+
+    private final String name;
+    private final long capacity;
+    private final long numberOfTokensPerInterval;
+    private final long intervalInNanos;
+    private final Stopwatch stopwatch;
+    private final RefillStrategy refillStrategy;
+
+    private final AtomicReference<State> stateRef;
+
+    public LockFreeTokenBucket(String name,
+                               long capacity,
+                               long initialNumberOfTokens,
+                               long numberOfTokensPerInterval,
+                               long interval,
+                               TimeUnit unit,
+                               Stopwatch stopwatch) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(name), "Name must not be null or empty.");
+        Preconditions.checkArgument(capacity > 0, "Capacity must be greater than 0.");
+        Preconditions.checkArgument(initialNumberOfTokens >= 0, "Capacity must not be negative.");
+        Preconditions.checkArgument(numberOfTokensPerInterval >= 0, "Number of tokens per interval must not be negative.");
+        Preconditions.checkArgument(interval > 0, "Interval must be greater than 0.");
+
+        this.name = name;
+        this.capacity = capacity;
+        this.numberOfTokensPerInterval = numberOfTokensPerInterval;
+        this.intervalInNanos = unit.toNanos(interval);
+        this.stopwatch = stopwatch;
+        this.refillStrategy = new RefillStrategyView(
+                "FixedIntervalRefillStrategy{refillRate=" + DateTimeExt.toRateString(interval, numberOfTokensPerInterval, unit, "refill") + '}'
+        );
+
+        if (!stopwatch.isRunning()) {
+            stopwatch.start();
+        }
+
+        // Same as in FixedIntervalRefillStrategy, the first refill happens immediately.
+        this.stateRef = new AtomicReference<>(new State(initialNumberOfTokens, -intervalInNanos));
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public long getNumberOfTokens() {
+        return refillToNow().numberOfTokens;
+    }
+
+    @Override
+    public boolean tryTake() {
+        return tryTake(1);
+    }
+
+    @Override
+    public boolean tryTake(long numberOfTokens) {
+        Preconditions.checkArgument(numberOfTokens > 0, "Number of tokens must be greater than 0.");
+        Preconditions.checkArgument(numberOfTokens <= capacity, "Number of tokens must not be greater than the capacity.");
+
+        long elapsed = elapsedNanos();
+        while (true) {
+            State current = stateRef.get();
+            State refilled = current.refill(elapsed);
+            if (refilled.numberOfTokens < numberOfTokens) {
+                if (refilled != current) {
+                    // Failure is ok, as it means that some other thread already applied the refill.
+                    stateRef.compareAndSet(current, refilled);
+                }
+                return false;
+            }
+            if (stateRef.compareAndSet(current, new State(refilled.numberOfTokens - numberOfTokens, refilled.lastRefillTime))) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void take() {
+        take(1);
+    }
+
+    @Override
+    public void take(long numberOfTokens) {
+        Preconditions.checkArgument(numberOfTokens > 0, "Number of tokens must be greater than 0.");
+        Preconditions.checkArgument(numberOfTokens <= capacity, "Number of tokens must not be greater than the capacity.");
+
+        while (!tryTake(numberOfTokens)) {
+            long timeUntilNextRefill = refillStrategy.getTimeUntilNextRefill(TimeUnit.NANOSECONDS);
+            if (timeUntilNextRefill > 0) {
+                Uninterruptibles.sleepUninterruptibly(timeUntilNextRefill, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    @Override
+    public void refill(long numberOfTokens) {
+        while (true) {
+            State current = stateRef.get();
+            long newNumberOfTokens = Math.min(capacity, Math.max(0, current.numberOfTokens + numberOfTokens));
+            if (stateRef.compareAndSet(current, new State(newNumberOfTokens, current.lastRefillTime))) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public RefillStrategy getRefillStrategy() {
+        return refillStrategy;
+    }
+
+    private long elapsedNanos() {
+        return stopwatch.elapsed(TimeUnit.NANOSECONDS);
+    }
+
+    private State refillToNow() {
+        long elapsed = elapsedNanos();
+        while (true) {
+            State current = stateRef.get();
+            State refilled = current.refill(elapsed);
+            if (refilled == current || stateRef.compareAndSet(current, refilled)) {
+                return refilled;
+            }
+        }
+    }
+
+    private class State {
+
+        private final long numberOfTokens;
+        private final long lastRefillTime;
+
+        private State(long numberOfTokens, long lastRefillTime) {
+            this.numberOfTokens = numberOfTokens;
+            this.lastRefillTime = lastRefillTime;
+        }
+
+        private State refill(long elapsed) {
+            long numberOfIntervals = (elapsed - lastRefillTime) / intervalInNanos;
+            if (numberOfIntervals <= 0) {
+                return this;
+            }
+            long newLastRefillTime = lastRefillTime + numberOfIntervals * intervalInNanos;
+
+            // Avoid overflow, if the bucket was not used for a long time.
+            long missingTokens = capacity - numberOfTokens;
+            long newNumberOfTokens = numberOfTokensPerInterval > 0 && numberOfIntervals > missingTokens / numberOfTokensPerInterval
+                    ? capacity
+                    : Math.min(capacity, numberOfTokens + numberOfIntervals * numberOfTokensPerInterval);
+
+            return new State(newNumberOfTokens, newLastRefillTime);
+        }
+    }
+
+    /**
+     * Refills are applied by the bucket itself, when its state is updated. This view exposes the refill timing,
+     * and brings the bucket state up to date on each {@link #refill()} call.
+     */
+    private class RefillStrategyView implements RefillStrategy {
+
+        private final String toStringValue;
+
+        private RefillStrategyView(String toStringValue) {
+            this.toStringValue = toStringValue;
+        }
+
+        @Override
+        public long refill() {
+            long before = stateRef.get().numberOfTokens;
+            return Math.max(0, refillToNow().numberOfTokens - before);
+        }
+
+        @Override
+        public long getTimeUntilNextRefill(TimeUnit unit) {
+            long nextRefillTime = stateRef.get().lastRefillTime + intervalInNanos;
+            return unit.convert(Math.max(0, nextRefillTime - elapsedNanos()), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public String toString() {
+            return toStringValue;
+        }
+    }
+}
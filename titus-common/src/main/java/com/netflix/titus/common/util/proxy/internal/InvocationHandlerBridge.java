@@ -31,9 +31,10 @@ public class InvocationHandlerBridge<T> implements InvocationHandler {
     private final DefaultProxyInvocationChain<Object> chain;
 
     public InvocationHandlerBridge(ProxyInvocationHandler<Object> delegate, T instance) {
+        MethodHandleInvoker invoker = new MethodHandleInvoker(instance, instance.getClass().getInterfaces());
         this.chain = new DefaultProxyInvocationChain<>(Arrays.asList(
                 delegate,
-                (proxy, method, args, nativeHandler, chain) -> method.invoke(instance, args)
+                (proxy, method, args, nativeHandler, chain) -> invoker.invoke(method, args)
         ));
     }
 
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.common.util.proxy.internal;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Invokes methods on a target instance via method handles, instead of {@link Method#invoke(Object, Object...)}.
+ * The handles are bound to the instance, and resolved when the invoker is created for all methods of the given
+ * interfaces, or on the first call for any other method. Exceptions thrown by the target are wrapped in
+ * {@link InvocationTargetException}, the same way as {@link Method#invoke(Object, Object...)} does, so the
+ * invocation handlers see no difference. The wrapping is done at the target method boundary, so errors raised by
+ * the handle adaptation itself (for example {@link ClassCastException} for a wrong argument type) and {@link Error}s
+ * are not reported as thrown by the target.
+ */
+class MethodHandleInvoker {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private static final MethodHandle WRAP_TARGET_EXCEPTION;
+
+    static {
+        try {
+            WRAP_TARGET_EXCEPTION = LOOKUP.findStatic(
+                    MethodHandleInvoker.class, "wrapTargetException", MethodType.methodType(Object.class, Throwable.class)
+            );
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private final Object instance;
+    private final ConcurrentMap<Method, MethodHandle> handles = new ConcurrentHashMap<>();
+
+    MethodHandleInvoker(Object instance, Class<?>... apiInterfaces) {
+        this.instance = instance;
+        for (Class<?> apiInterface : apiInterfaces) {
+            for (Method method : apiInterface.getMethods()) {
+                handles.put(method, newHandle(method));
+            }
+        }
+    }
+
+    Object invoke(Method method, Object[] args) throws Throwable {
+        MethodHandle handle = handles.get(method);
+        if (handle == null) {
+            handle = handles.computeIfAbsent(method, this::newHandle);
+        }
+        return (Object) handle.invokeExact(args == null ? NO_ARGS : args);
+    }
+
+    private MethodHandle newHandle(Method method) {
+        try {
+            // Skip the access checks, so handles can be created for non-public interfaces as well.
+            method.setAccessible(true);
+            MethodHandle target = LOOKUP.unreflect(method);
+            MethodHandle exceptionHandler = MethodHandles.dropArguments(
+                    WRAP_TARGET_EXCEPTION.asType(MethodType.methodType(target.type().returnType(), Throwable.class)),
+                    1,
+                    target.type().parameterList()
+            );
+            return MethodHandles.catchException(target, Throwable.class, exceptionHandler)
+                    .bindTo(instance)
+                    .asSpreader(Object[].class, method.getParameterCount())
+                    .asType(INVOKER_TYPE);
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot create method handle for " + method, e);
+        }
+    }
+
+    private static Object wrapTargetException(Throwable e) throws Throwable {
+        if (e instanceof Error) {
+            throw e;
+        }
+        throw new InvocationTargetException(e);
+    }
+}
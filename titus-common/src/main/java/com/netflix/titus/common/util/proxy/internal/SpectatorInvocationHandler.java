@@ -18,12 +18,16 @@ package com.netflix.titus.common.util.proxy.internal;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 
 import com.netflix.spectator.api.BasicTag;
+import com.netflix.spectator.api.Counter;
 import com.netflix.spectator.api.Id;
 import com.netflix.spectator.api.Registry;
 import com.netflix.spectator.api.Tag;
+import com.netflix.spectator.api.Timer;
 import com.netflix.titus.common.runtime.TitusRuntime;
 import com.netflix.titus.common.util.time.Clock;
 import rx.Completable;
@@ -50,6 +54,11 @@ public class SpectatorInvocationHandler<API, NATIVE> extends InterceptingInvocat
     private final String resultSubscriptionEmitMetricName;
     private final String resultSubscriptionTimeMetricName;
 
+    /**
+     * Meters of successful invocations, which are recorded on every call, are resolved once per method.
+     */
+    private final ConcurrentMap<Method, MethodMetrics> methodMetrics = new ConcurrentHashMap<>();
+
     public SpectatorInvocationHandler(Class<API> apiInterface, TitusRuntime titusRuntime, boolean followObservableResults) {
         super(apiInterface, followObservableResults);
         this.apiInterface = apiInterface;
@@ -61,6 +70,8 @@ public class SpectatorInvocationHandler<API, NATIVE> extends InterceptingInvocat
         this.resultSubscriptionCountMetricName = "titusMaster.api." + apiInterface.getSimpleName() + ".subscriptions";
         this.resultSubscriptionEmitMetricName = "titusMaster.api." + apiInterface.getSimpleName() + ".subscriptionEmits";
         this.resultSubscriptionTimeMetricName = "titusMaster.api." + apiInterface.getSimpleName() + ".subscriptionTime";
+
+        getIncludedMethods().forEach(method -> methodMetrics.put(method, new MethodMetrics(method)));
     }
 
     @Override
@@ -70,17 +81,14 @@ public class SpectatorInvocationHandler<API, NATIVE> extends InterceptingInvocat
 
     @Override
     protected void after(Method method, Object result, Long startTime) {
-        registry.counter(
-                invocationCounterMetricName,
-                "class", apiInterface.getName(),
-                "method", method.getName(),
-                "status", "success"
-        ).increment();
+        MethodMetrics metrics = getMethodMetrics(method);
+        metrics.successCounter.increment();
 
-        reportExecutionTime(method, startTime, TAG_STATUS_SUCCESS, TAG_CALL_STAGE_ON_METHOD_EXIT);
+        long elapsedMs = clock.wallTime() - startTime;
+        metrics.successOnMethodExitTimer.record(elapsedMs, TimeUnit.MILLISECONDS);
 
         if (!isAsynchronous(result)) {
-            reportExecutionTime(method, startTime, TAG_STATUS_SUCCESS, TAG_CALL_STAGE_ON_COMPLETED);
+            metrics.successOnCompletedTimer.record(elapsedMs, TimeUnit.MILLISECONDS);
         }
     }
 
@@ -211,11 +219,19 @@ public class SpectatorInvocationHandler<API, NATIVE> extends InterceptingInvocat
     }
 
     private void reportExecutionTime(Method method, Long startTime, Tag... tags) {
-        Id id = registry.createId(invocationTimeMetricName,
+        registry.timer(newExecutionTimeId(method, tags)).record(clock.wallTime() - startTime, TimeUnit.MILLISECONDS);
+    }
+
+    private Id newExecutionTimeId(Method method, Tag... tags) {
+        return registry.createId(invocationTimeMetricName,
                 "class", apiInterface.getName(),
                 "method", method.getName()
         ).withTags(tags);
-        registry.timer(id).record(clock.wallTime() - startTime, TimeUnit.MILLISECONDS);
+    }
+
+    private MethodMetrics getMethodMetrics(Method method) {
+        MethodMetrics metrics = methodMetrics.get(method);
+        return metrics != null ? metrics : methodMetrics.computeIfAbsent(method, MethodMetrics::new);
     }
 
     private void reportSubscriptionExecutionTime(Method method, Long startTime, long endTime) {
@@ -235,4 +251,22 @@ public class SpectatorInvocationHandler<API, NATIVE> extends InterceptingInvocat
                 ? error.getCause().getClass().getName()
                 : error.getClass().getName();
     }
+
+    private class MethodMetrics {
+
+        private final Counter successCounter;
+        private final Timer successOnMethodExitTimer;
+        private final Timer successOnCompletedTimer;
+
+        private MethodMetrics(Method method) {
+            this.successCounter = registry.counter(
+                    invocationCounterMetricName,
+                    "class", apiInterface.getName(),
+                    "method", method.getName(),
+                    "status", "success"
+            );
+            this.successOnMethodExitTimer = registry.timer(newExecutionTimeId(method, TAG_STATUS_SUCCESS, TAG_CALL_STAGE_ON_METHOD_EXIT));
+            this.successOnCompletedTimer = registry.timer(newExecutionTimeId(method, TAG_STATUS_SUCCESS, TAG_CALL_STAGE_ON_COMPLETED));
+        }
+    }
 }
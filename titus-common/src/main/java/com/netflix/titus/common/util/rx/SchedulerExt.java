@@ -38,4 +38,16 @@ public class SchedulerExt {
         return Schedulers.from(scheduledExecutorService);
     }
 
+    /**
+     * Create a {@link Scheduler} from a fixed size pool of daemon threads with a name pattern. The pool is never shut
+     * down, so it must not keep the JVM running.
+     *
+     * @param name the thread name pattern
+     * @param poolSize number of threads in the pool
+     * @return the scheduler
+     */
+    public static Scheduler createFixedThreadPoolScheduler(String name, int poolSize) {
+        ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat(name).setDaemon(true).build();
+        return Schedulers.from(Executors.newFixedThreadPool(poolSize, threadFactory));
+    }
 }
@@ -151,7 +151,12 @@ public class DefaultRxEventBus implements RxEventBus {
             subscriber.add(this);
             subscriber.setProducer(this);
 
-            metrics.subscriberAdded(subscriberId);
+            metrics.subscriberAdded(subscriberId, this::getLag);
+        }
+
+        private long getLag() {
+            Pair<Long, Object> oldest = eventQueue.peek();
+            return oldest == null ? 0 : worker.now() - oldest.getLeft();
         }
 
         void publish(Pair<Long, Object> eventWithTimestamp) {
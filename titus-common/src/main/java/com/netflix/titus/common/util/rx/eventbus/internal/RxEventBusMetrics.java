@@ -19,10 +19,12 @@ package com.netflix.titus.common.util.rx.eventbus.internal;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 
 import com.netflix.spectator.api.Counter;
 import com.netflix.spectator.api.Id;
 import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.patterns.PolledMeter;
 
 class RxEventBusMetrics {
 
@@ -39,12 +41,18 @@ class RxEventBusMetrics {
         this.registry = registry;
     }
 
-    void subscriberAdded(String subscriberId) {
-        subscriberMetrics.put(subscriberId, new SubscriberMetrics(subscriberId));
+    /**
+     * @param lagSupplier returns the age (in milliseconds) of the oldest event not delivered yet to the subscriber
+     */
+    void subscriberAdded(String subscriberId, LongSupplier lagSupplier) {
+        subscriberMetrics.put(subscriberId, new SubscriberMetrics(subscriberId, lagSupplier));
     }
 
     void subscriberRemoved(String subscriberId) {
-        subscriberMetrics.remove(subscriberId).close();
+        SubscriberMetrics metrics = subscriberMetrics.remove(subscriberId);
+        if (metrics != null) {
+            metrics.close();
+        }
     }
 
     void published(Object event) {
@@ -69,21 +77,37 @@ class RxEventBusMetrics {
         }
     }
 
+    void dropped(String subscriberId) {
+        SubscriberMetrics metrics = this.subscriberMetrics.get(subscriberId);
+        if (metrics != null) { // Should always be non-null
+            metrics.dropped();
+        }
+    }
+
     private class SubscriberMetrics {
         private final Id eventCounterId;
 
         private final AtomicLong queueSizeGauge;
         private final AtomicLong latencyGauge;
         private final AtomicLong overflowGauge;
+        private final Counter droppedCounter;
+        private final Id lagId;
+        // PolledMeter keeps a weak reference only, so we must hold it here.
+        private final LongSupplier lagSupplier;
         private final ConcurrentMap<Class<?>, Counter> eventCounters = new ConcurrentHashMap<>();
 
-        SubscriberMetrics(String subscriberId) {
+        SubscriberMetrics(String subscriberId, LongSupplier lagSupplier) {
             Id myId = subscriberMetricsId.withTags("subscriber", subscriberId);
 
             this.eventCounterId = idFor(myId, "output");
             this.queueSizeGauge = registry.gauge(idFor(myId, "queueSize"), new AtomicLong());
             this.latencyGauge = registry.gauge(idFor(myId, "latency"), new AtomicLong());
             this.overflowGauge = registry.gauge(idFor(myId, "overflow"), new AtomicLong());
+            this.droppedCounter = registry.counter(idFor(myId, "dropped"));
+
+            this.lagId = idFor(myId, "lag");
+            this.lagSupplier = lagSupplier;
+            PolledMeter.using(registry).withId(lagId).monitorValue(lagSupplier, LongSupplier::getAsLong);
         }
 
         private Id idFor(Id myId, String suffix) {
@@ -94,6 +118,7 @@ class RxEventBusMetrics {
         void close() {
             queueSizeGauge.set(0);
             latencyGauge.set(0);
+            PolledMeter.remove(registry, lagId);
         }
 
         void delivered(long queueSize, Object event, long latency) {
@@ -109,5 +134,9 @@ class RxEventBusMetrics {
         void overflowed() {
             overflowGauge.set(1);
         }
+
+        void dropped() {
+            droppedCounter.increment();
+        }
     }
 }
@@ -0,0 +1,385 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.common.util.rx.eventbus.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import com.netflix.spectator.api.Id;
+import com.netflix.spectator.api.Registry;
+import com.netflix.titus.common.util.rx.eventbus.RxEventBus;
+import com.netflix.titus.common.util.tuple.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rx.Observable;
+import rx.Producer;
+import rx.Scheduler;
+import rx.Subscriber;
+import rx.Subscription;
+import rx.internal.operators.BackpressureUtils;
+
+/**
+ * {@link RxEventBus} implementation, in which publishers never deliver events to subscribers directly. Each subscriber
+ * has its own bounded, multi-producer/single-consumer event queue, drained by a worker allocated to it from the
+ * drain scheduler. Subscribers are spread this way over the scheduler threads, so a slow subscriber delays its
+ * own events only. Both {@link #publish(Object)} and {@link #publishAsync(Object)} only enqueue the event.
+ * <p>
+ * What happens when a subscriber queue is full is determined by the {@link OverflowPolicy}.
+ */
+public class ShardedRxEventBus implements RxEventBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardedRxEventBus.class);
+
+    public enum OverflowPolicy {
+        /**
+         * Terminate the subscription with an error (the same behavior as in {@link DefaultRxEventBus}).
+         */
+        Fail,
+
+        /**
+         * Drop the oldest event in the subscriber queue, to make room for the new one.
+         */
+        DropOldest,
+
+        /**
+         * Drop the new event.
+         */
+        DropLatest
+    }
+
+    private final long maxQueueSize;
+    private final OverflowPolicy overflowPolicy;
+    private final Scheduler drainScheduler;
+    private final RxEventBusMetrics metrics;
+
+    private final Object indexLock = new Object();
+    private volatile SubscriberIndex subscriberIndex = new SubscriberIndex(Collections.emptyList());
+    private volatile boolean closed;
+
+    public ShardedRxEventBus(Id rootId, Registry registry, long maxQueueSize, OverflowPolicy overflowPolicy, Scheduler drainScheduler) {
+        this.maxQueueSize = maxQueueSize;
+        this.overflowPolicy = overflowPolicy;
+        this.drainScheduler = drainScheduler;
+        this.metrics = new RxEventBusMetrics(rootId, registry);
+    }
+
+    @Override
+    public void close() {
+        List<SubscriptionHandler> handlers;
+        synchronized (indexLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            handlers = subscriberIndex.handlers;
+            subscriberIndex = new SubscriberIndex(Collections.emptyList());
+        }
+        logger.debug("Closing EventBus");
+        handlers.forEach(SubscriptionHandler::close);
+    }
+
+    @Override
+    public <E> void publish(E event) {
+        checkIfOpen();
+
+        logger.debug("Publishing event {}", event);
+        Pair<Long, Object> eventWithTimestamp = new Pair<>(drainScheduler.now(), event);
+        for (SubscriptionHandler handler : subscriberIndex.getHandlersFor(event.getClass())) {
+            handler.publish(eventWithTimestamp);
+        }
+        metrics.published(event);
+    }
+
+    /**
+     * Same as {@link #publish(Object)}, as publishing never blocks on the subscribers.
+     */
+    @Override
+    public <E> void publishAsync(E event) {
+        publish(event);
+    }
+
+    private void checkIfOpen() {
+        if (closed) {
+            throw new IllegalStateException("EventBus closed");
+        }
+    }
+
+    @Override
+    public <E> Observable<E> listen(String subscriberId, Class<E> eventType) {
+        return Observable.create(subscriber -> {
+            logger.debug("Subscribed {} for event {}", subscriberId, eventType.getName());
+
+            // We register cleanup hook in SubscriptionHandler constructor, so we need to check for early unsubscribe
+            SubscriptionHandler handler = new SubscriptionHandler(subscriberId, eventType, (Subscriber<Object>) subscriber);
+            if (!handler.isUnsubscribed()) {
+                addHandler(handler);
+                if (handler.isUnsubscribed()) {
+                    removeHandler(handler);
+                }
+            }
+        });
+    }
+
+    private void addHandler(SubscriptionHandler handler) {
+        synchronized (indexLock) {
+            if (closed) {
+                handler.close();
+                return;
+            }
+            List<SubscriptionHandler> handlers = new ArrayList<>(subscriberIndex.handlers);
+            handlers.add(handler);
+            subscriberIndex = new SubscriberIndex(handlers);
+        }
+    }
+
+    private void removeHandler(SubscriptionHandler handler) {
+        synchronized (indexLock) {
+            if (subscriberIndex.handlers.contains(handler)) {
+                List<SubscriptionHandler> handlers = new ArrayList<>(subscriberIndex.handlers);
+                handlers.remove(handler);
+                subscriberIndex = new SubscriberIndex(handlers);
+            }
+        }
+    }
+
+    /**
+     * Immutable snapshot of the subscribers, with a lazily built event type to subscribers mapping. A new snapshot
+     * is created on each subscriber change, so the mapping never has to be invalidated.
+     */
+    private class SubscriberIndex {
+
+        private final List<SubscriptionHandler> handlers;
+        private final ConcurrentMap<Class<?>, List<SubscriptionHandler>> handlersByEventType = new ConcurrentHashMap<>();
+
+        private SubscriberIndex(List<SubscriptionHandler> handlers) {
+            this.handlers = Collections.unmodifiableList(handlers);
+        }
+
+        private List<SubscriptionHandler> getHandlersFor(Class<?> eventType) {
+            List<SubscriptionHandler> result = handlersByEventType.get(eventType);
+            if (result == null) {
+                result = handlers.stream()
+                        .filter(handler -> handler.eventType.isAssignableFrom(eventType))
+                        .collect(Collectors.toList());
+                handlersByEventType.put(eventType, result);
+            }
+            return result;
+        }
+    }
+
+    private class SubscriptionHandler implements Subscription, Producer {
+
+        private final String subscriberId;
+        private final Class<?> eventType;
+        private final Subscriber<Object> subscriber;
+        private final Scheduler.Worker worker;
+
+        private final AtomicInteger queueSize = new AtomicInteger();
+        private final Queue<Pair<Long, Object>> eventQueue = new ConcurrentLinkedQueue<>();
+
+        // drain loop scheduling; non zero value means that the drain loop is scheduled or running
+        private final AtomicInteger wip = new AtomicInteger();
+        // tracks the downstream request amount
+        private final AtomicLong requested = new AtomicLong();
+
+        // no more values expected from upstream
+        private volatile boolean done;
+
+        // the upstream error
+        private volatile Throwable error;
+
+        SubscriptionHandler(String subscriberId, Class<?> eventType, Subscriber<Object> subscriber) {
+            this.subscriberId = subscriberId;
+            this.eventType = eventType;
+            this.subscriber = subscriber;
+            this.worker = drainScheduler.createWorker();
+
+            metrics.subscriberAdded(subscriberId, this::getLag);
+
+            subscriber.add(this);
+            subscriber.setProducer(this);
+        }
+
+        void publish(Pair<Long, Object> eventWithTimestamp) {
+            if (done || subscriber.isUnsubscribed()) {
+                return;
+            }
+            if (queueSize.incrementAndGet() > maxQueueSize) {
+                switch (overflowPolicy) {
+                    case DropLatest:
+                        queueSize.decrementAndGet();
+                        metrics.dropped(subscriberId);
+                        return;
+                    case DropOldest:
+                        eventQueue.add(eventWithTimestamp);
+                        if (eventQueue.poll() != null) {
+                            queueSize.decrementAndGet();
+                        }
+                        metrics.dropped(subscriberId);
+                        break;
+                    case Fail:
+                    default:
+                        error = new IllegalStateException("Event queue overflow");
+                        metrics.overflowed(subscriberId);
+                        done = true;
+                }
+            } else {
+                eventQueue.add(eventWithTimestamp);
+            }
+            scheduleDrain();
+        }
+
+        void close() {
+            done = true;
+            scheduleDrain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n > 0) {
+                BackpressureUtils.getAndAddRequest(requested, n);
+                scheduleDrain();
+            }
+        }
+
+        @Override
+        public void unsubscribe() {
+            removeHandler(this);
+            worker.unsubscribe();
+            metrics.subscriberRemoved(subscriberId);
+            logger.debug("Unsubscribed {} for event {}", subscriberId, eventType.getName());
+        }
+
+        @Override
+        public boolean isUnsubscribed() {
+            return subscriber.isUnsubscribed();
+        }
+
+        private long getLag() {
+            Pair<Long, Object> oldest = eventQueue.peek();
+            return oldest == null ? 0 : drainScheduler.now() - oldest.getLeft();
+        }
+
+        private void scheduleDrain() {
+            if (wip.getAndIncrement() == 0) {
+                worker.schedule(this::drain);
+            }
+        }
+
+        /**
+         * Drain loop, executed on the subscriber worker. Follows the same pattern as the drain method in
+         * {@link DefaultRxEventBus}.
+         */
+        private void drain() {
+            int missed = 1;
+            for (; ; ) {
+                // Error happens only when we have overflow, in which case we ignore all elements in the queue.
+                if (error != null) {
+                    terminate();
+                    return;
+                }
+
+                long requests = requested.get();
+                long emission = 0L;
+
+                while (emission != requests) { // don't emit more than requested
+                    if (subscriber.isUnsubscribed()) {
+                        return;
+                    }
+
+                    if (error != null) {
+                        terminate();
+                        return;
+                    }
+
+                    boolean stop = done;  // order matters here!
+                    Pair<Long, Object> eventWithTimestamp = eventQueue.poll();
+                    boolean empty = eventWithTimestamp == null;
+
+                    // if no more values, emit completion event
+                    if (stop && empty) {
+                        terminate();
+                        return;
+                    }
+                    // the upstream hasn't stopped yet but we don't have a value available
+                    if (empty) {
+                        break;
+                    }
+
+                    Object event = eventWithTimestamp.getRight();
+                    long latency = drainScheduler.now() - eventWithTimestamp.getLeft();
+
+                    int currentQueueSize = queueSize.decrementAndGet();
+                    subscriber.onNext(event);
+                    metrics.delivered(subscriberId, currentQueueSize, event, latency);
+                    emission++;
+
+                    logger.debug("Emitted event {} to subscriber {}", event, subscriberId);
+                }
+
+                // if we are at a request boundary, a terminal event can be still emitted without requests
+                if (emission == requests) {
+                    if (subscriber.isUnsubscribed()) {
+                        return;
+                    }
+
+                    boolean stop = done;  // order matters here!
+                    boolean empty = eventQueue.isEmpty();
+
+                    // if no more values, emit completion event
+                    if (stop && empty) {
+                        terminate();
+                        return;
+                    }
+                }
+
+                // decrement the current request amount by the emission count
+                if (emission != 0L && requests != Long.MAX_VALUE) {
+                    BackpressureUtils.produced(requested, emission);
+                }
+
+                // indicate that we have performed the outstanding amount of work
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+                // if a concurrent scheduleDrain() happened, we loop back and continue
+            }
+        }
+
+        private void terminate() {
+            Throwable ex = error;
+            if (ex != null) {
+                subscriber.onError(ex);
+                logger.debug("Completed {}/{} subscription with error", subscriberId, eventType.getName(), ex);
+            } else {
+                subscriber.onCompleted();
+                logger.debug("Completed {}/{} subscription", subscriberId, eventType.getName());
+            }
+            removeHandler(this);
+            metrics.subscriberRemoved(subscriberId);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.common.util.rx.invoker;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.base.Preconditions;
+import com.netflix.titus.common.util.rx.invoker.ReactorSerializedInvoker.CallSiteCaptureMode;
+
+/**
+ * Captures the call site of an action submitted to {@link ReactorSerializedInvoker}, so errors reported later
+ * from the invoker worker can point to the code that submitted the action.
+ */
+class CallSiteCapture {
+
+    private final CallSiteCaptureMode mode;
+    private final int samplingInterval;
+    private final int maxFrames;
+
+    private final AtomicLong submissionCounter = new AtomicLong();
+
+    CallSiteCapture(CallSiteCaptureMode mode, int samplingInterval, int maxFrames) {
+        Preconditions.checkArgument(samplingInterval > 0, "Sampling interval must be > 0");
+        Preconditions.checkArgument(maxFrames > 0, "Max frames must be > 0");
+        this.mode = mode;
+        this.samplingInterval = samplingInterval;
+        this.maxFrames = maxFrames;
+    }
+
+    /**
+     * Returns a call site handle, or null if the call site is not captured for this submission. Creating a
+     * {@link Throwable} records the JVM internal backtrace only, which is much cheaper than
+     * {@link Thread#getStackTrace()}, as the stack trace elements are not created until requested.
+     */
+    Throwable capture() {
+        switch (mode) {
+            case Lazy:
+                return new Throwable();
+            case Sampled:
+                return submissionCounter.getAndIncrement() % samplingInterval == 0 ? new Throwable() : null;
+            case Off:
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Resolves the stack trace of the captured call site, with the invoker frames removed, and limited to
+     * the configured number of frames. Returns null if the call site was not captured.
+     */
+    StackTraceElement[] resolve(Throwable callSite) {
+        if (callSite == null) {
+            return null;
+        }
+        StackTraceElement[] stackTrace = callSite.getStackTrace();
+        int start = 0;
+        while (start < stackTrace.length && isInvokerFrame(stackTrace[start])) {
+            start++;
+        }
+        return Arrays.copyOfRange(stackTrace, start, Math.min(stackTrace.length, start + maxFrames));
+    }
+
+    private static boolean isInvokerFrame(StackTraceElement frame) {
+        String className = frame.getClassName();
+        return className.equals(CallSiteCapture.class.getName()) || className.equals(ReactorSerializedInvoker.class.getName());
+    }
+}
@@ -37,16 +37,37 @@ import reactor.core.scheduler.Scheduler.Worker;
 
 /**
  * A simple queue for Spring Reactor {@link Mono} actions, which execution order must be serialized.
+ * <p>
+ * Errors emitted by the invoker itself (queue full, excessive running time, shutdown) carry the stack trace of
+ * the code that submitted the action. How the call site is captured is controlled by {@link CallSiteCaptureMode}.
  */
 public class ReactorSerializedInvoker<T> {
 
     private static final Logger logger = LoggerFactory.getLogger(ReactorSerializedInvoker.class);
 
+    public enum CallSiteCaptureMode {
+        /**
+         * Call site is not captured. Errors carry the stack trace of the invoker worker.
+         */
+        Off,
+
+        /**
+         * Call site is captured for one out of N submissions only.
+         */
+        Sampled,
+
+        /**
+         * Call site is captured for each submission, but the stack frames are resolved only when an error is reported.
+         */
+        Lazy
+    }
+
     private final Duration excessiveRunningTime;
     private final Worker worker;
     private final Scheduler scheduler;
     private final Clock clock;
     private final ReactorSerializedInvokerMetrics metrics;
+    private final CallSiteCapture callSiteCapture;
 
     private final BlockingQueue<ActionHandler> actionHandlers;
     private ActionHandler pendingAction;
@@ -58,7 +79,8 @@ public class ReactorSerializedInvoker<T> {
                                      Duration excessiveRunningTime,
                                      Scheduler scheduler,
                                      Registry registry,
-                                     Clock clock) {
+                                     Clock clock,
+                                     CallSiteCapture callSiteCapture) {
         this.excessiveRunningTime = excessiveRunningTime;
         this.worker = scheduler.createWorker();
         this.scheduler = scheduler;
@@ -66,6 +88,7 @@ public class ReactorSerializedInvoker<T> {
 
         this.actionHandlers = new LinkedBlockingQueue<>(size);
         this.clock = clock;
+        this.callSiteCapture = callSiteCapture;
     }
 
     public void shutdown(Duration timeout) {
@@ -90,12 +113,12 @@ public class ReactorSerializedInvoker<T> {
         Preconditions.checkState(!shutdownFlag, "ReactorQueue has been shutdown");
         Preconditions.checkNotNull(action);
 
-        StackTraceElement[] stackTrace = Thread.currentThread().getStackTrace();
+        Throwable callSite = callSiteCapture.capture();
 
         return Mono.create(sink -> {
             metrics.onSubmit();
 
-            ActionHandler actionHandler = new ActionHandler(action, sink, stackTrace);
+            ActionHandler actionHandler = new ActionHandler(action, sink, callSite);
             if (!actionHandlers.offer(actionHandler)) {
                 metrics.onQueueFull();
                 sink.error(actionHandler.newException(new IllegalStateException("Queue is full")));
@@ -158,6 +181,9 @@ public class ReactorSerializedInvoker<T> {
         private Scheduler scheduler;
         private Registry registry;
         private Clock clock;
+        private CallSiteCaptureMode callSiteCaptureMode = CallSiteCaptureMode.Lazy;
+        private int callSiteSamplingInterval = 100;
+        private int callSiteMaxFrames = 32;
 
         public Builder<T> withName(String name) {
             this.name = name;
@@ -189,8 +215,34 @@ public class ReactorSerializedInvoker<T> {
             return this;
         }
 
+        /**
+         * Call site capture mode. {@link CallSiteCaptureMode#Lazy} by default.
+         */
+        public Builder<T> withCallSiteCapture(CallSiteCaptureMode callSiteCaptureMode) {
+            this.callSiteCaptureMode = callSiteCaptureMode;
+            return this;
+        }
+
+        /**
+         * In the {@link CallSiteCaptureMode#Sampled} mode, capture the call site of every N-th submission.
+         */
+        public Builder<T> withCallSiteSamplingInterval(int callSiteSamplingInterval) {
+            this.callSiteSamplingInterval = callSiteSamplingInterval;
+            return this;
+        }
+
+        /**
+         * Maximum number of the call site stack frames attached to an error.
+         */
+        public Builder<T> withCallSiteMaxFrames(int callSiteMaxFrames) {
+            this.callSiteMaxFrames = callSiteMaxFrames;
+            return this;
+        }
+
         public ReactorSerializedInvoker<T> build() {
-            return new ReactorSerializedInvoker<>(name, size, excessiveRunningTime, scheduler, registry, clock);
+            return new ReactorSerializedInvoker<>(name, size, excessiveRunningTime, scheduler, registry, clock,
+                    new CallSiteCapture(callSiteCaptureMode, callSiteSamplingInterval, callSiteMaxFrames)
+            );
         }
     }
 
@@ -198,7 +250,7 @@ public class ReactorSerializedInvoker<T> {
 
         private final Mono<T> action;
         private final MonoSink<T> sink;
-        private final StackTraceElement[] stackTrace;
+        private final Throwable callSite;
 
         private volatile boolean terminated;
         private volatile Disposable.Composite disposable;
@@ -206,10 +258,10 @@ public class ReactorSerializedInvoker<T> {
         private final long queueTimestamp;
         private long startTimestamp;
 
-        private ActionHandler(Mono<T> action, MonoSink<T> sink, StackTraceElement[] stackTrace) {
+        private ActionHandler(Mono<T> action, MonoSink<T> sink, Throwable callSite) {
             this.action = action;
             this.sink = sink;
-            this.stackTrace = stackTrace;
+            this.callSite = callSite;
             this.queueTimestamp = clock.wallTime();
         }
 
@@ -231,7 +283,7 @@ public class ReactorSerializedInvoker<T> {
             }
 
             Disposable actionDisposable = action
-                    .timeout(excessiveRunningTime, Mono.error(newException(new TimeoutException("Excessive running time"))))
+                    .timeout(excessiveRunningTime, Mono.defer(() -> Mono.error(newException(new TimeoutException("Excessive running time")))))
                     .subscribeOn(scheduler)
                     .doFinally(signalType -> {
                         if (signalType != SignalType.ON_COMPLETE && signalType != SignalType.ON_ERROR) {
@@ -288,7 +340,10 @@ public class ReactorSerializedInvoker<T> {
         }
 
         <E extends Throwable> E newException(E exception) {
-            exception.setStackTrace(stackTrace);
+            StackTraceElement[] stackTrace = callSiteCapture.resolve(callSite);
+            if (stackTrace != null) {
+                exception.setStackTrace(stackTrace);
+            }
             return exception;
         }
     }
@@ -22,7 +22,12 @@ import com.netflix.spectator.api.Counter;
 import com.netflix.spectator.api.Gauge;
 import com.netflix.spectator.api.Registry;
 import com.netflix.spectator.api.Timer;
+import com.netflix.spectator.api.histogram.PercentileTimer;
 
+/**
+ * Queueing and execution times are recorded with {@link PercentileTimer}s, so per queue latency distributions
+ * are available in addition to the averages.
+ */
 class ReactorSerializedInvokerMetrics {
 
     private static final String ROOT_NAME = "titus.common.serializedInvoker.";
@@ -47,10 +52,10 @@ class ReactorSerializedInvokerMetrics {
         this.queueFullCounter = registry.counter(ROOT_NAME + "queueFull", "name", name);
         this.queueSize = registry.gauge(ROOT_NAME + "queueSize", "name", name);
 
-        this.queueingTimer = registry.timer(ROOT_NAME + "queueingTime", "name", name);
-        this.executionTimer = registry.timer(ROOT_NAME + "executionTime", "name", name, "status", "success");
-        this.executionErrorTimer = registry.timer(ROOT_NAME + "executionTime", "name", name, "status", "error");
-        this.executionDisposedTimer = registry.timer(ROOT_NAME + "executionTime", "name", name, "status", "disposed");
+        this.queueingTimer = PercentileTimer.get(registry, registry.createId(ROOT_NAME + "queueingTime", "name", name));
+        this.executionTimer = PercentileTimer.get(registry, registry.createId(ROOT_NAME + "executionTime", "name", name, "status", "success"));
+        this.executionErrorTimer = PercentileTimer.get(registry, registry.createId(ROOT_NAME + "executionTime", "name", name, "status", "error"));
+        this.executionDisposedTimer = PercentileTimer.get(registry, registry.createId(ROOT_NAME + "executionTime", "name", name, "status", "disposed"));
     }
 
     void onSubmit() {
@@ -57,6 +57,17 @@ public class SpELClassValidatorTest {
         assertThat(violations).hasSize(1);
     }
 
+    @Test
+    public void testRepeatedEvaluationOfCompiledExpression() {
+        Validator validator = TestValidator.testValidator("myUtil", this);
+
+        // SpEL compiles an expression only after it was evaluated a number of times in the interpreted mode
+        for (int i = 0; i < 200; i++) {
+            assertThat(validator.validate(new ExprCheckModel("abc"))).hasSize(1);
+            assertThat(validator.validate(new ExprCheckModel("myName"))).isEmpty();
+        }
+    }
+
     @Test
     public void testRegisteredFunctions() {
         assertThat(testRegisteredFunctions(TestValidator.testStrictValidator())).hasSize(1);
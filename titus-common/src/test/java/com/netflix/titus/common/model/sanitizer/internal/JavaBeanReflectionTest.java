@@ -18,7 +18,9 @@ package com.netflix.titus.common.model.sanitizer.internal;
 
 import java.lang.reflect.Field;
 import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import com.netflix.titus.common.model.sanitizer.TestModel.Child;
@@ -47,6 +49,17 @@ public class JavaBeanReflectionTest {
         assertThat(fieldNames).contains("childName", "min", "desired", "max");
     }
 
+    @Test
+    public void testBeanFields() throws Exception {
+        JavaBeanReflection jbr = JavaBeanReflection.forType(Root.class);
+        Map<String, JavaBeanReflection.BeanField> beanFields = jbr.getBeanFields().stream()
+                .collect(Collectors.toMap(JavaBeanReflection.BeanField::getName, Function.identity()));
+
+        assertThat(beanFields.get("name").isLeaf()).isTrue();
+        assertThat(beanFields.get("child").isLeaf()).isFalse();
+        assertThat(jbr.getBeanFields()).hasSameSizeAs(jbr.getFields());
+    }
+
     @Test
     public void testObjectCreate() throws Exception {
         JavaBeanReflection jbr = JavaBeanReflection.forType(Root.class);
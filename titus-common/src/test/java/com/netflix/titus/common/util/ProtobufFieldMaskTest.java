@@ -0,0 +1,86 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.common.util;
+
+import java.util.Set;
+
+import com.google.protobuf.DescriptorProtos.DescriptorProto;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto;
+import com.google.protobuf.DescriptorProtos.MessageOptions;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+import org.junit.Test;
+
+import static com.netflix.titus.common.util.CollectionsExt.asSet;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProtobufFieldMaskTest {
+
+    private static final DescriptorProto VALUE = DescriptorProto.newBuilder()
+            .setName("outer")
+            .addField(FieldDescriptorProto.newBuilder().setName("field1").setNumber(1).setTypeName("string"))
+            .addField(FieldDescriptorProto.newBuilder().setName("field2").setNumber(2).setTypeName("int32"))
+            .setOptions(MessageOptions.newBuilder().setDeprecated(true).setMapEntry(false))
+            .build();
+
+    @Test
+    public void testTopLevelFields() {
+        assertSameAsProtobufCopy(asSet("name"));
+        assertThat(ProtobufFieldMask.compile(asSet("name")).apply(VALUE)).isEqualTo(DescriptorProto.newBuilder().setName("outer").build());
+    }
+
+    @Test
+    public void testNestedFields() {
+        DescriptorProto filtered = assertSameAsProtobufCopy(asSet("name", "field.name", "options.deprecated"));
+
+        assertThat(filtered.getFieldList()).hasSize(2);
+        assertThat(filtered.getField(0)).isEqualTo(FieldDescriptorProto.newBuilder().setName("field1").build());
+        assertThat(filtered.getOptions().getDeprecated()).isTrue();
+        assertThat(filtered.getOptions().hasMapEntry()).isFalse();
+    }
+
+    @Test
+    public void testWholeFieldWinsOverNestedSelection() {
+        DescriptorProto filtered = ProtobufFieldMask.compile(asSet("field", "field.name")).apply(VALUE);
+        assertThat(filtered.getFieldList()).isEqualTo(VALUE.getFieldList());
+    }
+
+    @Test
+    public void testUnknownFieldsAreIgnored() {
+        assertThat(ProtobufFieldMask.compile(asSet("name", "fakeField", "name.fakeNested")).apply(VALUE).getName()).isEqualTo("outer");
+    }
+
+    @Test
+    public void testMapKeysWithDotsAreSelectable() {
+        Struct struct = Struct.newBuilder()
+                .putFields("task.index", Value.newBuilder().setStringValue("1").build())
+                .putFields("task", Value.newBuilder().setStringValue("2").build())
+                .putFields("other", Value.newBuilder().setStringValue("3").build())
+                .build();
+        Set<String> fields = asSet("fields.task.index");
+
+        Struct filtered = ProtobufFieldMask.compile(fields).apply(struct);
+        assertThat(filtered).isEqualTo(ProtobufCopy.copy(struct, fields));
+        assertThat(filtered.getFieldsMap()).containsOnlyKeys("task.index");
+    }
+
+    private DescriptorProto assertSameAsProtobufCopy(Set<String> fields) {
+        DescriptorProto filtered = ProtobufFieldMask.compile(fields).apply(VALUE);
+        assertThat(filtered).isEqualTo(ProtobufCopy.copy(VALUE, fields));
+        return filtered;
+    }
+}
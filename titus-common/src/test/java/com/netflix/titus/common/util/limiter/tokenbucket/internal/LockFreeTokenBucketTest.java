@@ -0,0 +1,105 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.common.util.limiter.tokenbucket.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.base.Ticker;
+import com.netflix.titus.common.util.limiter.tokenbucket.TokenBucket;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LockFreeTokenBucketTest {
+
+    private final TestTicker ticker = new TestTicker();
+
+    private final TokenBucket tokenBucket = new LockFreeTokenBucket("test", 10, 0, 2, 1, TimeUnit.SECONDS, Stopwatch.createStarted(ticker));
+
+    @Test
+    public void testFirstRefillIsImmediate() {
+        assertThat(tokenBucket.getNumberOfTokens()).isEqualTo(2);
+        assertThat(tokenBucket.tryTake(2)).isTrue();
+        assertThat(tokenBucket.tryTake()).isFalse();
+    }
+
+    @Test
+    public void testRefillAfterInterval() {
+        assertThat(tokenBucket.tryTake(2)).isTrue();
+        assertThat(tokenBucket.getRefillStrategy().getTimeUntilNextRefill(TimeUnit.MILLISECONDS)).isEqualTo(1_000);
+
+        ticker.nanos = TimeUnit.MILLISECONDS.toNanos(2_500);
+        assertThat(tokenBucket.getNumberOfTokens()).isEqualTo(4);
+        assertThat(tokenBucket.getRefillStrategy().getTimeUntilNextRefill(TimeUnit.MILLISECONDS)).isEqualTo(500);
+    }
+
+    @Test
+    public void testRefillDoesNotExceedCapacity() {
+        ticker.nanos = TimeUnit.DAYS.toNanos(365);
+        assertThat(tokenBucket.getNumberOfTokens()).isEqualTo(10);
+
+        tokenBucket.refill(5);
+        assertThat(tokenBucket.getNumberOfTokens()).isEqualTo(10);
+    }
+
+    @Test(timeout = 10_000)
+    public void testConcurrentTakesDoNotOverdraw() throws Exception {
+        TokenBucket bucket = new LockFreeTokenBucket("test", 1_000, 1_000, 0, 1, TimeUnit.HOURS, Stopwatch.createStarted(ticker));
+        assertThat(bucket.getNumberOfTokens()).isEqualTo(1_000);
+
+        AtomicInteger taken = new AtomicInteger();
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    startLatch.await();
+                } catch (InterruptedException ignore) {
+                }
+                for (int j = 0; j < 500; j++) {
+                    if (bucket.tryTake()) {
+                        taken.incrementAndGet();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        startLatch.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(taken.get()).isEqualTo(1_000);
+        assertThat(bucket.getNumberOfTokens()).isEqualTo(0);
+    }
+
+    private static class TestTicker extends Ticker {
+
+        private volatile long nanos;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.common.util.proxy.internal;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import com.netflix.titus.common.util.proxy.MyApi;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+public class MethodHandleInvokerTest {
+
+    private final MyApi.MyApiImpl instance = new MyApi.MyApiImpl();
+
+    private final MethodHandleInvoker invoker = new MethodHandleInvoker(instance, MyApi.class);
+
+    @Test
+    public void testInterfaceMethodInvocation() throws Throwable {
+        Method echo = MyApi.class.getMethod("echo", String.class);
+        assertThat((String) invoker.invoke(echo, new Object[]{"abc"})).isEqualTo(instance.echo("abc"));
+    }
+
+    @Test
+    public void testObjectMethodInvocation() throws Throwable {
+        assertThat(invoker.invoke(Object.class.getMethod("toString"), null)).isEqualTo(instance.toString());
+        assertThat(invoker.invoke(Object.class.getMethod("hashCode"), null)).isEqualTo(instance.hashCode());
+        assertThat(invoker.invoke(Object.class.getMethod("equals", Object.class), new Object[]{instance})).isEqualTo(true);
+    }
+
+    @Test
+    public void testExceptionIsWrappedInInvocationTargetException() throws Throwable {
+        Method echo = MyApi.class.getMethod("echo", String.class);
+        try {
+            invoker.invoke(echo, new Object[]{null});
+            fail("Exception expected");
+        } catch (InvocationTargetException e) {
+            assertThat(e.getCause()).isInstanceOf(NullPointerException.class);
+        }
+    }
+
+    @Test
+    public void testHandleAdaptationErrorIsNotWrapped() throws Throwable {
+        Method echo = MyApi.class.getMethod("echo", String.class);
+        try {
+            invoker.invoke(echo, new Object[]{42});
+            fail("Exception expected");
+        } catch (ClassCastException e) {
+            // Expected, as the argument type does not match the method signature
+        }
+    }
+}
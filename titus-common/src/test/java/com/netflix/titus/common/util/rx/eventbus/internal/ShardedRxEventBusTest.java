@@ -0,0 +1,175 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.common.util.rx.eventbus.internal;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.netflix.spectator.api.DefaultRegistry;
+import com.netflix.spectator.api.Registry;
+import com.netflix.titus.common.util.rx.eventbus.RxEventBus;
+import com.netflix.titus.common.util.rx.eventbus.internal.ShardedRxEventBus.OverflowPolicy;
+import com.netflix.titus.testkit.rx.ExtTestSubscriber;
+import org.junit.After;
+import org.junit.Test;
+import rx.Subscriber;
+import rx.schedulers.Schedulers;
+import rx.schedulers.TestScheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ShardedRxEventBusTest {
+
+    private static final long MAX_QUEUE_SIZE = 2;
+
+    private final TestScheduler testScheduler = Schedulers.test();
+
+    private final Registry registry = new DefaultRegistry();
+
+    private RxEventBus eventBus = newEventBus(OverflowPolicy.Fail);
+
+    @After
+    public void tearDown() throws Exception {
+        eventBus.close();
+    }
+
+    @Test
+    public void testEventsAreDeliveredFromDrainScheduler() throws Exception {
+        ExtTestSubscriber<String> testSubscriber = new ExtTestSubscriber<>();
+        eventBus.listen("myClient", String.class).subscribe(testSubscriber);
+
+        eventBus.publish("event1");
+        assertThat(testSubscriber.takeNext()).isNull();
+
+        testScheduler.triggerActions();
+        assertThat(testSubscriber.takeNext()).isEqualTo("event1");
+        assertThat(testSubscriber.takeNext()).isNull();
+    }
+
+    @Test
+    public void testEventsAreDeliveredToSubscribersOfMatchingType() throws Exception {
+        ExtTestSubscriber<String> stringSubscriber = new ExtTestSubscriber<>();
+        ExtTestSubscriber<Object> objectSubscriber = new ExtTestSubscriber<>();
+        ExtTestSubscriber<Integer> integerSubscriber = new ExtTestSubscriber<>();
+        eventBus.listen("stringClient", String.class).subscribe(stringSubscriber);
+        eventBus.listen("objectClient", Object.class).subscribe(objectSubscriber);
+        eventBus.listen("integerClient", Integer.class).subscribe(integerSubscriber);
+
+        eventBus.publish("event1");
+        eventBus.publishAsync(1);
+        testScheduler.triggerActions();
+
+        assertThat(stringSubscriber.takeNext()).isEqualTo("event1");
+        assertThat(stringSubscriber.takeNext()).isNull();
+        assertThat(objectSubscriber.takeNext()).isEqualTo("event1");
+        assertThat(objectSubscriber.takeNext()).isEqualTo(1);
+        assertThat(integerSubscriber.takeNext()).isEqualTo(1);
+        assertThat(integerSubscriber.takeNext()).isNull();
+    }
+
+    @Test
+    public void testUnsubscribedSubscriberIsRemoved() throws Exception {
+        ExtTestSubscriber<String> testSubscriber = new ExtTestSubscriber<>();
+        eventBus.listen("myClient", String.class).subscribe(testSubscriber);
+        testSubscriber.unsubscribe();
+
+        eventBus.publish("event1");
+        testScheduler.triggerActions();
+        assertThat(testSubscriber.takeNext()).isNull();
+    }
+
+    @Test
+    public void testEventBusCloseTerminatesSubscriptions() throws Exception {
+        ExtTestSubscriber<String> testSubscriber = new ExtTestSubscriber<>();
+        eventBus.listen("myClient", String.class).subscribe(testSubscriber);
+
+        eventBus.close();
+        testScheduler.triggerActions();
+        testSubscriber.assertOnCompleted();
+    }
+
+    @Test
+    public void testFailOverflowPolicy() throws Exception {
+        AtomicBoolean failed = new AtomicBoolean();
+        Subscriber<String> slowSubscriber = new Subscriber<String>() {
+            @Override
+            public void onStart() {
+                request(0);
+            }
+
+            @Override
+            public void onCompleted() {
+            }
+
+            @Override
+            public void onError(Throwable e) {
+                failed.set(true);
+            }
+
+            @Override
+            public void onNext(String s) {
+            }
+        };
+
+        eventBus.listen("myClient", String.class).subscribe(slowSubscriber);
+        for (int i = 0; i <= MAX_QUEUE_SIZE; i++) {
+            eventBus.publish("event" + i);
+        }
+        testScheduler.triggerActions();
+
+        assertThat(failed.get()).isTrue();
+        assertThat(slowSubscriber.isUnsubscribed()).isTrue();
+    }
+
+    @Test
+    public void testDropOldestOverflowPolicy() throws Exception {
+        eventBus = newEventBus(OverflowPolicy.DropOldest);
+        ExtTestSubscriber<String> testSubscriber = publishToSlowSubscriber();
+
+        assertThat(testSubscriber.takeNext()).isEqualTo("event1");
+        assertThat(testSubscriber.takeNext()).isEqualTo("event2");
+        assertThat(testSubscriber.takeNext()).isNull();
+    }
+
+    @Test
+    public void testDropLatestOverflowPolicy() throws Exception {
+        eventBus = newEventBus(OverflowPolicy.DropLatest);
+        ExtTestSubscriber<String> testSubscriber = publishToSlowSubscriber();
+
+        assertThat(testSubscriber.takeNext()).isEqualTo("event0");
+        assertThat(testSubscriber.takeNext()).isEqualTo("event1");
+        assertThat(testSubscriber.takeNext()).isNull();
+    }
+
+    /**
+     * Publish events, without running the drain loop, so the subscriber queue overflows.
+     */
+    private ExtTestSubscriber<String> publishToSlowSubscriber() {
+        ExtTestSubscriber<String> testSubscriber = new ExtTestSubscriber<>();
+        eventBus.listen("myClient", String.class).subscribe(testSubscriber);
+        for (int i = 0; i <= MAX_QUEUE_SIZE; i++) {
+            eventBus.publish("event" + i);
+        }
+        testScheduler.triggerActions();
+
+        assertThat(testSubscriber.isUnsubscribed()).isFalse();
+        return testSubscriber;
+    }
+
+    private RxEventBus newEventBus(OverflowPolicy overflowPolicy) {
+        return new ShardedRxEventBus(registry.createId("test"), registry, MAX_QUEUE_SIZE, overflowPolicy, testScheduler);
+    }
+}
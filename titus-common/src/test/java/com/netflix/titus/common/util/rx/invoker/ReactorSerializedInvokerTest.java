@@ -108,6 +108,35 @@ public class ReactorSerializedInvokerTest {
         assertThat(resultRef.get()).isInstanceOf(TimeoutException.class);
     }
 
+    @Test(timeout = 5_000)
+    public void testErrorCarriesCallSiteStackTrace() {
+        AtomicReference<Throwable> errorRef = new AtomicReference<>();
+        reactorSerializedInvoker.submit(Mono.delay(Duration.ofHours(1)).map(tick -> "First")).subscribe(
+                next -> {
+                },
+                errorRef::set
+        );
+        await().until(() -> errorRef.get() != null);
+
+        StackTraceElement[] stackTrace = errorRef.get().getStackTrace();
+        assertThat(stackTrace[0].getClassName()).isEqualTo(ReactorSerializedInvokerTest.class.getName());
+        assertThat(stackTrace[0].getMethodName()).isEqualTo("testErrorCarriesCallSiteStackTrace");
+    }
+
+    @Test
+    public void testCallSiteCaptureModes() {
+        assertThat(new CallSiteCapture(ReactorSerializedInvoker.CallSiteCaptureMode.Off, 1, 10).capture()).isNull();
+
+        CallSiteCapture sampled = new CallSiteCapture(ReactorSerializedInvoker.CallSiteCaptureMode.Sampled, 2, 10);
+        assertThat(sampled.capture()).isNotNull();
+        assertThat(sampled.capture()).isNull();
+        assertThat(sampled.capture()).isNotNull();
+
+        CallSiteCapture lazy = new CallSiteCapture(ReactorSerializedInvoker.CallSiteCaptureMode.Lazy, 1, 2);
+        assertThat(lazy.resolve(lazy.capture())).hasSize(2);
+        assertThat(lazy.resolve(null)).isNull();
+    }
+
     @Test(timeout = 5_000)
     public void testCancellation() {
         AtomicReference<Object> resultRef = new AtomicReference<>();
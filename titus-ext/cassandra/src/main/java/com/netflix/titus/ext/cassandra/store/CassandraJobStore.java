@@ -17,15 +17,21 @@
 package com.netflix.titus.ext.cassandra.store;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
@@ -46,6 +52,7 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.netflix.titus.api.jobmanager.model.job.Job;
 import com.netflix.titus.api.jobmanager.model.job.JobDescriptor;
 import com.netflix.titus.api.jobmanager.model.job.JobFunctions;
+import com.netflix.titus.api.jobmanager.model.job.JobModelInterner;
 import com.netflix.titus.api.jobmanager.model.job.Task;
 import com.netflix.titus.api.jobmanager.model.job.TaskState;
 import com.netflix.titus.api.jobmanager.model.job.disruptionbudget.DisruptionBudget;
@@ -69,10 +76,14 @@ import rx.Completable;
 import rx.Emitter;
 import rx.Observable;
 import rx.exceptions.Exceptions;
+import rx.schedulers.Schedulers;
 
 import static com.netflix.titus.api.FeatureFlagModule.DISRUPTION_BUDGET_FEATURE;
 import static com.netflix.titus.common.util.guice.ProxyType.Logging;
 import static com.netflix.titus.common.util.guice.ProxyType.Spectator;
+import static com.netflix.titus.ext.cassandra.store.JobStoreTables.ACTIVE_JOBS_TABLE;
+import static com.netflix.titus.ext.cassandra.store.JobStoreTables.ACTIVE_TASKS_TABLE;
+import static com.netflix.titus.ext.cassandra.store.JobStoreTables.ACTIVE_TASK_IDS_TABLE;
 import static com.netflix.titus.ext.cassandra.store.StoreTransactionLoggers.transactionLogger;
 
 @Singleton
@@ -84,6 +95,7 @@ public class CassandraJobStore implements JobStore {
     private static final int INITIAL_BUCKET_COUNT = 100;
     private static final int MAX_BUCKET_SIZE = 2_000;
     private static final String METRIC_NAME_ROOT = "titusMaster.jobManager.cassandra";
+    private static final long TASK_UPDATE_FLUSH_TIMEOUT_MS = 10_000;
 
     // SELECT Queries
     private static final String RETRIEVE_ACTIVE_JOB_ID_BUCKETS_STRING = "SELECT distinct bucket FROM active_job_ids";
@@ -134,7 +146,9 @@ public class CassandraJobStore implements JobStore {
 
     private final TitusRuntime titusRuntime;
     private final Session session;
-    private final ObjectMapper mapper;
+    private final JobStoreRecordCodec codec;
+    private final JobModelInterner interner;
+    private final TaskUpdateCoalescer taskUpdateCoalescer;
     private final BalancedBucketManager<String> activeJobIdsBucketManager;
     private final CassandraStoreConfiguration configuration;
     private final Optional<FitInjection> fitDriverInjection;
@@ -142,6 +156,12 @@ public class CassandraJobStore implements JobStore {
 
     private final Predicate<Job> disruptionBudgetEnabledPredicate;
 
+    /**
+     * The last configured record format name and its parsed value, so the configuration is parsed (and an invalid
+     * value is logged) once per change, not on every write.
+     */
+    private volatile Pair<String, JobStoreRecordCodec.Format> recordWriteFormat = Pair.of(null, JobStoreRecordCodec.Format.Json);
+
     @Inject
     public CassandraJobStore(CassandraStoreConfiguration configuration,
                              @Named(DISRUPTION_BUDGET_FEATURE) Predicate<JobDescriptor> disruptionBudgetEnabledPredicate,
@@ -182,7 +202,11 @@ public class CassandraJobStore implements JobStore {
             this.fitBadDataInjection = Optional.empty();
         }
 
-        this.mapper = mapper;
+        this.codec = new JobStoreRecordCodec(this::resolveRecordWriteFormat, mapper, ObjectMappers.storeSmileMapper(), titusRuntime.getRegistry());
+        this.interner = new JobModelInterner(METRIC_NAME_ROOT, titusRuntime.getRegistry());
+        this.taskUpdateCoalescer = new TaskUpdateCoalescer(
+                configuration::getTaskUpdateCoalescingWindowMs, this::writeTaskUpdate, Schedulers.computation(), titusRuntime.getRegistry()
+        );
         this.activeJobIdsBucketManager = new BalancedBucketManager<>(initialBucketCount, maxBucketSize, METRIC_NAME_ROOT, titusRuntime.getRegistry());
 
         retrieveActiveJobIdBucketsStatement = session.prepare(RETRIEVE_ACTIVE_JOB_ID_BUCKETS_STRING).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
@@ -246,74 +270,85 @@ public class CassandraJobStore implements JobStore {
 
     @Override
     public Observable<Pair<List<Job<?>>, Integer>> retrieveJobs() {
-        Observable result = Observable.fromCallable(() -> {
-            List<String> jobIds = activeJobIdsBucketManager.getItems();
-            return jobIds.stream().map(retrieveActiveJobStatement::bind).map(this::execute).collect(Collectors.toList());
-        }).flatMap(observables -> Observable.merge(observables, getConcurrencyLimit()).flatMapIterable(resultSet -> {
-            List<Row> allRows = resultSet.all();
-            if (allRows.isEmpty()) {
-                logger.debug("Job id with no record");
-                return Collections.emptyList();
-            }
-            return allRows.stream()
-                    .map(row -> row.getString(0))
-                    .map(value -> {
-                        String effectiveValue;
-                        if (fitBadDataInjection.isPresent()) {
-                            effectiveValue = fitBadDataInjection.get().afterImmediate(JobStoreFitAction.ErrorKind.CorruptedRawJobRecords.name(), value);
-                        } else {
-                            effectiveValue = value;
-                        }
+        Observable<Either<Job<?>, Throwable>> parsedJobs;
+        if (configuration.isBootstrapTokenRangeScanEnabled()) {
+            parsedJobs = Observable.defer(() -> newTokenRangeScanner()
+                    .scan(ACTIVE_JOBS_TABLE, "job_id", getConcurrencyLimit())
+                    .filter(idAndValue -> activeJobIdsBucketManager.itemExists(idAndValue.getLeft()))
+                    .map(idAndValue -> parseJobRecord(idAndValue.getRight()))
+            );
+        } else {
+            parsedJobs = Observable.fromCallable(() -> {
+                List<String> jobIds = activeJobIdsBucketManager.getItems();
+                return jobIds.stream().map(retrieveActiveJobStatement::bind).map(this::execute).collect(Collectors.toList());
+            }).flatMap(observables -> Observable.merge(observables, getConcurrencyLimit()).flatMapIterable(resultSet -> {
+                List<Row> allRows = resultSet.all();
+                if (allRows.isEmpty()) {
+                    logger.debug("Job id with no record");
+                    return Collections.emptyList();
+                }
+                return allRows.stream()
+                        .map(row -> parseJobRecord(row.getString(0)))
+                        .collect(Collectors.toList());
+            }));
+        }
 
-                        Job<?> job;
-                        try {
-                            job = ObjectMappers.readValue(mapper, effectiveValue, Job.class);
-                        } catch (Exception e) {
-                            logger.error("Cannot map serialized job data to Job class: {}", effectiveValue, e);
-                            return Either.ofError(e);
-                        }
+        return parsedJobs.toList().map(everything -> {
+            List<Job<?>> goodJobs = everything.stream().filter(Either::hasValue).map(Either::getValue).collect(Collectors.toList());
+            int errors = everything.size() - goodJobs.size();
+            return Pair.of(goodJobs, errors);
+        });
+    }
 
-                        if (job.getJobDescriptor().getDisruptionBudget() == null) {
-                            if (disruptionBudgetEnabledPredicate.test(job)) {
-                                titusRuntime.getCodeInvariants().inconsistent("jobWithNoDisruptionBudget: jobId=%s", job.getId());
-                            }
-                            job = JobFunctions.changeDisruptionBudget(job, DisruptionBudget.none());
-                        } else if (!disruptionBudgetEnabledPredicate.test(job)) {
-                            if (!DisruptionBudgetFunctions.isLegacyJob(job)) {
-                                logger.warn("Loaded job from store with disruption budget not enabled; resetting it to none: jobId={}", job.getId());
-                            }
-                            job = JobFunctions.changeDisruptionBudget(job, DisruptionBudget.none());
-                        }
+    private Either<Job<?>, Throwable> parseJobRecord(String value) {
+        String effectiveValue;
+        if (fitBadDataInjection.isPresent()) {
+            effectiveValue = fitBadDataInjection.get().afterImmediate(JobStoreFitAction.ErrorKind.CorruptedRawJobRecords.name(), value);
+        } else {
+            effectiveValue = value;
+        }
 
-                        // TODO Remove this code when there are no more jobs with missing migration data (caused by a bug in ServiceJobExt builder).
-                        if (job.getJobDescriptor().getExtensions() instanceof ServiceJobExt) {
-                            Job<ServiceJobExt> serviceJob = (Job<ServiceJobExt>) job;
-                            ServiceJobExt ext = serviceJob.getJobDescriptor().getExtensions();
-                            if (ext.getMigrationPolicy() == null) {
-                                titusRuntime.getCodePointTracker().markReachable("Corrupted task migration record in Cassandra: " + job.getId());
-                                ServiceJobExt fixedExt = ext.toBuilder().withMigrationPolicy(SystemDefaultMigrationPolicy.newBuilder().build()).build();
-                                logger.warn("Service job with no migration policy defined. Setting system default: {}", job.getId());
-                                job = serviceJob.toBuilder().withJobDescriptor(
-                                        serviceJob.getJobDescriptor().toBuilder().withExtensions(fixedExt).build()
-                                ).build();
-                            }
-                        }
+        Job<?> job;
+        try {
+            job = codec.decode(effectiveValue, Job.class);
+        } catch (Exception e) {
+            logger.error("Cannot map serialized job data to Job class: {}", effectiveValue, e);
+            return Either.ofError(e);
+        }
 
-                        if (!fitBadDataInjection.isPresent()) {
-                            return Either.ofValue(job);
-                        }
+        if (job.getJobDescriptor().getDisruptionBudget() == null) {
+            if (disruptionBudgetEnabledPredicate.test(job)) {
+                titusRuntime.getCodeInvariants().inconsistent("jobWithNoDisruptionBudget: jobId=%s", job.getId());
+            }
+            job = JobFunctions.changeDisruptionBudget(job, DisruptionBudget.none());
+        } else if (!disruptionBudgetEnabledPredicate.test(job)) {
+            if (!DisruptionBudgetFunctions.isLegacyJob(job)) {
+                logger.warn("Loaded job from store with disruption budget not enabled; resetting it to none: jobId={}", job.getId());
+            }
+            job = JobFunctions.changeDisruptionBudget(job, DisruptionBudget.none());
+        }
 
-                        Job<?> effectiveJob = fitBadDataInjection.get().afterImmediate(JobStoreFitAction.ErrorKind.CorruptedJobRecords.name(), job);
-                        return Either.ofValue(effectiveJob);
-                    })
-                    .collect(Collectors.toList());
-        })).toList().map(everything -> {
-            List<Job> goodJobs = (List<Job>) everything.stream().filter(Either::hasValue).map(Either::getValue).collect(Collectors.toList());
-            int errors = everything.size() - goodJobs.size();
-            return Pair.of(goodJobs, errors);
-        });
+        // TODO Remove this code when there are no more jobs with missing migration data (caused by a bug in ServiceJobExt builder).
+        if (job.getJobDescriptor().getExtensions() instanceof ServiceJobExt) {
+            Job<ServiceJobExt> serviceJob = (Job<ServiceJobExt>) job;
+            ServiceJobExt ext = serviceJob.getJobDescriptor().getExtensions();
+            if (ext.getMigrationPolicy() == null) {
+                titusRuntime.getCodePointTracker().markReachable("Corrupted task migration record in Cassandra: " + job.getId());
+                ServiceJobExt fixedExt = ext.toBuilder().withMigrationPolicy(SystemDefaultMigrationPolicy.newBuilder().build()).build();
+                logger.warn("Service job with no migration policy defined. Setting system default: {}", job.getId());
+                job = serviceJob.toBuilder().withJobDescriptor(
+                        serviceJob.getJobDescriptor().toBuilder().withExtensions(fixedExt).build()
+                ).build();
+            }
+        }
+        job = interner.intern(job);
 
-        return result;
+        if (!fitBadDataInjection.isPresent()) {
+            return Either.ofValue(job);
+        }
+
+        Job<?> effectiveJob = fitBadDataInjection.get().afterImmediate(JobStoreFitAction.ErrorKind.CorruptedJobRecords.name(), job);
+        return Either.ofValue(effectiveJob);
     }
 
     @Override
@@ -326,8 +361,11 @@ public class CassandraJobStore implements JobStore {
             if (row == null) {
                 throw JobStoreException.jobDoesNotExist(jobId);
             }
-            String value = row.getString(0);
-            return (Job<?>) ObjectMappers.readValue(mapper, value, Job.class);
+            Either<Job<?>, Throwable> jobOrError = parseJobRecord(row.getString(0));
+            if (jobOrError.hasError()) {
+                throw new IllegalStateException("Cannot parse job record: " + jobId, jobOrError.getError());
+            }
+            return jobOrError.getValue();
         }));
     }
 
@@ -338,11 +376,11 @@ public class CassandraJobStore implements JobStore {
                     String jobId = job.getId();
                     checkIfJobAlreadyExists(jobId);
 
-                    String jobJsonString = writeJobToString(job);
+                    String jobRecord = encodeJob(job);
 
                     int bucket = activeJobIdsBucketManager.getNextBucket();
                     activeJobIdsBucketManager.addItem(bucket, jobId);
-                    Statement jobStatement = insertActiveJobStatement.bind(jobId, jobJsonString);
+                    Statement jobStatement = insertActiveJobStatement.bind(jobId, jobRecord);
                     Statement jobIdStatement = insertActiveJobIdStatement.bind(bucket, jobId);
 
                     BatchStatement batchStatement = new BatchStatement();
@@ -360,9 +398,9 @@ public class CassandraJobStore implements JobStore {
                 .toCompletable();
     }
 
-    private String writeJobToString(Job job) {
+    private String encodeJob(Job job) {
         if (disruptionBudgetEnabledPredicate.test(job)) {
-            return ObjectMappers.writeValueAsString(mapper, job);
+            return codec.encode(job);
         }
 
         if (!DisruptionBudgetFunctions.isLegacyJob(job)) {
@@ -370,7 +408,7 @@ public class CassandraJobStore implements JobStore {
         }
 
         JobDescriptor jobWithDisruptionBudgetNull = job.getJobDescriptor().toBuilder().withDisruptionBudget(null).build();
-        return ObjectMappers.writeValueAsString(mapper, job.toBuilder().withJobDescriptor(jobWithDisruptionBudgetNull).build());
+        return codec.encode(job.toBuilder().withJobDescriptor(jobWithDisruptionBudgetNull).build());
     }
 
     @Override
@@ -379,10 +417,10 @@ public class CassandraJobStore implements JobStore {
                 .fromCallable((Callable<Statement>) () -> {
                     String jobId = job.getId();
                     checkIfJobIsActive(jobId);
-                    String jobJsonString = writeJobToString(job);
+                    String jobRecord = encodeJob(job);
 
                     transactionLogger().logBeforeUpdate(insertActiveJobStatement, "updateJob", job);
-                    return insertActiveJobStatement.bind(jobId, jobJsonString);
+                    return insertActiveJobStatement.bind(jobId, jobRecord);
                 })
                 .flatMap(statement ->
                         execute(statement).doOnNext(rs -> transactionLogger().logAfterUpdate(insertActiveJobStatement, "updateJob", job))
@@ -442,21 +480,7 @@ public class CassandraJobStore implements JobStore {
         }).flatMap(retrieveActiveTaskIdsForJob -> execute(retrieveActiveTaskIdsForJob).flatMap(taskIdsResultSet -> {
             List<String> taskIds = taskIdsResultSet.all().stream()
                     .map(row -> row.getString(0))
-                    .flatMap(taskId -> {
-                        if (fitBadDataInjection.isPresent()) {
-                            List<String> effectiveTaskIds = new ArrayList<>();
-                            String effectiveTaskId = fitBadDataInjection.get().afterImmediate(JobStoreFitAction.ErrorKind.LostTaskIds.name(), taskId);
-                            if (effectiveTaskId != null) {
-                                effectiveTaskIds.add(effectiveTaskId);
-                            }
-                            String phantomId = fitBadDataInjection.get().afterImmediate(JobStoreFitAction.ErrorKind.PhantomTaskIds.name(), taskId);
-                            if (phantomId != null && !phantomId.equals(taskId)) {
-                                effectiveTaskIds.add(phantomId);
-                            }
-                            return effectiveTaskIds.stream();
-                        }
-                        return Stream.of(taskId);
-                    })
+                    .flatMap(this::applyTaskIdFitInjections)
                     .collect(Collectors.toList());
 
             List<Observable<ResultSet>> observables = taskIds.stream().map(retrieveActiveTaskStatement::bind).map(this::execute).collect(Collectors.toList());
@@ -464,43 +488,96 @@ public class CassandraJobStore implements JobStore {
             return Observable.merge(observables, getConcurrencyLimit()).flatMapIterable(tasksResultSet -> {
                 List<Either<Task, Throwable>> tasks = new ArrayList<>();
                 for (Row row : tasksResultSet.all()) {
-                    String value = row.getString(0);
-
-                    String effectiveValue;
-                    if (fitBadDataInjection.isPresent()) {
-                        effectiveValue = fitBadDataInjection.get().afterImmediate(JobStoreFitAction.ErrorKind.CorruptedRawTaskRecords.name(), value);
-                    } else {
-                        effectiveValue = value;
-                    }
-
-                    Task task;
-                    try {
-                        task = ObjectMappers.readValue(mapper, effectiveValue, Task.class);
-
-                        if (!fitBadDataInjection.isPresent()) {
-                            tasks.add(Either.ofValue(task));
-                        } else {
-                            Task effectiveTask = fitBadDataInjection.get().afterImmediate(JobStoreFitAction.ErrorKind.CorruptedTaskRecords.name(), task);
-                            effectiveTask = fitBadDataInjection.get().afterImmediate(JobStoreFitAction.ErrorKind.DuplicatedEni.name(), effectiveTask);
-                            effectiveTask = fitBadDataInjection.get().afterImmediate(JobStoreFitAction.ErrorKind.CorruptedTaskPlacementData.name(), effectiveTask);
-                            tasks.add(Either.ofValue(effectiveTask));
-                        }
-
-                        transactionLogger().logAfterRead(retrieveActiveTaskStatement, "retrieveTasksForJob", task);
-                    } catch (Exception e) {
-                        logger.error("Cannot map serialized task data to Task class: {}", effectiveValue, e);
-                        tasks.add(Either.ofError(e));
-                    }
+                    tasks.add(parseTaskRecord(row.getString(0)));
                 }
                 return tasks;
             });
-        })).toList().map(taskErrorPairs -> {
-            List<Task> tasks = taskErrorPairs.stream().filter(Either::hasValue).map(Either::getValue).collect(Collectors.toList());
-            int errors = (int) taskErrorPairs.stream().filter(Either::hasError).count();
-            return Pair.of(tasks, errors);
+        })).toList().map(CassandraJobStore::toTasksAndErrors);
+    }
+
+    /**
+     * If the token range scan is enabled, the task id and task tables are scanned in full, instead of issuing
+     * one query per job and one query per task.
+     */
+    @Override
+    public Observable<Pair<String, Pair<List<Task>, Integer>>> retrieveTasksForJobs(Collection<String> jobIds, int concurrency) {
+        if (!configuration.isBootstrapTokenRangeScanEnabled()) {
+            return JobStore.super.retrieveTasksForJobs(jobIds, concurrency);
+        }
+        return Observable.defer(() -> {
+            jobIds.forEach(this::checkIfJobIsActive);
+            Set<String> requestedJobIds = new HashSet<>(jobIds);
+            TokenRangeScanner scanner = newTokenRangeScanner();
+
+            return scanner.scan(ACTIVE_TASK_IDS_TABLE, "job_id", "task_id", getConcurrencyLimit())
+                    .filter(jobIdAndTaskId -> requestedJobIds.contains(jobIdAndTaskId.getLeft()))
+                    .flatMapIterable(jobIdAndTaskId -> applyTaskIdFitInjections(jobIdAndTaskId.getRight())
+                            .map(taskId -> Pair.of(taskId, jobIdAndTaskId.getLeft()))
+                            .collect(Collectors.toList())
+                    )
+                    .toMap(Pair::getLeft, Pair::getRight)
+                    .flatMap(taskIdToJobId -> scanner.scan(ACTIVE_TASKS_TABLE, "task_id", getConcurrencyLimit())
+                            .filter(idAndValue -> taskIdToJobId.containsKey(idAndValue.getLeft()))
+                            .map(idAndValue -> Pair.of(taskIdToJobId.get(idAndValue.getLeft()), parseTaskRecord(idAndValue.getRight())))
+                            .toMultimap(Pair::getLeft, Pair::getRight)
+                    )
+                    .flatMapIterable(jobIdToTasks -> jobIds.stream()
+                            .map(jobId -> {
+                                Collection<Either<Task, Throwable>> tasks = jobIdToTasks.get(jobId);
+                                return Pair.of(jobId, toTasksAndErrors(tasks == null ? Collections.emptyList() : tasks));
+                            })
+                            .collect(Collectors.toList())
+                    );
         });
     }
 
+    private Stream<String> applyTaskIdFitInjections(String taskId) {
+        if (!fitBadDataInjection.isPresent()) {
+            return Stream.of(taskId);
+        }
+        List<String> effectiveTaskIds = new ArrayList<>();
+        String effectiveTaskId = fitBadDataInjection.get().afterImmediate(JobStoreFitAction.ErrorKind.LostTaskIds.name(), taskId);
+        if (effectiveTaskId != null) {
+            effectiveTaskIds.add(effectiveTaskId);
+        }
+        String phantomId = fitBadDataInjection.get().afterImmediate(JobStoreFitAction.ErrorKind.PhantomTaskIds.name(), taskId);
+        if (phantomId != null && !phantomId.equals(taskId)) {
+            effectiveTaskIds.add(phantomId);
+        }
+        return effectiveTaskIds.stream();
+    }
+
+    private Either<Task, Throwable> parseTaskRecord(String value) {
+        String effectiveValue;
+        if (fitBadDataInjection.isPresent()) {
+            effectiveValue = fitBadDataInjection.get().afterImmediate(JobStoreFitAction.ErrorKind.CorruptedRawTaskRecords.name(), value);
+        } else {
+            effectiveValue = value;
+        }
+
+        try {
+            Task task = interner.intern(codec.decode(effectiveValue, Task.class));
+            transactionLogger().logAfterRead(retrieveActiveTaskStatement, "retrieveTasksForJob", task);
+
+            if (!fitBadDataInjection.isPresent()) {
+                return Either.ofValue(task);
+            }
+            Task effectiveTask = fitBadDataInjection.get().afterImmediate(JobStoreFitAction.ErrorKind.CorruptedTaskRecords.name(), task);
+            effectiveTask = fitBadDataInjection.get().afterImmediate(JobStoreFitAction.ErrorKind.DuplicatedEni.name(), effectiveTask);
+            effectiveTask = fitBadDataInjection.get().afterImmediate(JobStoreFitAction.ErrorKind.CorruptedTaskPlacementData.name(), effectiveTask);
+            return Either.ofValue(effectiveTask);
+        } catch (Exception e) {
+            logger.error("Cannot map serialized task data to Task class: {}", effectiveValue, e);
+            return Either.ofError(e);
+        }
+    }
+
+    private static Pair<List<Task>, Integer> toTasksAndErrors(Collection<Either<Task, Throwable>> taskErrorPairs) {
+        List<Task> tasks = taskErrorPairs.stream().filter(Either::hasValue).map(Either::getValue).collect(Collectors.toList());
+        int errors = (int) taskErrorPairs.stream().filter(Either::hasError).count();
+        return Pair.of(tasks, errors);
+    }
+
     @Override
     public Observable<Task> retrieveTask(String taskId) {
         return Observable
@@ -512,7 +589,7 @@ public class CassandraJobStore implements JobStore {
                     Row row = resultSet.one();
                     if (row != null) {
                         String value = row.getString(0);
-                        Task task = ObjectMappers.readValue(mapper, value, Task.class);
+                        Task task = interner.intern(codec.decode(value, Task.class));
 
                         transactionLogger().logAfterRead(retrieveActiveTaskStatement, "retrieveTask", task);
 
@@ -523,14 +600,27 @@ public class CassandraJobStore implements JobStore {
                 }));
     }
 
+    @Override
+    public Observable<Pair<String, Long>> retrieveActiveJobWriteTimestamps() {
+        return Observable.defer(() -> newTokenRangeScanner()
+                .scanWriteTimestamps(ACTIVE_JOBS_TABLE, "job_id", "value", getConcurrencyLimit())
+                .filter(idAndTimestamp -> activeJobIdsBucketManager.itemExists(idAndTimestamp.getLeft()))
+        );
+    }
+
+    @Override
+    public Observable<Pair<String, Long>> retrieveActiveTaskWriteTimestamps() {
+        return Observable.defer(() -> newTokenRangeScanner().scanWriteTimestamps(ACTIVE_TASKS_TABLE, "task_id", "value", getConcurrencyLimit()));
+    }
+
     @Override
     public Completable storeTask(Task task) {
         return Observable.fromCallable((Callable<Statement>) () -> {
             String jobId = task.getJobId();
             String taskId = task.getId();
             checkIfJobIsActive(jobId);
-            String taskJsonString = ObjectMappers.writeValueAsString(mapper, task);
-            Statement taskStatement = insertActiveTaskStatement.bind(taskId, taskJsonString);
+            String taskRecord = codec.encode(task);
+            Statement taskStatement = insertActiveTaskStatement.bind(taskId, taskRecord);
             Statement taskIdStatement = insertActiveTaskIdStatement.bind(jobId, taskId);
 
             BatchStatement batchStatement = new BatchStatement();
@@ -545,17 +635,36 @@ public class CassandraJobStore implements JobStore {
         ).toCompletable();
     }
 
+    @PreDestroy
+    public void shutdown() {
+        try {
+            if (!taskUpdateCoalescer.shutdown().await(TASK_UPDATE_FLUSH_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                logger.warn("Buffered task updates not written within {}ms", TASK_UPDATE_FLUSH_TIMEOUT_MS);
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to write buffered task updates", e);
+        }
+    }
+
+    /**
+     * Task updates always go through {@link TaskUpdateCoalescer}, even if the coalescing window is 0, so a write of
+     * a buffered version is never reordered with a newer one when the window is changed at runtime.
+     */
     @Override
     public Completable updateTask(Task task) {
+        return taskUpdateCoalescer.update(task);
+    }
+
+    private Completable writeTaskUpdate(Task task) {
         return Observable.fromCallable((Callable<Statement>) () -> {
             String jobId = task.getJobId();
             String taskId = task.getId();
             checkIfJobIsActive(jobId);
-            String taskJsonString = ObjectMappers.writeValueAsString(mapper, task);
+            String taskRecord = codec.encode(task);
 
             transactionLogger().logBeforeUpdate(insertActiveTaskStatement, "updateTask", task);
 
-            return insertActiveTaskStatement.bind(taskId, taskJsonString);
+            return insertActiveTaskStatement.bind(taskId, taskRecord);
         }).flatMap(statement -> {
                     transactionLogger().logAfterUpdate(insertActiveTaskStatement, "updateTask", task);
                     return execute(statement);
@@ -565,22 +674,22 @@ public class CassandraJobStore implements JobStore {
 
     @Override
     public Completable replaceTask(Task oldTask, Task newTask) {
-        return Observable.fromCallable((Callable<Statement>) () -> {
+        return taskUpdateCoalescer.drain(oldTask.getId()).andThen(Observable.fromCallable((Callable<Statement>) () -> {
             String jobId = newTask.getJobId();
             checkIfJobIsActive(jobId);
             String taskId = newTask.getId();
-            String taskJsonString = ObjectMappers.writeValueAsString(mapper, newTask);
+            String taskRecord = codec.encode(newTask);
 
             BatchStatement batchStatement = getArchiveTaskBatchStatement(oldTask);
 
-            Statement insertTaskStatement = insertActiveTaskStatement.bind(taskId, taskJsonString);
+            Statement insertTaskStatement = insertActiveTaskStatement.bind(taskId, taskRecord);
             Statement insertTaskIdStatement = insertActiveTaskIdStatement.bind(jobId, taskId);
 
             batchStatement.add(insertTaskStatement);
             batchStatement.add(insertTaskIdStatement);
 
             return batchStatement;
-        }).flatMap(this::execute).toCompletable();
+        }).flatMap(this::execute).toCompletable());
     }
 
     /**
@@ -595,27 +704,27 @@ public class CassandraJobStore implements JobStore {
      */
     @Override
     public Completable moveTask(Job jobFrom, Job jobTo, Task taskAfter) {
-        return Observable.fromCallable((Callable<Statement>) () -> {
+        return taskUpdateCoalescer.drain(taskAfter.getId()).andThen(Observable.fromCallable((Callable<Statement>) () -> {
             checkIfJobIsActive(jobFrom.getId());
             checkIfJobIsActive(jobTo.getId());
 
-            String taskJsonString = ObjectMappers.writeValueAsString(mapper, taskAfter);
-            transactionLogger().logBeforeUpdate(insertActiveTaskStatement, "moveTask", taskJsonString);
+            String taskRecord = codec.encode(taskAfter);
+            transactionLogger().logBeforeUpdate(insertActiveTaskStatement, "moveTask", taskRecord);
 
             BatchStatement batchStatement = new BatchStatement();
-            batchStatement.add(insertActiveJobStatement.bind(jobFrom.getId(), ObjectMappers.writeValueAsString(mapper, jobFrom)));
-            batchStatement.add(insertActiveJobStatement.bind(jobTo.getId(), ObjectMappers.writeValueAsString(mapper, jobTo)));
-            batchStatement.add(insertActiveTaskStatement.bind(taskAfter.getId(), taskJsonString));
+            batchStatement.add(insertActiveJobStatement.bind(jobFrom.getId(), codec.encode(jobFrom)));
+            batchStatement.add(insertActiveJobStatement.bind(jobTo.getId(), codec.encode(jobTo)));
+            batchStatement.add(insertActiveTaskStatement.bind(taskAfter.getId(), taskRecord));
             batchStatement.add(deleteActiveTaskIdStatement.bind(jobFrom.getId(), taskAfter.getId()));
             batchStatement.add(insertActiveTaskIdStatement.bind(jobTo.getId(), taskAfter.getId()));
 
             return batchStatement;
-        }).flatMap(this::execute).toCompletable().doOnCompleted(() -> transactionLogger().logAfterUpdate(insertActiveTaskStatement, "moveTask", taskAfter));
+        }).flatMap(this::execute).toCompletable().doOnCompleted(() -> transactionLogger().logAfterUpdate(insertActiveTaskStatement, "moveTask", taskAfter)));
     }
 
     @Override
     public Completable deleteTask(Task task) {
-        return Observable.fromCallable((Callable<Statement>) () -> {
+        return taskUpdateCoalescer.drain(task.getId()).andThen(Observable.fromCallable((Callable<Statement>) () -> {
             String jobId = task.getJobId();
             checkIfJobIsActive(jobId);
 
@@ -626,7 +735,7 @@ public class CassandraJobStore implements JobStore {
                     transactionLogger().logAfterDelete(deleteActiveTaskStatement, "deleteTask", task);
                     return execute(statement);
                 }
-        ).toCompletable();
+        ).toCompletable());
     }
 
     @Override
@@ -638,7 +747,7 @@ public class CassandraJobStore implements JobStore {
                         throw JobStoreException.jobDoesNotExist(jobId);
                     }
                     String value = row.getString(0);
-                    return (Job<?>) ObjectMappers.readValue(mapper, value, Job.class);
+                    return (Job<?>) codec.decode(value, Job.class);
                 }));
     }
 
@@ -650,7 +759,7 @@ public class CassandraJobStore implements JobStore {
                     List<Observable<ResultSet>> observables = taskIds.stream().map(retrieveArchivedTaskStatement::bind).map(this::execute).collect(Collectors.toList());
                     return Observable.merge(observables, getConcurrencyLimit()).flatMapIterable(tasksResultSet -> tasksResultSet.all().stream()
                             .map(row -> row.getString(0))
-                            .map(value -> ObjectMappers.readValue(mapper, value, Task.class))
+                            .map(value -> codec.decode(value, Task.class))
                             .collect(Collectors.toList()));
                 }));
     }
@@ -662,7 +771,7 @@ public class CassandraJobStore implements JobStore {
                     Row row = resultSet.one();
                     if (row != null) {
                         String value = row.getString(0);
-                        Task task = ObjectMappers.readValue(mapper, value, Task.class);
+                        Task task = codec.decode(value, Task.class);
                         return Observable.just(task);
                     } else {
                         return Observable.error(JobStoreException.taskDoesNotExist(taskId));
@@ -677,11 +786,11 @@ public class CassandraJobStore implements JobStore {
     private BatchStatement getArchiveJobBatchStatement(Job job) {
         String jobId = job.getId();
         int bucket = activeJobIdsBucketManager.getItemBucket(jobId);
-        String jobJsonString = writeJobToString(job);
+        String jobRecord = encodeJob(job);
 
         Statement deleteJobStatement = deleteActiveJobStatement.bind(jobId);
         Statement deleteJobIdStatement = deleteActiveJobIdStatement.bind(bucket, jobId);
-        Statement insertJobStatement = insertArchivedJobStatement.bind(jobId, jobJsonString);
+        Statement insertJobStatement = insertArchivedJobStatement.bind(jobId, jobRecord);
 
         BatchStatement statement = new BatchStatement();
         statement.add(deleteJobStatement);
@@ -694,11 +803,11 @@ public class CassandraJobStore implements JobStore {
     private BatchStatement getArchiveTaskBatchStatement(Task task) {
         String jobId = task.getJobId();
         String taskId = task.getId();
-        String taskJsonString = ObjectMappers.writeValueAsString(mapper, task);
+        String taskRecord = codec.encode(task);
 
         Statement deleteTaskStatement = deleteActiveTaskStatement.bind(taskId);
         Statement deleteTaskIdStatement = deleteActiveTaskIdStatement.bind(jobId, taskId);
-        Statement insertTaskStatement = insertArchivedTaskStatement.bind(taskId, taskJsonString);
+        Statement insertTaskStatement = insertArchivedTaskStatement.bind(taskId, taskRecord);
         Statement insertTaskIdStatement = insertArchivedTaskIdStatement.bind(jobId, taskId);
 
         BatchStatement batchStatement = new BatchStatement();
@@ -745,6 +854,27 @@ public class CassandraJobStore implements JobStore {
         ).doOnError(e -> logger.error("Cassandra operation error: {}", e.getMessage()));
     }
 
+    private JobStoreRecordCodec.Format resolveRecordWriteFormat() {
+        String formatName = configuration.getJobRecordFormat();
+        Pair<String, JobStoreRecordCodec.Format> last = recordWriteFormat;
+        if (Objects.equals(last.getLeft(), formatName)) {
+            return last.getRight();
+        }
+        JobStoreRecordCodec.Format format;
+        try {
+            format = JobStoreRecordCodec.parseFormat(formatName);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid job record format configured; writing records as JSON: {}", e.getMessage());
+            format = JobStoreRecordCodec.Format.Json;
+        }
+        this.recordWriteFormat = Pair.of(formatName, format);
+        return format;
+    }
+
+    private TokenRangeScanner newTokenRangeScanner() {
+        return new TokenRangeScanner(session, configuration.getBootstrapScanPageSize(), METRIC_NAME_ROOT + ".bootstrapScan", titusRuntime.getRegistry());
+    }
+
     private int getConcurrencyLimit() {
         return Math.max(2, configuration.getConcurrencyLimit());
     }
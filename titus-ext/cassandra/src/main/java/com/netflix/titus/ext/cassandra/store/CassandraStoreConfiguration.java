@@ -47,4 +47,32 @@ public interface CassandraStoreConfiguration {
      */
     @DefaultValue("false")
     boolean isTracingEnabled();
+
+    /**
+     * @return the encoding of newly written job and task records ('json' or 'smile'). Records in both formats
+     * are always readable, so this property can be changed at any time. Smile records are base64 encoded into the
+     * 'text' value columns, which makes them larger than JSON (see {@link JobStoreRecordCodec}).
+     */
+    @DefaultValue("json")
+    String getJobRecordFormat();
+
+    /**
+     * Task updates submitted within this time window are coalesced (only the latest version of a task is written),
+     * and written together when the window expires. Set to 0 to write each update immediately.
+     */
+    @DefaultValue("0")
+    long getTaskUpdateCoalescingWindowMs();
+
+    /**
+     * If enabled, active jobs and tasks are loaded during bootstrap by scanning the tables token range by token range,
+     * instead of reading each record individually by its id.
+     */
+    @DefaultValue("false")
+    boolean isBootstrapTokenRangeScanEnabled();
+
+    /**
+     * @return the page size of the bootstrap token range scan
+     */
+    @DefaultValue("1000")
+    int getBootstrapScanPageSize();
 }
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.ext.cassandra.store;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.spectator.api.DistributionSummary;
+import com.netflix.spectator.api.Id;
+import com.netflix.spectator.api.NoopRegistry;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.Timer;
+import com.netflix.titus.api.json.ObjectMappers;
+import rx.exceptions.Exceptions;
+
+/**
+ * Encodes job and task records stored in the Cassandra 'value' text columns. Two formats are supported:
+ * <ul>
+ * <li>{@link Format#Json} - the original Jackson JSON format</li>
+ * <li>{@link Format#Smile} - binary Jackson Smile encoding, with the same data model as JSON, stored as a base64 string
+ * prefixed with a format/version header (see {@link #SMILE_V1_PREFIX})</li>
+ * </ul>
+ * Both formats are always readable, and the format is detected from the record itself, so the write format can be
+ * switched at any time, and the existing records can be migrated in the background (see the 'jobRecordFormat' CassTool
+ * command). The record header is versioned, so the binary encoding can evolve without breaking the older records.
+ * <p>
+ * The Smile bytes are 12-23% smaller than JSON, but the base64 encoding, required by the 'text' columns, adds 33%,
+ * so a Smile record is 5-17% larger than the same record in JSON, and it is not decoded faster. To pay off, Smile
+ * records must be stored in a 'blob' column.
+ */
+public class JobStoreRecordCodec {
+
+    public enum Format {
+        Json,
+        Smile
+    }
+
+    static final String SMILE_V1_PREFIX = "smile/v1:";
+
+    private static final String METRIC_ROOT = "titusMaster.jobManager.cassandra.recordCodec.";
+
+    private final Supplier<Format> writeFormatSupplier;
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper smileMapper;
+
+    private final Registry registry;
+    private final Id encodedBytesId;
+    private final Id decodeTimeId;
+
+    public JobStoreRecordCodec(Supplier<Format> writeFormatSupplier, ObjectMapper jsonMapper, ObjectMapper smileMapper, Registry registry) {
+        this.writeFormatSupplier = writeFormatSupplier;
+        this.jsonMapper = jsonMapper;
+        this.smileMapper = smileMapper;
+        this.registry = registry;
+        this.encodedBytesId = registry.createId(METRIC_ROOT + "encodedBytes");
+        this.decodeTimeId = registry.createId(METRIC_ROOT + "decodeTime");
+    }
+
+    public String encode(Object value) {
+        return encode(value, writeFormatSupplier.get());
+    }
+
+    public String encode(Object value, Format format) {
+        String encoded;
+        if (format == Format.Smile) {
+            encoded = SMILE_V1_PREFIX + Base64.getEncoder().encodeToString(ObjectMappers.writeValueAsBytes(smileMapper, value));
+        } else {
+            encoded = ObjectMappers.writeValueAsString(jsonMapper, value);
+        }
+        encodedBytes(format, value.getClass()).record(encoded.length());
+        return encoded;
+    }
+
+    public <T> T decode(String encoded, Class<T> type) {
+        Format format = detectFormat(encoded);
+        long startTime = System.nanoTime();
+        T value;
+        if (format == Format.Smile) {
+            value = ObjectMappers.readValue(smileMapper, decodeSmileBytes(encoded), type);
+        } else {
+            value = ObjectMappers.readValue(jsonMapper, encoded, type);
+        }
+        decodeTime(format, type).record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        return value;
+    }
+
+    /**
+     * Reads a record as a generic JSON tree, independently of its storage format.
+     */
+    public JsonNode decodeTree(String encoded) {
+        try {
+            if (detectFormat(encoded) == Format.Smile) {
+                return smileMapper.readTree(decodeSmileBytes(encoded));
+            }
+            return jsonMapper.readTree(encoded);
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    /**
+     * Re-encodes a record in the requested format. Returns the original string if it is already in that format.
+     */
+    public String convert(String encoded, Format targetFormat, Class<?> type) {
+        if (detectFormat(encoded) == targetFormat) {
+            return encoded;
+        }
+        return encode(decode(encoded, type), targetFormat);
+    }
+
+    /**
+     * Codec with the default store mappers, and no metrics, for use by the command line tools.
+     */
+    public static JobStoreRecordCodec newToolCodec(Format writeFormat) {
+        return new JobStoreRecordCodec(() -> writeFormat, ObjectMappers.storeMapper(), ObjectMappers.storeSmileMapper(), new NoopRegistry());
+    }
+
+    public static Format detectFormat(String encoded) {
+        return encoded.startsWith(SMILE_V1_PREFIX) ? Format.Smile : Format.Json;
+    }
+
+    public static Format parseFormat(String formatName) {
+        for (Format format : Format.values()) {
+            if (format.name().equalsIgnoreCase(formatName)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown job store record format: " + formatName);
+    }
+
+    private static byte[] decodeSmileBytes(String encoded) {
+        return Base64.getDecoder().decode(encoded.substring(SMILE_V1_PREFIX.length()).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private DistributionSummary encodedBytes(Format format, Class<?> type) {
+        return registry.distributionSummary(encodedBytesId.withTag("format", format.name()).withTag("type", type.getSimpleName()));
+    }
+
+    private Timer decodeTime(Format format, Class<?> type) {
+        return registry.timer(decodeTimeId.withTag("format", format.name()).withTag("type", type.getSimpleName()));
+    }
+}
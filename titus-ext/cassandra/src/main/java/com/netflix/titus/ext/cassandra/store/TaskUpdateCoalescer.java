@@ -0,0 +1,225 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.ext.cassandra.store;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.Registry;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import rx.Completable;
+import rx.CompletableEmitter;
+import rx.Scheduler;
+
+/**
+ * Write-behind buffer for task record updates. Updates of the same task submitted within the coalescing window are
+ * collapsed into a single write of the most recent task version, and all updates collected in the window are written
+ * together when the window expires. The following guarantees are preserved:
+ * <ul>
+ * <li>a {@link Completable} returned by {@link #update(Task)} completes only after a task version at least as recent
+ * as the submitted one has been persisted, or fails if that write failed</li>
+ * <li>writes of the same task never overlap, so they are applied in the submission order</li>
+ * <li>{@link #drain(String)} lets non-update operations (replace, move, delete) wait for the buffered updates of a task,
+ * so they are not reordered with them</li>
+ * <li>{@link #shutdown()} writes all buffered updates immediately; updates submitted after it are written without
+ * waiting for the window</li>
+ * </ul>
+ * Writes of different tasks are issued concurrently, each as a single statement. Each task record is its own
+ * partition, so once the updates are coalesced, there is nothing left to group into per-partition batches.
+ */
+class TaskUpdateCoalescer {
+
+    private static final String METRIC_ROOT = "titusMaster.jobManager.cassandra.taskUpdateCoalescer.";
+
+    private final LongSupplier windowMsSupplier;
+    private final Function<Task, Completable> writer;
+    private final Scheduler.Worker worker;
+
+    private final Counter submittedCounter;
+    private final Counter writtenCounter;
+    private final Counter coalescedCounter;
+
+    private final Object lock = new Object();
+    private final Map<String, TaskSlot> slots = new HashMap<>();
+    private boolean flushScheduled;
+    private boolean shutdown;
+
+    TaskUpdateCoalescer(LongSupplier windowMsSupplier, Function<Task, Completable> writer, Scheduler scheduler, Registry registry) {
+        this.windowMsSupplier = windowMsSupplier;
+        this.writer = writer;
+        this.worker = scheduler.createWorker();
+        this.submittedCounter = registry.counter(METRIC_ROOT + "submitted");
+        this.writtenCounter = registry.counter(METRIC_ROOT + "written");
+        this.coalescedCounter = registry.counter(METRIC_ROOT + "coalesced");
+    }
+
+    /**
+     * Stops the flush timer, and writes all buffered updates immediately. Returns {@link Completable} that completes
+     * when all updates submitted before the shutdown are written.
+     */
+    Completable shutdown() {
+        List<String> taskIds;
+        synchronized (lock) {
+            shutdown = true;
+            taskIds = new ArrayList<>(slots.keySet());
+        }
+        worker.unsubscribe();
+        flush();
+        return Completable.merge(taskIds.stream().map(this::drain).collect(Collectors.toList()));
+    }
+
+    Completable update(Task task) {
+        return Completable.fromEmitter(emitter -> {
+            submittedCounter.increment();
+            TaskSlot slot;
+            boolean writeNow = false;
+            synchronized (lock) {
+                slot = slots.computeIfAbsent(task.getId(), id -> new TaskSlot());
+                if (slot.next != null) {
+                    coalescedCounter.increment();
+                }
+                slot.next = task;
+                slot.nextEmitters.add(emitter);
+                if (!shutdown) {
+                    scheduleFlushIfNeeded();
+                } else if (!slot.inFlight) {
+                    prepareWrite(slot);
+                    writeNow = true;
+                }
+            }
+            if (writeNow) {
+                write(task.getId(), slot);
+            }
+        });
+    }
+
+    /**
+     * Returns {@link Completable} that completes when all updates of the given task submitted so far are written.
+     * The buffered update (if any) is written immediately, without waiting for the coalescing window to expire.
+     */
+    Completable drain(String taskId) {
+        return Completable.fromEmitter(emitter -> {
+            TaskSlot slot;
+            boolean writeNow = false;
+            synchronized (lock) {
+                slot = slots.get(taskId);
+                if (slot != null) {
+                    slot.drainEmitters.add(emitter);
+                    if (!slot.inFlight && slot.next != null) {
+                        prepareWrite(slot);
+                        writeNow = true;
+                    }
+                }
+            }
+            if (slot == null) {
+                emitter.onCompleted();
+            } else if (writeNow) {
+                write(taskId, slot);
+            }
+        });
+    }
+
+    private void scheduleFlushIfNeeded() {
+        if (!flushScheduled) {
+            flushScheduled = true;
+            worker.schedule(this::flush, Math.max(0, windowMsSupplier.getAsLong()), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flush() {
+        Map<String, TaskSlot> toWrite = new HashMap<>();
+        synchronized (lock) {
+            flushScheduled = false;
+            slots.forEach((taskId, slot) -> {
+                // Slots with a write in flight are picked up again when that write completes.
+                if (!slot.inFlight && slot.next != null) {
+                    prepareWrite(slot);
+                    toWrite.put(taskId, slot);
+                }
+            });
+        }
+        toWrite.forEach(this::write);
+    }
+
+    private void prepareWrite(TaskSlot slot) {
+        slot.inFlight = true;
+        slot.current = slot.next;
+        slot.currentEmitters = slot.nextEmitters;
+        slot.next = null;
+        slot.nextEmitters = new ArrayList<>();
+    }
+
+    private void write(String taskId, TaskSlot slot) {
+        writtenCounter.increment();
+        writer.apply(slot.current).subscribe(
+                () -> onWriteCompleted(taskId, slot, null),
+                error -> onWriteCompleted(taskId, slot, error)
+        );
+    }
+
+    private void onWriteCompleted(String taskId, TaskSlot slot, Throwable error) {
+        List<CompletableEmitter> completed = slot.currentEmitters;
+        List<CompletableEmitter> drained = new ArrayList<>();
+        boolean writeNext = false;
+        synchronized (lock) {
+            slot.inFlight = false;
+            slot.current = null;
+            slot.currentEmitters = null;
+            if (slot.next == null) {
+                slots.remove(taskId);
+                drained = slot.drainEmitters;
+            } else if (shutdown || !slot.drainEmitters.isEmpty()) {
+                // Somebody waits for this task, or there is no flush timer anymore, so write the next version now.
+                prepareWrite(slot);
+                writeNext = true;
+            } else {
+                scheduleFlushIfNeeded();
+            }
+        }
+
+        completed.forEach(emitter -> {
+            if (error == null) {
+                emitter.onCompleted();
+            } else {
+                emitter.onError(error);
+            }
+        });
+        drained.forEach(CompletableEmitter::onCompleted);
+
+        if (writeNext) {
+            write(taskId, slot);
+        }
+    }
+
+    private static class TaskSlot {
+        private Task next;
+        private List<CompletableEmitter> nextEmitters = new ArrayList<>();
+
+        private boolean inFlight;
+        private Task current;
+        private List<CompletableEmitter> currentEmitters;
+
+        private List<CompletableEmitter> drainEmitters = new ArrayList<>();
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.ext.cassandra.store;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.PagingIterable;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.TokenRange;
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.Id;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.Timer;
+import com.netflix.titus.common.util.tuple.Pair;
+import com.netflix.titus.ext.cassandra.executor.ExecutionContext;
+import com.netflix.titus.ext.cassandra.executor.FuturePaginatedQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rx.Observable;
+
+/**
+ * Reads all rows of a key/value table, by splitting the scan into the cluster token ranges. Token ranges
+ * are read in parallel with bounded concurrency, and each range is paged, so rows are emitted as soon as a page
+ * arrives. The following metrics are exported (all tagged with the table name):
+ * <ul>
+ * <li>rows - number of rows read (its rate gives rows per second)</li>
+ * <li>rangeLatency - time to read a single token range</li>
+ * <li>scanTime - time to read the whole table</li>
+ * </ul>
+ */
+class TokenRangeScanner {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRangeScanner.class);
+
+    /**
+     * Cassandra splits the ring into many small ranges (one per vnode), so further splitting is not needed.
+     */
+    private static final int TOKEN_RANGE_SPLIT = 1;
+
+    private final Session session;
+    private final int pageSize;
+    private final Registry registry;
+
+    private final Id rowsId;
+    private final Id rangeLatencyId;
+    private final Id scanTimeId;
+
+    TokenRangeScanner(Session session, int pageSize, String metricNameRoot, Registry registry) {
+        this.session = session;
+        this.pageSize = pageSize;
+        this.registry = registry;
+        this.rowsId = registry.createId(metricNameRoot + ".rows");
+        this.rangeLatencyId = registry.createId(metricNameRoot + ".rangeLatency");
+        this.scanTimeId = registry.createId(metricNameRoot + ".scanTime");
+    }
+
+    /**
+     * Scans a table with a single partition key column, and a text 'value' column.
+     */
+    Observable<Pair<String, String>> scan(String table, String keyColumn, int concurrency) {
+        return scan(table, keyColumn, "value", concurrency);
+    }
+
+    /**
+     * Scans a table returning { keyColumn, valueColumn } pairs. The key column must be the partition key.
+     */
+    Observable<Pair<String, String>> scan(String table, String keyColumn, String valueColumn, int concurrency) {
+        return scan(table, keyColumn, valueColumn, concurrency, row -> Pair.of(row.getString(0), row.getString(1)));
+    }
+
+    /**
+     * Scans a table returning { keyColumn, write time of valueColumn in milliseconds } pairs. The value itself is not
+     * transferred.
+     */
+    Observable<Pair<String, Long>> scanWriteTimestamps(String table, String keyColumn, String valueColumn, int concurrency) {
+        return scan(table, keyColumn, "WRITETIME(" + valueColumn + ")", concurrency,
+                row -> Pair.of(row.getString(0), TimeUnit.MICROSECONDS.toMillis(row.getLong(1)))
+        );
+    }
+
+    private <T> Observable<T> scan(String table, String keyColumn, String selector, int concurrency, Function<Row, T> rowMapper) {
+        return Observable.defer(() -> {
+            PreparedStatement statement = session.prepare(String.format(
+                    "SELECT %s, %s FROM %s WHERE token(%s) > :min AND token(%s) <= :max",
+                    keyColumn, selector, table, keyColumn, keyColumn
+            )).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
+
+            List<TokenRange> tokenRanges = new ExecutionContext(session, pageSize, TOKEN_RANGE_SPLIT).getTokenRanges();
+            Counter rowCounter = registry.counter(rowsId.withTag("table", table));
+            Timer rangeLatency = registry.timer(rangeLatencyId.withTag("table", table));
+            long startTime = System.nanoTime();
+
+            List<Observable<T>> rangeScans = new ArrayList<>(tokenRanges.size());
+            for (TokenRange range : tokenRanges) {
+                BoundStatement boundStatement = statement.bind().setToken("min", range.getStart()).setToken("max", range.getEnd());
+                rangeScans.add(scanRange(boundStatement, rowMapper, rowCounter, rangeLatency));
+            }
+
+            return Observable.merge(rangeScans, concurrency).doOnCompleted(() -> {
+                long elapsedNs = System.nanoTime() - startTime;
+                registry.timer(scanTimeId.withTag("table", table)).record(elapsedNs, TimeUnit.NANOSECONDS);
+                logger.info("Scanned table {} ({} token ranges) in {}ms", table, tokenRanges.size(), TimeUnit.NANOSECONDS.toMillis(elapsedNs));
+            });
+        });
+    }
+
+    private <T> Observable<T> scanRange(BoundStatement boundStatement,
+                                        Function<Row, T> rowMapper,
+                                        Counter rowCounter,
+                                        Timer rangeLatency) {
+        boundStatement.setFetchSize(pageSize);
+        return Observable.defer(() -> {
+            long startTime = System.nanoTime();
+            return FuturePaginatedQuery.<ResultSet, T>paginatedQuery(
+                    () -> session.executeAsync(boundStatement),
+                    ResultSet::fetchMoreResults,
+                    (rs, total) -> {
+                        int remaining = rs.getAvailableWithoutFetching();
+                        List<T> pageItems = new ArrayList<>(remaining);
+                        for (Row row : rs) {
+                            pageItems.add(rowMapper.apply(row));
+                            if (--remaining == 0) {
+                                break;
+                            }
+                        }
+                        rowCounter.increment(pageItems.size());
+                        return pageItems;
+                    },
+                    PagingIterable::isFullyFetched
+            ).onBackpressureBuffer().doOnCompleted(() -> rangeLatency.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS));
+        });
+    }
+}
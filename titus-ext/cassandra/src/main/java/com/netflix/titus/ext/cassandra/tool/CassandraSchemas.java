@@ -20,19 +20,17 @@ import java.util.List;
 
 import com.netflix.titus.common.util.CollectionsExt;
 
+import static com.netflix.titus.ext.cassandra.store.JobStoreTables.ACTIVE_JOBS_TABLE;
+import static com.netflix.titus.ext.cassandra.store.JobStoreTables.ACTIVE_JOB_IDS_TABLE;
+import static com.netflix.titus.ext.cassandra.store.JobStoreTables.ACTIVE_TASKS_TABLE;
+import static com.netflix.titus.ext.cassandra.store.JobStoreTables.ACTIVE_TASK_IDS_TABLE;
+import static com.netflix.titus.ext.cassandra.store.JobStoreTables.ARCHIVED_JOBS_TABLE;
+import static com.netflix.titus.ext.cassandra.store.JobStoreTables.ARCHIVED_TASKS_TABLE;
+import static com.netflix.titus.ext.cassandra.store.JobStoreTables.ARCHIVED_TASK_IDS_TABLE;
 import static java.util.Arrays.asList;
 
 public class CassandraSchemas {
 
-    public static final String ACTIVE_JOB_IDS_TABLE = "active_job_ids";
-    public static final String ACTIVE_JOBS_TABLE = "active_jobs";
-    public static final String ACTIVE_TASK_IDS_TABLE = "active_task_ids";
-    public static final String ACTIVE_TASKS_TABLE = "active_tasks";
-
-    public static final String ARCHIVED_JOBS_TABLE = "archived_jobs";
-    public static final String ARCHIVED_TASK_IDS_TABLE = "archived_task_ids";
-    public static final String ARCHIVED_TASKS_TABLE = "archived_tasks";
-
     public static final List<String> JOB_ACTIVE_TABLES = asList(
             ACTIVE_JOB_IDS_TABLE, ACTIVE_JOBS_TABLE, ACTIVE_TASK_IDS_TABLE, ACTIVE_TASKS_TABLE
     );
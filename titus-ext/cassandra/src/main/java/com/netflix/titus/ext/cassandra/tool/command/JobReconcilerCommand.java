@@ -27,21 +27,23 @@ import java.util.stream.Collectors;
 
 import com.netflix.titus.api.jobmanager.model.job.Job;
 import com.netflix.titus.api.jobmanager.model.job.Task;
-import com.netflix.titus.api.json.ObjectMappers;
 import com.netflix.titus.common.util.CollectionsExt;
 import com.netflix.titus.common.util.tuple.Pair;
+import com.netflix.titus.ext.cassandra.store.JobStoreRecordCodec;
 import com.netflix.titus.ext.cassandra.tool.CassandraUtils;
 import com.netflix.titus.ext.cassandra.tool.Command;
 import com.netflix.titus.ext.cassandra.tool.CommandContext;
 import org.apache.commons.cli.Options;
 
-import static com.netflix.titus.ext.cassandra.tool.CassandraSchemas.ACTIVE_JOBS_TABLE;
-import static com.netflix.titus.ext.cassandra.tool.CassandraSchemas.ACTIVE_JOB_IDS_TABLE;
-import static com.netflix.titus.ext.cassandra.tool.CassandraSchemas.ACTIVE_TASKS_TABLE;
-import static com.netflix.titus.ext.cassandra.tool.CassandraSchemas.ACTIVE_TASK_IDS_TABLE;
+import static com.netflix.titus.ext.cassandra.store.JobStoreTables.ACTIVE_JOBS_TABLE;
+import static com.netflix.titus.ext.cassandra.store.JobStoreTables.ACTIVE_JOB_IDS_TABLE;
+import static com.netflix.titus.ext.cassandra.store.JobStoreTables.ACTIVE_TASKS_TABLE;
+import static com.netflix.titus.ext.cassandra.store.JobStoreTables.ACTIVE_TASK_IDS_TABLE;
 
 public class JobReconcilerCommand implements Command {
 
+    private static final JobStoreRecordCodec CODEC = JobStoreRecordCodec.newToolCodec(JobStoreRecordCodec.Format.Json);
+
     @Override
     public String getDescription() {
         return "Report inconsistencies between V3 job/task tables";
@@ -130,7 +132,7 @@ public class JobReconcilerCommand implements Command {
                         String jobId = (String) pair.getLeft();
                         String value = (String) pair.getRight();
                         try {
-                            return (Job<?>) ObjectMappers.storeMapper().readValue(value, Job.class);
+                            return (Job<?>) CODEC.decode(value, Job.class);
                         } catch (Exception e) {
                             recordViolation("badJobRecord", String.format("Job %s cannot be mapped to Job object: %s", jobId, e.getMessage()), 1);
                             return null;
@@ -169,7 +171,7 @@ public class JobReconcilerCommand implements Command {
                         String taskId = (String) pair.getLeft();
                         String value = (String) pair.getRight();
                         try {
-                            return ObjectMappers.storeMapper().readValue(value, Task.class);
+                            return CODEC.decode(value, Task.class);
                         } catch (Exception e) {
                             recordViolation("badTaskRecord", String.format("Task %s cannot be mapped to Task object: %s", taskId, e.getMessage()), 1);
                             return null;
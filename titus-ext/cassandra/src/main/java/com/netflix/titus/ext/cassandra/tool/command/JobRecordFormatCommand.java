@@ -0,0 +1,136 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.ext.cassandra.tool.command;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.common.util.tuple.Pair;
+import com.netflix.titus.ext.cassandra.store.JobStoreRecordCodec;
+import com.netflix.titus.ext.cassandra.tool.CassandraUtils;
+import com.netflix.titus.ext.cassandra.tool.Command;
+import com.netflix.titus.ext.cassandra.tool.CommandContext;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import rx.Observable;
+
+import static com.netflix.titus.ext.cassandra.store.JobStoreTables.ACTIVE_JOBS_TABLE;
+import static com.netflix.titus.ext.cassandra.store.JobStoreTables.ACTIVE_TASKS_TABLE;
+import static com.netflix.titus.ext.cassandra.store.JobStoreTables.ARCHIVED_JOBS_TABLE;
+import static com.netflix.titus.ext.cassandra.store.JobStoreTables.ARCHIVED_TASKS_TABLE;
+
+/**
+ * Rewrites job and task records in the requested format (see {@link JobStoreRecordCodec}). Records already in the target
+ * format are not modified, so the command can be safely re-run. Records are rewritten in place, so this command
+ * should be run when the master is configured to write records in the same format, otherwise the master may overwrite
+ * the converted records again. Reports the record sizes and the decoding time before and after conversion.
+ */
+public class JobRecordFormatCommand implements Command {
+
+    @Override
+    public String getDescription() {
+        return "Rewrite job/task records in the given format (json or smile)";
+    }
+
+    @Override
+    public CommandType getCommandType() {
+        return CommandType.TargetKeySpace;
+    }
+
+    @Override
+    public Options getOptions() {
+        Options options = new Options();
+        options.addOption(Option.builder("f")
+                .longOpt("format")
+                .required()
+                .hasArg()
+                .desc("Target record format (json or smile)")
+                .build()
+        );
+        options.addOption(Option.builder("a").longOpt("archive").desc("Include archive tables").build());
+        options.addOption(Option.builder("r").longOpt("dry-run").desc("Report the size change, but do not write anything").build());
+        return options;
+    }
+
+    @Override
+    public void execute(CommandContext context) {
+        JobStoreRecordCodec.Format format = JobStoreRecordCodec.parseFormat(context.getCommandLine().getOptionValue('f'));
+        boolean includeArchive = context.getCommandLine().hasOption('a');
+        boolean dryRun = context.getCommandLine().hasOption('r');
+
+        JobStoreRecordCodec codec = JobStoreRecordCodec.newToolCodec(format);
+
+        convertTable(context, codec, format, ACTIVE_JOBS_TABLE, Job.class, dryRun);
+        convertTable(context, codec, format, ACTIVE_TASKS_TABLE, Task.class, dryRun);
+        if (includeArchive) {
+            convertTable(context, codec, format, ARCHIVED_JOBS_TABLE, Job.class, dryRun);
+            convertTable(context, codec, format, ARCHIVED_TASKS_TABLE, Task.class, dryRun);
+        }
+    }
+
+    private void convertTable(CommandContext context,
+                              JobStoreRecordCodec codec,
+                              JobStoreRecordCodec.Format format,
+                              String table,
+                              Class<?> type,
+                              boolean dryRun) {
+        AtomicLong records = new AtomicLong();
+        AtomicLong bytesBefore = new AtomicLong();
+        AtomicLong bytesAfter = new AtomicLong();
+        AtomicLong decodeTimeBeforeNs = new AtomicLong();
+        AtomicLong decodeTimeAfterNs = new AtomicLong();
+
+        Observable<Pair<Object, Object>> converted = CassandraUtils.readTwoColumnTable(context.getTargetSession(), table)
+                .flatMap(pair -> {
+                    String original = (String) pair.getRight();
+                    String updated = codec.convert(original, format, type);
+
+                    records.incrementAndGet();
+                    bytesBefore.addAndGet(original.length());
+                    bytesAfter.addAndGet(updated.length());
+                    decodeTimeBeforeNs.addAndGet(measureDecodeTime(codec, original, type));
+                    decodeTimeAfterNs.addAndGet(measureDecodeTime(codec, updated, type));
+
+                    if (updated.equals(original)) {
+                        return Observable.empty();
+                    }
+                    return Observable.just(Pair.<Object, Object>of(pair.getLeft(), updated));
+                });
+
+        long written;
+        if (dryRun) {
+            written = converted.count().toBlocking().first();
+        } else {
+            written = CassandraUtils.writeIntoTwoColumnTable(context.getTargetSession(), table, converted);
+        }
+
+        long count = Math.max(1, records.get());
+        System.out.println(String.format(
+                "Table %s: records=%s, %s=%s, avgBytes %s -> %s, avgDecodeTimeUs %.1f -> %.1f",
+                table, records.get(), dryRun ? "toRewrite" : "rewritten", written,
+                bytesBefore.get() / count, bytesAfter.get() / count,
+                decodeTimeBeforeNs.get() / count / 1_000.0, decodeTimeAfterNs.get() / count / 1_000.0
+        ));
+    }
+
+    private long measureDecodeTime(JobStoreRecordCodec codec, String record, Class<?> type) {
+        long startTime = System.nanoTime();
+        codec.decode(record, type);
+        return System.nanoTime() - startTime;
+    }
+}
@@ -73,6 +73,26 @@ public class TestStoreLoadCommand implements Command {
         public boolean isTracingEnabled() {
             return false;
         }
+
+        @Override
+        public String getJobRecordFormat() {
+            return "json";
+        }
+
+        @Override
+        public long getTaskUpdateCoalescingWindowMs() {
+            return 0;
+        }
+
+        @Override
+        public boolean isBootstrapTokenRangeScanEnabled() {
+            return false;
+        }
+
+        @Override
+        public int getBootstrapScanPageSize() {
+            return 1000;
+        }
     };
 
     @Override
@@ -30,7 +30,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.google.common.base.Preconditions;
 import com.netflix.titus.common.util.tuple.Pair;
-import com.netflix.titus.ext.cassandra.tool.CassandraSchemas;
+import com.netflix.titus.ext.cassandra.store.JobStoreRecordCodec;
+import com.netflix.titus.ext.cassandra.store.JobStoreTables;
 import com.netflix.titus.ext.cassandra.tool.CassandraUtils;
 import rx.Observable;
 
@@ -41,6 +42,7 @@ import rx.Observable;
 public class JobSnapshotDownloader {
 
     private static final ObjectMapper MAPPER;
+    private static final JobStoreRecordCodec CODEC = JobStoreRecordCodec.newToolCodec(JobStoreRecordCodec.Format.Json);
 
     static {
         MAPPER = new ObjectMapper();
@@ -62,15 +64,15 @@ public class JobSnapshotDownloader {
         if (!outputFolder.exists()) {
             Preconditions.checkState(outputFolder.mkdirs(), "Cannot create output folder: %s", outputFolder.getAbsolutePath());
         }
-        writeIdBuckets(CassandraSchemas.ACTIVE_JOB_IDS_TABLE);
-        writeDataTable(CassandraSchemas.ACTIVE_JOBS_TABLE);
-        writeIdMappingTable(CassandraSchemas.ACTIVE_TASK_IDS_TABLE);
-        writeDataTable(CassandraSchemas.ACTIVE_TASKS_TABLE);
+        writeIdBuckets(JobStoreTables.ACTIVE_JOB_IDS_TABLE);
+        writeDataTable(JobStoreTables.ACTIVE_JOBS_TABLE);
+        writeIdMappingTable(JobStoreTables.ACTIVE_TASK_IDS_TABLE);
+        writeDataTable(JobStoreTables.ACTIVE_TASKS_TABLE);
 
         if (includeArchived) {
-            writeDataTable(CassandraSchemas.ARCHIVED_JOBS_TABLE);
-            writeIdMappingTable(CassandraSchemas.ARCHIVED_TASK_IDS_TABLE);
-            writeDataTable(CassandraSchemas.ARCHIVED_TASKS_TABLE);
+            writeDataTable(JobStoreTables.ARCHIVED_JOBS_TABLE);
+            writeIdMappingTable(JobStoreTables.ARCHIVED_TASK_IDS_TABLE);
+            writeDataTable(JobStoreTables.ARCHIVED_TASKS_TABLE);
         }
     }
 
@@ -80,8 +82,8 @@ public class JobSnapshotDownloader {
         List<JsonNode> allItems = CassandraUtils.readTwoColumnTable(session, table)
                 .flatMap(p -> {
                     try {
-                        return Observable.just(MAPPER.readTree((String) p.getRight()));
-                    } catch (IOException e) {
+                        return Observable.just(CODEC.decodeTree((String) p.getRight()));
+                    } catch (Exception e) {
                         return Observable.error(e);
                     }
                 })
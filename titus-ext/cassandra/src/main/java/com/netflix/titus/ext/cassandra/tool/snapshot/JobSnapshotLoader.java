@@ -29,6 +29,7 @@ import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.base.Preconditions;
 import com.netflix.titus.common.util.tuple.Pair;
+import com.netflix.titus.ext.cassandra.store.JobStoreTables;
 import com.netflix.titus.ext.cassandra.tool.CassandraSchemas;
 import com.netflix.titus.ext.cassandra.tool.CassandraUtils;
 import rx.Observable;
@@ -62,10 +63,10 @@ public class JobSnapshotLoader {
     }
 
     public void load() {
-        readIdBuckets(CassandraSchemas.ACTIVE_JOB_IDS_TABLE);
-        readDataTable(CassandraSchemas.ACTIVE_JOBS_TABLE);
-        readIdMappingTable(CassandraSchemas.ACTIVE_TASK_IDS_TABLE);
-        readDataTable(CassandraSchemas.ACTIVE_TASKS_TABLE);
+        readIdBuckets(JobStoreTables.ACTIVE_JOB_IDS_TABLE);
+        readDataTable(JobStoreTables.ACTIVE_JOBS_TABLE);
+        readIdMappingTable(JobStoreTables.ACTIVE_TASK_IDS_TABLE);
+        readDataTable(JobStoreTables.ACTIVE_TASKS_TABLE);
     }
 
     private void readDataTable(String table) {
@@ -17,8 +17,11 @@
 package com.netflix.titus.ext.cassandra.store;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.Session;
@@ -74,7 +77,9 @@ public class CassandraJobStoreTest {
             STARTUP_TIMEOUT_MS
     );
 
-    private static final CassandraStoreConfiguration CONFIGURATION = new CassandraStoreConfiguration() {
+    private boolean bootstrapTokenRangeScanEnabled;
+
+    private final CassandraStoreConfiguration configuration = new CassandraStoreConfiguration() {
         @Override
         public boolean isFailOnInconsistentAgentData() {
             return true;
@@ -99,6 +104,26 @@ public class CassandraJobStoreTest {
         public boolean isTracingEnabled() {
             return false;
         }
+
+        @Override
+        public String getJobRecordFormat() {
+            return "json";
+        }
+
+        @Override
+        public long getTaskUpdateCoalescingWindowMs() {
+            return 0;
+        }
+
+        @Override
+        public boolean isBootstrapTokenRangeScanEnabled() {
+            return bootstrapTokenRangeScanEnabled;
+        }
+
+        @Override
+        public int getBootstrapScanPageSize() {
+            return 1000;
+        }
     };
 
     @Test
@@ -240,6 +265,39 @@ public class CassandraJobStoreTest {
         assertThat(tasks.getLeft().get(0)).isEqualTo(task);
     }
 
+    @Test
+    public void testRetrieveJobsAndTasksWithTokenRangeScan() {
+        bootstrapTokenRangeScanEnabled = true;
+        Session session = cassandraCqlUnit.getSession();
+        JobStore bootstrappingStore = getJobStore(session);
+        bootstrappingStore.init().await();
+
+        List<Job<?>> jobs = new ArrayList<>();
+        Map<String, Task> tasks = new HashMap<>();
+        for (int i = 0; i < 5; i++) {
+            Job<BatchJobExt> job = createBatchJobObject();
+            bootstrappingStore.storeJob(job).await();
+            jobs.add(job);
+            Task task = createTaskObject(job);
+            bootstrappingStore.storeTask(task).await();
+            tasks.put(job.getId(), task);
+        }
+
+        JobStore store = getJobStore(session);
+        store.init().await();
+        Pair<List<Job<?>>, Integer> jobsAndErrors = store.retrieveJobs().toBlocking().first();
+        assertThat(jobsAndErrors.getLeft()).containsOnlyElementsOf(jobs);
+        assertThat(jobsAndErrors.getRight()).isEqualTo(0);
+
+        List<String> jobIds = jobs.stream().map(Job::getId).collect(Collectors.toList());
+        List<Pair<String, Pair<List<Task>, Integer>>> tasksForJobs = store.retrieveTasksForJobs(jobIds, MAX_CONCURRENCY).toList().toBlocking().first();
+        assertThat(tasksForJobs).hasSize(jobs.size());
+        tasksForJobs.forEach(jobIdAndTasks -> {
+            assertThat(jobIdAndTasks.getRight().getLeft()).containsExactly(tasks.get(jobIdAndTasks.getLeft()));
+            assertThat(jobIdAndTasks.getRight().getRight()).isEqualTo(0);
+        });
+    }
+
     @Test
     public void testRetrieveTask() {
         JobStore store = getJobStore();
@@ -409,7 +467,7 @@ public class CassandraJobStoreTest {
         if (session == null) {
             session = cassandraCqlUnit.getSession();
         }
-        return new CassandraJobStore(CONFIGURATION, job -> true, session, TitusRuntimes.internal(),
+        return new CassandraJobStore(configuration, job -> true, session, TitusRuntimes.internal(),
                 ObjectMappers.storeMapper(), INITIAL_BUCKET_COUNT, MAX_BUCKET_SIZE);
     }
 
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.ext.cassandra.store;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.netflix.spectator.api.DefaultRegistry;
+import com.netflix.titus.api.jobmanager.model.job.BatchJobTask;
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.ext.BatchJobExt;
+import com.netflix.titus.api.json.ObjectMappers;
+import com.netflix.titus.testkit.model.job.JobGenerator;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JobStoreRecordCodecTest {
+
+    private final AtomicReference<JobStoreRecordCodec.Format> writeFormat = new AtomicReference<>(JobStoreRecordCodec.Format.Json);
+
+    private final JobStoreRecordCodec codec = new JobStoreRecordCodec(
+            writeFormat::get, ObjectMappers.storeMapper(), ObjectMappers.storeSmileMapper(), new DefaultRegistry()
+    );
+
+    private final Job<BatchJobExt> job = JobGenerator.oneBatchJob();
+    private final BatchJobTask task = JobGenerator.batchTasks(job).getValue();
+
+    @Test
+    public void testJsonRoundTrip() {
+        String encoded = codec.encode(job);
+        assertThat(encoded).startsWith("{");
+        assertThat(JobStoreRecordCodec.detectFormat(encoded)).isEqualTo(JobStoreRecordCodec.Format.Json);
+        assertThat(codec.decode(encoded, Job.class)).isEqualTo(job);
+    }
+
+    @Test
+    public void testSmileRoundTrip() {
+        writeFormat.set(JobStoreRecordCodec.Format.Smile);
+
+        String encodedJob = codec.encode(job);
+        assertThat(encodedJob).startsWith(JobStoreRecordCodec.SMILE_V1_PREFIX);
+        assertThat(codec.decode(encodedJob, Job.class)).isEqualTo(job);
+
+        String encodedTask = codec.encode(task);
+        assertThat(codec.decode(encodedTask, Task.class)).isEqualTo(task);
+    }
+
+    @Test
+    public void testDualReadAfterWriteFormatChange() {
+        String jsonRecord = codec.encode(task);
+        writeFormat.set(JobStoreRecordCodec.Format.Smile);
+        String smileRecord = codec.encode(task);
+
+        assertThat(codec.decode(jsonRecord, Task.class)).isEqualTo(task);
+        assertThat(codec.decode(smileRecord, Task.class)).isEqualTo(task);
+        assertThat(codec.decodeTree(smileRecord)).isEqualTo(codec.decodeTree(jsonRecord));
+    }
+
+    @Test
+    public void testConvert() {
+        String jsonRecord = codec.encode(task, JobStoreRecordCodec.Format.Json);
+
+        String smileRecord = codec.convert(jsonRecord, JobStoreRecordCodec.Format.Smile, Task.class);
+        assertThat(JobStoreRecordCodec.detectFormat(smileRecord)).isEqualTo(JobStoreRecordCodec.Format.Smile);
+
+        assertThat(codec.convert(smileRecord, JobStoreRecordCodec.Format.Smile, Task.class)).isSameAs(smileRecord);
+        assertThat(codec.decode(codec.convert(smileRecord, JobStoreRecordCodec.Format.Json, Task.class), Task.class)).isEqualTo(task);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseUnknownFormat() {
+        JobStoreRecordCodec.parseFormat("xml");
+    }
+}
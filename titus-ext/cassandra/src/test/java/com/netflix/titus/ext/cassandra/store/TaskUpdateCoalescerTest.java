@@ -0,0 +1,177 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.ext.cassandra.store;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.netflix.spectator.api.DefaultRegistry;
+import com.netflix.titus.api.jobmanager.model.job.BatchJobTask;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.testkit.model.job.JobGenerator;
+import org.junit.Test;
+import rx.Completable;
+import rx.observers.AssertableSubscriber;
+import rx.schedulers.TestScheduler;
+import rx.subjects.PublishSubject;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TaskUpdateCoalescerTest {
+
+    private static final long WINDOW_MS = 10;
+
+    private final TestScheduler testScheduler = new TestScheduler();
+
+    private final List<Task> written = new ArrayList<>();
+    private final List<PublishSubject<Void>> pendingWrites = new ArrayList<>();
+
+    private volatile long windowMs = WINDOW_MS;
+
+    private final TaskUpdateCoalescer coalescer = new TaskUpdateCoalescer(
+            () -> windowMs,
+            task -> {
+                written.add(task);
+                PublishSubject<Void> subject = PublishSubject.create();
+                pendingWrites.add(subject);
+                return subject.toCompletable();
+            },
+            testScheduler,
+            new DefaultRegistry()
+    );
+
+    private final BatchJobTask task = JobGenerator.oneBatchTask();
+
+    @Test
+    public void testUpdatesWithinWindowAreCoalesced() {
+        Task first = task.toBuilder().withResubmitNumber(1).build();
+        Task second = task.toBuilder().withResubmitNumber(2).build();
+
+        AssertableSubscriber<Void> firstSubscriber = coalescer.update(first).test();
+        AssertableSubscriber<Void> secondSubscriber = coalescer.update(second).test();
+        assertThat(written).isEmpty();
+
+        testScheduler.advanceTimeBy(WINDOW_MS, TimeUnit.MILLISECONDS);
+        assertThat(written).containsExactly(second);
+        firstSubscriber.assertNotCompleted();
+
+        completeWrite(0);
+        firstSubscriber.assertCompleted();
+        secondSubscriber.assertCompleted();
+    }
+
+    @Test
+    public void testWritesOfTheSameTaskDoNotOverlap() {
+        Task first = task.toBuilder().withResubmitNumber(1).build();
+        Task second = task.toBuilder().withResubmitNumber(2).build();
+
+        coalescer.update(first).test();
+        testScheduler.advanceTimeBy(WINDOW_MS, TimeUnit.MILLISECONDS);
+        assertThat(written).containsExactly(first);
+
+        AssertableSubscriber<Void> secondSubscriber = coalescer.update(second).test();
+        testScheduler.advanceTimeBy(WINDOW_MS, TimeUnit.MILLISECONDS);
+        assertThat(written).containsExactly(first);
+
+        completeWrite(0);
+        testScheduler.advanceTimeBy(WINDOW_MS, TimeUnit.MILLISECONDS);
+        assertThat(written).containsExactly(first, second);
+
+        completeWrite(1);
+        secondSubscriber.assertCompleted();
+    }
+
+    @Test
+    public void testWriteErrorIsPropagatedToAllCoalescedUpdates() {
+        AssertableSubscriber<Void> firstSubscriber = coalescer.update(task).test();
+        AssertableSubscriber<Void> secondSubscriber = coalescer.update(task).test();
+        testScheduler.advanceTimeBy(WINDOW_MS, TimeUnit.MILLISECONDS);
+
+        pendingWrites.get(0).onError(new RuntimeException("simulated error"));
+        firstSubscriber.assertError(RuntimeException.class);
+        secondSubscriber.assertError(RuntimeException.class);
+    }
+
+    @Test
+    public void testDrainWritesBufferedUpdateImmediately() {
+        AssertableSubscriber<Void> updateSubscriber = coalescer.update(task).test();
+        AssertableSubscriber<Void> drainSubscriber = coalescer.drain(task.getId()).test();
+        assertThat(written).containsExactly(task);
+        drainSubscriber.assertNotCompleted();
+
+        completeWrite(0);
+        updateSubscriber.assertCompleted();
+        drainSubscriber.assertCompleted();
+    }
+
+    @Test
+    public void testDrainWithNoPendingUpdatesCompletesImmediately() {
+        Completable drain = coalescer.drain(task.getId());
+        drain.test().assertCompleted();
+        assertThat(written).isEmpty();
+    }
+
+    @Test
+    public void testWindowChangedToZeroKeepsWriteOrder() {
+        Task first = task.toBuilder().withResubmitNumber(1).build();
+        Task second = task.toBuilder().withResubmitNumber(2).build();
+
+        coalescer.update(first).test();
+        testScheduler.advanceTimeBy(WINDOW_MS, TimeUnit.MILLISECONDS);
+        assertThat(written).containsExactly(first);
+
+        windowMs = 0;
+        AssertableSubscriber<Void> secondSubscriber = coalescer.update(second).test();
+        testScheduler.triggerActions();
+        assertThat(written).containsExactly(first);
+
+        completeWrite(0);
+        testScheduler.triggerActions();
+        assertThat(written).containsExactly(first, second);
+
+        completeWrite(1);
+        secondSubscriber.assertCompleted();
+    }
+
+    @Test
+    public void testShutdownWritesBufferedUpdates() {
+        AssertableSubscriber<Void> updateSubscriber = coalescer.update(task).test();
+        AssertableSubscriber<Void> shutdownSubscriber = coalescer.shutdown().test();
+        assertThat(written).containsExactly(task);
+        shutdownSubscriber.assertNotCompleted();
+
+        completeWrite(0);
+        updateSubscriber.assertCompleted();
+        shutdownSubscriber.assertCompleted();
+    }
+
+    @Test
+    public void testUpdateAfterShutdownIsWrittenImmediately() {
+        coalescer.shutdown().test().assertCompleted();
+
+        AssertableSubscriber<Void> updateSubscriber = coalescer.update(task).test();
+        assertThat(written).containsExactly(task);
+
+        completeWrite(0);
+        updateSubscriber.assertCompleted();
+    }
+
+    private void completeWrite(int index) {
+        pendingWrites.get(index).onCompleted();
+    }
+}
@@ -36,4 +36,17 @@ public interface ElasticsearchConfiguration {
 
     @DefaultValue("yyyyMM")
     String getTaskDocumentEsIndexDateSuffixPattern();
+
+    /**
+     * Maximum number of bulk requests executed concurrently.
+     */
+    @DefaultValue("4")
+    int getMaxConcurrentBulkRequests();
+
+    /**
+     * Maximum number of task document batches waiting for a bulk request. When the limit is exceeded, the oldest
+     * batch is dropped.
+     */
+    @DefaultValue("16")
+    int getMaxPendingBulkRequests();
 }
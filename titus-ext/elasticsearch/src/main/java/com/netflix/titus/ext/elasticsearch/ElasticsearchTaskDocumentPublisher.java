@@ -16,13 +16,13 @@
 
 package com.netflix.titus.ext.elasticsearch;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.TimeZone;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -31,8 +31,7 @@ import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.netflix.spectator.api.Functions;
 import com.netflix.spectator.api.Id;
 import com.netflix.spectator.api.Registry;
@@ -41,6 +40,7 @@ import com.netflix.titus.api.jobmanager.model.job.Job;
 import com.netflix.titus.api.jobmanager.model.job.Task;
 import com.netflix.titus.api.jobmanager.model.job.event.TaskUpdateEvent;
 import com.netflix.titus.api.jobmanager.service.V3JobOperations;
+import com.netflix.titus.api.json.ObjectMappers;
 import com.netflix.titus.common.runtime.TitusRuntime;
 import com.netflix.titus.common.util.guice.annotation.Activator;
 import com.netflix.titus.common.util.rx.ObservableExt;
@@ -53,11 +53,20 @@ import org.elasticsearch.action.index.IndexRequestBuilder;
 import org.elasticsearch.client.Client;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import rx.BackpressureOverflow;
+import rx.Completable;
 import rx.Observable;
+import rx.Scheduler;
+import rx.Subscription;
 import rx.schedulers.Schedulers;
 
 import static com.netflix.titus.ext.elasticsearch.ElasticsearchModule.TASK_DOCUMENT_CONTEXT;
 
+/**
+ * Publishes task documents to Elasticsearch in bulk requests. At most {@link ElasticsearchConfiguration#getMaxConcurrentBulkRequests()}
+ * bulk requests are executed concurrently. Batches of task documents waiting for a bulk request slot are buffered
+ * up to {@link ElasticsearchConfiguration#getMaxPendingBulkRequests()}, above which the oldest batch is dropped.
+ */
 @Singleton
 public class ElasticsearchTaskDocumentPublisher {
     private static final Logger logger = LoggerFactory.getLogger(ElasticsearchTaskDocumentPublisher.class);
@@ -66,27 +75,32 @@ public class ElasticsearchTaskDocumentPublisher {
     private static final int COUNT_TO_BUFFER = 1_000;
     private static final String DEFAULT_DOC_TYPE = "default";
 
+    private static final DateTimeFormatter TASK_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss").withZone(ZoneOffset.UTC);
+    private static final ObjectWriter TASK_DOCUMENT_WRITER = ObjectMappers.jacksonDefaultMapper().writerFor(TaskDocument.class);
+
     private final ElasticsearchConfiguration configuration;
     private final V3JobOperations v3JobOperations;
     private final Client client;
     private final Map<String, String> taskDocumentContext;
     private final TitusRuntime titusRuntime;
     private final Registry registry;
-    private final ObjectMapper objectMapper;
-    private final SimpleDateFormat indexDateFormat;
-    private final SimpleDateFormat taskDateFormat;
+    private final Scheduler scheduler;
+    private final DateTimeFormatter indexDateFormat;
     private final AtomicInteger docsToBePublished = new AtomicInteger(0);
     private final AtomicInteger docsPublished = new AtomicInteger(0);
+    private final AtomicInteger docBatchesDropped = new AtomicInteger(0);
     private final AtomicInteger errorJsonConversion = new AtomicInteger(0);
     private final AtomicInteger errorEsClient = new AtomicInteger(0);
     private final AtomicInteger errorInPublishing = new AtomicInteger(0);
     private final Id timeSinceLastPublishedMeterId;
     private final Id docsToBePublishedMeterId;
     private final Id docsPublishedMeterId;
+    private final Id docBatchesDroppedMeterId;
     private final Id errorJsonConversionMeterId;
     private final Id errorEsClientMeterId;
     private final Id errorInPublishingMeterId;
     private AtomicLong lastPublishedTimestamp;
+    private Subscription subscription;
 
     @Inject
     public ElasticsearchTaskDocumentPublisher(ElasticsearchConfiguration configuration,
@@ -95,22 +109,28 @@ public class ElasticsearchTaskDocumentPublisher {
                                               @Named(TASK_DOCUMENT_CONTEXT) Map<String, String> taskDocumentContext,
                                               TitusRuntime titusRuntime,
                                               Registry registry) {
+        this(configuration, v3JobOperations, client, taskDocumentContext, titusRuntime, registry, Schedulers.computation());
+    }
+
+    ElasticsearchTaskDocumentPublisher(ElasticsearchConfiguration configuration,
+                                       V3JobOperations v3JobOperations,
+                                       Client client,
+                                       Map<String, String> taskDocumentContext,
+                                       TitusRuntime titusRuntime,
+                                       Registry registry,
+                                       Scheduler scheduler) {
         this.configuration = configuration;
         this.v3JobOperations = v3JobOperations;
         this.client = client;
         this.taskDocumentContext = taskDocumentContext;
         this.titusRuntime = titusRuntime;
         this.registry = registry;
-
-        this.objectMapper = new ObjectMapper();
-        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-        this.indexDateFormat = new SimpleDateFormat(configuration.getTaskDocumentEsIndexDateSuffixPattern());
-        this.indexDateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
-        this.taskDateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss");
-        this.taskDateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        this.scheduler = scheduler;
+        this.indexDateFormat = DateTimeFormatter.ofPattern(configuration.getTaskDocumentEsIndexDateSuffixPattern()).withZone(ZoneOffset.UTC);
 
         PolledMeter.using(registry).withName(MetricConstants.METRIC_ES_PUBLISHER + "docsToBePublished").monitorValue(docsToBePublished);
         PolledMeter.using(registry).withName(MetricConstants.METRIC_ES_PUBLISHER + "docsPublished").monitorValue(docsPublished);
+        PolledMeter.using(registry).withName(MetricConstants.METRIC_ES_PUBLISHER + "docBatchesDropped").monitorValue(docBatchesDropped);
         PolledMeter.using(registry).withName(MetricConstants.METRIC_ES_PUBLISHER + "errorJsonConversion").monitorValue(errorJsonConversion);
         PolledMeter.using(registry).withName(MetricConstants.METRIC_ES_PUBLISHER + "errorEsClient").monitorValue(errorEsClient);
         PolledMeter.using(registry).withName(MetricConstants.METRIC_ES_PUBLISHER + "errorInPublishing").monitorValue(errorInPublishing);
@@ -118,6 +138,7 @@ public class ElasticsearchTaskDocumentPublisher {
         timeSinceLastPublishedMeterId = registry.createId(MetricConstants.METRIC_ES_PUBLISHER + "timeSinceLastPublished");
         docsToBePublishedMeterId = registry.createId(MetricConstants.METRIC_ES_PUBLISHER + "docsToBePublished");
         docsPublishedMeterId = registry.createId(MetricConstants.METRIC_ES_PUBLISHER + "docsPublished");
+        docBatchesDroppedMeterId = registry.createId(MetricConstants.METRIC_ES_PUBLISHER + "docBatchesDropped");
         errorJsonConversionMeterId = registry.createId(MetricConstants.METRIC_ES_PUBLISHER + "errorJsonConversion");
         errorEsClientMeterId = registry.createId(MetricConstants.METRIC_ES_PUBLISHER + "errorEsClient");
         errorInPublishingMeterId = registry.createId(MetricConstants.METRIC_ES_PUBLISHER + "errorInPublishing");
@@ -128,6 +149,7 @@ public class ElasticsearchTaskDocumentPublisher {
     public void enterActiveMode() {
         PolledMeter.using(registry).withId(docsToBePublishedMeterId).monitorValue(docsToBePublished);
         PolledMeter.using(registry).withId(docsPublishedMeterId).monitorValue(docsPublished);
+        PolledMeter.using(registry).withId(docBatchesDroppedMeterId).monitorValue(docBatchesDropped);
         PolledMeter.using(registry).withId(errorJsonConversionMeterId).monitorValue(errorJsonConversion);
         PolledMeter.using(registry).withId(errorEsClientMeterId).monitorValue(errorEsClient);
         PolledMeter.using(registry).withId(errorInPublishingMeterId).monitorValue(errorInPublishing);
@@ -136,24 +158,29 @@ public class ElasticsearchTaskDocumentPublisher {
                 .monitorValue(new AtomicLong(registry.clock().wallTime()), Functions.AGE);
 
         logger.info("Starting the task streams to publish task documents to elasticsearch");
-        v3TasksStream()
-                .subscribe(
-                        this::publishTaskDocuments,
-                        e -> {
-                            errorInPublishing.incrementAndGet();
-                            logger.error("Unable to publish task documents to elasticsearch: ", e);
-                        },
-                        () -> {
-                            logger.info("Finished publishing task documents to elasticsearch");
-                        }
-                );
+        this.subscription = titusRuntime.persistentStream(v3TasksStream().flatMap(
+                taskDocuments -> publishTaskDocuments(taskDocuments).toObservable(),
+                Math.max(1, configuration.getMaxConcurrentBulkRequests())
+        )).subscribe(
+                next -> {
+                },
+                e -> {
+                    errorInPublishing.incrementAndGet();
+                    logger.error("Unable to publish task documents to elasticsearch: ", e);
+                },
+                () -> {
+                    logger.info("Finished publishing task documents to elasticsearch");
+                }
+        );
     }
 
     @PreDestroy
     public void shutdown() {
+        ObservableExt.safeUnsubscribe(subscription);
         PolledMeter.remove(registry, timeSinceLastPublishedMeterId);
         PolledMeter.remove(registry, docsToBePublishedMeterId);
         PolledMeter.remove(registry, docsPublishedMeterId);
+        PolledMeter.remove(registry, docBatchesDroppedMeterId);
         PolledMeter.remove(registry, errorJsonConversionMeterId);
         PolledMeter.remove(registry, errorEsClientMeterId);
         PolledMeter.remove(registry, errorInPublishingMeterId);
@@ -166,84 +193,102 @@ public class ElasticsearchTaskDocumentPublisher {
                 .map(event -> {
                     Task task = event.getCurrentTask();
                     Job<?> job = event.getCurrentJob();
-                    TaskDocument taskDocument = TaskDocument.fromV3Task(task, job, taskDateFormat, taskDocumentContext);
+                    TaskDocument taskDocument = TaskDocument.fromV3Task(task, job, TASK_DATE_FORMAT, taskDocumentContext);
                     return Optional.of(taskDocument);
                 });
-        final Observable<List<TaskDocument>> taskDocumentsObservable = ObservableExt.fromOptionalObservable(optionalTaskDocuments)
-                .buffer(TIME_TO_BUFFER_MS, TimeUnit.MILLISECONDS, COUNT_TO_BUFFER).observeOn(Schedulers.io());
-
-        return titusRuntime.persistentStream(taskDocumentsObservable);
+        int maxPendingBulkRequests = Math.max(1, configuration.getMaxPendingBulkRequests());
+        return ObservableExt.fromOptionalObservable(optionalTaskDocuments)
+                .buffer(TIME_TO_BUFFER_MS, TimeUnit.MILLISECONDS, COUNT_TO_BUFFER, scheduler)
+                .onBackpressureBuffer(
+                        maxPendingBulkRequests,
+                        () -> {
+                            docBatchesDropped.incrementAndGet();
+                            logger.warn("Exceeded the limit of {} pending task document batches; dropping the oldest one", maxPendingBulkRequests);
+                        },
+                        BackpressureOverflow.ON_OVERFLOW_DROP_OLDEST
+                )
+                .observeOn(Schedulers.io(), 1);
     }
 
-    private void publishTaskDocuments(List<TaskDocument> taskDocuments) {
+    /**
+     * Returns {@link Completable} that completes when the bulk request is finished. Errors are recorded and logged
+     * only, so a failed bulk request does not terminate the publishing stream.
+     */
+    private Completable publishTaskDocuments(List<TaskDocument> taskDocuments) {
         lastPublishedTimestamp.set(registry.clock().wallTime());
         try {
-            if (configuration.isEnabled() && !taskDocuments.isEmpty()) {
-                Map<String, String> documentsToIndex = new HashMap<>();
-                for (TaskDocument taskDocument : taskDocuments) {
-                    String documentId = taskDocument.getInstanceId();
-                    try {
-                        String documentAsJson = objectMapper.writeValueAsString(taskDocument);
-                        documentsToIndex.put(documentId, documentAsJson);
-                    } catch (Exception e) {
-                        errorJsonConversion.incrementAndGet();
-                        errorInPublishing.incrementAndGet();
-                        logger.warn("Unable to convert document with id: {} to json with error: ", documentId, e);
-                    }
+            if (!configuration.isEnabled() || taskDocuments.isEmpty()) {
+                return Completable.complete();
+            }
+            Map<String, String> documentsToIndex = new HashMap<>();
+            for (TaskDocument taskDocument : taskDocuments) {
+                String documentId = taskDocument.getInstanceId();
+                try {
+                    String documentAsJson = TASK_DOCUMENT_WRITER.writeValueAsString(taskDocument);
+                    documentsToIndex.put(documentId, documentAsJson);
+                } catch (Exception e) {
+                    errorJsonConversion.incrementAndGet();
+                    errorInPublishing.incrementAndGet();
+                    logger.warn("Unable to convert document with id: {} to json with error: ", documentId, e);
                 }
+            }
+            if (documentsToIndex.isEmpty()) {
+                return Completable.complete();
+            }
 
-                if (!documentsToIndex.isEmpty()) {
-                    logger.info("Attempting to index {} task documents to elasticsearch", documentsToIndex.size());
-                    docsToBePublished.addAndGet(documentsToIndex.size());
-                    BulkRequestBuilder bulkRequestBuilder = client.prepareBulk();
-                    for (Map.Entry<String, String> entry : documentsToIndex.entrySet()) {
-                        String documentId = entry.getKey();
-                        String documentJson = entry.getValue();
-                        IndexRequestBuilder indexRequestBuilder = client.prepareIndex(getEsIndexName(), DEFAULT_DOC_TYPE, documentId)
-                                .setSource(documentJson);
-                        bulkRequestBuilder.add(indexRequestBuilder);
-                        logger.debug("Indexing task document with id: {} and json: {}", documentId, documentJson);
-                    }
+            logger.info("Attempting to index {} task documents to elasticsearch", documentsToIndex.size());
+            docsToBePublished.addAndGet(documentsToIndex.size());
+            BulkRequestBuilder bulkRequestBuilder = client.prepareBulk();
+            String esIndexName = getEsIndexName();
+            for (Map.Entry<String, String> entry : documentsToIndex.entrySet()) {
+                String documentId = entry.getKey();
+                String documentJson = entry.getValue();
+                IndexRequestBuilder indexRequestBuilder = client.prepareIndex(esIndexName, DEFAULT_DOC_TYPE, documentId)
+                        .setSource(documentJson);
+                bulkRequestBuilder.add(indexRequestBuilder);
+                logger.debug("Indexing task document with id: {} and json: {}", documentId, documentJson);
+            }
 
-                    bulkRequestBuilder.execute(new ActionListener<BulkResponse>() {
-                        @Override
-                        public void onResponse(BulkResponse bulkItemResponses) {
-                            BulkItemResponse[] items = bulkItemResponses.getItems();
-                            if (items != null) {
-                                int successCount = 0;
-                                for (BulkItemResponse bulkItemResponse : items) {
-                                    if (!bulkItemResponse.isFailed()) {
-                                        String documentJson = documentsToIndex.get(bulkItemResponse.getId());
-                                        logger.debug("Successfully indexed task document with id: {} and json: {}", bulkItemResponse.getId(), documentJson);
-                                        successCount++;
-                                    }
-                                }
-                                logger.info("Successfully indexed {} out of {} task documents", successCount, items.length);
-                                docsPublished.addAndGet(successCount);
-                            }
-                            if (bulkItemResponses.hasFailures()) {
-                                errorEsClient.incrementAndGet();
-                                errorInPublishing.incrementAndGet();
-                                logger.error(bulkItemResponses.buildFailureMessage());
+            return Completable.create(subscriber -> bulkRequestBuilder.execute(new ActionListener<BulkResponse>() {
+                @Override
+                public void onResponse(BulkResponse bulkItemResponses) {
+                    BulkItemResponse[] items = bulkItemResponses.getItems();
+                    if (items != null) {
+                        int successCount = 0;
+                        for (BulkItemResponse bulkItemResponse : items) {
+                            if (!bulkItemResponse.isFailed()) {
+                                String documentJson = documentsToIndex.get(bulkItemResponse.getId());
+                                logger.debug("Successfully indexed task document with id: {} and json: {}", bulkItemResponse.getId(), documentJson);
+                                successCount++;
                             }
                         }
+                        logger.info("Successfully indexed {} out of {} task documents", successCount, items.length);
+                        docsPublished.addAndGet(successCount);
+                    }
+                    if (bulkItemResponses.hasFailures()) {
+                        errorEsClient.incrementAndGet();
+                        errorInPublishing.incrementAndGet();
+                        logger.error(bulkItemResponses.buildFailureMessage());
+                    }
+                    subscriber.onCompleted();
+                }
 
-                        @Override
-                        public void onFailure(Throwable e) {
-                            logger.error("Error in indexing task documents with error: ", e);
-                            errorEsClient.incrementAndGet();
-                            errorInPublishing.incrementAndGet();
-                        }
-                    });
+                @Override
+                public void onFailure(Throwable e) {
+                    logger.error("Error in indexing task documents with error: ", e);
+                    errorEsClient.incrementAndGet();
+                    errorInPublishing.incrementAndGet();
+                    subscriber.onCompleted();
                 }
-            }
+            }));
         } catch (Exception e) {
             errorInPublishing.incrementAndGet();
             logger.error("Exception in ElasticsearchTaskDocumentPublisher - ", e);
+            return Completable.complete();
         }
     }
 
     private String getEsIndexName() {
-        return configuration.getTaskDocumentEsIndexName() + indexDateFormat.format(new Date());
+        return configuration.getTaskDocumentEsIndexName() + indexDateFormat.format(Instant.ofEpochMilli(registry.clock().wallTime()));
     }
 }
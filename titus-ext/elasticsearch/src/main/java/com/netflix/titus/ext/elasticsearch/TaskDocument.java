@@ -16,9 +16,9 @@
 
 package com.netflix.titus.ext.elasticsearch;
 
-import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -370,7 +370,7 @@ public class TaskDocument {
         }
     }
 
-    public static TaskDocument fromV3Task(Task task, Job job, SimpleDateFormat dateFormat, Map<String, String> context) {
+    public static TaskDocument fromV3Task(Task task, Job job, DateTimeFormatter dateFormat, Map<String, String> context) {
         TaskDocument taskDocument = new TaskDocument();
         JobDescriptor jobDescriptor = job.getJobDescriptor();
         Container container = jobDescriptor.getContainer();
@@ -470,28 +470,28 @@ public class TaskDocument {
         long completedAt = findTaskStatus(task, TaskState.Finished).map(ExecutableStatus::getTimestamp).orElse(0L);
 
         if (acceptedAt > 0) {
-            taskDocument.submittedAt = dateFormat.format(new Date(acceptedAt));
+            taskDocument.submittedAt = dateFormat.format(Instant.ofEpochMilli(acceptedAt));
         }
 
         if (launchedAt > 0) {
-            taskDocument.launchedAt = dateFormat.format(new Date(launchedAt));
+            taskDocument.launchedAt = dateFormat.format(Instant.ofEpochMilli(launchedAt));
             taskDocument.computedFields.msFromSubmittedToLaunched = launchedAt - acceptedAt;
         }
 
         if (startingAt > 0) {
-            taskDocument.startingAt = dateFormat.format(new Date(startingAt));
+            taskDocument.startingAt = dateFormat.format(Instant.ofEpochMilli(startingAt));
             taskDocument.computedFields.msFromLaunchedToStarting = startingAt - launchedAt;
             taskDocument.computedFields.msToStarting = startingAt - acceptedAt;
         }
 
         if (startedAt > 0) {
-            taskDocument.startedAt = dateFormat.format(new Date(startedAt));
+            taskDocument.startedAt = dateFormat.format(Instant.ofEpochMilli(startedAt));
             taskDocument.computedFields.msFromStartingToStarted = startedAt - startingAt;
             taskDocument.computedFields.msToStarted = startedAt - acceptedAt;
         }
 
         if (completedAt > 0) {
-            taskDocument.finishedAt = dateFormat.format(new Date(completedAt));
+            taskDocument.finishedAt = dateFormat.format(Instant.ofEpochMilli(completedAt));
             taskDocument.computedFields.msFromStartedToFinished = completedAt - startedAt;
             taskDocument.computedFields.msToFinished = completedAt - acceptedAt;
         }
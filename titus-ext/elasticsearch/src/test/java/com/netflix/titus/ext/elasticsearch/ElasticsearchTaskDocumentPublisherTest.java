@@ -0,0 +1,129 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.ext.elasticsearch;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import com.netflix.titus.api.jobmanager.model.job.BatchJobTask;
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.event.JobManagerEvent;
+import com.netflix.titus.api.jobmanager.model.job.event.TaskUpdateEvent;
+import com.netflix.titus.api.jobmanager.model.job.ext.BatchJobExt;
+import com.netflix.titus.api.jobmanager.service.V3JobOperations;
+import com.netflix.titus.common.runtime.TitusRuntime;
+import com.netflix.titus.common.runtime.TitusRuntimes;
+import com.netflix.titus.testkit.model.job.JobGenerator;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.bulk.BulkRequestBuilder;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.index.IndexRequestBuilder;
+import org.elasticsearch.client.Client;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import rx.schedulers.Schedulers;
+import rx.schedulers.TestScheduler;
+import rx.subjects.PublishSubject;
+
+import static com.jayway.awaitility.Awaitility.await;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ElasticsearchTaskDocumentPublisherTest {
+
+    private static final long BUFFER_TIME_MS = 10_000;
+
+    private final TestScheduler testScheduler = Schedulers.test();
+    private final TitusRuntime titusRuntime = TitusRuntimes.test(testScheduler);
+
+    private final ElasticsearchConfiguration configuration = mock(ElasticsearchConfiguration.class);
+    private final V3JobOperations v3JobOperations = mock(V3JobOperations.class);
+    private final Client client = mock(Client.class);
+
+    private final PublishSubject<JobManagerEvent<?>> jobEventSubject = PublishSubject.create();
+    private final List<ActionListener<BulkResponse>> pendingBulkRequests = new CopyOnWriteArrayList<>();
+    private final List<String> indexNames = new CopyOnWriteArrayList<>();
+    private final List<String> bulkRequestLog = new CopyOnWriteArrayList<>();
+
+    private final Job<BatchJobExt> job = JobGenerator.oneBatchJob();
+
+    private ElasticsearchTaskDocumentPublisher publisher;
+
+    @Before
+    public void setUp() {
+        when(configuration.isEnabled()).thenReturn(true);
+        when(configuration.getTaskDocumentEsIndexName()).thenReturn("titustasks_");
+        when(configuration.getTaskDocumentEsIndexDateSuffixPattern()).thenReturn("yyyyMM");
+        when(configuration.getMaxConcurrentBulkRequests()).thenReturn(2);
+        when(configuration.getMaxPendingBulkRequests()).thenReturn(16);
+        when(v3JobOperations.observeJobs()).thenReturn(jobEventSubject);
+
+        IndexRequestBuilder indexRequestBuilder = mock(IndexRequestBuilder.class);
+        when(indexRequestBuilder.setSource(anyString())).thenReturn(indexRequestBuilder);
+        when(client.prepareIndex(anyString(), anyString(), anyString())).thenAnswer(invocation -> {
+            indexNames.add(invocation.getArgument(0));
+            return indexRequestBuilder;
+        });
+        when(client.prepareBulk()).thenAnswer(invocation -> {
+            BulkRequestBuilder bulkRequestBuilder = mock(BulkRequestBuilder.class);
+            doAnswer(bulkInvocation -> {
+                bulkRequestLog.add("execute");
+                pendingBulkRequests.add(bulkInvocation.getArgument(0));
+                return null;
+            }).when(bulkRequestBuilder).execute(any(ActionListener.class));
+            return bulkRequestBuilder;
+        });
+
+        publisher = new ElasticsearchTaskDocumentPublisher(configuration, v3JobOperations, client, Collections.emptyMap(),
+                titusRuntime, titusRuntime.getRegistry(), testScheduler);
+        publisher.enterActiveMode();
+    }
+
+    @After
+    public void tearDown() {
+        publisher.shutdown();
+    }
+
+    @Test(timeout = 30_000)
+    public void testNumberOfConcurrentBulkRequestsIsBounded() {
+        for (int i = 0; i < 3; i++) {
+            publishTaskUpdate();
+        }
+        await().timeout(5, TimeUnit.SECONDS).until(() -> pendingBulkRequests.size() == 2);
+
+        // A failed request releases its slot too. The third batch waits for it, so it must be executed after the release.
+        bulkRequestLog.add("release");
+        pendingBulkRequests.get(0).onFailure(new RuntimeException("simulated error"));
+        await().timeout(5, TimeUnit.SECONDS).until(() -> pendingBulkRequests.size() == 3);
+
+        assertThat(bulkRequestLog).containsExactly("execute", "execute", "release", "execute");
+        assertThat(indexNames).hasSize(3).allMatch(name -> name.matches("titustasks_\\d{6}"));
+    }
+
+    private void publishTaskUpdate() {
+        BatchJobTask task = JobGenerator.batchTasks(job).getValue();
+        jobEventSubject.onNext(TaskUpdateEvent.newTask(job, task));
+        testScheduler.advanceTimeBy(BUFFER_TIME_MS, TimeUnit.MILLISECONDS);
+    }
+}
@@ -32,7 +32,7 @@ import com.google.protobuf.Empty;
 import com.netflix.titus.api.federation.model.Cell;
 import com.netflix.titus.api.service.TitusServiceException;
 import com.netflix.titus.common.util.CollectionsExt;
-import com.netflix.titus.common.util.ProtobufCopy;
+import com.netflix.titus.common.util.ProtobufFieldMask;
 import com.netflix.titus.common.util.StringExt;
 import com.netflix.titus.common.util.concurrency.CallbackCountDownLatch;
 import com.netflix.titus.common.util.rx.EmitterWithMultipleSubscriptions;
@@ -236,8 +236,9 @@ public class AggregatingJobManagementClient implements JobManagementClient {
                     );
 
                     if (!CollectionsExt.isNullOrEmpty(fields)) {
+                        ProtobufFieldMask mask = ProtobufFieldMask.compile(fields);
                         combinedPage = combinedPage.mapLeft(jobs -> jobs.stream()
-                                .map(job -> ProtobufCopy.copy(job, fields))
+                                .map(mask::apply)
                                 .collect(Collectors.toList())
                         );
                     }
@@ -358,8 +359,9 @@ public class AggregatingJobManagementClient implements JobManagementClient {
                     );
 
                     if (!CollectionsExt.isNullOrEmpty(fields)) {
+                        ProtobufFieldMask mask = ProtobufFieldMask.compile(fields);
                         combinedPage = combinedPage.mapLeft(tasks -> tasks.stream()
-                                .map(task -> ProtobufCopy.copy(task, fields))
+                                .map(mask::apply)
                                 .collect(Collectors.toList())
                         );
                     }
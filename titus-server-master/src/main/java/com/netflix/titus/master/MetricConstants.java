@@ -27,6 +27,8 @@ public class MetricConstants {
 
     public static final String METRIC_AGENT = METRIC_ROOT + "agent.";
 
+    public static final String METRIC_AUDIT = METRIC_ROOT + "audit.";
+
     public static final String METRIC_AGENT_CACHE = METRIC_ROOT + "agentCache.";
 
     public static final String METRIC_AGENT_MONITOR = METRIC_ROOT + "agentMonitor.";
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.master;
+
+import com.netflix.archaius.api.annotations.Configuration;
+import com.netflix.archaius.api.annotations.DefaultValue;
+import com.netflix.titus.common.util.rx.eventbus.internal.ShardedRxEventBus;
+
+@Configuration(prefix = "titusMaster.eventBus")
+public interface RxEventBusConfiguration {
+
+    /**
+     * @return true if {@link ShardedRxEventBus} should be used instead of the default event bus. The sharded event bus
+     * delivers events to each subscriber from its own queue and drain loop, so slow subscribers do not slow down
+     * publishers or other subscribers.
+     */
+    @DefaultValue("false")
+    boolean isShardedEnabled();
+
+    /**
+     * @return maximum number of events waiting for delivery to a subscriber (sharded event bus only)
+     */
+    @DefaultValue("10000")
+    long getMaxQueueSize();
+
+    /**
+     * @return what to do when a subscriber queue is full (sharded event bus only)
+     */
+    @DefaultValue("Fail")
+    ShardedRxEventBus.OverflowPolicy getOverflowPolicy();
+
+    /**
+     * @return number of threads running the subscriber drain loops (sharded event bus only)
+     */
+    @DefaultValue("4")
+    int getDrainPoolSize();
+}
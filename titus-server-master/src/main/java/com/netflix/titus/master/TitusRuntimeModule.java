@@ -24,7 +24,9 @@ import javax.inject.Singleton;
 import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
 import com.google.protobuf.util.JsonFormat;
+import com.netflix.archaius.ConfigProxyFactory;
 import com.netflix.archaius.api.Config;
+import com.netflix.spectator.api.Id;
 import com.netflix.spectator.api.Registry;
 import com.netflix.titus.api.jobmanager.service.V3JobOperations;
 import com.netflix.titus.api.jobmanager.store.JobStoreFitAction;
@@ -47,8 +49,10 @@ import com.netflix.titus.common.util.code.CompositeCodeInvariants;
 import com.netflix.titus.common.util.code.LoggingCodeInvariants;
 import com.netflix.titus.common.util.code.SpectatorCodeInvariants;
 import com.netflix.titus.common.util.guice.ContainerEventBusModule;
+import com.netflix.titus.common.util.rx.SchedulerExt;
 import com.netflix.titus.common.util.rx.eventbus.RxEventBus;
 import com.netflix.titus.common.util.rx.eventbus.internal.DefaultRxEventBus;
+import com.netflix.titus.common.util.rx.eventbus.internal.ShardedRxEventBus;
 import com.netflix.titus.master.mesos.MesosStatusOverrideFitAction;
 import com.netflix.titus.master.scheduler.SchedulingService;
 import com.netflix.titus.master.supervisor.service.LeaderActivator;
@@ -76,10 +80,26 @@ public class TitusRuntimeModule extends AbstractModule {
         bind(FitActionInitializer.class).asEagerSingleton();
     }
 
+    @Provides
+    @Singleton
+    public RxEventBusConfiguration getRxEventBusConfiguration(ConfigProxyFactory factory) {
+        return factory.newProxy(RxEventBusConfiguration.class);
+    }
+
     @Singleton
     @Provides
-    public RxEventBus getRxEventBugs(Registry registry) {
-        return new DefaultRxEventBus(registry.createId(MetricConstants.METRIC_ROOT + "eventbus."), registry);
+    public RxEventBus getRxEventBugs(RxEventBusConfiguration configuration, Registry registry) {
+        Id rootId = registry.createId(MetricConstants.METRIC_ROOT + "eventbus.");
+        if (!configuration.isShardedEnabled()) {
+            return new DefaultRxEventBus(rootId, registry);
+        }
+        return new ShardedRxEventBus(
+                rootId,
+                registry,
+                configuration.getMaxQueueSize(),
+                configuration.getOverflowPolicy(),
+                SchedulerExt.createFixedThreadPoolScheduler("rx-event-bus-%d", configuration.getDrainPoolSize())
+        );
     }
 
     @Provides
@@ -18,8 +18,10 @@ package com.netflix.titus.master.agent.service;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -41,7 +43,8 @@ import com.netflix.titus.master.agent.service.cache.CacheUpdateType;
 /**
  * As we get instance group level events from {@link AgentCache}, irrespective of what changed (instance group or instance),
  * we need to generate fine grain events by comparing the previous and the new state. This class encapsulates logic to
- * do that.
+ * do that. On each event only the affected instance group is reloaded from the cache, and compared with its previous
+ * version, so the cost of an update does not depend on the total number of agents.
  */
 final class AgentEventEmitter {
 
@@ -52,16 +55,17 @@ final class AgentEventEmitter {
     AgentEventEmitter(AgentCache agentCache) {
         this.agentCache = agentCache;
         this.instanceGroupsById = agentCache.getInstanceGroups().stream().collect(Collectors.toMap(AgentInstanceGroup::getId, Function.identity()));
-        this.instanceGroupInstancesById = instanceGroupsById.keySet().stream().map(instanceGroupId -> {
-            Map<String, AgentInstance> instances;
-            try {
-                instances = agentCache.getAgentInstances(instanceGroupId).stream().collect(Collectors.toMap(AgentInstance::getId, Function.identity()));
-            } catch (Exception e) { // it may happen only if the instance group has just been removed
-                instances = Collections.emptyMap();
-            }
+        this.instanceGroupInstancesById = instanceGroupsById.keySet().stream()
+                .map(instanceGroupId -> Pair.of(instanceGroupId, loadInstances(agentCache, instanceGroupId)))
+                .collect(Collectors.toMap(Pair::getLeft, Pair::getRight));
+    }
 
-            return Pair.of(instanceGroupId, instances);
-        }).collect(Collectors.toMap(Pair::getLeft, Pair::getRight));
+    private AgentEventEmitter(AgentCache agentCache,
+                              Map<String, AgentInstanceGroup> instanceGroupsById,
+                              Map<String, Map<String, AgentInstance>> instanceGroupInstancesById) {
+        this.agentCache = agentCache;
+        this.instanceGroupsById = instanceGroupsById;
+        this.instanceGroupInstancesById = instanceGroupInstancesById;
     }
 
     Pair<List<AgentEvent>, AgentEventEmitter> apply(CacheUpdateEvent event) {
@@ -70,11 +74,19 @@ final class AgentEventEmitter {
             return Pair.of(Collections.emptyList(), this);
         }
 
-        AgentEventEmitter newEventEmitter = new AgentEventEmitter(agentCache);
         if (type == CacheUpdateType.InstanceGroup) {
-            return Pair.of(compareServerGroup(event.getResourceId(), newEventEmitter), newEventEmitter);
+            String instanceGroupId = event.getResourceId();
+            AgentEventEmitter newEventEmitter = reloadInstanceGroup(instanceGroupId);
+            return Pair.of(compareServerGroup(instanceGroupId, newEventEmitter), newEventEmitter);
         }
-        return Pair.of(compareInstance(event.getResourceId(), newEventEmitter), newEventEmitter);
+
+        String instanceId = event.getResourceId();
+        Optional<String> instanceGroupId = findInstanceGroupIdOf(instanceId);
+        if (!instanceGroupId.isPresent()) {
+            return Pair.of(Collections.emptyList(), this);
+        }
+        AgentEventEmitter newEventEmitter = reloadInstanceGroup(instanceGroupId.get());
+        return Pair.of(compareInstance(instanceId, newEventEmitter), newEventEmitter);
     }
 
     List<AgentEvent> compareWithLatestData() {
@@ -153,6 +165,42 @@ final class AgentEventEmitter {
         return Collections.singletonList(new AgentInstanceUpdateEvent(newInstance));
     }
 
+    /**
+     * Creates a new emitter with the given instance group data reloaded from the cache. All other instance groups are
+     * shared with this emitter.
+     */
+    private AgentEventEmitter reloadInstanceGroup(String instanceGroupId) {
+        Map<String, AgentInstanceGroup> newInstanceGroupsById = new HashMap<>(instanceGroupsById);
+        Map<String, Map<String, AgentInstance>> newInstanceGroupInstancesById = new HashMap<>(instanceGroupInstancesById);
+
+        Optional<AgentInstanceGroup> instanceGroup = agentCache.findInstanceGroup(instanceGroupId);
+        if (instanceGroup.isPresent()) {
+            newInstanceGroupsById.put(instanceGroupId, instanceGroup.get());
+            newInstanceGroupInstancesById.put(instanceGroupId, loadInstances(agentCache, instanceGroupId));
+        } else {
+            newInstanceGroupsById.remove(instanceGroupId);
+            newInstanceGroupInstancesById.remove(instanceGroupId);
+        }
+
+        return new AgentEventEmitter(agentCache, newInstanceGroupsById, newInstanceGroupInstancesById);
+    }
+
+    private Optional<String> findInstanceGroupIdOf(String instanceId) {
+        Optional<AgentInstance> current = agentCache.findAgentInstance(instanceId);
+        if (current.isPresent()) {
+            return Optional.of(current.get().getInstanceGroupId());
+        }
+        return Optional.ofNullable(findInstance(instanceId)).map(AgentInstance::getInstanceGroupId);
+    }
+
+    private static Map<String, AgentInstance> loadInstances(AgentCache agentCache, String instanceGroupId) {
+        try {
+            return agentCache.getAgentInstances(instanceGroupId).stream().collect(Collectors.toMap(AgentInstance::getId, Function.identity()));
+        } catch (Exception e) { // it may happen only if the instance group has just been removed
+            return Collections.emptyMap();
+        }
+    }
+
     private AgentInstance findInstance(String instanceId) {
         for (Map<String, AgentInstance> instanceMap : instanceGroupInstancesById.values()) {
             AgentInstance instance = instanceMap.get(instanceId);
@@ -28,6 +28,13 @@ public interface AgentManagementConfiguration {
     @DefaultValue("120000")
     long getFullCacheRefreshIntervalMs();
 
+    /**
+     * @return refresh interval for instance groups with pending changes (instance count different from the desired
+     * size, or instances in a transient state). Set to zero to disable.
+     */
+    @DefaultValue("5000")
+    long getPendingCacheRefreshIntervalMs();
+
     @DefaultValue(".*")
     String getAgentInstanceGroupPattern();
 
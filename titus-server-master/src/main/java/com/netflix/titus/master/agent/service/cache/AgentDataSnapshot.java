@@ -43,15 +43,20 @@ class AgentDataSnapshot {
     }
 
     private AgentDataSnapshot(Map<String, Pair<AgentInstanceGroup, Set<AgentInstance>>> instanceGroupsById) {
-        this.instanceGroupsById = Collections.unmodifiableMap(instanceGroupsById);
-        this.instanceGroupIds = Collections.unmodifiableSet(new HashSet<>(instanceGroupsById.keySet()));
-        this.instanceGroups = Collections.unmodifiableList(new ArrayList<>(instanceGroupsById.values().stream().map(Pair::getLeft).collect(Collectors.toList())));
-        this.agentInstancesById = Collections.unmodifiableMap(instanceGroupsById.values().stream()
+        this(instanceGroupsById, instanceGroupsById.values().stream()
                 .flatMap(p -> p.getRight().stream())
                 .collect(Collectors.toMap(AgentInstance::getId, Function.identity()))
         );
     }
 
+    private AgentDataSnapshot(Map<String, Pair<AgentInstanceGroup, Set<AgentInstance>>> instanceGroupsById,
+                              Map<String, AgentInstance> agentInstancesById) {
+        this.instanceGroupsById = Collections.unmodifiableMap(instanceGroupsById);
+        this.instanceGroupIds = Collections.unmodifiableSet(new HashSet<>(instanceGroupsById.keySet()));
+        this.instanceGroups = Collections.unmodifiableList(new ArrayList<>(instanceGroupsById.values().stream().map(Pair::getLeft).collect(Collectors.toList())));
+        this.agentInstancesById = Collections.unmodifiableMap(agentInstancesById);
+    }
+
     List<AgentInstanceGroup> getInstanceGroups() {
         return instanceGroups;
     }
@@ -74,10 +79,21 @@ class AgentDataSnapshot {
         return pair == null ? null : pair.getRight();
     }
 
+    /**
+     * Replaces the instance group and its instances. The instance index is updated for this instance group only,
+     * instead of being rebuilt from all instance groups.
+     */
     AgentDataSnapshot updateInstanceGroup(AgentInstanceGroup agentInstanceGroup, Set<AgentInstance> agentInstances) {
         Map<String, Pair<AgentInstanceGroup, Set<AgentInstance>>> newInstanceGroupsById = new HashMap<>(instanceGroupsById);
-        newInstanceGroupsById.put(agentInstanceGroup.getId(), Pair.of(agentInstanceGroup, agentInstances));
-        return new AgentDataSnapshot(newInstanceGroupsById);
+        Pair<AgentInstanceGroup, Set<AgentInstance>> previous = newInstanceGroupsById.put(agentInstanceGroup.getId(), Pair.of(agentInstanceGroup, agentInstances));
+
+        Map<String, AgentInstance> newAgentInstancesById = new HashMap<>(agentInstancesById);
+        if (previous != null) {
+            previous.getRight().forEach(instance -> newAgentInstancesById.remove(instance.getId()));
+        }
+        agentInstances.forEach(instance -> newAgentInstancesById.put(instance.getId(), instance));
+
+        return new AgentDataSnapshot(newInstanceGroupsById, newAgentInstancesById);
     }
 
     AgentDataSnapshot updateAgentInstance(AgentInstance agentInstance) {
@@ -95,7 +111,10 @@ class AgentDataSnapshot {
         Map<String, Pair<AgentInstanceGroup, Set<AgentInstance>>> newInstanceGroupsById = new HashMap<>(instanceGroupsById);
         newInstanceGroupsById.put(instanceGroupId, Pair.of(previous.getLeft(), instanceSet));
 
-        return new AgentDataSnapshot(newInstanceGroupsById);
+        Map<String, AgentInstance> newAgentInstancesById = new HashMap<>(agentInstancesById);
+        newAgentInstancesById.put(agentInstance.getId(), agentInstance);
+
+        return new AgentDataSnapshot(newInstanceGroupsById, newAgentInstancesById);
     }
 
     AgentDataSnapshot removeInstanceGroup(String instanceGroupId) {
@@ -301,20 +301,37 @@ public class DefaultAgentCache implements AgentCache {
                     .collect(Collectors.toList());
         } else {
             agentInstanceGroup = DataConverters.updateAgentInstanceGroup(previous, instanceGroup);
-            agentInstances = instanceGroup.getInstanceIds().stream()
-                    .map(id -> {
-                        Instance instance = instanceCache.getAgentInstance(id);
-                        if (instance == null) {
-                            return null;
-                        }
-                        AgentInstance previousInstance = dataSnapshot.getInstance(id);
-                        if (previousInstance == null) {
-                            return DataConverters.toAgentInstance(instance);
-                        }
-                        return DataConverters.updateAgentInstance(previousInstance, instance);
-                    })
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toList());
+            agentInstances = new ArrayList<>();
+            int changedCount = 0;
+            for (String instanceId : instanceGroup.getInstanceIds()) {
+                Instance instance = instanceCache.getAgentInstance(instanceId);
+                if (instance == null) {
+                    continue;
+                }
+                AgentInstance previousInstance = dataSnapshot.getInstance(instanceId);
+                if (previousInstance == null) {
+                    agentInstances.add(DataConverters.toAgentInstance(instance));
+                    changedCount++;
+                } else {
+                    // Keep the previous version if nothing changed, so unchanged instances are not republished
+                    AgentInstance updatedInstance = DataConverters.updateAgentInstance(previousInstance, instance);
+                    if (updatedInstance.equals(previousInstance)) {
+                        agentInstances.add(previousInstance);
+                    } else {
+                        agentInstances.add(updatedInstance);
+                        changedCount++;
+                    }
+                }
+            }
+
+            Set<AgentInstance> previousInstances = dataSnapshot.getInstances(instanceGroupId);
+            int previousCount = previousInstances == null ? 0 : previousInstances.size();
+            boolean instancesRemoved = agentInstances.size() - changedCount != previousCount;
+            if (changedCount == 0 && !instancesRemoved && agentInstanceGroup.equals(previous)) {
+                logger.debug("No changes in instance group: {}", instanceGroupId);
+                return;
+            }
+            logger.debug("Instance group: {} updated with {} changed instances", instanceGroupId, changedCount);
         }
         TreeSet<AgentInstance> agentInstanceSet = new TreeSet<>(AgentInstance.idComparator());
         agentInstanceSet.addAll(agentInstances);
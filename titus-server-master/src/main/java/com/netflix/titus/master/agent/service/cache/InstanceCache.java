@@ -18,6 +18,7 @@ package com.netflix.titus.master.agent.service.cache;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -66,7 +67,11 @@ import static java.util.Collections.singletonList;
  * <ul>
  * <li>Each known instance group (including instances) is refreshed every {@link AgentManagementConfiguration#getCacheRefreshIntervalMs()}</li>
  * <li>List of known instance groups is refreshed every {@link AgentManagementConfiguration#getFullCacheRefreshIntervalMs()} ()}</li>
+ * <li>Instance groups with pending changes (instance count different from the desired size, or instances in
+ * a transient state) are additionally refreshed every {@link AgentManagementConfiguration#getPendingCacheRefreshIntervalMs()}</li>
  * </ul>
+ * Each refresh is compared with the cached state, and only the instances that were added, changed or removed are
+ * applied to the cache. An update event is emitted only if the instance group or any of its instances changed.
  */
 class InstanceCache {
 
@@ -88,6 +93,9 @@ class InstanceCache {
 
     private final Subscription fullInstanceGroupRefreshSubscription;
     private final Subscription instanceGroupRefreshSubscription;
+    private final Subscription pendingInstanceGroupRefreshSubscription;
+
+    private final Set<String> pendingInstanceGroupIds = ConcurrentHashMap.newKeySet();
 
     private final PublishSubject<CacheUpdateEvent> eventSubject = PublishSubject.create();
 
@@ -141,12 +149,27 @@ class InstanceCache {
                 () -> logger.info("Instance group cache refresh process terminated")
         );
 
+        // Zero or negative interval disables the pending instance group refresh
+        long pendingRefreshIntervalMs = configuration.getPendingCacheRefreshIntervalMs();
+        if (pendingRefreshIntervalMs > 0) {
+            this.pendingInstanceGroupRefreshSubscription = ObservableExt.schedule(
+                    METRIC_AGENT_CACHE, registry, "doPendingInstanceGroupRefresh", doPendingInstanceGroupRefresh(),
+                    pendingRefreshIntervalMs, pendingRefreshIntervalMs, TimeUnit.MILLISECONDS, scheduler
+            ).subscribe(
+                    next -> next.ifPresent(throwable -> logger.warn("Pending instance group refresh cycle failed with an error", throwable)),
+                    e -> logger.error("Pending instance group cache refresh process terminated with an error", e),
+                    () -> logger.info("Pending instance group cache refresh process terminated")
+            );
+        } else {
+            this.pendingInstanceGroupRefreshSubscription = null;
+        }
     }
 
     void shutdown() {
         eventLoop.shutdown();
         fullInstanceGroupRefreshSubscription.unsubscribe();
         instanceGroupRefreshSubscription.unsubscribe();
+        ObservableExt.safeUnsubscribe(pendingInstanceGroupRefreshSubscription);
         fullInstanceGroupRefreshMetricsTransformer.remove();
     }
 
@@ -271,6 +294,20 @@ class InstanceCache {
                 .toCompletable();
     }
 
+    /**
+     * Refreshes instance groups with pending changes only, so the changes requested by Titus (for example a capacity
+     * update) are visible sooner than the regular refresh interval.
+     */
+    private Completable doPendingInstanceGroupRefresh() {
+        return ObservableExt.fromCallable(() -> new ArrayList<>(pendingInstanceGroupIds))
+                .flatMap(instanceGroupId ->
+                        doInstanceGroupRefresh(instanceGroupId)
+                                .onErrorComplete()
+                                .toObservable()
+                )
+                .toCompletable();
+    }
+
     private Completable doInstanceGroupRefresh(InstanceGroup instanceGroup) {
         return doInstanceGroupRefresh(instanceGroup.getId());
     }
@@ -317,38 +354,63 @@ class InstanceCache {
 
         if (oldInstanceGroup == null) {
             this.cacheSnapshot = cacheSnapshot.updateInstanceGroup(updatedInstanceGroup);
-            this.cacheSnapshot = cacheSnapshot.updateInstances(updatedInstances);
+            this.cacheSnapshot = cacheSnapshot.updateInstances(updatedInstances, Collections.emptySet());
+            updatePendingState(updatedInstanceGroup, updatedInstances);
             eventSubject.onNext(new CacheUpdateEvent(CacheUpdateType.InstanceGroup, instanceGroupId));
             return;
         }
 
         InstanceGroup effectiveInstanceGroup = decorate(updatedInstanceGroup, oldInstanceGroup);
         boolean instanceGroupChanged = !oldInstanceGroup.equals(effectiveInstanceGroup);
-        boolean instancesChanged = oldInstanceGroup.getInstanceIds().size() != updatedInstanceGroup.getInstanceIds().size();
-
-        if (!instancesChanged) {
-            for (Instance newInstance : updatedInstances) {
-                Instance oldInstance = cacheSnapshot.getAgentInstance(newInstance.getId());
-                if (oldInstance == null || !oldInstance.equals(newInstance)) {
-                    instancesChanged = true;
-                    break;
-                }
-            }
-        }
+
+        List<Instance> changedInstances = updatedInstances.stream()
+                .filter(newInstance -> !newInstance.equals(cacheSnapshot.getAgentInstance(newInstance.getId())))
+                .collect(Collectors.toList());
+        Set<String> removedInstanceIds = CollectionsExt.copyAndRemove(
+                new HashSet<>(oldInstanceGroup.getInstanceIds()),
+                updatedInstanceGroup.getInstanceIds()
+        );
+        boolean instancesChanged = !changedInstances.isEmpty() || !removedInstanceIds.isEmpty();
+
+        updatePendingState(effectiveInstanceGroup, updatedInstances);
 
         if (instanceGroupChanged) {
             logger.info("Refreshed cache state due to instance group: {} update", instanceGroupId);
             this.cacheSnapshot = cacheSnapshot.updateInstanceGroup(effectiveInstanceGroup);
         }
         if (instancesChanged) {
-            logger.info("Refreshed cache state due to instance count/state update in instance group: {}", instanceGroupId);
-            this.cacheSnapshot = cacheSnapshot.updateInstances(updatedInstances);
+            logger.info("Refreshed cache state due to instance update in instance group: {} (changed={}, removed={})",
+                    instanceGroupId, changedInstances.size(), removedInstanceIds.size());
+            this.cacheSnapshot = cacheSnapshot.updateInstances(changedInstances, removedInstanceIds);
         }
         if (instanceGroupChanged || instancesChanged) {
             eventSubject.onNext(new CacheUpdateEvent(CacheUpdateType.InstanceGroup, instanceGroupId));
         }
     }
 
+    private void updatePendingState(InstanceGroup instanceGroup, List<Instance> instances) {
+        if (hasPendingChanges(instanceGroup, instances)) {
+            pendingInstanceGroupIds.add(instanceGroup.getId());
+        } else {
+            pendingInstanceGroupIds.remove(instanceGroup.getId());
+        }
+    }
+
+    private static boolean hasPendingChanges(InstanceGroup instanceGroup, List<Instance> instances) {
+        if (instanceGroup.getInstanceIds().size() != instanceGroup.getDesired()) {
+            return true;
+        }
+        for (Instance instance : instances) {
+            switch (instance.getInstanceState()) {
+                case Starting:
+                case Terminating:
+                case Stopping:
+                    return true;
+            }
+        }
+        return false;
+    }
+
     private InstanceGroup decorate(InstanceGroup instanceGroup, InstanceLaunchConfiguration launchConfiguration) {
         Map<String, String> newAttributes = CollectionsExt.copyAndAdd(
                 instanceGroup.getAttributes(),
@@ -369,6 +431,7 @@ class InstanceCache {
 
     private void removeInstanceGroup(String removedInstanceGroupId) {
         this.cacheSnapshot = cacheSnapshot.removeInstanceGroup(removedInstanceGroupId);
+        pendingInstanceGroupIds.remove(removedInstanceGroupId);
         eventSubject.onNext(new CacheUpdateEvent(CacheUpdateType.InstanceGroup, removedInstanceGroupId));
         ContinuousSubscriptionMetrics transformer = instanceGroupRefreshMetricsTransformers.remove(removedInstanceGroupId);
         if (transformer != null) {
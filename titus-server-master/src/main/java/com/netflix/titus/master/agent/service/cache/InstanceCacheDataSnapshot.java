@@ -21,6 +21,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import com.netflix.titus.api.connector.cloud.Instance;
 import com.netflix.titus.api.connector.cloud.InstanceGroup;
@@ -58,9 +59,16 @@ class InstanceCacheDataSnapshot {
         return new InstanceCacheDataSnapshot(newInstanceGroupMap, instanceMap);
     }
 
-    InstanceCacheDataSnapshot updateInstances(List<Instance> instances) {
+    /**
+     * Applies an instance diff: adds or replaces the given instances, and removes the instances with the given ids.
+     */
+    InstanceCacheDataSnapshot updateInstances(List<Instance> changedInstances, Set<String> removedInstanceIds) {
+        if (changedInstances.isEmpty() && removedInstanceIds.isEmpty()) {
+            return this;
+        }
         HashMap<String, Instance> newInstanceMap = new HashMap<>(instanceMap);
-        instances.forEach(updated -> newInstanceMap.put(updated.getId(), updated));
+        removedInstanceIds.forEach(newInstanceMap::remove);
+        changedInstances.forEach(updated -> newInstanceMap.put(updated.getId(), updated));
         return new InstanceCacheDataSnapshot(instanceGroupMap, newInstanceMap);
     }
 
@@ -16,33 +16,46 @@
 
 package com.netflix.titus.master.audit.service;
 
-import java.io.BufferedWriter;
+import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileWriter;
-import java.io.Writer;
-import java.util.Queue;
-import java.util.concurrent.LinkedBlockingDeque;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.patterns.PolledMeter;
 import com.netflix.titus.api.audit.model.AuditLogEvent;
 import com.netflix.titus.api.audit.service.AuditLogService;
 import com.netflix.titus.api.model.event.UserRequestEvent;
+import com.netflix.titus.common.runtime.TitusRuntime;
 import com.netflix.titus.common.util.DateTimeExt;
 import com.netflix.titus.common.util.IOExt;
 import com.netflix.titus.common.util.rx.eventbus.RxEventBus;
+import com.netflix.titus.master.MetricConstants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import rx.Observable;
 import rx.Scheduler;
 import rx.Subscription;
 import rx.schedulers.Schedulers;
 
 /**
- * Audit logging to a file.
+ * Audit logging to a file. Events are formatted by the event producers, and added to a bounded queue. If the queue
+ * is full, the event is dropped. The queue is drained by a single writer, which is triggered by new events, and
+ * which runs on the IO scheduler. The log file is synced to disk at fixed intervals, so a single sync covers
+ * all events written in between. The log file is rotated when it reaches its maximum size, or when it gets too old.
  */
 @Singleton
 public class AuditEventDiskWriter {
@@ -53,89 +66,208 @@ public class AuditEventDiskWriter {
 
     static final long WRITE_INTERVAL_MS = 1000;
 
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final AuditLogConfiguration config;
     private final File auditLogFolder;
     private final RxEventBus rxEventBus;
     private final File auditLogFile;
 
     private final AuditLogService auditLogService;
     private final Scheduler ioScheduler;
+    private final Scheduler.Worker writerWorker;
 
     private final Subscription auditLogSubscription;
     private final Subscription rxEventsSubscription;
-    private final Subscription logWriterSubscription;
+    private final Subscription logSyncSubscription;
+
+    private final BlockingQueue<String> eventQueue;
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    private final Counter droppedEventsCounter;
+    private final Counter rotationsCounter;
+    private final Counter writeErrorsCounter;
 
-    private final Queue<AuditLogEvent> eventQueue = new LinkedBlockingDeque<>();
-    private final Queue<UserRequestEvent> eventBusQueue = new LinkedBlockingQueue<>();
-    private volatile Writer logWriter;
+    private FileOutputStream logFileStream;
+    private OutputStream logWriter;
+    private long logFileSize;
+    private long logFileCreationTime;
+    private boolean unsynced;
 
     @Inject
-    public AuditEventDiskWriter(AuditLogConfiguration config, AuditLogService auditLogService, RxEventBus rxEventBus) {
-        this(config, auditLogService, rxEventBus, Schedulers.io());
+    public AuditEventDiskWriter(AuditLogConfiguration config, AuditLogService auditLogService, RxEventBus rxEventBus, TitusRuntime titusRuntime) {
+        this(config, auditLogService, rxEventBus, titusRuntime, Schedulers.io());
     }
 
-    public AuditEventDiskWriter(AuditLogConfiguration config, AuditLogService auditLogService, RxEventBus rxEventBus, Scheduler ioScheduler) {
+    public AuditEventDiskWriter(AuditLogConfiguration config,
+                                AuditLogService auditLogService,
+                                RxEventBus rxEventBus,
+                                TitusRuntime titusRuntime,
+                                Scheduler ioScheduler) {
+        this.config = config;
         this.auditLogFolder = createAuditLogFolder(new File(config.getAuditLogFolder()));
         this.rxEventBus = rxEventBus;
         this.auditLogFile = new File(auditLogFolder, LOG_FILE_NAME);
         this.auditLogService = auditLogService;
         this.ioScheduler = ioScheduler;
+        this.writerWorker = ioScheduler.createWorker();
+        this.eventQueue = new ArrayBlockingQueue<>(Math.max(1, config.getQueueSize()));
+
+        Registry registry = titusRuntime.getRegistry();
+        this.droppedEventsCounter = registry.counter(MetricConstants.METRIC_AUDIT + "droppedEvents");
+        this.rotationsCounter = registry.counter(MetricConstants.METRIC_AUDIT + "rotations");
+        this.writeErrorsCounter = registry.counter(MetricConstants.METRIC_AUDIT + "writeErrors");
+        PolledMeter.using(registry).withName(MetricConstants.METRIC_AUDIT + "queueSize").monitorValue(eventQueue, BlockingQueue::size);
+
         this.auditLogSubscription = enableLogging();
         this.rxEventsSubscription = enableRxEventBusLogging();
-        this.logWriterSubscription = enableLogWriter();
+        this.logSyncSubscription = writerWorker.schedulePeriodically(this::syncLog, 0, WRITE_INTERVAL_MS, TimeUnit.MILLISECONDS);
     }
 
     @PreDestroy
     public void shutdown() {
         auditLogSubscription.unsubscribe();
         rxEventsSubscription.unsubscribe();
-        logWriterSubscription.unsubscribe();
+        logSyncSubscription.unsubscribe();
+        writerWorker.unsubscribe();
         shutdownInternal();
     }
 
-    private void shutdownInternal() {
-        writeLog();
-        IOExt.closeSilently(logWriter);
+    private synchronized void shutdownInternal() {
+        logger.info("Terminating audit log writer");
+        syncLog();
+        closeLogFile();
     }
 
     private Subscription enableLogging() {
         return auditLogService.auditLogEvents()
                 .doOnTerminate(() -> logger.info("Terminating audit log subscription"))
-                .subscribe(eventQueue::add);
+                .subscribe(event -> enqueue(formatEvent(event)));
     }
 
     private Subscription enableRxEventBusLogging() {
         return rxEventBus.listen(getClass().getSimpleName(), UserRequestEvent.class)
                 .doOnTerminate(() -> logger.info("Terminating RxEventBus subscription"))
-                .subscribe(eventBusQueue::add);
+                .subscribe(event -> enqueue(formatEvent(event)));
     }
 
-    private Subscription enableLogWriter() {
-        return Observable.interval(0, WRITE_INTERVAL_MS, TimeUnit.MILLISECONDS, ioScheduler)
-                .doOnTerminate(() -> {
-                    logger.info("Terminating audit log writer");
-                    shutdownInternal();
-                })
-                .subscribe(tick -> writeLog());
+    private void enqueue(String line) {
+        if (!eventQueue.offer(line)) {
+            droppedEventsCounter.increment();
+            return;
+        }
+        if (drainScheduled.compareAndSet(false, true)) {
+            writerWorker.schedule(this::drainQueue);
+        }
     }
 
-    private void writeLog() {
+    private synchronized void drainQueue() {
+        // Reset before draining, so events added after the last poll trigger a new drain.
+        drainScheduled.set(false);
         try {
-            if (logWriter == null) {
-                createAuditLogFolder(auditLogFolder);
-                logWriter = new BufferedWriter(new FileWriter(auditLogFile, true));
-            }
-            for (AuditLogEvent event = eventQueue.poll(); event != null; event = eventQueue.poll()) {
-                logWriter.write(formatEvent(event));
+            for (String line = eventQueue.poll(); line != null; line = eventQueue.poll()) {
+                if (logWriter == null) {
+                    openLogFile();
+                } else if (logFileSize >= config.getMaxFileSizeBytes()) {
+                    rotateLogFile();
+                }
+                byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+                logWriter.write(bytes);
                 logWriter.write('\n');
+                logFileSize += bytes.length + 1;
+                unsynced = true;
             }
-            for (UserRequestEvent event = eventBusQueue.poll(); event != null; event = eventBusQueue.poll()) {
-                logWriter.write(formatEvent(event));
-                logWriter.write('\n');
+            if (logWriter != null) {
+                logWriter.flush();
             }
+        } catch (Exception e) {
+            handleWriteError(e);
+        }
+    }
 
-            logWriter.flush();
+    private synchronized void syncLog() {
+        drainQueue();
+        try {
+            if (logWriter != null) {
+                if (unsynced) {
+                    if (config.isFsyncEnabled()) {
+                        logFileStream.getChannel().force(false);
+                    }
+                    unsynced = false;
+                }
+                if (logFileSize > 0 && ioScheduler.now() - logFileCreationTime >= config.getRotationIntervalMs()) {
+                    rotateLogFile();
+                }
+            }
         } catch (Exception e) {
-            logger.warn("Audit log write to disk failure ({})", e.getMessage());
+            handleWriteError(e);
+        }
+    }
+
+    private void handleWriteError(Exception e) {
+        writeErrorsCounter.increment();
+        logger.warn("Audit log write to disk failure ({})", e.getMessage());
+
+        // Reopen the log file on the next write.
+        closeLogFile();
+    }
+
+    private void openLogFile() throws IOException {
+        createAuditLogFolder(auditLogFolder);
+        this.logFileStream = new FileOutputStream(auditLogFile, true);
+        this.logWriter = new BufferedOutputStream(logFileStream, BUFFER_SIZE);
+        this.logFileSize = auditLogFile.length();
+        this.logFileCreationTime = ioScheduler.now();
+    }
+
+    private void closeLogFile() {
+        IOExt.closeSilently(logWriter);
+        this.logWriter = null;
+        this.logFileStream = null;
+    }
+
+    private void rotateLogFile() throws IOException {
+        logWriter.flush();
+        if (config.isFsyncEnabled()) {
+            logFileStream.getChannel().force(false);
+        }
+        unsynced = false;
+        closeLogFile();
+
+        File rotatedFile = newRotatedFile();
+        if (!auditLogFile.renameTo(rotatedFile)) {
+            throw new IOException("Cannot rename audit log file " + auditLogFile + " to " + rotatedFile);
+        }
+        rotationsCounter.increment();
+        logger.info("Rotated audit log file to {}", rotatedFile);
+
+        removeOldRotatedFiles();
+        openLogFile();
+    }
+
+    private File newRotatedFile() {
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyyMMdd-HHmmss");
+        dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        String baseName = LOG_FILE_NAME + '.' + dateFormat.format(new Date(ioScheduler.now()));
+
+        File rotatedFile = new File(auditLogFolder, baseName);
+        for (int i = 1; rotatedFile.exists(); i++) {
+            rotatedFile = new File(auditLogFolder, baseName + '-' + i);
+        }
+        return rotatedFile;
+    }
+
+    private void removeOldRotatedFiles() {
+        File[] rotatedFiles = auditLogFolder.listFiles((dir, name) -> name.startsWith(LOG_FILE_NAME + '.'));
+        if (rotatedFiles == null || rotatedFiles.length <= config.getMaxRotatedFiles()) {
+            return;
+        }
+        // Rotated file names end with the rotation time, so the oldest files come first.
+        Arrays.sort(rotatedFiles);
+        for (int i = 0; i < rotatedFiles.length - config.getMaxRotatedFiles(); i++) {
+            if (!rotatedFiles[i].delete()) {
+                logger.warn("Cannot remove old audit log file {}", rotatedFiles[i]);
+            }
         }
     }
 
@@ -30,4 +30,34 @@ public interface AuditLogConfiguration {
      */
     @DefaultValue("/logs/titus-master")
     String getAuditLogFolder();
+
+    /**
+     * Maximum number of audit events waiting to be written to disk. Events arriving when the queue is full are dropped.
+     */
+    @DefaultValue("10000")
+    int getQueueSize();
+
+    /**
+     * Size of the audit log file, above which the file is rotated.
+     */
+    @DefaultValue("104857600")
+    long getMaxFileSizeBytes();
+
+    /**
+     * Maximum age of the audit log file, after which the file is rotated.
+     */
+    @DefaultValue("86400000")
+    long getRotationIntervalMs();
+
+    /**
+     * Number of rotated audit log files to keep.
+     */
+    @DefaultValue("10")
+    int getMaxRotatedFiles();
+
+    /**
+     * If set, the audit log file is synced to disk after each write interval.
+     */
+    @DefaultValue("true")
+    boolean isFsyncEnabled();
 }
@@ -44,4 +44,16 @@ public interface GrpcEndpointConfiguration {
      */
     @DefaultValue("false")
     boolean isJobSizeValidationEnabled();
+
+    /**
+     * Maximum number of jobs (and job descriptors) with a memoized GRPC representation.
+     */
+    @DefaultValue("20000")
+    long getConversionCacheMaxJobs();
+
+    /**
+     * Maximum number of tasks with a memoized GRPC representation.
+     */
+    @DefaultValue("100000")
+    long getConversionCacheMaxTasks();
 }
@@ -62,6 +62,7 @@ class TaskTerminationExecutor {
                 .withName("taskTerminationExecutor")
                 .withMaxQueueSize(MAX_QUEUE_SIZE)
                 .withExcessiveRunningTime(TASK_EXCESSIVE_RUNNING_TIMEOUT)
+                .withCallSiteCapture(ReactorSerializedInvoker.CallSiteCaptureMode.Sampled)
                 .withScheduler(scheduler)
                 .withClock(titusRuntime.getClock())
                 .withRegistry(titusRuntime.getRegistry())
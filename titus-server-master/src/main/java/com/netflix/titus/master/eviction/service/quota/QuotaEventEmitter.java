@@ -19,7 +19,7 @@ package com.netflix.titus.master.eviction.service.quota;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -46,7 +46,8 @@ import reactor.core.publisher.FluxSink;
 
 /**
  * {@link QuotaEventEmitter} emits quota updates at a regular interval. It is accomplished by polling periodically
- * all quota providers and computing the difference between the last and current state.
+ * all quota providers and computing the difference between the last and current state. The polling result and
+ * the difference are shared by all subscribers, so the cost of a refresh does not depend on the number of them.
  */
 @Singleton
 public class QuotaEventEmitter {
@@ -66,6 +67,11 @@ public class QuotaEventEmitter {
     @VisibleForTesting
     final Set<SinkHolder> eventSubscriberSinks = Sets.newConcurrentHashSet();
 
+    /**
+     * Quotas computed in the last refresh cycle. Accessed from the refresh cycle only.
+     */
+    private Map<Reference, EvictionQuota> emittedQuotas = Collections.emptyMap();
+
     @Inject
     public QuotaEventEmitter(EvictionServiceConfiguration configuration,
                              V3JobOperations jobOperations,
@@ -90,26 +96,65 @@ public class QuotaEventEmitter {
     public Flux<EvictionEvent> events(boolean includeSnapshot) {
         return Flux.create(sink -> {
             Preconditions.checkState(scheduleReference != null && !scheduleReference.isClosed());
-            eventSubscriberSinks.add(new SinkHolder(sink, includeSnapshot));
-            sink.onDispose(() -> eventSubscriberSinks.remove(sink));
+            SinkHolder sinkHolder = new SinkHolder(sink, includeSnapshot);
+            eventSubscriberSinks.add(sinkHolder);
+            sink.onDispose(() -> eventSubscriberSinks.remove(sinkHolder));
         });
     }
 
+    /**
+     * Quotas are computed once per refresh cycle, and shared by all subscribers. Subscribers that already received
+     * the initial state get only the quotas that changed since the previous cycle.
+     */
     private void refresh(ExecutionContext context) {
+        if (eventSubscriberSinks.isEmpty()) {
+            this.emittedQuotas = Collections.emptyMap();
+            return;
+        }
+
+        Map<Reference, EvictionQuota> newQuotas;
+        try {
+            newQuotas = buildSnapshot();
+        } catch (Exception e) {
+            eventSubscriberSinks.forEach(sinkHolder -> sinkHolder.error(e));
+            return;
+        }
+
+        List<EvictionQuotaEvent> changes = new ArrayList<>();
+        newQuotas.forEach((reference, quota) -> {
+            EvictionQuota previous = emittedQuotas.get(reference);
+            if (previous == null || quota.getQuota() != previous.getQuota()) {
+                changes.add(EvictionEvent.newQuotaEvent(quota));
+            }
+        });
+
         eventSubscriberSinks.forEach(sinkHolder -> {
             if (sinkHolder.getSink().isCancelled()) {
                 eventSubscriberSinks.remove(sinkHolder);
             } else {
-                sinkHolder.refresh();
+                sinkHolder.refresh(newQuotas, changes);
             }
         });
+        this.emittedQuotas = newQuotas;
+    }
+
+    private Map<Reference, EvictionQuota> buildSnapshot() {
+        Map<Reference, EvictionQuota> snapshot = new LinkedHashMap<>();
+
+        snapshot.put(Reference.system(), quotasManager.findEvictionQuota(Reference.system()).get());
+        jobOperations.getJobs().forEach(job -> {
+            Reference jobReference = Reference.job(job.getId());
+            quotasManager.findEvictionQuota(jobReference).ifPresent(quota -> snapshot.put(jobReference, quota));
+        });
+
+        return snapshot;
     }
 
     private class SinkHolder {
 
         private final FluxSink<EvictionEvent> sink;
-        private Map<Reference, EvictionQuota> emittedQuotas = Collections.emptyMap();
-        private boolean includeSnapshot;
+        private final boolean includeSnapshot;
+        private boolean initialized;
 
         private SinkHolder(FluxSink<EvictionEvent> sink, boolean includeSnapshot) {
             this.sink = sink;
@@ -120,65 +165,25 @@ public class QuotaEventEmitter {
             return sink;
         }
 
-        public void refresh() {
+        private void refresh(Map<Reference, EvictionQuota> quotas, List<EvictionQuotaEvent> changes) {
             try {
-                if (includeSnapshot) {
-                    firstRefreshWithSnapshot();
-                } else if (emittedQuotas.isEmpty()) {
-                    refreshIfNoPreviousEmits();
+                if (initialized) {
+                    changes.forEach(sink::next);
                 } else {
-                    refreshWithPreviousEmits();
+                    quotas.values().forEach(quota -> sink.next(EvictionEvent.newQuotaEvent(quota)));
+                    if (includeSnapshot) {
+                        sink.next(EvictionEvent.newSnapshotEndEvent());
+                    }
+                    this.initialized = true;
                 }
             } catch (Exception e) {
-                sink.error(e);
-                eventSubscriberSinks.remove(this);
+                error(e);
             }
         }
 
-        private void firstRefreshWithSnapshot() {
-            HashMap<Reference, EvictionQuota> newlyEmittedQuotas = new HashMap<>();
-            buildSnapshot().forEach(event -> {
-                sink.next(event);
-                newlyEmittedQuotas.put(event.getQuota().getReference(), event.getQuota());
-            });
-            sink.next(EvictionEvent.newSnapshotEndEvent());
-            this.includeSnapshot = false;
-            this.emittedQuotas = newlyEmittedQuotas;
-        }
-
-        private void refreshIfNoPreviousEmits() {
-            HashMap<Reference, EvictionQuota> newlyEmittedQuotas = new HashMap<>();
-            buildSnapshot().forEach(event -> {
-                sink.next(event);
-                newlyEmittedQuotas.put(event.getQuota().getReference(), event.getQuota());
-            });
-            this.emittedQuotas = newlyEmittedQuotas;
-        }
-
-        private void refreshWithPreviousEmits() {
-            HashMap<Reference, EvictionQuota> newlyEmittedQuotas = new HashMap<>();
-            buildSnapshot().forEach(event -> {
-                EvictionQuota quota = event.getQuota();
-                EvictionQuota previous = emittedQuotas.get(quota.getReference());
-                if (previous == null || quota.getQuota() != previous.getQuota()) {
-                    sink.next(event);
-                }
-                newlyEmittedQuotas.put(quota.getReference(), quota);
-            });
-            this.emittedQuotas = newlyEmittedQuotas;
-        }
-
-        private List<EvictionQuotaEvent> buildSnapshot() {
-            List<EvictionQuotaEvent> snapshot = new ArrayList<>();
-
-            snapshot.add(EvictionEvent.newQuotaEvent(quotasManager.findEvictionQuota(Reference.system()).get()));
-            jobOperations.getJobs()
-                    .forEach(job -> quotasManager
-                            .findEvictionQuota(Reference.job(job.getId()))
-                            .ifPresent(quota -> snapshot.add(EvictionEvent.newQuotaEvent(quota)))
-                    );
-
-            return snapshot;
+        private void error(Exception e) {
+            sink.error(e);
+            eventSubscriberSinks.remove(this);
         }
     }
 }
@@ -20,10 +20,12 @@ import java.time.Duration;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import com.google.common.util.concurrent.Striped;
 import com.netflix.titus.api.containerhealth.service.ContainerHealthService;
 import com.netflix.titus.api.eviction.model.EvictionQuota;
 import com.netflix.titus.api.jobmanager.model.job.Job;
@@ -37,6 +39,7 @@ import com.netflix.titus.common.util.guice.annotation.Activator;
 import com.netflix.titus.common.util.rx.ReactorExt;
 import com.netflix.titus.common.util.rx.ReactorRetriers;
 import com.netflix.titus.master.eviction.service.quota.job.JobQuotaController;
+import com.netflix.titus.master.eviction.service.quota.job.TaskHealthCounters;
 import com.netflix.titus.master.eviction.service.quota.system.SystemQuotaController;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -53,16 +56,18 @@ public class TitusQuotasManager {
 
     private static final Duration RETRY_INTERVAL = Duration.ofSeconds(5);
 
+    private static final int JOB_LOCK_STRIPES = 1024;
+
     private static final ConsumptionResult UNKNOWN_JOB = ConsumptionResult.rejected("Unknown job");
 
     private final V3JobOperations jobOperations;
-    private final ContainerHealthService containerHealthService;
     private final SystemQuotaController systemQuotaController;
     private final TitusRuntime titusRuntime;
+    private final TaskHealthCounters taskHealthCounters;
 
     private final ConcurrentMap<String, JobQuotaController> jobQuotaControllersByJobId = new ConcurrentHashMap<>();
 
-    private final Object lock = new Object();
+    private final Striped<Lock> jobLocks = Striped.lock(JOB_LOCK_STRIPES);
 
     private Disposable jobUpdateDisposable;
 
@@ -71,14 +76,15 @@ public class TitusQuotasManager {
                               ContainerHealthService containerHealthService,
                               SystemQuotaController systemQuotaController,
                               TitusRuntime titusRuntime) {
-        this.containerHealthService = containerHealthService;
         this.systemQuotaController = systemQuotaController;
         this.jobOperations = jobOperations;
         this.titusRuntime = titusRuntime;
+        this.taskHealthCounters = new TaskHealthCounters(jobOperations, containerHealthService);
     }
 
     @Activator
     public void enterActiveMode() {
+        taskHealthCounters.enterActiveMode();
         this.jobUpdateDisposable = jobOperations.observeJobsReactor()
                 .filter(event -> event instanceof JobUpdateEvent)
                 .map(event -> (Job) event.getCurrent())
@@ -90,38 +96,39 @@ public class TitusQuotasManager {
     @PreDestroy
     public void shutdown() {
         ReactorExt.safeDispose(jobUpdateDisposable);
+        taskHealthCounters.shutdown();
     }
 
+    /**
+     * Consumes the job quota first, and the system quota only if the job quota was granted. The system quota is
+     * a thread safe token bucket, which is never given back once taken, so the system limit is exact without
+     * a global lock. Consumption and updates of the quota controllers of the same job are serialized by a per
+     * job lock, so requests for unrelated jobs do not wait on each other.
+     */
     public ConsumptionResult tryConsumeQuota(Job<?> job, Task task) {
-        JobQuotaController jobQuotaController = jobQuotaControllersByJobId.get(job.getId());
-        if (jobQuotaController == null) {
-            return UNKNOWN_JOB;
-        }
-
         String taskId = task.getId();
 
-        synchronized (lock) {
-            ConsumptionResult systemResult = systemQuotaController.consume(taskId);
-            ConsumptionResult jobResult = jobQuotaController.consume(taskId);
-
-            if (systemResult.isApproved() && jobResult.isApproved()) {
-                return jobResult;
-            }
-
-            if (!systemResult.isApproved() && !jobResult.isApproved()) {
-                return ConsumptionResult.rejected(String.format(
-                        "No job and system quota: {systemQuota=%s, jobQuota=%s}",
-                        systemResult.getRejectionReason().get(), jobResult.getRejectionReason().get()
-                ));
+        Lock jobLock = jobLocks.get(job.getId());
+        jobLock.lock();
+        try {
+            JobQuotaController jobQuotaController = jobQuotaControllersByJobId.get(job.getId());
+            if (jobQuotaController == null) {
+                return UNKNOWN_JOB;
             }
 
-            if (systemResult.isApproved()) {
-                systemQuotaController.giveBackConsumedQuota(taskId);
+            ConsumptionResult jobResult = jobQuotaController.consume(taskId);
+            if (!jobResult.isApproved()) {
                 return jobResult;
             }
 
-            jobQuotaController.giveBackConsumedQuota(taskId);
-            return systemResult;
+            ConsumptionResult systemResult = systemQuotaController.consume(taskId);
+            if (!systemResult.isApproved()) {
+                jobQuotaController.giveBackConsumedQuota(taskId);
+                return systemResult;
+            }
+            return jobResult;
+        } finally {
+            jobLock.unlock();
         }
     }
 
@@ -146,10 +153,16 @@ public class TitusQuotasManager {
     }
 
     private void updateJobController(Job newJob) {
-        if (newJob.getStatus().getState() != JobState.Finished) {
-            updateRunningJobController(newJob);
-        } else {
-            jobQuotaControllersByJobId.remove(newJob.getId());
+        Lock jobLock = jobLocks.get(newJob.getId());
+        jobLock.lock();
+        try {
+            if (newJob.getStatus().getState() != JobState.Finished) {
+                updateRunningJobController(newJob);
+            } else {
+                jobQuotaControllersByJobId.remove(newJob.getId());
+            }
+        } finally {
+            jobLock.unlock();
         }
     }
 
@@ -159,7 +172,7 @@ public class TitusQuotasManager {
         if (jobQuotaController != null) {
             jobQuotaControllersByJobId.put(newJob.getId(), jobQuotaController.update(newJob));
         } else {
-            jobQuotaControllersByJobId.put(newJob.getId(), new JobQuotaController(newJob, jobOperations, containerHealthService, titusRuntime));
+            jobQuotaControllersByJobId.put(newJob.getId(), new JobQuotaController(newJob, jobOperations, taskHealthCounters, titusRuntime));
         }
     }
 }
@@ -22,7 +22,6 @@ import java.util.List;
 import java.util.function.Supplier;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.netflix.titus.api.containerhealth.service.ContainerHealthService;
 import com.netflix.titus.api.eviction.model.EvictionQuota;
 import com.netflix.titus.api.jobmanager.model.job.Job;
 import com.netflix.titus.api.jobmanager.model.job.JobFunctions;
@@ -48,44 +47,44 @@ public class JobQuotaController implements QuotaController<Job<?>> {
 
     private final Job<?> job;
     private final V3JobOperations jobOperations;
-    private final ContainerHealthService containerHealthService;
+    private final TaskHealthCounters taskHealthCounters;
     private final TitusRuntime titusRuntime;
     private final List<QuotaTracker> quotaTrackers;
     private final List<QuotaController<Job<?>>> quotaControllers;
 
     public JobQuotaController(Job<?> job,
                               V3JobOperations jobOperations,
-                              ContainerHealthService containerHealthService,
+                              TaskHealthCounters taskHealthCounters,
                               TitusRuntime titusRuntime) {
         this.job = job;
         this.jobOperations = jobOperations;
-        this.containerHealthService = containerHealthService;
+        this.taskHealthCounters = taskHealthCounters;
         this.titusRuntime = titusRuntime;
 
         if (DisruptionBudgetFunctions.isLegacyJob(job)) {
             this.quotaTrackers = Collections.emptyList();
             this.quotaControllers = Collections.emptyList();
         } else {
-            this.quotaTrackers = buildQuotaTrackers(job, jobOperations, containerHealthService, titusRuntime);
+            this.quotaTrackers = buildQuotaTrackers(job, taskHealthCounters, titusRuntime);
             this.quotaControllers = buildQuotaControllers(job, jobOperations, titusRuntime);
         }
     }
 
     private JobQuotaController(Job<?> newJob,
                                V3JobOperations jobOperations,
-                               ContainerHealthService containerHealthService,
+                               TaskHealthCounters taskHealthCounters,
                                JobQuotaController previousJobQuotaController,
                                TitusRuntime titusRuntime) {
         this.job = newJob;
         this.jobOperations = jobOperations;
-        this.containerHealthService = containerHealthService;
+        this.taskHealthCounters = taskHealthCounters;
         this.titusRuntime = titusRuntime;
 
         if (DisruptionBudgetFunctions.isLegacyJob(newJob)) {
             this.quotaTrackers = Collections.emptyList();
             this.quotaControllers = Collections.emptyList();
         } else {
-            this.quotaTrackers = buildQuotaTrackers(job, jobOperations, containerHealthService, titusRuntime);
+            this.quotaTrackers = buildQuotaTrackers(job, taskHealthCounters, titusRuntime);
             this.quotaControllers = mergeQuotaControllers(previousJobQuotaController.quotaControllers, newJob, jobOperations, titusRuntime);
         }
     }
@@ -167,7 +166,7 @@ public class JobQuotaController implements QuotaController<Job<?>> {
         return new JobQuotaController(
                 updatedJob,
                 jobOperations,
-                containerHealthService,
+                taskHealthCounters,
                 this,
                 titusRuntime
         );
@@ -197,8 +196,7 @@ public class JobQuotaController implements QuotaController<Job<?>> {
 
     @VisibleForTesting
     static List<QuotaTracker> buildQuotaTrackers(Job<?> job,
-                                                 V3JobOperations jobOperations,
-                                                 ContainerHealthService containerHealthService,
+                                                 TaskHealthCounters taskHealthCounters,
                                                  TitusRuntime titusRuntime) {
         List<QuotaTracker> quotaTrackers = new ArrayList<>();
 
@@ -210,9 +208,9 @@ public class JobQuotaController implements QuotaController<Job<?>> {
 
         DisruptionBudgetPolicy policy = budget.getDisruptionBudgetPolicy();
         if (policy instanceof AvailabilityPercentageLimitDisruptionBudgetPolicy) {
-            quotaTrackers.add(UnhealthyTasksLimitTracker.percentageLimit(job, jobOperations, containerHealthService));
+            quotaTrackers.add(UnhealthyTasksLimitTracker.percentageLimit(job, taskHealthCounters));
         } else if (policy instanceof UnhealthyTasksLimitDisruptionBudgetPolicy) {
-            quotaTrackers.add(UnhealthyTasksLimitTracker.absoluteLimit(job, jobOperations, containerHealthService));
+            quotaTrackers.add(UnhealthyTasksLimitTracker.absoluteLimit(job, taskHealthCounters));
         } else if (policy instanceof SelfManagedDisruptionBudgetPolicy) {
             quotaTrackers.add(SelfManagedPolicyTracker.getInstance());
         }
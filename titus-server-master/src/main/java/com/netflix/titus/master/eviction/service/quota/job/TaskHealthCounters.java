@@ -0,0 +1,220 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.master.eviction.service.quota.job;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.netflix.titus.api.containerhealth.model.ContainerHealthState;
+import com.netflix.titus.api.containerhealth.model.ContainerHealthStatus;
+import com.netflix.titus.api.containerhealth.model.event.ContainerHealthEvent;
+import com.netflix.titus.api.containerhealth.model.event.ContainerHealthUpdateEvent;
+import com.netflix.titus.api.containerhealth.service.ContainerHealthService;
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.JobState;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.TaskState;
+import com.netflix.titus.api.jobmanager.model.job.event.JobManagerEvent;
+import com.netflix.titus.api.jobmanager.model.job.event.JobUpdateEvent;
+import com.netflix.titus.api.jobmanager.model.job.event.TaskUpdateEvent;
+import com.netflix.titus.api.jobmanager.service.JobManagerException;
+import com.netflix.titus.api.jobmanager.service.V3JobOperations;
+import com.netflix.titus.common.util.rx.ReactorExt;
+import com.netflix.titus.common.util.rx.ReactorRetriers;
+import com.netflix.titus.common.util.tuple.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+
+/**
+ * Keeps per job counters of started, and started and healthy tasks, so the unhealthy tasks limit can be checked
+ * without iterating over all tasks of a job. The counters of a job are initialized from its current tasks when first
+ * requested, and are updated afterwards from the job and container health event streams.
+ * <p>
+ * An event is used only as a trigger to refresh the state of the task it refers to. The task and its health status
+ * are always read from {@link V3JobOperations} and {@link ContainerHealthService}, so the result does not depend
+ * on the relative order of events in the two streams.
+ */
+public class TaskHealthCounters {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskHealthCounters.class);
+
+    private static final String NAME = TaskHealthCounters.class.getSimpleName();
+
+    private static final Duration RETRY_INTERVAL = Duration.ofSeconds(5);
+
+    private final V3JobOperations jobOperations;
+    private final ContainerHealthService containerHealthService;
+
+    private final ConcurrentMap<String, JobCounters> countersByJobId = new ConcurrentHashMap<>();
+
+    private Disposable jobEventsDisposable;
+    private Disposable healthEventsDisposable;
+
+    public TaskHealthCounters(V3JobOperations jobOperations, ContainerHealthService containerHealthService) {
+        this.jobOperations = jobOperations;
+        this.containerHealthService = containerHealthService;
+    }
+
+    public void enterActiveMode() {
+        this.jobEventsDisposable = jobOperations.observeJobsReactor()
+                .compose(ReactorRetriers.instrumentedRetryer(NAME + "-jobEvents", RETRY_INTERVAL, logger))
+                .subscribe(this::onJobManagerEvent);
+        this.healthEventsDisposable = containerHealthService.events(false)
+                .compose(ReactorRetriers.instrumentedRetryer(NAME + "-healthEvents", RETRY_INTERVAL, logger))
+                .subscribe(this::onContainerHealthEvent);
+    }
+
+    public void shutdown() {
+        ReactorExt.safeDispose(jobEventsDisposable, healthEventsDisposable);
+        countersByJobId.clear();
+    }
+
+    /**
+     * Returns counters of the given job. If the job is not tracked yet, its counters are initialized from the
+     * current job state on first access. Counters of a job that does not exist are empty, and are not tracked.
+     */
+    public JobCounters getJobCounters(String jobId) {
+        JobCounters counters = countersByJobId.get(jobId);
+        if (counters != null) {
+            return counters;
+        }
+        if (!jobOperations.getJob(jobId).isPresent()) {
+            return new JobCounters(jobId);
+        }
+        JobCounters newCounters = new JobCounters(jobId);
+        counters = countersByJobId.putIfAbsent(jobId, newCounters);
+        return counters == null ? newCounters : counters;
+    }
+
+    private void onJobManagerEvent(JobManagerEvent<?> event) {
+        if (event instanceof TaskUpdateEvent) {
+            Task task = ((TaskUpdateEvent) event).getCurrentTask();
+            JobCounters counters = countersByJobId.get(task.getJobId());
+            if (counters != null) {
+                counters.refresh(task.getId());
+            }
+        } else if (event instanceof JobUpdateEvent) {
+            Job<?> job = ((JobUpdateEvent) event).getCurrent();
+            if (job.getStatus().getState() == JobState.Finished) {
+                countersByJobId.remove(job.getId());
+            }
+        }
+    }
+
+    private void onContainerHealthEvent(ContainerHealthEvent event) {
+        if (!(event instanceof ContainerHealthUpdateEvent)) {
+            return;
+        }
+        String taskId = ((ContainerHealthUpdateEvent) event).getContainerHealthStatus().getTaskId();
+        jobOperations.findTaskById(taskId).ifPresent(jobTaskPair -> {
+            JobCounters counters = countersByJobId.get(jobTaskPair.getLeft().getId());
+            if (counters != null) {
+                counters.refresh(taskId);
+            }
+        });
+    }
+
+    /**
+     * Counters of a single job. All operations are executed under the object lock, and the initial state is
+     * loaded within the first one. If the load fails, it is repeated by the next operation. A refresh triggered while the initial state is loaded waits for it to complete,
+     * and reads the task state again, so no update can be lost.
+     */
+    public class JobCounters {
+
+        private final String jobId;
+
+        private final Set<String> startedTaskIds = new HashSet<>();
+        private final Set<String> healthyTaskIds = new HashSet<>();
+
+        private boolean loaded;
+
+        private JobCounters(String jobId) {
+            this.jobId = jobId;
+        }
+
+        /**
+         * Returns the number of tasks in the {@link TaskState#Started} state.
+         */
+        public synchronized int getStarted() {
+            ensureLoaded();
+            return startedTaskIds.size();
+        }
+
+        /**
+         * Returns the number of tasks in the {@link TaskState#Started} state, with {@link ContainerHealthState#Healthy}
+         * container health.
+         */
+        public synchronized int getHealthy() {
+            ensureLoaded();
+            return healthyTaskIds.size();
+        }
+
+        private synchronized void refresh(String taskId) {
+            if (!loaded) {
+                ensureLoaded();
+                return;
+            }
+            Optional<Task> taskOpt = jobOperations.findTaskById(taskId).map(Pair::getRight);
+            if (taskOpt.isPresent()) {
+                update(taskOpt.get());
+            } else {
+                startedTaskIds.remove(taskId);
+                healthyTaskIds.remove(taskId);
+            }
+        }
+
+        private void ensureLoaded() {
+            if (loaded) {
+                return;
+            }
+
+            List<Task> tasks;
+            try {
+                tasks = jobOperations.getTasks(jobId);
+            } catch (JobManagerException e) {
+                // The job finished before its counters were loaded.
+                countersByJobId.remove(jobId, this);
+                return;
+            }
+            tasks.forEach(this::update);
+            loaded = true;
+        }
+
+        private void update(Task task) {
+            String taskId = task.getId();
+            if (task.getStatus().getState() != TaskState.Started) {
+                startedTaskIds.remove(taskId);
+                healthyTaskIds.remove(taskId);
+                return;
+            }
+            startedTaskIds.add(taskId);
+
+            Optional<ContainerHealthStatus> statusOpt = containerHealthService.findHealthStatus(taskId);
+            if (statusOpt.isPresent() && statusOpt.get().getState() == ContainerHealthState.Healthy) {
+                healthyTaskIds.add(taskId);
+            } else {
+                healthyTaskIds.remove(taskId);
+            }
+        }
+    }
+}
@@ -23,6 +23,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
@@ -43,7 +44,7 @@ import com.netflix.titus.api.service.TitusServiceException;
 import com.netflix.titus.common.model.sanitizer.EntitySanitizer;
 import com.netflix.titus.common.model.validator.ValidationError;
 import com.netflix.titus.common.runtime.TitusRuntime;
-import com.netflix.titus.common.util.ProtobufCopy;
+import com.netflix.titus.common.util.ProtobufFieldMask;
 import com.netflix.titus.common.util.rx.ObservableExt;
 import com.netflix.titus.common.util.tuple.Pair;
 import com.netflix.titus.grpc.protogen.Job;
@@ -66,6 +67,7 @@ import com.netflix.titus.grpc.protogen.TaskMoveRequest;
 import com.netflix.titus.grpc.protogen.TaskQuery;
 import com.netflix.titus.grpc.protogen.TaskQueryResult;
 import com.netflix.titus.grpc.protogen.TaskStatus;
+import com.netflix.titus.master.MetricConstants;
 import com.netflix.titus.master.config.CellInfoResolver;
 import com.netflix.titus.master.endpoint.common.CellDecorator;
 import com.netflix.titus.master.endpoint.grpc.GrpcEndpointConfiguration;
@@ -76,6 +78,7 @@ import com.netflix.titus.runtime.endpoint.JobQueryCriteria;
 import com.netflix.titus.runtime.endpoint.common.LogStorageInfo;
 import com.netflix.titus.runtime.endpoint.metadata.CallMetadataResolver;
 import com.netflix.titus.runtime.endpoint.metadata.CallMetadataUtils;
+import com.netflix.titus.runtime.endpoint.v3.grpc.GrpcModelConversionCache;
 import com.netflix.titus.runtime.endpoint.v3.grpc.V3GrpcModelConverters;
 import com.netflix.titus.runtime.endpoint.v3.grpc.query.V3JobQueryCriteriaEvaluator;
 import com.netflix.titus.runtime.endpoint.v3.grpc.query.V3TaskQueryCriteriaEvaluator;
@@ -118,6 +121,7 @@ public class DefaultJobManagementServiceGrpc extends JobManagementServiceGrpc.Jo
     private final Predicate<com.netflix.titus.api.jobmanager.model.job.JobDescriptor> disruptionBudgetEnabledPredicate;
     private final CallMetadataResolver callMetadataResolver;
     private final CellDecorator cellDecorator;
+    private final GrpcModelConversionCache conversionCache;
     private final TitusRuntime titusRuntime;
 
     @Inject
@@ -140,9 +144,21 @@ public class DefaultJobManagementServiceGrpc extends JobManagementServiceGrpc.Jo
         this.disruptionBudgetEnabledPredicate = disruptionBudgetEnabledPredicate;
         this.callMetadataResolver = callMetadataResolver;
         this.cellDecorator = new CellDecorator(cellInfoResolver::getCellName);
+        this.conversionCache = new GrpcModelConversionCache(
+                logStorageInfo,
+                configuration.getConversionCacheMaxJobs(),
+                configuration.getConversionCacheMaxTasks(),
+                MetricConstants.METRIC_ROOT + "jobManager.grpcConversion",
+                titusRuntime.getRegistry()
+        );
         this.titusRuntime = titusRuntime;
     }
 
+    @PreDestroy
+    public void shutdown() {
+        conversionCache.shutdown();
+    }
+
     @Override
     public void createJob(JobDescriptor jobDescriptor, StreamObserver<JobId> responseObserver) {
         execute(callMetadataResolver, responseObserver, callMetadata ->
@@ -217,16 +233,16 @@ public class DefaultJobManagementServiceGrpc extends JobManagementServiceGrpc.Jo
                     JobManagerCursors::coreJobIndexOf,
                     JobManagerCursors::newCoreCursorFrom
             );
-            List<Job> grpcJobs = queryResult.getLeft().stream().map(V3GrpcModelConverters::toGrpcJob).collect(Collectors.toList());
-
-            JobQueryResult grpcQueryResult;
+            List<Job> grpcJobs;
             if (jobQuery.getFieldsList().isEmpty()) {
-                grpcQueryResult = toJobQueryResult(grpcJobs, queryResult.getRight());
+                grpcJobs = queryResult.getLeft().stream().map(conversionCache::toGrpcJob).collect(Collectors.toList());
             } else {
                 Set<String> fields = new HashSet<>(jobQuery.getFieldsList());
                 fields.addAll(JOB_MINIMUM_FIELD_SET);
-                grpcQueryResult = toJobQueryResult(grpcJobs.stream().map(j -> ProtobufCopy.copy(j, fields)).collect(Collectors.toList()), queryResult.getRight());
+                ProtobufFieldMask mask = ProtobufFieldMask.compile(fields);
+                grpcJobs = queryResult.getLeft().stream().map(j -> V3GrpcModelConverters.toGrpcJob(j, mask)).collect(Collectors.toList());
             }
+            JobQueryResult grpcQueryResult = toJobQueryResult(grpcJobs, queryResult.getRight());
 
             responseObserver.onNext(grpcQueryResult);
             responseObserver.onCompleted();
@@ -241,7 +257,7 @@ public class DefaultJobManagementServiceGrpc extends JobManagementServiceGrpc.Jo
 
         try {
             jobOperations.getJob(id)
-                    .map(j -> Observable.just(V3GrpcModelConverters.toGrpcJob(j)))
+                    .map(j -> Observable.just(conversionCache.toGrpcJob(j)))
                     .orElseGet(() -> Observable.error(JobManagerException.jobNotFound(id)))
                     .subscribe(
                             responseObserver::onNext,
@@ -275,16 +291,16 @@ public class DefaultJobManagementServiceGrpc extends JobManagementServiceGrpc.Jo
                     JobManagerCursors::newCoreCursorFrom
             );
 
-            List<Task> grpcTasks = queryResult.getLeft().stream().map(t -> V3GrpcModelConverters.toGrpcTask(t, logStorageInfo)).collect(Collectors.toList());
-
-            TaskQueryResult grpcQueryResult;
+            List<Task> grpcTasks;
             if (taskQuery.getFieldsList().isEmpty()) {
-                grpcQueryResult = toTaskQueryResult(grpcTasks, queryResult.getRight());
+                grpcTasks = queryResult.getLeft().stream().map(conversionCache::toGrpcTask).collect(Collectors.toList());
             } else {
                 Set<String> fields = new HashSet<>(taskQuery.getFieldsList());
                 fields.addAll(TASK_MINIMUM_FIELD_SET);
-                grpcQueryResult = toTaskQueryResult(grpcTasks.stream().map(t -> ProtobufCopy.copy(t, fields)).collect(Collectors.toList()), queryResult.getRight());
+                ProtobufFieldMask mask = ProtobufFieldMask.compile(fields);
+                grpcTasks = queryResult.getLeft().stream().map(t -> V3GrpcModelConverters.toGrpcTask(t, logStorageInfo, mask)).collect(Collectors.toList());
             }
+            TaskQueryResult grpcQueryResult = toTaskQueryResult(grpcTasks, queryResult.getRight());
 
             responseObserver.onNext(grpcQueryResult);
             responseObserver.onCompleted();
@@ -301,7 +317,7 @@ public class DefaultJobManagementServiceGrpc extends JobManagementServiceGrpc.Jo
             jobOperations.findTaskById(id)
                     .map(p -> {
                         com.netflix.titus.api.jobmanager.model.job.Task task = p.getRight();
-                        return Observable.just(V3GrpcModelConverters.toGrpcTask(task, logStorageInfo));
+                        return Observable.just(conversionCache.toGrpcTask(task));
                     })
                     .orElseGet(() -> Observable.error(JobManagerException.taskNotFound(id)))
                     .subscribe(
@@ -470,7 +486,7 @@ public class DefaultJobManagementServiceGrpc extends JobManagementServiceGrpc.Jo
         V3TaskQueryCriteriaEvaluator tasksPredicate = new V3TaskQueryCriteriaEvaluator(criteria, titusRuntime);
 
         Observable<JobChangeNotification> eventStream = jobOperations.observeJobs(jobsPredicate, tasksPredicate)
-                .map(event -> V3GrpcModelConverters.toGrpcJobChangeNotification(event, logStorageInfo))
+                .map(conversionCache::toGrpcJobChangeNotification)
                 .compose(ObservableExt.head(() -> {
                     List<JobChangeNotification> snapshot = createJobsSnapshot(jobsPredicate, tasksPredicate);
                     snapshot.add(SNAPSHOT_END_MARKER);
@@ -496,7 +512,7 @@ public class DefaultJobManagementServiceGrpc extends JobManagementServiceGrpc.Jo
     public void observeJob(JobId request, StreamObserver<JobChangeNotification> responseObserver) {
         String jobId = request.getId();
         Observable<JobChangeNotification> eventStream = jobOperations.observeJob(jobId)
-                .map(event -> V3GrpcModelConverters.toGrpcJobChangeNotification(event, logStorageInfo))
+                .map(conversionCache::toGrpcJobChangeNotification)
                 .compose(ObservableExt.head(() -> {
                     List<JobChangeNotification> snapshot = createJobSnapshot(jobId);
                     snapshot.add(SNAPSHOT_END_MARKER);
@@ -594,14 +610,14 @@ public class DefaultJobManagementServiceGrpc extends JobManagementServiceGrpc.Jo
     }
 
     private JobChangeNotification toJobChangeNotification(com.netflix.titus.api.jobmanager.model.job.Job<?> coreJob) {
-        Job grpcJob = V3GrpcModelConverters.toGrpcJob(coreJob);
+        Job grpcJob = conversionCache.toGrpcJob(coreJob);
         return JobChangeNotification.newBuilder()
                 .setJobUpdate(JobChangeNotification.JobUpdate.newBuilder().setJob(grpcJob))
                 .build();
     }
 
     private JobChangeNotification toJobChangeNotification(com.netflix.titus.api.jobmanager.model.job.Task coreTask) {
-        com.netflix.titus.grpc.protogen.Task grpcTask = V3GrpcModelConverters.toGrpcTask(coreTask, logStorageInfo);
+        com.netflix.titus.grpc.protogen.Task grpcTask = conversionCache.toGrpcTask(coreTask);
         return JobChangeNotification.newBuilder()
                 .setTaskUpdate(JobChangeNotification.TaskUpdate.newBuilder().setTask(grpcTask))
                 .build();
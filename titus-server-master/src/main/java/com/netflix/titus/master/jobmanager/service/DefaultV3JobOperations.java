@@ -17,6 +17,7 @@
 package com.netflix.titus.master.jobmanager.service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Function;
@@ -281,6 +282,17 @@ public class DefaultV3JobOperations implements V3JobOperations {
         return engine.changeReferenceModel(changeAction, taskId).toCompletable();
     }
 
+    @Override
+    public Completable updateTasks(String jobId, Map<String, Function<Task, Optional<Task>>> changeFunctions, Trigger trigger, String reason) {
+        Optional<ReconciliationEngine<JobManagerReconcilerEvent>> engineOpt = reconciliationFramework.findEngineByRootId(jobId);
+        if (!engineOpt.isPresent()) {
+            return Completable.error(JobManagerException.jobNotFound(jobId));
+        }
+        ReconciliationEngine<JobManagerReconcilerEvent> engine = engineOpt.get();
+        TitusChangeAction changeAction = BasicTaskActions.updateTasksInRunningModel(jobId, changeFunctions, trigger, jobManagerConfiguration, engine, reason, titusRuntime);
+        return engine.changeReferenceModel(changeAction).toCompletable();
+    }
+
     @Override
     public Completable recordTaskPlacement(String taskId, Function<Task, Task> changeFunction) {
         Optional<ReconciliationEngine<JobManagerReconcilerEvent>> engineOpt = reconciliationFramework.findEngineByChildId(taskId).map(Pair::getLeft);
@@ -94,4 +94,47 @@ public interface JobManagerConfiguration {
      */
     @DefaultValue("false")
     boolean isMoveTaskApiEnabled();
+
+    /**
+     * If enabled, the leader periodically writes a snapshot of all active jobs and tasks to the local disk. On the
+     * next activation on the same machine, the snapshot is loaded, and only records modified after it was taken are
+     * read from the store.
+     */
+    @DefaultValue("false")
+    boolean isSnapshotCheckpointEnabled();
+
+    @DefaultValue("/tmp/titus-master/jobSnapshot.checkpoint")
+    String getSnapshotCheckpointFile();
+
+    @DefaultValue("60000")
+    long getSnapshotCheckpointIntervalMs();
+
+    /**
+     * Snapshot checkpoints older than this are ignored, and all data are loaded from the store.
+     */
+    @DefaultValue("3600000")
+    long getSnapshotCheckpointMaxAgeMs();
+
+    /**
+     * Store records written within this time before a snapshot checkpoint was taken are reloaded from the store.
+     * Covers writes in flight while the snapshot was taken, and the clock skew between the master and the store clients.
+     */
+    @DefaultValue("60000")
+    long getSnapshotCheckpointSafetyMarginMs();
+
+    /**
+     * If enabled, a standby TitusMaster follows the leader's job event stream, and keeps a replicated copy of all
+     * active jobs and tasks. As the replicated records do not preserve all data (for example the status timestamps),
+     * the new and changed ones are periodically read from the store. When elected, this store copy is reconciled with
+     * the store like a snapshot checkpoint.
+     */
+    @DefaultValue("false")
+    boolean isHotStandbyEnabled();
+
+    /**
+     * How often a standby TitusMaster reads from the store the records changed in the replicated state. Records
+     * changed after the last read are loaded from the store on activation.
+     */
+    @DefaultValue("5000")
+    long getHotStandbyStoreSyncIntervalMs();
 }
@@ -21,10 +21,12 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -64,11 +66,14 @@ import com.netflix.titus.common.util.time.Clock;
 import com.netflix.titus.common.util.tuple.Pair;
 import com.netflix.titus.master.MetricConstants;
 import com.netflix.titus.master.jobmanager.service.DefaultV3JobOperations.IndexKind;
+import com.netflix.titus.master.jobmanager.service.checkpoint.JobSnapshotCheckpoint;
+import com.netflix.titus.master.jobmanager.service.checkpoint.JobSnapshotCheckpointLoader;
 import com.netflix.titus.master.jobmanager.service.common.V3QueueableTask;
 import com.netflix.titus.master.jobmanager.service.common.action.TitusChangeAction;
 import com.netflix.titus.master.jobmanager.service.common.action.task.TaskTimeoutChangeActions;
 import com.netflix.titus.master.jobmanager.service.event.JobEventFactory;
 import com.netflix.titus.master.jobmanager.service.event.JobManagerReconcilerEvent;
+import com.netflix.titus.master.jobmanager.service.standby.StandbyJobStateReplicator;
 import com.netflix.titus.master.scheduler.SchedulingService;
 import com.netflix.titus.master.scheduler.constraint.ConstraintEvaluatorTransformer;
 import com.netflix.titus.master.scheduler.constraint.SystemHardConstraint;
@@ -122,6 +127,7 @@ public class JobReconciliationFrameworkFactory {
     private final Registry registry;
     private final Clock clock;
     private final Optional<Scheduler> optionalScheduler;
+    private final JobSnapshotCheckpointLoader checkpointLoader;
 
     private final Gauge loadedJobs;
     private final Gauge loadedTasks;
@@ -139,10 +145,11 @@ public class JobReconciliationFrameworkFactory {
                                              ConstraintEvaluatorTransformer<Pair<String, String>> constraintEvaluatorTransformer,
                                              @Named(JOB_PERMISSIVE_SANITIZER) EntitySanitizer permissiveEntitySanitizer,
                                              @Named(JOB_STRICT_SANITIZER) EntitySanitizer strictEntitySanitizer,
+                                             StandbyJobStateReplicator standbyJobStateReplicator,
                                              TitusRuntime titusRuntime) {
         this(jobManagerConfiguration, batchDifferenceResolver, serviceDifferenceResolver, store, schedulingService, capacityGroupService,
                 systemSoftConstraint, systemHardConstraint, constraintEvaluatorTransformer, permissiveEntitySanitizer, strictEntitySanitizer,
-                titusRuntime, Optional.empty());
+                standbyJobStateReplicator::takeSnapshotAndStop, titusRuntime, Optional.empty());
     }
 
     public JobReconciliationFrameworkFactory(JobManagerConfiguration jobManagerConfiguration,
@@ -158,6 +165,25 @@ public class JobReconciliationFrameworkFactory {
                                              EntitySanitizer strictEntitySanitizer,
                                              TitusRuntime titusRuntime,
                                              Optional<Scheduler> optionalScheduler) {
+        this(jobManagerConfiguration, batchDifferenceResolver, serviceDifferenceResolver, store, schedulingService, capacityGroupService,
+                systemSoftConstraint, systemHardConstraint, constraintEvaluatorTransformer, permissiveEntitySanitizer, strictEntitySanitizer,
+                Optional::empty, titusRuntime, optionalScheduler);
+    }
+
+    private JobReconciliationFrameworkFactory(JobManagerConfiguration jobManagerConfiguration,
+                                              DifferenceResolver<JobManagerReconcilerEvent> batchDifferenceResolver,
+                                              DifferenceResolver<JobManagerReconcilerEvent> serviceDifferenceResolver,
+                                              JobStore store,
+                                              SchedulingService schedulingService,
+                                              ApplicationSlaManagementService capacityGroupService,
+                                              SystemSoftConstraint systemSoftConstraint,
+                                              SystemHardConstraint systemHardConstraint,
+                                              ConstraintEvaluatorTransformer<Pair<String, String>> constraintEvaluatorTransformer,
+                                              EntitySanitizer permissiveEntitySanitizer,
+                                              EntitySanitizer strictEntitySanitizer,
+                                              Supplier<Optional<JobSnapshotCheckpoint>> standbySnapshotSupplier,
+                                              TitusRuntime titusRuntime,
+                                              Optional<Scheduler> optionalScheduler) {
         this.jobManagerConfiguration = jobManagerConfiguration;
         this.store = store;
         this.schedulingService = schedulingService;
@@ -172,6 +198,8 @@ public class JobReconciliationFrameworkFactory {
         this.titusRuntime = titusRuntime;
         this.registry = titusRuntime.getRegistry();
         this.clock = titusRuntime.getClock();
+        this.checkpointLoader = new JobSnapshotCheckpointLoader(jobManagerConfiguration, store, standbySnapshotSupplier,
+                MAX_RETRIEVE_TASK_CONCURRENCY, titusRuntime);
 
         this.loadedJobs = registry.gauge(ROOT_METRIC_NAME + "loadedJobs");
         this.loadedTasks = registry.gauge(ROOT_METRIC_NAME + "loadedTasks");
@@ -349,28 +377,9 @@ public class JobReconciliationFrameworkFactory {
         // load all job/task pairs
         List<Pair<Job, Pair<List<Task>, Integer>>> jobTasksPairs;
         try {
-            jobTasksPairs = store.init().andThen(store.retrieveJobs().flatMap(retrievedJobsAndErrors -> {
-                errorCollector.corruptedJobRecords(retrievedJobsAndErrors.getRight());
-
-                List<Job<?>> retrievedJobs = retrievedJobsAndErrors.getLeft();
-                List<Observable<Pair<Job, Pair<List<Task>, Integer>>>> retrieveTasksObservables = new ArrayList<>();
-                for (Job job : retrievedJobs) {
-                    // TODO Finished jobs that were not archived immediately should be archived by background archive process
-                    if (job.getStatus().getState() == JobState.Finished) {
-                        logger.info("Not loading finished job: {}", job.getId());
-                        continue;
-                    }
-
-                    Optional<Job> validatedJob = validateJob(job);
-                    if (validatedJob.isPresent()) {
-                        Observable<Pair<Job, Pair<List<Task>, Integer>>> retrieveTasksObservable = store.retrieveTasksForJob(job.getId())
-                                .map(taskList -> new Pair<>(validatedJob.get(), taskList));
-                        retrieveTasksObservables.add(retrieveTasksObservable);
-                    } else {
-                        errorCollector.invalidJob(job.getId());
-                    }
-                }
-                return Observable.merge(retrieveTasksObservables, MAX_RETRIEVE_TASK_CONCURRENCY);
+            jobTasksPairs = store.init().andThen(Observable.defer(() -> {
+                Optional<JobSnapshotCheckpoint> checkpoint = checkpointLoader.load();
+                return checkpoint.isPresent() ? loadJobsAndTasksFromCheckpoint(checkpoint.get(), errorCollector) : retrieveJobsAndTasks(errorCollector);
             })).toList().toBlocking().singleOrDefault(Collections.emptyList());
 
             int corruptedTaskRecords = jobTasksPairs.stream().mapToInt(p -> p.getRight().getRight()).sum();
@@ -398,6 +407,44 @@ public class JobReconciliationFrameworkFactory {
         return jobTasksPairs.stream().map(p -> Pair.of(p.getLeft(), p.getRight().getLeft())).collect(Collectors.toList());
     }
 
+    private Observable<Pair<Job, Pair<List<Task>, Integer>>> retrieveJobsAndTasks(InitializationErrorCollector errorCollector) {
+        return store.retrieveJobs().flatMap(retrievedJobsAndErrors -> {
+            errorCollector.corruptedJobRecords(retrievedJobsAndErrors.getRight());
+
+            Map<String, Job> validatedJobs = validateLoadedJobs(retrievedJobsAndErrors.getLeft(), errorCollector);
+            return store.retrieveTasksForJobs(validatedJobs.keySet(), MAX_RETRIEVE_TASK_CONCURRENCY)
+                    .map(jobIdAndTasks -> new Pair<>(validatedJobs.get(jobIdAndTasks.getLeft()), jobIdAndTasks.getRight()));
+        });
+    }
+
+    private Observable<Pair<Job, Pair<List<Task>, Integer>>> loadJobsAndTasksFromCheckpoint(JobSnapshotCheckpoint checkpoint, InitializationErrorCollector errorCollector) {
+        Map<String, List<Task>> tasksByJobId = checkpoint.getTasks().stream().collect(Collectors.groupingBy(Task::getJobId));
+        Map<String, Job> validatedJobs = validateLoadedJobs(checkpoint.getJobs(), errorCollector);
+
+        List<Pair<Job, Pair<List<Task>, Integer>>> result = new ArrayList<>();
+        validatedJobs.forEach((jobId, job) -> result.add(Pair.of(job, Pair.of(tasksByJobId.getOrDefault(jobId, Collections.emptyList()), 0))));
+        return Observable.from(result);
+    }
+
+    private Map<String, Job> validateLoadedJobs(List<Job<?>> loadedJobs, InitializationErrorCollector errorCollector) {
+        Map<String, Job> validatedJobs = new LinkedHashMap<>();
+        for (Job job : loadedJobs) {
+            // TODO Finished jobs that were not archived immediately should be archived by background archive process
+            if (job.getStatus().getState() == JobState.Finished) {
+                logger.info("Not loading finished job: {}", job.getId());
+                continue;
+            }
+
+            Optional<Job> validatedJob = validateJob(job);
+            if (validatedJob.isPresent()) {
+                validatedJobs.put(job.getId(), validatedJob.get());
+            } else {
+                errorCollector.invalidJob(job.getId());
+            }
+        }
+        return validatedJobs;
+    }
+
     private Optional<Job> validateJob(Job job) {
         // Perform strict validation for reporting purposes
         Set<ValidationError> strictViolations = strictEntitySanitizer.validate(job);
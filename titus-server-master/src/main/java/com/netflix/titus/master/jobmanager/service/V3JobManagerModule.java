@@ -16,6 +16,7 @@
 
 package com.netflix.titus.master.jobmanager.service;
 
+import javax.inject.Named;
 import javax.inject.Singleton;
 
 import com.google.inject.AbstractModule;
@@ -28,12 +29,15 @@ import com.netflix.titus.api.jobmanager.service.ReadOnlyJobOperations;
 import com.netflix.titus.api.jobmanager.service.V3JobOperations;
 import com.netflix.titus.common.framework.reconciler.ReconciliationEngine.DifferenceResolver;
 import com.netflix.titus.master.jobmanager.service.batch.BatchDifferenceResolver;
+import com.netflix.titus.master.jobmanager.service.checkpoint.JobSnapshotCheckpointWriter;
 import com.netflix.titus.master.jobmanager.service.event.JobManagerReconcilerEvent;
 import com.netflix.titus.master.jobmanager.service.limiter.DefaultJobSubmitLimiter;
 import com.netflix.titus.master.jobmanager.service.limiter.JobSubmitLimiter;
 import com.netflix.titus.master.jobmanager.service.service.ServiceDifferenceResolver;
+import com.netflix.titus.master.jobmanager.service.standby.StandbyJobStateReplicator;
 import com.netflix.titus.master.mesos.DefaultV3TaskInfoFactory;
 import com.netflix.titus.master.mesos.TaskInfoFactory;
+import com.netflix.titus.runtime.connector.GrpcClientConfiguration;
 import org.apache.mesos.Protos;
 
 public class V3JobManagerModule extends AbstractModule {
@@ -55,6 +59,8 @@ public class V3JobManagerModule extends AbstractModule {
         }).to(DefaultV3TaskInfoFactory.class);
 
         bind(TaskLivenessMetrics.class).asEagerSingleton();
+        bind(JobSnapshotCheckpointWriter.class).asEagerSingleton();
+        bind(StandbyJobStateReplicator.class).asEagerSingleton();
     }
 
     @Provides
@@ -62,4 +68,11 @@ public class V3JobManagerModule extends AbstractModule {
     public JobManagerConfiguration getJobManagerConfiguration(ConfigProxyFactory factory) {
         return factory.newProxy(JobManagerConfiguration.class);
     }
+
+    @Provides
+    @Singleton
+    @Named(StandbyJobStateReplicator.STANDBY_GRPC_CLIENT)
+    public GrpcClientConfiguration getStandbyGrpcClientConfiguration(ConfigProxyFactory factory) {
+        return factory.newProxy(GrpcClientConfiguration.class, "titusMaster.jobManager.standby.grpcClient");
+    }
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.master.jobmanager.service.checkpoint;
+
+import java.util.List;
+import java.util.Objects;
+
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+
+/**
+ * Point in time copy of all active jobs and tasks.
+ */
+public class JobSnapshotCheckpoint {
+
+    private final long timestamp;
+    private final List<Job<?>> jobs;
+    private final List<Task> tasks;
+
+    public JobSnapshotCheckpoint(long timestamp, List<Job<?>> jobs, List<Task> tasks) {
+        this.timestamp = timestamp;
+        this.jobs = jobs;
+        this.tasks = tasks;
+    }
+
+    /**
+     * Wall clock time at which the snapshot was taken. All store writes completed before this time are included.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public List<Job<?>> getJobs() {
+        return jobs;
+    }
+
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        JobSnapshotCheckpoint that = (JobSnapshotCheckpoint) o;
+        return timestamp == that.timestamp &&
+                Objects.equals(jobs, that.jobs) &&
+                Objects.equals(tasks, that.tasks);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(timestamp, jobs, tasks);
+    }
+
+    @Override
+    public String toString() {
+        return "JobSnapshotCheckpoint{" +
+                "timestamp=" + timestamp +
+                ", jobs=" + jobs.size() +
+                ", tasks=" + tasks.size() +
+                '}';
+    }
+}
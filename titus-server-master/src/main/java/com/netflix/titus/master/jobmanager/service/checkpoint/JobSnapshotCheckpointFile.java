@@ -0,0 +1,191 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.master.jobmanager.service.checkpoint;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.json.ObjectMappers;
+
+/**
+ * Reads and writes {@link JobSnapshotCheckpoint} files. The file layout is:
+ * <ul>
+ * <li>header: magic number, format version, snapshot timestamp, job count, task count, body length, body CRC32</li>
+ * <li>body: job records followed by task records, each encoded as a length prefixed Smile document</li>
+ * </ul>
+ * Files are written and read sequentially through a memory mapped buffer. A new checkpoint is written to a temporary
+ * file first, and atomically moved to the target location, so readers never observe a partially written checkpoint.
+ * Any mismatch in the header or the checksum is reported as {@link CorruptedCheckpointException}.
+ */
+public final class JobSnapshotCheckpointFile {
+
+    private static final int MAGIC = 0x54_43_4B_50; // "TCKP"
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 4 + 4 + 8 + 8;
+
+    private static final ObjectMapper MAPPER = ObjectMappers.storeSmileMapper();
+
+    private JobSnapshotCheckpointFile() {
+    }
+
+    /**
+     * @return number of bytes written
+     */
+    public static long write(File file, JobSnapshotCheckpoint checkpoint) throws IOException {
+        List<byte[]> records = new ArrayList<>(checkpoint.getJobs().size() + checkpoint.getTasks().size());
+        long bodyLength = 0;
+        CRC32 crc = new CRC32();
+        for (Job<?> job : checkpoint.getJobs()) {
+            bodyLength += addRecord(records, crc, ObjectMappers.writeValueAsBytes(MAPPER, job));
+        }
+        for (Task task : checkpoint.getTasks()) {
+            bodyLength += addRecord(records, crc, ObjectMappers.writeValueAsBytes(MAPPER, task));
+        }
+        long fileLength = HEADER_SIZE + bodyLength;
+        if (fileLength > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot checkpoint too large: " + fileLength);
+        }
+
+        Path target = file.toPath();
+        Path parent = target.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmpFile = Files.createTempFile(parent, target.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmpFile, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileLength);
+                buffer.putInt(MAGIC);
+                buffer.putInt(FORMAT_VERSION);
+                buffer.putLong(checkpoint.getTimestamp());
+                buffer.putInt(checkpoint.getJobs().size());
+                buffer.putInt(checkpoint.getTasks().size());
+                buffer.putLong(bodyLength);
+                buffer.putLong(crc.getValue());
+                for (byte[] record : records) {
+                    buffer.putInt(record.length);
+                    buffer.put(record);
+                }
+                buffer.force();
+            }
+            Files.move(tmpFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmpFile);
+        }
+        return fileLength;
+    }
+
+    /**
+     * @return the checkpoint, or {@link Optional#empty()} if the file does not exist
+     * @throws CorruptedCheckpointException if the file content is not a valid checkpoint
+     */
+    public static Optional<JobSnapshotCheckpoint> read(File file) throws IOException {
+        if (!file.exists()) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long fileLength = channel.size();
+            if (fileLength < HEADER_SIZE) {
+                throw new CorruptedCheckpointException("File shorter than the header: " + fileLength);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileLength);
+
+            int magic = buffer.getInt();
+            if (magic != MAGIC) {
+                throw new CorruptedCheckpointException("Not a snapshot checkpoint file");
+            }
+            int version = buffer.getInt();
+            if (version != FORMAT_VERSION) {
+                throw new CorruptedCheckpointException("Unsupported snapshot checkpoint format version: " + version);
+            }
+            long timestamp = buffer.getLong();
+            int jobCount = buffer.getInt();
+            int taskCount = buffer.getInt();
+            long bodyLength = buffer.getLong();
+            long expectedCrc = buffer.getLong();
+            if (jobCount < 0 || taskCount < 0 || bodyLength != fileLength - HEADER_SIZE) {
+                throw new CorruptedCheckpointException("Inconsistent snapshot checkpoint header");
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate());
+            if (crc.getValue() != expectedCrc) {
+                throw new CorruptedCheckpointException("Snapshot checkpoint checksum mismatch");
+            }
+
+            List<Job<?>> jobs = new ArrayList<>(jobCount);
+            for (int i = 0; i < jobCount; i++) {
+                jobs.add((Job<?>) ObjectMappers.readValue(MAPPER, readRecord(buffer), Job.class));
+            }
+            List<Task> tasks = new ArrayList<>(taskCount);
+            for (int i = 0; i < taskCount; i++) {
+                tasks.add(ObjectMappers.readValue(MAPPER, readRecord(buffer), Task.class));
+            }
+            if (buffer.hasRemaining()) {
+                throw new CorruptedCheckpointException("Unexpected data after the last snapshot checkpoint record");
+            }
+            return Optional.of(new JobSnapshotCheckpoint(timestamp, jobs, tasks));
+        } catch (CorruptedCheckpointException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new CorruptedCheckpointException("Cannot parse snapshot checkpoint record", e);
+        }
+    }
+
+    private static long addRecord(List<byte[]> records, CRC32 crc, byte[] record) {
+        records.add(record);
+        crc.update(record.length >>> 24);
+        crc.update(record.length >>> 16);
+        crc.update(record.length >>> 8);
+        crc.update(record.length);
+        crc.update(record);
+        return 4 + record.length;
+    }
+
+    private static byte[] readRecord(MappedByteBuffer buffer) throws CorruptedCheckpointException {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new CorruptedCheckpointException("Invalid snapshot checkpoint record length: " + length);
+        }
+        byte[] record = new byte[length];
+        buffer.get(record);
+        return record;
+    }
+
+    public static class CorruptedCheckpointException extends IOException {
+
+        CorruptedCheckpointException(String message) {
+            super(message);
+        }
+
+        CorruptedCheckpointException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.master.jobmanager.service.checkpoint;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import com.netflix.spectator.api.Gauge;
+import com.netflix.spectator.api.Id;
+import com.netflix.spectator.api.Registry;
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.store.JobStore;
+import com.netflix.titus.common.runtime.TitusRuntime;
+import com.netflix.titus.common.util.time.Clock;
+import com.netflix.titus.common.util.tuple.Pair;
+import com.netflix.titus.master.jobmanager.service.JobManagerConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rx.Observable;
+
+/**
+ * Restores the active job/task state from a {@link JobSnapshotCheckpoint} and the store. The checkpoint is either
+ * the state replicated from the previous leader while in the standby mode, or the one saved on the local disk. Only the record
+ * write timestamps are read for all records, to find which of them changed since the checkpoint was taken. Records
+ * that are new, or were modified after the checkpoint (minus a safety margin), are read from the store. Records absent
+ * in the store are dropped. If the checkpoint is missing, stale or corrupted, or the store cannot provide the write
+ * timestamps, {@link Optional#empty()} is returned, and the caller should do the full store load.
+ * <p>
+ * The standby checkpoint holds the store copies of the replicated records, and its timestamp is the local receive time
+ * of the last replicated event included in it. The safety margin must cover the replication delay, and the clock skew
+ * between the masters.
+ */
+public class JobSnapshotCheckpointLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobSnapshotCheckpointLoader.class);
+
+    enum LoadResult {Loaded, Missing, Stale, Corrupted, StoreError}
+
+    enum Source {Standby, File}
+
+    private final JobManagerConfiguration configuration;
+    private final JobStore store;
+    private final Supplier<Optional<JobSnapshotCheckpoint>> standbySnapshotSupplier;
+    private final int concurrency;
+    private final Registry registry;
+    private final Clock clock;
+
+    private final Id loadResultId;
+    private final Gauge reloadedJobsGauge;
+    private final Gauge reloadedTasksGauge;
+
+    public JobSnapshotCheckpointLoader(JobManagerConfiguration configuration, JobStore store, int concurrency, TitusRuntime titusRuntime) {
+        this(configuration, store, Optional::empty, concurrency, titusRuntime);
+    }
+
+    public JobSnapshotCheckpointLoader(JobManagerConfiguration configuration,
+                                       JobStore store,
+                                       Supplier<Optional<JobSnapshotCheckpoint>> standbySnapshotSupplier,
+                                       int concurrency,
+                                       TitusRuntime titusRuntime) {
+        this.configuration = configuration;
+        this.store = store;
+        this.standbySnapshotSupplier = standbySnapshotSupplier;
+        this.concurrency = concurrency;
+        this.registry = titusRuntime.getRegistry();
+        this.clock = titusRuntime.getClock();
+
+        this.loadResultId = registry.createId(JobSnapshotCheckpointWriter.METRIC_ROOT + "load");
+        this.reloadedJobsGauge = registry.gauge(JobSnapshotCheckpointWriter.METRIC_ROOT + "reloadedJobs");
+        this.reloadedTasksGauge = registry.gauge(JobSnapshotCheckpointWriter.METRIC_ROOT + "reloadedTasks");
+    }
+
+    /**
+     * Must be called after the store is initialized. The standby snapshot is tried first, and the local checkpoint file next.
+     */
+    public Optional<JobSnapshotCheckpoint> load() {
+        Optional<JobSnapshotCheckpoint> standbySnapshot = standbySnapshotSupplier.get();
+        if (standbySnapshot.isPresent()) {
+            Optional<JobSnapshotCheckpoint> result = reconcile(Source.Standby, standbySnapshot.get());
+            if (result.isPresent()) {
+                return result;
+            }
+        }
+
+        if (!configuration.isSnapshotCheckpointEnabled()) {
+            return Optional.empty();
+        }
+
+        File file = new File(configuration.getSnapshotCheckpointFile());
+        JobSnapshotCheckpoint checkpoint;
+        try {
+            Optional<JobSnapshotCheckpoint> checkpointOpt = JobSnapshotCheckpointFile.read(file);
+            if (!checkpointOpt.isPresent()) {
+                logger.info("No job snapshot checkpoint found in {}", file);
+                return recordResult(Source.File, LoadResult.Missing, Optional.empty());
+            }
+            checkpoint = checkpointOpt.get();
+        } catch (Exception e) {
+            logger.warn("Cannot read job snapshot checkpoint from {}", file, e);
+            return recordResult(Source.File, LoadResult.Corrupted, Optional.empty());
+        }
+        return reconcile(Source.File, checkpoint);
+    }
+
+    private Optional<JobSnapshotCheckpoint> reconcile(Source source, JobSnapshotCheckpoint checkpoint) {
+        long age = clock.wallTime() - checkpoint.getTimestamp();
+        if (age > configuration.getSnapshotCheckpointMaxAgeMs()) {
+            logger.info("Job snapshot checkpoint from {} too old ({}ms); ignoring it", source, age);
+            return recordResult(source, LoadResult.Stale, Optional.empty());
+        }
+
+        try {
+            return recordResult(source, LoadResult.Loaded, Optional.of(reconcileWithStore(checkpoint)));
+        } catch (Exception e) {
+            logger.warn("Cannot reconcile job snapshot checkpoint from {} with the store", source, e);
+            return recordResult(source, LoadResult.StoreError, Optional.empty());
+        }
+    }
+
+    private JobSnapshotCheckpoint reconcileWithStore(JobSnapshotCheckpoint checkpoint) {
+        long startTime = clock.wallTime();
+        long changedAfter = checkpoint.getTimestamp() - configuration.getSnapshotCheckpointSafetyMarginMs();
+
+        Map<String, Job<?>> checkpointJobs = checkpoint.getJobs().stream().collect(Collectors.toMap(Job::getId, Function.identity()));
+        Map<String, Task> checkpointTasks = checkpoint.getTasks().stream().collect(Collectors.toMap(Task::getId, Function.identity()));
+
+        Map<String, Long> jobWriteTimestamps = toMap(store.retrieveActiveJobWriteTimestamps());
+        Map<String, Long> taskWriteTimestamps = toMap(store.retrieveActiveTaskWriteTimestamps());
+
+        Set<String> changedJobIds = findChanged(jobWriteTimestamps, checkpointJobs, changedAfter);
+        Set<String> changedTaskIds = findChanged(taskWriteTimestamps, checkpointTasks, changedAfter);
+
+        Map<String, Job<?>> reloadedJobs = Observable.from(changedJobIds)
+                .flatMap(store::retrieveJob, concurrency)
+                .toMap(Job::getId)
+                .toBlocking()
+                .first();
+        Map<String, Task> reloadedTasks = Observable.from(changedTaskIds)
+                .flatMap(store::retrieveTask, concurrency)
+                .toMap(Task::getId)
+                .toBlocking()
+                .first();
+
+        // Records removed between the write timestamp scan and the read are dropped.
+        List<Job<?>> jobs = new ArrayList<>(jobWriteTimestamps.size());
+        jobWriteTimestamps.keySet().forEach(jobId -> addIfPresent(jobs, changedJobIds.contains(jobId) ? reloadedJobs.get(jobId) : checkpointJobs.get(jobId)));
+        List<Task> tasks = new ArrayList<>(taskWriteTimestamps.size());
+        taskWriteTimestamps.keySet().forEach(taskId -> addIfPresent(tasks, changedTaskIds.contains(taskId) ? reloadedTasks.get(taskId) : checkpointTasks.get(taskId)));
+
+        reloadedJobsGauge.set(reloadedJobs.size());
+        reloadedTasksGauge.set(reloadedTasks.size());
+        logger.info("Restored {} jobs and {} tasks from the snapshot checkpoint; reloaded from the store {} jobs and {} tasks changed since the checkpoint was taken, in {}ms",
+                jobs.size(), tasks.size(), reloadedJobs.size(), reloadedTasks.size(), clock.wallTime() - startTime);
+
+        return new JobSnapshotCheckpoint(clock.wallTime(), jobs, tasks);
+    }
+
+    private static <T> void addIfPresent(List<T> records, T record) {
+        if (record != null) {
+            records.add(record);
+        }
+    }
+
+    private Map<String, Long> toMap(Observable<Pair<String, Long>> writeTimestamps) {
+        Map<String, Long> result = new HashMap<>();
+        writeTimestamps.toBlocking().forEach(idAndTimestamp -> result.put(idAndTimestamp.getLeft(), idAndTimestamp.getRight()));
+        return result;
+    }
+
+    private Set<String> findChanged(Map<String, Long> writeTimestamps, Map<String, ?> checkpointRecords, long changedAfter) {
+        return writeTimestamps.entrySet().stream()
+                .filter(entry -> entry.getValue() >= changedAfter || !checkpointRecords.containsKey(entry.getKey()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    private <T> T recordResult(Source source, LoadResult result, T value) {
+        registry.counter(loadResultId.withTag("source", source.name()).withTag("result", result.name())).increment();
+        return value;
+    }
+}
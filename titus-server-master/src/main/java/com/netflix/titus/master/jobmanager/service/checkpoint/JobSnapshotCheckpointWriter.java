@@ -0,0 +1,126 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.master.jobmanager.service.checkpoint;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import com.netflix.spectator.api.Gauge;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.Timer;
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.service.V3JobOperations;
+import com.netflix.titus.common.runtime.TitusRuntime;
+import com.netflix.titus.common.util.guice.annotation.Activator;
+import com.netflix.titus.common.util.rx.ObservableExt;
+import com.netflix.titus.common.util.time.Clock;
+import com.netflix.titus.common.util.tuple.Pair;
+import com.netflix.titus.master.MetricConstants;
+import com.netflix.titus.master.jobmanager.service.JobManagerConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rx.Completable;
+import rx.Subscription;
+import rx.schedulers.Schedulers;
+
+/**
+ * Periodically writes a {@link JobSnapshotCheckpoint} of the leader's job/task state to the local disk. Only the leader
+ * writes checkpoints, as the leader state is the one consistent with the store.
+ */
+@Singleton
+public class JobSnapshotCheckpointWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobSnapshotCheckpointWriter.class);
+
+    static final String METRIC_ROOT = MetricConstants.METRIC_ROOT + "jobManager.snapshotCheckpoint.";
+
+    private final JobManagerConfiguration configuration;
+    private final V3JobOperations v3JobOperations;
+    private final Registry registry;
+    private final Clock clock;
+
+    private final Timer writeTimer;
+    private final Gauge sizeGauge;
+    private final Gauge recordsGauge;
+
+    private Subscription writerSubscription;
+
+    @Inject
+    public JobSnapshotCheckpointWriter(JobManagerConfiguration configuration,
+                                       V3JobOperations v3JobOperations,
+                                       TitusRuntime titusRuntime) {
+        this.configuration = configuration;
+        this.v3JobOperations = v3JobOperations;
+        this.registry = titusRuntime.getRegistry();
+        this.clock = titusRuntime.getClock();
+
+        this.writeTimer = registry.timer(METRIC_ROOT + "writeTime");
+        this.sizeGauge = registry.gauge(METRIC_ROOT + "sizeBytes");
+        this.recordsGauge = registry.gauge(METRIC_ROOT + "records");
+    }
+
+    @Activator
+    public void enterActiveMode() {
+        if (!configuration.isSnapshotCheckpointEnabled()) {
+            return;
+        }
+        long intervalMs = Math.max(1_000, configuration.getSnapshotCheckpointIntervalMs());
+        this.writerSubscription = ObservableExt.schedule(
+                METRIC_ROOT + "scheduler", registry, "JobSnapshotCheckpointWriter",
+                Completable.fromAction(this::writeCheckpoint), intervalMs, intervalMs, TimeUnit.MILLISECONDS, Schedulers.io()
+        ).subscribe(result ->
+                result.ifPresent(error -> logger.warn("Job snapshot checkpoint write error", error))
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ObservableExt.safeUnsubscribe(writerSubscription);
+    }
+
+    private void writeCheckpoint() {
+        // Take the timestamp first, so it is not later than any change included in the snapshot.
+        long timestamp = clock.wallTime();
+        List<Job<?>> jobs = new ArrayList<>();
+        List<Task> tasks = new ArrayList<>();
+        for (Pair<Job, List<Task>> jobAndTasks : v3JobOperations.getJobsAndTasks()) {
+            jobs.add(jobAndTasks.getLeft());
+            tasks.addAll(jobAndTasks.getRight());
+        }
+
+        long startTime = clock.wallTime();
+        long size;
+        try {
+            size = JobSnapshotCheckpointFile.write(new File(configuration.getSnapshotCheckpointFile()), new JobSnapshotCheckpoint(timestamp, jobs, tasks));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot write job snapshot checkpoint", e);
+        }
+        long elapsedMs = clock.wallTime() - startTime;
+
+        writeTimer.record(elapsedMs, TimeUnit.MILLISECONDS);
+        sizeGauge.set(size);
+        recordsGauge.set(jobs.size() + tasks.size());
+        logger.debug("Written job snapshot checkpoint with {} jobs and {} tasks ({} bytes) in {}ms", jobs.size(), tasks.size(), size, elapsedMs);
+    }
+}
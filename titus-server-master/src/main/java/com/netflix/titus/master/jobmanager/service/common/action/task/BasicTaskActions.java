@@ -19,6 +19,7 @@ package com.netflix.titus.master.jobmanager.service.common.action.task;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
@@ -141,51 +142,86 @@ public class BasicTaskActions {
                 .id(taskId)
                 .trigger(trigger)
                 .summary(reason)
+                .applyModelUpdates(self -> buildTaskUpdateModelActions(self, taskId, configuration, engine, changeFunction, titusRuntime));
+    }
+
+    /**
+     * Batch version of {@link #updateTaskInRunningModel(String, Trigger, JobManagerConfiguration, ReconciliationEngine, Function, String, TitusRuntime)},
+     * which updates many tasks of a job in a single change action. Tasks not found or not changed by their update
+     * functions are skipped.
+     */
+    public static TitusChangeAction updateTasksInRunningModel(String jobId,
+                                                              Map<String, Function<Task, Optional<Task>>> changeFunctions,
+                                                              Trigger trigger,
+                                                              JobManagerConfiguration configuration,
+                                                              ReconciliationEngine<JobManagerReconcilerEvent> engine,
+                                                              String reason,
+                                                              TitusRuntime titusRuntime) {
+        return TitusChangeAction.newAction("updateTasksInRunningModel")
+                .id(jobId)
+                .trigger(trigger)
+                .summary(reason)
                 .applyModelUpdates(self -> {
-                            Optional<EntityHolder> taskOptional = JobEntityHolders.expectTaskHolder(engine, taskId, titusRuntime);
-                            if (!taskOptional.isPresent()) {
-                                return Collections.emptyList();
-                            }
-                            EntityHolder taskHolder = taskOptional.get();
-                            Task oldTask = taskHolder.getEntity();
-                            Optional<Task> maybeNewTask = changeFunction.apply(oldTask);
-                            if (!maybeNewTask.isPresent()) {
-                                return Collections.emptyList();
-                            }
-                            Task newTask = maybeNewTask.get();
-
-                            // Handle separately reference and runtime models, as only reference model gets retry attributes.
-                            List<ModelActionHolder> modelActionHolders = new ArrayList<>();
-
-                            // Add retryer data to task context.
-                            EntityHolder newTaskHolder;
-                            if (newTask.getStatus().getState() == TaskState.Finished) {
-                                long retryDelayMs = TaskRetryers.getCurrentRetryerDelayMs(
-                                        taskHolder, configuration.getMinRetryIntervalMs(), configuration.getTaskRetryerResetTimeMs(), titusRuntime.getClock()
-                                );
-                                String retryDelayString = DateTimeExt.toTimeUnitString(retryDelayMs);
-
-                                newTask = newTask.toBuilder()
-                                        .addToTaskContext(TaskAttributes.TASK_ATTRIBUTES_RETRY_DELAY, retryDelayString)
-                                        .build();
-                                newTaskHolder = taskHolder.
-                                        setEntity(newTask)
-                                        .addTag(TaskRetryers.ATTR_TASK_RETRY_DELAY_MS, retryDelayMs);
-
-                                modelActionHolders.add(
-                                        ModelActionHolder.reference(TitusModelAction.newModelUpdate(self)
-                                                .summary("Setting retry delay on task in Finished state: %s", retryDelayString)
-                                                .addTaskHolder(newTaskHolder))
-                                );
-                            } else {
-                                modelActionHolders.add(ModelActionHolder.reference(TitusModelAction.newModelUpdate(self).taskUpdate(newTask)));
-                            }
-
-                            modelActionHolders.add(ModelActionHolder.running(TitusModelAction.newModelUpdate(self).taskUpdate(newTask)));
-
-                            return modelActionHolders;
-                        }
-                );
+                    List<ModelActionHolder> modelActionHolders = new ArrayList<>();
+                    changeFunctions.forEach((taskId, changeFunction) ->
+                            modelActionHolders.addAll(buildTaskUpdateModelActions(self, taskId, configuration, engine, changeFunction, titusRuntime))
+                    );
+                    return modelActionHolders;
+                });
+    }
+
+    /**
+     * Model updates are tagged with the task id, as the change action may be a batch update with the job id.
+     */
+    private static List<ModelActionHolder> buildTaskUpdateModelActions(TitusChangeAction.Builder self,
+                                                                       String taskId,
+                                                                       JobManagerConfiguration configuration,
+                                                                       ReconciliationEngine<JobManagerReconcilerEvent> engine,
+                                                                       Function<Task, Optional<Task>> changeFunction,
+                                                                       TitusRuntime titusRuntime) {
+        Optional<EntityHolder> taskOptional = JobEntityHolders.expectTaskHolder(engine, taskId, titusRuntime);
+        if (!taskOptional.isPresent()) {
+            return Collections.emptyList();
+        }
+        EntityHolder taskHolder = taskOptional.get();
+        Task oldTask = taskHolder.getEntity();
+        Optional<Task> maybeNewTask = changeFunction.apply(oldTask);
+        if (!maybeNewTask.isPresent()) {
+            return Collections.emptyList();
+        }
+        Task newTask = maybeNewTask.get();
+
+        // Handle separately reference and runtime models, as only reference model gets retry attributes.
+        List<ModelActionHolder> modelActionHolders = new ArrayList<>();
+
+        // Add retryer data to task context.
+        EntityHolder newTaskHolder;
+        if (newTask.getStatus().getState() == TaskState.Finished) {
+            long retryDelayMs = TaskRetryers.getCurrentRetryerDelayMs(
+                    taskHolder, configuration.getMinRetryIntervalMs(), configuration.getTaskRetryerResetTimeMs(), titusRuntime.getClock()
+            );
+            String retryDelayString = DateTimeExt.toTimeUnitString(retryDelayMs);
+
+            newTask = newTask.toBuilder()
+                    .addToTaskContext(TaskAttributes.TASK_ATTRIBUTES_RETRY_DELAY, retryDelayString)
+                    .build();
+            newTaskHolder = taskHolder.
+                    setEntity(newTask)
+                    .addTag(TaskRetryers.ATTR_TASK_RETRY_DELAY_MS, retryDelayMs);
+
+            modelActionHolders.add(
+                    ModelActionHolder.reference(TitusModelAction.newModelUpdate(self)
+                            .task(newTask)
+                            .summary("Setting retry delay on task in Finished state: %s", retryDelayString)
+                            .addTaskHolder(newTaskHolder))
+            );
+        } else {
+            modelActionHolders.add(ModelActionHolder.reference(TitusModelAction.newModelUpdate(self).task(newTask).taskUpdate(newTask)));
+        }
+
+        modelActionHolders.add(ModelActionHolder.running(TitusModelAction.newModelUpdate(self).task(newTask).taskUpdate(newTask)));
+
+        return modelActionHolders;
     }
 
     /**
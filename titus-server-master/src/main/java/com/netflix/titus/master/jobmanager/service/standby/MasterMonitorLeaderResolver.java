@@ -0,0 +1,54 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.master.jobmanager.service.standby;
+
+import java.util.Optional;
+
+import com.netflix.titus.master.supervisor.service.MasterDescription;
+import com.netflix.titus.master.supervisor.service.MasterMonitor;
+import com.netflix.titus.runtime.connector.titusmaster.Address;
+import com.netflix.titus.runtime.connector.titusmaster.LeaderResolver;
+import rx.Observable;
+
+/**
+ * {@link LeaderResolver} resolving the current leader from the {@link MasterMonitor} data, so a standby TitusMaster
+ * can connect to the leader's GRPC endpoint.
+ */
+class MasterMonitorLeaderResolver implements LeaderResolver {
+
+    private final MasterMonitor masterMonitor;
+    private final int grpcPort;
+
+    MasterMonitorLeaderResolver(MasterMonitor masterMonitor, int grpcPort) {
+        this.masterMonitor = masterMonitor;
+        this.grpcPort = grpcPort;
+    }
+
+    @Override
+    public Optional<Address> resolve() {
+        return Optional.ofNullable(masterMonitor.getLatestLeader()).map(this::toAddress);
+    }
+
+    @Override
+    public Observable<Optional<Address>> observeLeader() {
+        return masterMonitor.getLeaderObservable().map(leader -> Optional.ofNullable(leader).map(this::toAddress));
+    }
+
+    private Address toAddress(MasterDescription leader) {
+        return new Address("http", leader.getHostIP(), grpcPort);
+    }
+}
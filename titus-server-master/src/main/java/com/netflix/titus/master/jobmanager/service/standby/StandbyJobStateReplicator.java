@@ -0,0 +1,231 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.master.jobmanager.service.standby;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.netflix.spectator.api.patterns.PolledMeter;
+import com.netflix.titus.api.jobmanager.model.job.event.JobManagerEvent;
+import com.netflix.titus.api.jobmanager.store.JobStore;
+import com.netflix.titus.common.framework.scheduler.ScheduleReference;
+import com.netflix.titus.common.framework.scheduler.model.ScheduleDescriptor;
+import com.netflix.titus.common.runtime.TitusRuntime;
+import com.netflix.titus.common.util.guice.ContainerEventBus;
+import com.netflix.titus.common.util.guice.ContainerEventBus.ContainerEventListener;
+import com.netflix.titus.common.util.guice.ContainerEventBus.ContainerStartedEvent;
+import com.netflix.titus.common.util.retry.Retryers;
+import com.netflix.titus.grpc.protogen.JobManagementServiceGrpc;
+import com.netflix.titus.master.MetricConstants;
+import com.netflix.titus.master.endpoint.grpc.GrpcEndpointConfiguration;
+import com.netflix.titus.master.jobmanager.service.JobManagerConfiguration;
+import com.netflix.titus.master.jobmanager.service.checkpoint.JobSnapshotCheckpoint;
+import com.netflix.titus.master.supervisor.service.MasterMonitor;
+import com.netflix.titus.runtime.connector.GrpcClientConfiguration;
+import com.netflix.titus.runtime.connector.common.replicator.DataReplicatorMetrics;
+import com.netflix.titus.runtime.connector.common.replicator.ReplicatorEvent;
+import com.netflix.titus.runtime.connector.common.replicator.RetryableReplicatorEventStream;
+import com.netflix.titus.runtime.connector.jobmanager.JobSnapshot;
+import com.netflix.titus.runtime.connector.jobmanager.client.GrpcJobManagementClient;
+import com.netflix.titus.runtime.connector.jobmanager.replicator.GrpcJobReplicatorEventStream;
+import com.netflix.titus.runtime.connector.titusmaster.LeaderNameResolverFactory;
+import com.netflix.titus.runtime.endpoint.metadata.CallMetadataResolver;
+import io.grpc.ManagedChannel;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Keeps a replicated copy of the leader's active jobs and tasks while this TitusMaster is in the standby mode. The
+ * replication uses the same GRPC event stream, as the other Titus components (gateway, task relocation). Once elected,
+ * the job manager takes the last replicated state via {@link #takeSnapshotAndStop()}, and reconciles it with the store
+ * instead of doing the full store load. The replicated records are converted from the GRPC model, which does not
+ * preserve all their data (for example the status timestamps), so the new and changed records are periodically read
+ * from the store (see {@link StandbyJobStoreMirror}), and the snapshot is built from these store copies.
+ */
+@Singleton
+public class StandbyJobStateReplicator implements ContainerEventListener<ContainerStartedEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(StandbyJobStateReplicator.class);
+
+    public static final String STANDBY_GRPC_CLIENT = "standbyGrpcClient";
+
+    private static final String METRIC_ROOT = MetricConstants.METRIC_ROOT + "jobManager.standby.";
+
+    private static final int MAX_STORE_SYNC_CONCURRENCY = 100;
+
+    private final JobManagerConfiguration configuration;
+    private final MasterMonitor masterMonitor;
+    private final GrpcEndpointConfiguration grpcEndpointConfiguration;
+    private final CallMetadataResolver callMetadataResolver;
+    private final GrpcClientConfiguration grpcClientConfiguration;
+    private final TitusRuntime titusRuntime;
+    private final StandbyJobStoreMirror storeMirror;
+
+    private final AtomicReference<ReplicatorEvent<JobSnapshot, JobManagerEvent<?>>> lastEventRef = new AtomicReference<>();
+
+    private volatile boolean stopped;
+    private ManagedChannel channel;
+    private Disposable replicatorSubscription;
+    private ScheduleReference storeSyncReference;
+
+    @Inject
+    public StandbyJobStateReplicator(JobManagerConfiguration configuration,
+                                     MasterMonitor masterMonitor,
+                                     GrpcEndpointConfiguration grpcEndpointConfiguration,
+                                     CallMetadataResolver callMetadataResolver,
+                                     @Named(STANDBY_GRPC_CLIENT) GrpcClientConfiguration grpcClientConfiguration,
+                                     JobStore store,
+                                     ContainerEventBus eventBus,
+                                     TitusRuntime titusRuntime) {
+        this.configuration = configuration;
+        this.masterMonitor = masterMonitor;
+        this.grpcEndpointConfiguration = grpcEndpointConfiguration;
+        this.callMetadataResolver = callMetadataResolver;
+        this.grpcClientConfiguration = grpcClientConfiguration;
+        this.titusRuntime = titusRuntime;
+        this.storeMirror = new StandbyJobStoreMirror(store, MAX_STORE_SYNC_CONCURRENCY);
+
+        PolledMeter.using(titusRuntime.getRegistry())
+                .withName(METRIC_ROOT + "replicatedJobs")
+                .monitorValue(this, self -> self.getLastSnapshot().map(s -> s.getJobs().size()).orElse(0));
+        PolledMeter.using(titusRuntime.getRegistry())
+                .withName(METRIC_ROOT + "replicatedTasks")
+                .monitorValue(this, self -> self.getLastSnapshot().map(s -> s.getTasks().size()).orElse(0));
+
+        eventBus.registerListener(this);
+    }
+
+    @Override
+    public void onEvent(ContainerStartedEvent event) {
+        if (configuration.isHotStandbyEnabled()) {
+            start();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stop();
+    }
+
+    /**
+     * Returns the store copy of the replicated state as of the last store synchronization, and stops the replication
+     * process. Returns {@link Optional#empty()} if the hot standby mode is not enabled, or no state was synchronized yet.
+     */
+    public synchronized Optional<JobSnapshotCheckpoint> takeSnapshotAndStop() {
+        stop();
+        lastEventRef.set(null);
+        return storeMirror.getCheckpoint();
+    }
+
+    private synchronized void start() {
+        if (stopped || replicatorSubscription != null) {
+            return;
+        }
+        logger.info("Starting job state replication from the leader");
+
+        this.channel = NettyChannelBuilder
+                .forTarget("leader://titusmaster")
+                .nameResolverFactory(new LeaderNameResolverFactory(
+                        new MasterMonitorLeaderResolver(masterMonitor, grpcEndpointConfiguration.getPort()),
+                        grpcEndpointConfiguration.getPort(),
+                        titusRuntime
+                ))
+                .usePlaintext(true)
+                .maxHeaderListSize(65536)
+                .build();
+
+        GrpcJobManagementClient client = new GrpcJobManagementClient(
+                JobManagementServiceGrpc.newStub(channel),
+                callMetadataResolver,
+                grpcClientConfiguration
+        );
+        GrpcJobReplicatorEventStream grpcEventStream = new GrpcJobReplicatorEventStream(
+                client,
+                new DataReplicatorMetrics("standbyJobReplicatorGrpcStream", titusRuntime),
+                titusRuntime,
+                Schedulers.parallel()
+        );
+        RetryableReplicatorEventStream<JobSnapshot, JobManagerEvent<?>> eventStream = new RetryableReplicatorEventStream<>(
+                JobSnapshot.empty(),
+                JobManagerEvent.snapshotMarker(),
+                grpcEventStream,
+                new DataReplicatorMetrics("standbyJobReplicatorRetryableStream", titusRuntime),
+                titusRuntime,
+                Schedulers.parallel()
+        );
+
+        this.replicatorSubscription = eventStream.connect().subscribe(
+                this::onReplicatorEvent,
+                e -> logger.warn("Job state replication terminated with an error", e),
+                () -> logger.info("Job state replication completed")
+        );
+
+        ScheduleDescriptor storeSyncDescriptor = ScheduleDescriptor.newBuilder()
+                .withName("standbyJobStoreSync")
+                .withDescription("Reads from the store the jobs and tasks changed in the replicated state")
+                .withInitialDelay(Duration.ZERO)
+                .withInterval(Duration.ofMillis(configuration.getHotStandbyStoreSyncIntervalMs()))
+                .withTimeout(Duration.ofMillis(configuration.getSnapshotCheckpointMaxAgeMs()))
+                .withRetryerSupplier(Retryers::never)
+                .withOnErrorHandler((action, error) -> logger.warn("Cannot synchronize the replicated job state with the store", error))
+                .build();
+        this.storeSyncReference = titusRuntime.getLocalScheduler().schedule(storeSyncDescriptor, context -> syncWithStore(), true);
+    }
+
+    @VisibleForTesting
+    void onReplicatorEvent(ReplicatorEvent<JobSnapshot, JobManagerEvent<?>> event) {
+        lastEventRef.set(event);
+    }
+
+    @VisibleForTesting
+    void syncWithStore() {
+        ReplicatorEvent<JobSnapshot, JobManagerEvent<?>> lastEvent = lastEventRef.get();
+        // The initial event (with zero timestamp) is an empty placeholder, not a state received from the leader.
+        if (lastEvent == null || lastEvent.getLastUpdateTime() <= 0) {
+            return;
+        }
+        storeMirror.sync(lastEvent.getSnapshot(), lastEvent.getLastUpdateTime());
+    }
+
+    private synchronized void stop() {
+        if (stopped) {
+            return;
+        }
+        this.stopped = true;
+        if (replicatorSubscription != null) {
+            logger.info("Stopping job state replication from the leader");
+            replicatorSubscription.dispose();
+            channel.shutdownNow();
+        }
+        if (storeSyncReference != null) {
+            storeSyncReference.close();
+        }
+    }
+
+    private Optional<JobSnapshot> getLastSnapshot() {
+        return Optional.ofNullable(lastEventRef.get()).map(ReplicatorEvent::getSnapshot);
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.master.jobmanager.service.standby;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.JobStatus;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.TaskStatus;
+import com.netflix.titus.api.jobmanager.store.JobStore;
+import com.netflix.titus.master.jobmanager.service.checkpoint.JobSnapshotCheckpoint;
+import com.netflix.titus.runtime.connector.jobmanager.JobSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rx.Observable;
+
+/**
+ * Copy of the replicated jobs and tasks, with each record as it is in the store. The replicated records are converted
+ * from the GRPC model, which does not preserve all their data (for example the status timestamps), so they are only
+ * used to find which records are new or changed (comparing only the status states and reason codes, as the status
+ * timestamps and messages are set during the GRPC conversion, and would make all records of a snapshot received after
+ * reconnecting to the leader look changed). Those records are read from the store while this TitusMaster is
+ * in the standby mode, and on activation only records written after the last synchronization must be read again.
+ * <p>
+ * The checkpoint timestamp is the receive time of the last replicated event included in the synchronization. Any record
+ * written earlier than that, by more than the replication delay, was reported by the leader and read from the store.
+ */
+class StandbyJobStoreMirror {
+
+    private static final Logger logger = LoggerFactory.getLogger(StandbyJobStoreMirror.class);
+
+    private final JobStore store;
+    private final int concurrency;
+
+    /**
+     * Replicated versions of the records in the store copy. A record, which cannot be read from the store, is not
+     * included, so it is read again by the next synchronization (or on activation).
+     */
+    private Map<String, Job<?>> syncedJobs = new HashMap<>();
+    private Map<String, Task> syncedTasks = new HashMap<>();
+
+    private final Map<String, Job<?>> storeJobs = new HashMap<>();
+    private final Map<String, Task> storeTasks = new HashMap<>();
+
+    private JobSnapshotCheckpoint checkpoint;
+
+    StandbyJobStoreMirror(JobStore store, int concurrency) {
+        this.store = store;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Returns the store copy as of the last synchronization, or {@link Optional#empty()} if there was none yet. If
+     * a synchronization is in progress, waits for it to complete.
+     */
+    synchronized Optional<JobSnapshotCheckpoint> getCheckpoint() {
+        return Optional.ofNullable(checkpoint);
+    }
+
+    /**
+     * Reads from the store the records that are new or changed in the given replicated snapshot, and drops the
+     * records that are no longer in it.
+     */
+    synchronized void sync(JobSnapshot snapshot, long snapshotTime) {
+        long startTime = System.currentTimeMillis();
+
+        Map<String, Job<?>> replicatedJobs = new HashMap<>();
+        snapshot.getJobs().forEach(job -> replicatedJobs.put(job.getId(), withStatusStatesOnly(job)));
+        Map<String, Task> replicatedTasks = new HashMap<>();
+        snapshot.getTasks().forEach(task -> replicatedTasks.put(task.getId(), withStatusStatesOnly(task)));
+
+        int replicatedJobCount = replicatedJobs.size();
+        int replicatedTaskCount = replicatedTasks.size();
+        this.syncedJobs = syncRecords(replicatedJobs, syncedJobs, storeJobs, store::retrieveJob, Job::getId);
+        this.syncedTasks = syncRecords(replicatedTasks, syncedTasks, storeTasks, store::retrieveTask, Task::getId);
+
+        this.checkpoint = new JobSnapshotCheckpoint(snapshotTime, new ArrayList<>(storeJobs.values()), new ArrayList<>(storeTasks.values()));
+        logger.debug("Standby store copy synchronized in {}ms: jobs={}, tasks={}, jobsOutOfSync={}, tasksOutOfSync={}",
+                System.currentTimeMillis() - startTime, storeJobs.size(), storeTasks.size(),
+                replicatedJobCount - syncedJobs.size(), replicatedTaskCount - syncedTasks.size());
+    }
+
+    private <T> Map<String, T> syncRecords(Map<String, T> replicated,
+                                           Map<String, T> synced,
+                                           Map<String, T> storeCopy,
+                                           Function<String, Observable<T>> reader,
+                                           Function<T, String> idOf) {
+        storeCopy.keySet().retainAll(replicated.keySet());
+
+        List<String> changedIds = new ArrayList<>();
+        replicated.forEach((id, record) -> {
+            if (!record.equals(synced.get(id))) {
+                changedIds.add(id);
+            }
+        });
+
+        Map<String, T> readRecords = Observable.from(changedIds)
+                .flatMap(id -> reader.apply(id).onErrorResumeNext(e -> {
+                    logger.debug("Cannot read record {} from the store: {}", id, e.getMessage());
+                    return Observable.empty();
+                }), concurrency)
+                .toMap(idOf::apply)
+                .toBlocking()
+                .first();
+
+        Map<String, T> newSynced = new HashMap<>(replicated);
+        changedIds.forEach(id -> {
+            T record = readRecords.get(id);
+            if (record == null) {
+                storeCopy.remove(id);
+                newSynced.remove(id);
+            } else {
+                storeCopy.put(id, record);
+            }
+        });
+        return newSynced;
+    }
+
+    private static Job<?> withStatusStatesOnly(Job<?> job) {
+        return job.toBuilder()
+                .withStatus(toStateOnly(job.getStatus()))
+                .withStatusHistory(job.getStatusHistory().stream()
+                        .map(StandbyJobStoreMirror::toStateOnly)
+                        .collect(Collectors.toList())
+                )
+                .build();
+    }
+
+    private static Task withStatusStatesOnly(Task task) {
+        return task.toBuilder()
+                .withStatus(toStateOnly(task.getStatus()))
+                .withStatusHistory(task.getStatusHistory().stream()
+                        .map(StandbyJobStoreMirror::toStateOnly)
+                        .collect(Collectors.toList())
+                )
+                .build();
+    }
+
+    private static JobStatus toStateOnly(JobStatus status) {
+        return JobStatus.newBuilder().withState(status.getState()).withReasonCode(status.getReasonCode()).withTimestamp(0).build();
+    }
+
+    private static TaskStatus toStateOnly(TaskStatus status) {
+        return TaskStatus.newBuilder().withState(status.getState()).withReasonCode(status.getReasonCode()).withTimestamp(0).build();
+    }
+}
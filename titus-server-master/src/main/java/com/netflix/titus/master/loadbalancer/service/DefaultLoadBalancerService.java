@@ -103,7 +103,7 @@ public class DefaultLoadBalancerService implements LoadBalancerService {
 
         final long burst = configuration.getRateLimitBurst();
         final long refillPerSec = configuration.getRateLimitRefillPerSec();
-        final TokenBucket connectorTokenBucket = Limiters.createFixedIntervalTokenBucket("loadBalancerConnector",
+        final TokenBucket connectorTokenBucket = Limiters.createLockFreeFixedIntervalTokenBucket("loadBalancerConnector",
                 burst, burst, refillPerSec, 1, TimeUnit.SECONDS);
         this.engine = new LoadBalancerEngine(runtime, configuration, loadBalancerJobOperations, reconciler,
                 loadBalancerConnector, loadBalancerStore, connectorTokenBucket, scheduler);
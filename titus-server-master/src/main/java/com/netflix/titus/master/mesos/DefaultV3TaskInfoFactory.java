@@ -20,12 +20,15 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.primitives.Ints;
 import com.netflix.fenzo.PreferentialNamedConsumableResourceSet;
 import com.netflix.fenzo.TaskRequest;
@@ -34,6 +37,7 @@ import com.netflix.titus.api.jobmanager.model.job.Container;
 import com.netflix.titus.api.jobmanager.model.job.ContainerResources;
 import com.netflix.titus.api.jobmanager.model.job.Image;
 import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.JobDescriptor;
 import com.netflix.titus.api.jobmanager.model.job.JobGroupInfo;
 import com.netflix.titus.api.jobmanager.model.job.SecurityProfile;
 import com.netflix.titus.api.jobmanager.model.job.Task;
@@ -41,6 +45,7 @@ import com.netflix.titus.api.model.EfsMount;
 import com.netflix.titus.common.util.CollectionsExt;
 import com.netflix.titus.common.util.Evaluators;
 import com.netflix.titus.common.util.StringExt;
+import com.netflix.titus.common.util.tuple.Pair;
 import com.netflix.titus.master.config.MasterConfiguration;
 import com.netflix.titus.master.model.job.TitusQueuableTask;
 import io.titanframework.messages.TitanProtos.ContainerInfo;
@@ -72,10 +77,16 @@ public class DefaultV3TaskInfoFactory implements TaskInfoFactory<Protos.TaskInfo
     private static final String ARN_SUFFIX = ":role/";
     private static final Pattern IAM_PROFILE_RE = Pattern.compile(ARN_PREFIX + "(\\d+)" + ARN_SUFFIX + "\\S+");
 
+    private static final long CONTAINER_INFO_TEMPLATE_TTL_MS = 60_000;
+
     private final MasterConfiguration masterConfiguration;
     private final MesosConfiguration mesosConfiguration;
     private final String iamArnPrefix;
 
+    private final Cache<String, Pair<JobDescriptor<?>, ContainerInfo>> containerInfoTemplates = CacheBuilder.newBuilder()
+            .expireAfterWrite(CONTAINER_INFO_TEMPLATE_TTL_MS, TimeUnit.MILLISECONDS)
+            .build();
+
     @Inject
     public DefaultV3TaskInfoFactory(MasterConfiguration masterConfiguration,
                                     MesosConfiguration mesosConfiguration) {
@@ -105,6 +116,43 @@ public class DefaultV3TaskInfoFactory implements TaskInfoFactory<Protos.TaskInfo
     }
 
     private ContainerInfo.Builder newContainerInfoBuilder(Job job, Task task, TitusQueuableTask<Job, Task> fenzoTask) {
+        ContainerInfo.Builder containerInfoBuilder = getContainerInfoTemplate(job).toBuilder();
+
+        containerInfoBuilder.putTitusProvidedEnv("TITUS_TASK_ID", task.getId());
+        containerInfoBuilder.putTitusProvidedEnv("TITUS_TASK_INSTANCE_ID", task.getId());
+        containerInfoBuilder.putTitusProvidedEnv("TITUS_TASK_ORIGINAL_ID", task.getOriginalId());
+        if (task instanceof BatchJobTask) {
+            BatchJobTask batchJobTask = (BatchJobTask) task;
+            containerInfoBuilder.putTitusProvidedEnv("TITUS_TASK_INDEX", "" + batchJobTask.getIndex());
+        }
+
+        // Configure ENI (IP Address), with security groups set in the template
+        final TaskRequest.AssignedResources assignedResources = fenzoTask.getAssignedResources();
+        String eniLabel = assignedResources == null ? "0" : "" + assignedResources.getConsumedNamedResources().get(0).getIndex();
+        containerInfoBuilder.getNetworkConfigInfoBuilder()
+                .setEniLabel(eniLabel)
+                .setEniLablel(eniLabel)
+                .setBandwidthLimitMbps((int) fenzoTask.getNetworkMbps());
+
+        return containerInfoBuilder;
+    }
+
+    /**
+     * Returns the {@link ContainerInfo} part shared by all tasks of a job. The template is rebuilt when the job
+     * descriptor changes, and periodically, to pick up configuration changes.
+     */
+    private ContainerInfo getContainerInfoTemplate(Job<?> job) {
+        JobDescriptor<?> jobDescriptor = job.getJobDescriptor();
+        Pair<JobDescriptor<?>, ContainerInfo> template = containerInfoTemplates.getIfPresent(job.getId());
+        if (template != null && template.getLeft() == jobDescriptor) {
+            return template.getRight();
+        }
+        ContainerInfo containerInfo = newContainerInfoTemplate(job);
+        containerInfoTemplates.put(job.getId(), Pair.of(jobDescriptor, containerInfo));
+        return containerInfo;
+    }
+
+    private ContainerInfo newContainerInfoTemplate(Job<?> job) {
         ContainerInfo.Builder containerInfoBuilder = ContainerInfo.newBuilder();
         Container container = job.getJobDescriptor().getContainer();
         Map<String, String> containerAttributes = container.getAttributes();
@@ -164,14 +212,7 @@ public class DefaultV3TaskInfoFactory implements TaskInfoFactory<Protos.TaskInfo
             }
         });
 
-        containerInfoBuilder.putTitusProvidedEnv("TITUS_JOB_ID", task.getJobId());
-        containerInfoBuilder.putTitusProvidedEnv("TITUS_TASK_ID", task.getId());
-        containerInfoBuilder.putTitusProvidedEnv("TITUS_TASK_INSTANCE_ID", task.getId());
-        containerInfoBuilder.putTitusProvidedEnv("TITUS_TASK_ORIGINAL_ID", task.getOriginalId());
-        if (task instanceof BatchJobTask) {
-            BatchJobTask batchJobTask = (BatchJobTask) task;
-            containerInfoBuilder.putTitusProvidedEnv("TITUS_TASK_INDEX", "" + batchJobTask.getIndex());
-        }
+        containerInfoBuilder.putTitusProvidedEnv("TITUS_JOB_ID", job.getId());
 
         // Always set this to true until it is removed from the executor
         containerInfoBuilder.setIgnoreLaunchGuard(true);
@@ -183,17 +224,11 @@ public class DefaultV3TaskInfoFactory implements TaskInfoFactory<Protos.TaskInfo
             containerInfoBuilder.setIamProfile(qualifiedIam);
         });
 
-        // Configure ENI (IP Address, SGs)
-        List<String> securityGroups = v3SecurityProfile.getSecurityGroups();
-        final TaskRequest.AssignedResources assignedResources = fenzoTask.getAssignedResources();
-        String eniLabel = assignedResources == null ? "0" : "" + assignedResources.getConsumedNamedResources().get(0).getIndex();
-        ContainerInfo.NetworkConfigInfo.Builder networkConfigInfoBuilder = ContainerInfo.NetworkConfigInfo.newBuilder()
-                .setEniLabel(eniLabel)
-                .setEniLablel(eniLabel)
-                .addAllSecurityGroups(securityGroups)
-                .setBandwidthLimitMbps((int) fenzoTask.getNetworkMbps());
-
-        containerInfoBuilder.setNetworkConfigInfo(networkConfigInfoBuilder.build());
+        // Configure security groups. ENI label and bandwidth limit are task specific.
+        containerInfoBuilder.setNetworkConfigInfo(ContainerInfo.NetworkConfigInfo.newBuilder()
+                .addAllSecurityGroups(v3SecurityProfile.getSecurityGroups())
+                .build()
+        );
 
         // Configure GPU
         containerInfoBuilder.setNumGpus(containerResources.getGpu());
@@ -201,7 +236,7 @@ public class DefaultV3TaskInfoFactory implements TaskInfoFactory<Protos.TaskInfo
         // Configure EFS
         containerInfoBuilder.addAllEfsConfigInfo(setupEfsMounts(containerResources.getEfsMounts()));
 
-        return containerInfoBuilder;
+        return containerInfoBuilder.build();
     }
 
     private void setImage(ContainerInfo.Builder containerInfoBuilder, Image image) {
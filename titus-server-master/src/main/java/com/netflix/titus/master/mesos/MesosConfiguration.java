@@ -40,6 +40,19 @@ public interface MesosConfiguration {
     @DefaultValue("true")
     boolean isReconcilerEnabled();
 
+    /**
+     * @return the maximum number of tasks included in a single Mesos task reconciliation request.
+     */
+    @DefaultValue("500")
+    int getReconcilerChunkSize();
+
+    /**
+     * @return the maximum amount of time to wait for the status updates of a reconciliation request, before the
+     * next chunk of tasks is sent.
+     */
+    @DefaultValue("10000")
+    long getReconcilerChunkTimeoutMs();
+
     @DefaultValue("false")
     boolean isAllowReconcilerUpdatesForUnknownTasks();
 
@@ -92,4 +105,19 @@ public interface MesosConfiguration {
      */
     @DefaultValue("")
     String getRegistryUrl();
+
+    /**
+     * @return the time window in milliseconds, over which Mesos task status updates are collected, and applied to
+     * the job model in batches. Only the latest update of a task within a window is applied. Set to 0 to apply each
+     * update individually.
+     */
+    @DefaultValue("100")
+    long getStatusUpdateBatchWindowMs();
+
+    /**
+     * @return the maximum number of Mesos task status updates collected in a single batch. A batch is applied
+     * immediately when this limit is reached, without waiting for the end of the time window.
+     */
+    @DefaultValue("1000")
+    int getStatusUpdateMaxBatchSize();
 }
@@ -23,6 +23,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
@@ -37,6 +38,7 @@ import com.netflix.fenzo.functions.Action1;
 import com.netflix.fenzo.plugins.VMLeaseObject;
 import com.netflix.spectator.api.Counter;
 import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.Timer;
 import com.netflix.titus.api.jobmanager.TaskAttributes;
 import com.netflix.titus.api.jobmanager.model.job.Task;
 import com.netflix.titus.api.jobmanager.service.V3JobOperations;
@@ -99,6 +101,8 @@ public class MesosSchedulerCallbackHandler implements Scheduler {
     private final Counter numMesosDisconnects;
     private final Counter numOfferRescinded;
     private final Counter numReconcileTasks;
+    private final Counter numReconcileChunkTimeouts;
+    private final Timer reconcileTasksKnownToUsPassTime;
     private final Counter numInvalidOffers;
     private final Counter numOfferTooSmall;
     private long reconciliationTrial = 0;
@@ -114,6 +118,11 @@ public class MesosSchedulerCallbackHandler implements Scheduler {
     private ScheduledThreadPoolExecutor executor;
     private boolean connected;
 
+    /**
+     * Released on each status update triggered by task reconciliation, to pace the reconciliation requests.
+     */
+    private final Semaphore reconciliationUpdates = new Semaphore(0);
+
     /**
      * Due to race condition in the initialization process, we may miss some state updates. For missed final updates
      * the reconciliation process fails, and results in tasks in 'CRASHED' state. By caching last state update
@@ -146,6 +155,8 @@ public class MesosSchedulerCallbackHandler implements Scheduler {
         numMesosDisconnects = registry.counter(MetricConstants.METRIC_MESOS + "numMesosDisconnects");
         numOfferRescinded = registry.counter(MetricConstants.METRIC_MESOS + "numOfferRescinded");
         numReconcileTasks = registry.counter(MetricConstants.METRIC_MESOS + "numReconcileTasks");
+        numReconcileChunkTimeouts = registry.counter(MetricConstants.METRIC_MESOS + "numReconcileChunkTimeouts");
+        reconcileTasksKnownToUsPassTime = registry.timer(MetricConstants.METRIC_MESOS + "reconcileTasksKnownToUsPassTime");
         lastOfferReceivedMillis = registry.gauge(MetricConstants.METRIC_MESOS + "lastOfferReceivedMillis", new AtomicLong());
         lastValidOfferReceiveMillis = registry.gauge(MetricConstants.METRIC_MESOS + "lastValidOfferReceiveMillis", new AtomicLong());
         numInvalidOffers = registry.counter(MetricConstants.METRIC_MESOS + "numInvalidOffers");
@@ -300,50 +311,106 @@ public class MesosSchedulerCallbackHandler implements Scheduler {
         }
     }
 
+    /**
+     * Reconciles the active tasks in chunks of a bounded size. Mesos replies to an explicit reconciliation request
+     * with a status update for each task, so the next chunk is sent only after the status updates for the
+     * current one arrived, or the chunk timeout passed.
+     */
     private void reconcileTasksKnownToUs(SchedulerDriver driver) {
-        final List<TaskStatus> tasksToInitialize = new ArrayList<>();
+        long startTime = System.currentTimeMillis();
+        int chunkSize = Math.max(1, mesosConfiguration.getReconcilerChunkSize());
 
+        // Drop acknowledgements left over from the previous reconciliation requests.
+        reconciliationUpdates.drainPermits();
+
+        List<TaskStatus> chunk = new ArrayList<>(chunkSize);
+        int taskCount = 0;
+        int chunkCount = 0;
         for (Task task : v3JobOperations.getTasks()) {
-            com.netflix.titus.api.jobmanager.model.job.TaskState taskState = task.getStatus().getState();
-            TaskState mesosState;
-            switch (taskState) {
-                case Started:
-                    mesosState = TaskState.TASK_RUNNING;
-                    break;
-                case KillInitiated:
-                    mesosState = TaskState.TASK_KILLING;
-                    break;
-                default:
-                    mesosState = null;
-            }
-            if (mesosState != null) {
-                String taskHost = task.getTaskContext().get(TaskAttributes.TASK_ATTRIBUTES_AGENT_HOST);
-                if (taskHost != null) {
-                    tasksToInitialize.add(TaskStatus.newBuilder()
-                            .setTaskId(Protos.TaskID.newBuilder().setValue(task.getId()).build())
-                            .setState(mesosState)
-                            .setSlaveId(SlaveID.newBuilder().setValue(taskHost).build())
-                            .build()
-                    );
+            TaskStatus taskStatus = toReconciliationTaskStatus(task);
+            if (taskStatus != null) {
+                chunk.add(taskStatus);
+                if (chunk.size() >= chunkSize) {
+                    if (!reconcileChunk(driver, chunk)) {
+                        return;
+                    }
+                    taskCount += chunk.size();
+                    chunkCount++;
+                    chunk = new ArrayList<>(chunkSize);
                 }
             }
         }
-        if (!tasksToInitialize.isEmpty()) {
-            Protos.Status status = traceMesosRequest(
-                    "Reconciling active tasks: count=" + tasksToInitialize.size(),
-                    () -> driver.reconcileTasks(tasksToInitialize)
-            );
-            numReconcileTasks.increment();
-            logger.info("Sent request to reconcile {} tasks, status={}", tasksToInitialize.size(), status);
+        if (!chunk.isEmpty()) {
+            if (!reconcileChunk(driver, chunk)) {
+                return;
+            }
+            taskCount += chunk.size();
+            chunkCount++;
+        }
+
+        if (taskCount > 0) {
+            long passTimeMs = System.currentTimeMillis() - startTime;
+            reconcileTasksKnownToUsPassTime.record(passTimeMs, TimeUnit.MILLISECONDS);
+            logger.info("Reconciled {} tasks in {} chunks in {}ms", taskCount, chunkCount, passTimeMs);
             logger.info("Last offer received {} secs ago", (System.currentTimeMillis() - lastOfferReceivedAt.get()) / 1000);
             logger.info("Last valid offer received {} secs ago", (System.currentTimeMillis() - lastValidOfferReceivedAt.get()) / 1000);
-            switch (status) {
-                case DRIVER_ABORTED:
-                case DRIVER_STOPPED:
-                    logger.error("Unexpected to see Mesos driver status of {} from reconcile request. Committing suicide!", status);
-                    System.exit(2);
+        }
+    }
+
+    private TaskStatus toReconciliationTaskStatus(Task task) {
+        TaskState mesosState;
+        switch (task.getStatus().getState()) {
+            case Started:
+                mesosState = TaskState.TASK_RUNNING;
+                break;
+            case KillInitiated:
+                mesosState = TaskState.TASK_KILLING;
+                break;
+            default:
+                return null;
+        }
+        String taskHost = task.getTaskContext().get(TaskAttributes.TASK_ATTRIBUTES_AGENT_HOST);
+        if (taskHost == null) {
+            return null;
+        }
+        return TaskStatus.newBuilder()
+                .setTaskId(Protos.TaskID.newBuilder().setValue(task.getId()).build())
+                .setState(mesosState)
+                .setSlaveId(SlaveID.newBuilder().setValue(taskHost).build())
+                .build();
+    }
+
+    /**
+     * Sends a reconciliation request for the given chunk, and waits for the status updates that follow it.
+     *
+     * @return false if the reconciliation pass should be aborted
+     */
+    private boolean reconcileChunk(SchedulerDriver driver, List<TaskStatus> chunk) {
+        Protos.Status status = traceMesosRequest(
+                "Reconciling active tasks: count=" + chunk.size(),
+                () -> driver.reconcileTasks(chunk)
+        );
+        numReconcileTasks.increment();
+        logger.debug("Sent request to reconcile {} tasks, status={}", chunk.size(), status);
+        switch (status) {
+            case DRIVER_ABORTED:
+            case DRIVER_STOPPED:
+                logger.error("Unexpected to see Mesos driver status of {} from reconcile request. Committing suicide!", status);
+                System.exit(2);
+        }
+
+        try {
+            if (!reconciliationUpdates.tryAcquire(chunk.size(), mesosConfiguration.getReconcilerChunkTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                numReconcileChunkTimeouts.increment();
+                int received = reconciliationUpdates.drainPermits();
+                logger.info("Received {} out of {} reconciliation status updates before timeout; sending next chunk", received, chunk.size());
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.info("Reconciliation pass interrupted");
+            return false;
         }
+        return true;
     }
 
     private void reconcileAllMesosTasks(SchedulerDriver driver) {
@@ -374,6 +441,10 @@ public class MesosSchedulerCallbackHandler implements Scheduler {
             String taskId = taskStatus.getTaskId().getValue();
             TaskState taskState = taskStatus.getState();
 
+            if (taskStatus.getReason() == TaskStatus.Reason.REASON_RECONCILIATION) {
+                reconciliationUpdates.release();
+            }
+
             TaskStatus effectiveTaskStatus = taskStatusUpdateFitInjection.map(i -> i.afterImmediate("update", taskStatus)).orElse(taskStatus);
 
             if (isReconcilerUpdateForUnknownTask(effectiveTaskStatus)) {
@@ -16,13 +16,20 @@
 
 package com.netflix.titus.master.mesos;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.netflix.titus.api.jobmanager.model.job.Job;
 import com.netflix.titus.api.jobmanager.model.job.JobModel;
 import com.netflix.titus.api.jobmanager.model.job.Task;
@@ -36,7 +43,10 @@ import com.netflix.titus.master.VirtualMachineMasterService;
 import com.netflix.titus.master.jobmanager.service.JobManagerUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import rx.Observable;
 import rx.Observer;
+import rx.Scheduler;
+import rx.schedulers.Schedulers;
 
 @Singleton
 public class WorkerStateMonitor {
@@ -44,14 +54,39 @@ public class WorkerStateMonitor {
     private static final Logger logger = LoggerFactory.getLogger(WorkerStateMonitor.class);
 
     private final VirtualMachineMasterService vmService;
+    private final V3JobOperations v3JobOperations;
+    private final TitusRuntime titusRuntime;
     private AtomicBoolean shutdownFlag = new AtomicBoolean();
 
     @Inject
     public WorkerStateMonitor(VirtualMachineMasterService vmService,
                               V3JobOperations v3JobOperations,
+                              MesosConfiguration mesosConfiguration,
                               TitusRuntime titusRuntime) {
+        this(vmService, v3JobOperations, mesosConfiguration, titusRuntime, Schedulers.computation());
+    }
+
+    @VisibleForTesting
+    WorkerStateMonitor(VirtualMachineMasterService vmService,
+                       V3JobOperations v3JobOperations,
+                       MesosConfiguration mesosConfiguration,
+                       TitusRuntime titusRuntime,
+                       Scheduler scheduler) {
         this.vmService = vmService;
-        vmService.getTaskStatusObservable().subscribe(new Observer<ContainerEvent>() {
+        this.v3JobOperations = v3JobOperations;
+        this.titusRuntime = titusRuntime;
+
+        Observable<List<ContainerEvent>> batches;
+        long batchWindowMs = mesosConfiguration.getStatusUpdateBatchWindowMs();
+        if (batchWindowMs > 0) {
+            batches = vmService.getTaskStatusObservable()
+                    .buffer(batchWindowMs, TimeUnit.MILLISECONDS, Math.max(1, mesosConfiguration.getStatusUpdateMaxBatchSize()), scheduler)
+                    .filter(batch -> !batch.isEmpty());
+        } else {
+            batches = vmService.getTaskStatusObservable().map(Collections::singletonList);
+        }
+
+        batches.subscribe(new Observer<List<ContainerEvent>>() {
             @Override
             public void onCompleted() {
                 logger.error("Unexpected end of vmTaskStatusObservable");
@@ -63,53 +98,110 @@ public class WorkerStateMonitor {
             }
 
             @Override
-            public void onNext(ContainerEvent containerEvent) {
+            public void onNext(List<ContainerEvent> containerEvents) {
                 try {
-                    V3ContainerEvent args = (V3ContainerEvent) containerEvent;
-                    if (args.getTaskId() != null) {
-                        Optional<Pair<Job<?>, Task>> jobAndTaskOpt = v3JobOperations.findTaskById(args.getTaskId());
-                        if (jobAndTaskOpt.isPresent()) {
-                            Task task = jobAndTaskOpt.get().getRight();
-                            TaskState newState = args.getTaskState();
-                            if (task.getStatus().getState() != newState) {
-
-                                String reasonCode = args.getReasonCode();
-
-                                TaskStatus.Builder taskStatusBuilder = JobModel.newTaskStatus()
-                                        .withState(newState)
-                                        .withTimestamp(args.getTimestamp());
-
-                                // We send kill operation even if task is in Accepted state, but if the latter is the case
-                                // we do not want to report Mesos 'lost' state in task status.
-                                if (isKillConfirmationForTaskInAcceptedState(task, newState, reasonCode)) {
-                                    taskStatusBuilder
-                                            .withReasonCode(TaskStatus.REASON_TASK_KILLED)
-                                            .withReasonMessage("Task killed before it was launched");
-                                } else {
-                                    taskStatusBuilder
-                                            .withReasonCode(reasonCode)
-                                            .withReasonMessage("Mesos task state change event: " + args.getReasonMessage());
-                                }
-                                TaskStatus taskStatus = taskStatusBuilder.build();
-
-                                // Failures are logged only, as the reconciler will take care of it if needed.
-                                final Function<Task, Optional<Task>> updater = JobManagerUtil.newMesosTaskStateUpdater(taskStatus, args.getTitusExecutorDetails(), titusRuntime);
-                                v3JobOperations.updateTask(task.getId(), updater, Trigger.Mesos, "Mesos -> " + taskStatus).subscribe(
-                                        () -> logger.info("Changed task {} status state to {}", task.getId(), taskStatus),
-                                        e -> logger.warn("Could not update task state of {} to {} ({})", args.getTaskId(), taskStatus, e.toString())
-                                );
-                            }
-                            return;
-                        }
-                    }
-                    killOrphanedTask(args);
+                    handleBatch(containerEvents);
                 } catch (Exception e) {
-                    logger.warn("Exception during handling task status update notification", e);
+                    logger.warn("Exception during handling task status update notifications", e);
                 }
             }
         });
     }
 
+    /**
+     * Only the latest status update of each task in a batch is applied. The updates are grouped by job, and
+     * applied in a single change action per job.
+     */
+    private void handleBatch(List<ContainerEvent> containerEvents) {
+        Map<String, V3ContainerEvent> latestByTaskId = new LinkedHashMap<>();
+        for (ContainerEvent containerEvent : containerEvents) {
+            V3ContainerEvent args = (V3ContainerEvent) containerEvent;
+            if (args.getTaskId() == null) {
+                killOrphanedTask(args);
+            } else {
+                latestByTaskId.merge(args.getTaskId(), args, WorkerStateMonitor::mergeEvents);
+            }
+        }
+
+        Map<String, Map<String, Function<Task, Optional<Task>>>> updatersByJobId = new HashMap<>();
+        Map<String, TaskStatus> taskStatusById = new HashMap<>();
+        for (V3ContainerEvent args : latestByTaskId.values()) {
+            Optional<Pair<Job<?>, Task>> jobAndTaskOpt = v3JobOperations.findTaskById(args.getTaskId());
+            if (!jobAndTaskOpt.isPresent()) {
+                killOrphanedTask(args);
+                continue;
+            }
+            Task task = jobAndTaskOpt.get().getRight();
+            if (task.getStatus().getState() == args.getTaskState()) {
+                continue;
+            }
+            TaskStatus taskStatus = toTaskStatus(task, args);
+            taskStatusById.put(task.getId(), taskStatus);
+            updatersByJobId.computeIfAbsent(task.getJobId(), jobId -> new LinkedHashMap<>()).put(
+                    task.getId(),
+                    JobManagerUtil.newMesosTaskStateUpdater(taskStatus, args.getTitusExecutorDetails(), titusRuntime)
+            );
+        }
+
+        // Failures are logged only, as the reconciler will take care of it if needed.
+        updatersByJobId.forEach((jobId, updaters) -> {
+            if (updaters.size() == 1) {
+                Map.Entry<String, Function<Task, Optional<Task>>> entry = updaters.entrySet().iterator().next();
+                String taskId = entry.getKey();
+                TaskStatus taskStatus = taskStatusById.get(taskId);
+                v3JobOperations.updateTask(taskId, entry.getValue(), Trigger.Mesos, "Mesos -> " + taskStatus).subscribe(
+                        () -> logger.info("Changed task {} status state to {}", taskId, taskStatus),
+                        e -> logger.warn("Could not update task state of {} to {} ({})", taskId, taskStatus, e.toString())
+                );
+            } else {
+                v3JobOperations.updateTasks(jobId, updaters, Trigger.Mesos, "Mesos -> batch of " + updaters.size() + " task status updates").subscribe(
+                        () -> logger.info("Changed status of {} tasks of job {}: {}", updaters.size(), jobId, updaters.keySet()),
+                        e -> logger.warn("Could not update task states of job {} ({})", jobId, e.toString())
+                );
+            }
+        });
+    }
+
+    /**
+     * The executor details are not included in all status updates, so we keep them from the earlier update if
+     * the latest one does not have them.
+     */
+    private static V3ContainerEvent mergeEvents(V3ContainerEvent previous, V3ContainerEvent latest) {
+        if (latest.getTitusExecutorDetails().isPresent() || !previous.getTitusExecutorDetails().isPresent()) {
+            return latest;
+        }
+        return new V3ContainerEvent(
+                latest.getTaskId(),
+                latest.getTaskState(),
+                latest.getReasonCode(),
+                latest.getReasonMessage(),
+                latest.getTimestamp(),
+                previous.getTitusExecutorDetails()
+        );
+    }
+
+    private TaskStatus toTaskStatus(Task task, V3ContainerEvent args) {
+        TaskState newState = args.getTaskState();
+        String reasonCode = args.getReasonCode();
+
+        TaskStatus.Builder taskStatusBuilder = JobModel.newTaskStatus()
+                .withState(newState)
+                .withTimestamp(args.getTimestamp());
+
+        // We send kill operation even if task is in Accepted state, but if the latter is the case
+        // we do not want to report Mesos 'lost' state in task status.
+        if (isKillConfirmationForTaskInAcceptedState(task, newState, reasonCode)) {
+            taskStatusBuilder
+                    .withReasonCode(TaskStatus.REASON_TASK_KILLED)
+                    .withReasonMessage("Task killed before it was launched");
+        } else {
+            taskStatusBuilder
+                    .withReasonCode(reasonCode)
+                    .withReasonMessage("Mesos task state change event: " + args.getReasonMessage());
+        }
+        return taskStatusBuilder.build();
+    }
+
     /**
      * Check if task moved directly from Accepted to KillInitiated.
      */
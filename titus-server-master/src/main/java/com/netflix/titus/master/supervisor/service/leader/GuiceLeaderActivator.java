@@ -32,6 +32,7 @@ import com.netflix.titus.common.util.guice.ContainerEventBus;
 import com.netflix.titus.common.util.guice.ContainerEventBus.ContainerEventListener;
 import com.netflix.titus.common.util.guice.ContainerEventBus.ContainerStartedEvent;
 import com.netflix.titus.common.util.time.Clock;
+import com.netflix.titus.common.util.tuple.Pair;
 import com.netflix.titus.master.MetricConstants;
 import com.netflix.titus.master.scheduler.AgentQualityTracker;
 import com.netflix.titus.master.scheduler.ContainerFailureBasedAgentQualityTracker;
@@ -59,6 +60,7 @@ public class GuiceLeaderActivator implements LeaderActivator, ContainerEventList
 
     private final Injector injector;
     private final Clock clock;
+    private final Registry registry;
     private final ActivationLifecycle activationLifecycle;
 
     private volatile boolean leader;
@@ -69,6 +71,14 @@ public class GuiceLeaderActivator implements LeaderActivator, ContainerEventList
     private volatile long activationEndTimestamp = -1;
     private volatile long activationTime = -1;
 
+    /**
+     * Activation phase timings: time between the election and the activation start (non-zero if the leader is elected
+     * before the container is started), time to activate all services, and time to start the scheduler.
+     */
+    private volatile long waitForContainerTime = -1;
+    private volatile long servicesActivationTime = -1;
+    private volatile long schedulerActivationTime = -1;
+
     private final Optional<FitInjection> beforeActivationFitInjection;
 
     @Inject
@@ -80,7 +90,7 @@ public class GuiceLeaderActivator implements LeaderActivator, ContainerEventList
         this.activationLifecycle = activationLifecycle;
         this.clock = titusRuntime.getClock();
 
-        Registry registry = titusRuntime.getRegistry();
+        this.registry = titusRuntime.getRegistry();
 
         PolledMeter.using(registry)
                 .withName(MetricConstants.METRIC_LEADER + "isLeaderGauge")
@@ -98,6 +108,19 @@ public class GuiceLeaderActivator implements LeaderActivator, ContainerEventList
                 .withName(MetricConstants.METRIC_LEADER + "inActiveStateTime")
                 .monitorValue(this, self -> self.isActivated() ? clock.wallTime() - self.activationEndTimestamp : 0L);
 
+        PolledMeter.using(registry)
+                .withName(MetricConstants.METRIC_LEADER + "activationPhaseTime")
+                .withTag("phase", "waitForContainer")
+                .monitorValue(this, self -> self.waitForContainerTime);
+        PolledMeter.using(registry)
+                .withName(MetricConstants.METRIC_LEADER + "activationPhaseTime")
+                .withTag("phase", "services")
+                .monitorValue(this, self -> self.servicesActivationTime);
+        PolledMeter.using(registry)
+                .withName(MetricConstants.METRIC_LEADER + "activationPhaseTime")
+                .withTag("phase", "scheduler")
+                .monitorValue(this, self -> self.schedulerActivationTime);
+
         FitFramework fit = titusRuntime.getFitFramework();
         if (fit.isActive()) {
             FitInjection beforeActivationFitInjection = fit.newFitInjectionBuilder("beforeActivation")
@@ -198,13 +221,18 @@ public class GuiceLeaderActivator implements LeaderActivator, ContainerEventList
 
         beforeActivationFitInjection.ifPresent(i -> i.beforeImmediate("beforeActivation"));
 
+        this.waitForContainerTime = activationStartTimestamp - electionTimestamp;
+
         try {
             try {
                 activationLifecycle.activate();
+                long servicesActivatedTimestamp = clock.wallTime();
+                this.servicesActivationTime = servicesActivatedTimestamp - activationStartTimestamp;
 
                 // FIXME Circular dependencies forces are to postpone the activation process.
                 ((ContainerFailureBasedAgentQualityTracker)injector.getInstance(AgentQualityTracker.class)).start();
                 ((DefaultSchedulingService)injector.getInstance(SchedulingService.class)).startScheduling();
+                this.schedulerActivationTime = clock.wallTime() - servicesActivatedTimestamp;
             } catch (Exception e) {
                 stopBeingLeader();
 
@@ -218,5 +246,14 @@ public class GuiceLeaderActivator implements LeaderActivator, ContainerEventList
         this.activated = true;
         this.activationEndTimestamp = clock.wallTime();
         this.activationTime = activationEndTimestamp - activationStartTimestamp;
+
+        registerServiceActivationTimes();
+    }
+
+    private void registerServiceActivationTimes() {
+        for (Pair<String, Long> serviceAndTime : activationLifecycle.getServiceActionTimesMs()) {
+            registry.gauge(registry.createId(MetricConstants.METRIC_LEADER + "serviceActivationTime", "service", serviceAndTime.getLeft()))
+                    .set(serviceAndTime.getRight());
+        }
     }
 }
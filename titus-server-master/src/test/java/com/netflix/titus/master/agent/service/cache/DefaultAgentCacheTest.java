@@ -161,6 +161,12 @@ public class DefaultAgentCacheTest {
         expectInstanceGroupUpdateEvent(eventSubscriber, instanceGroup.getId());
     }
 
+    @Test
+    public void testFullRefreshWithoutChangesEmitsNoEvents() {
+        testScheduler.advanceTimeBy(FULL_CACHE_REFRESH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        assertThat(eventSubscriber.takeNext()).isNull();
+    }
+
     @Test
     public void testDiscoverNewAgentInstance() {
         String instanceGroupId = testConnector.takeInstanceGroup(0).getId();
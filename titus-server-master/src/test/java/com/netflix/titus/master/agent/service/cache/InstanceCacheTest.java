@@ -41,6 +41,7 @@ import rx.schedulers.TestScheduler;
 import static com.netflix.titus.common.util.CollectionsExt.asSet;
 import static com.netflix.titus.master.agent.service.cache.InstanceTestUtils.CACHE_REFRESH_INTERVAL_MS;
 import static com.netflix.titus.master.agent.service.cache.InstanceTestUtils.FULL_CACHE_REFRESH_INTERVAL_MS;
+import static com.netflix.titus.master.agent.service.cache.InstanceTestUtils.PENDING_CACHE_REFRESH_INTERVAL_MS;
 import static com.netflix.titus.master.agent.service.cache.InstanceTestUtils.expectInstanceGroupUpdateEvent;
 import static com.netflix.titus.master.agent.service.cache.InstanceTestUtils.mockedAgentManagementConfiguration;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -174,6 +175,32 @@ public class InstanceCacheTest {
         expectInstanceGroupUpdateEvent(eventSubscriber, instanceGroupId);
     }
 
+    @Test
+    public void testRemovedInstanceIsEvictedFromCache() {
+        String removedInstanceId = testConnector.takeInstance(0, 0).getId();
+        testConnector.removeInstance(removedInstanceId);
+        testScheduler.advanceTimeBy(CACHE_REFRESH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        assertThat(cache.getAgentInstance(removedInstanceId)).isNull();
+    }
+
+    @Test
+    public void testPendingInstanceGroupIsRefreshedFaster() {
+        InstanceGroup scaledUp = testConnector.takeInstanceGroup(0).toBuilder().withDesired(6).build();
+        testConnector.addInstanceGroup(scaledUp);
+        testScheduler.advanceTimeBy(CACHE_REFRESH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        expectInstanceGroupUpdateEvent(eventSubscriber, scaledUp.getId());
+
+        instanceGenerator1 = instanceGenerator1.apply(testConnector::addInstance);
+        testScheduler.advanceTimeBy(PENDING_CACHE_REFRESH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+
+        assertThat(cache.getInstanceGroup(scaledUp.getId()).getInstanceIds()).hasSize(6);
+        expectInstanceGroupUpdateEvent(eventSubscriber, scaledUp.getId());
+
+        // Desired size reached, so the instance group is refreshed on the regular interval only
+        testScheduler.advanceTimeBy(PENDING_CACHE_REFRESH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        assertThat(eventSubscriber.takeNext()).isNull();
+    }
+
     private static List<String> instanceGroupIds(Collection<InstanceGroup> instanceGroups) {
         return instanceGroups.stream().map(InstanceGroup::getId).collect(Collectors.toList());
     }
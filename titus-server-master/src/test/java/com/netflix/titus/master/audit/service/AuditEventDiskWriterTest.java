@@ -17,6 +17,8 @@
 package com.netflix.titus.master.audit.service;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
@@ -24,11 +26,16 @@ import com.netflix.titus.api.audit.model.AuditLogEvent;
 import com.netflix.titus.api.audit.model.AuditLogEvent.Type;
 import com.netflix.titus.api.audit.service.AuditLogService;
 import com.netflix.titus.api.model.event.UserRequestEvent;
+import com.netflix.titus.common.runtime.TitusRuntime;
+import com.netflix.titus.common.runtime.TitusRuntimes;
 import com.netflix.titus.common.util.IOExt;
 import com.netflix.titus.common.util.rx.eventbus.RxEventBus;
+import com.netflix.titus.master.MetricConstants;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import rx.schedulers.Schedulers;
 import rx.schedulers.TestScheduler;
 import rx.subjects.PublishSubject;
@@ -41,45 +48,123 @@ import static org.mockito.Mockito.when;
 
 public class AuditEventDiskWriterTest {
 
-    private static final String LOG_FOLDER = "build/auditLogs";
-    private static final File LOG_FILE = new File(LOG_FOLDER, LOG_FILE_NAME);
+    private static final long ROTATION_INTERVAL_MS = 60_000;
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
 
     private TestScheduler testScheduler = Schedulers.test();
+    private final TitusRuntime titusRuntime = TitusRuntimes.test(testScheduler);
 
     private final RxEventBus rxEventBus = mock(RxEventBus.class);
     private final AuditLogConfiguration config = mock(AuditLogConfiguration.class);
     private final AuditLogService auditLogService = mock(AuditLogService.class);
 
+    private File logFolder;
+    private File logFile;
+
     private AuditEventDiskWriter auditEventDiskWriter;
     private PublishSubject<AuditLogEvent> eventSubject = PublishSubject.create();
     private PublishSubject<UserRequestEvent> rxEventSubject = PublishSubject.create();
 
     @Before
     public void setUp() throws Exception {
-        LOG_FILE.delete();
-        assertThat(LOG_FILE.exists()).isFalse();
-
-        when(config.getAuditLogFolder()).thenReturn(LOG_FOLDER);
+        logFolder = temporaryFolder.newFolder("auditLogs");
+        logFile = new File(logFolder, LOG_FILE_NAME);
+
+        when(config.getAuditLogFolder()).thenReturn(logFolder.getAbsolutePath());
+        when(config.getQueueSize()).thenReturn(100);
+        when(config.getMaxFileSizeBytes()).thenReturn(1024 * 1024L);
+        when(config.getRotationIntervalMs()).thenReturn(ROTATION_INTERVAL_MS);
+        when(config.getMaxRotatedFiles()).thenReturn(2);
+        when(config.isFsyncEnabled()).thenReturn(true);
         when(auditLogService.auditLogEvents()).thenReturn(eventSubject);
         when(rxEventBus.listen(AuditEventDiskWriter.class.getSimpleName(), UserRequestEvent.class)).thenReturn(rxEventSubject);
-        auditEventDiskWriter = new AuditEventDiskWriter(config, auditLogService, rxEventBus, testScheduler);
     }
 
     @After
     public void tearDown() throws Exception {
-        auditEventDiskWriter.shutdown();
+        if (auditEventDiskWriter != null) {
+            auditEventDiskWriter.shutdown();
+        }
     }
 
     @Test
     public void testLogWrite() throws Exception {
+        createWriter();
+
         eventSubject.onNext(createEvent());
         rxEventSubject.onNext(createHttpEvent());
         testScheduler.advanceTimeBy(WRITE_INTERVAL_MS, TimeUnit.MILLISECONDS);
 
-        List<String> lines = IOExt.readLines(LOG_FILE);
+        List<String> lines = IOExt.readLines(logFile);
         assertThat(lines).hasSize(2);
     }
 
+    @Test
+    public void testEventsAreDroppedWhenQueueIsFull() throws Exception {
+        when(config.getQueueSize()).thenReturn(2);
+        createWriter();
+
+        for (int i = 0; i < 3; i++) {
+            eventSubject.onNext(createEvent());
+        }
+        testScheduler.triggerActions();
+
+        assertThat(IOExt.readLines(logFile)).hasSize(2);
+        assertThat(titusRuntime.getRegistry().counter(MetricConstants.METRIC_AUDIT + "droppedEvents").count()).isEqualTo(1);
+
+        // Queue space is released after the write.
+        eventSubject.onNext(createEvent());
+        testScheduler.triggerActions();
+        assertThat(IOExt.readLines(logFile)).hasSize(3);
+    }
+
+    @Test
+    public void testSizeBasedRotation() throws Exception {
+        when(config.getMaxFileSizeBytes()).thenReturn(1L);
+        createWriter();
+
+        for (int i = 0; i < 4; i++) {
+            eventSubject.onNext(createEvent());
+            testScheduler.triggerActions();
+        }
+
+        // Each event is written to a new file, and only two rotated files are kept.
+        assertThat(IOExt.readLines(logFile)).hasSize(1);
+        assertThat(rotatedFiles()).hasSize(2);
+        for (File rotatedFile : rotatedFiles()) {
+            assertThat(IOExt.readLines(rotatedFile)).hasSize(1);
+        }
+    }
+
+    @Test
+    public void testTimeBasedRotation() throws Exception {
+        createWriter();
+
+        eventSubject.onNext(createEvent());
+        testScheduler.advanceTimeBy(WRITE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        assertThat(rotatedFiles()).isEmpty();
+
+        testScheduler.advanceTimeBy(ROTATION_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        assertThat(rotatedFiles()).hasSize(1);
+        assertThat(IOExt.readLines(rotatedFiles().get(0))).hasSize(1);
+        assertThat(IOExt.readLines(logFile)).isEmpty();
+
+        // Empty file is not rotated.
+        testScheduler.advanceTimeBy(ROTATION_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        assertThat(rotatedFiles()).hasSize(1);
+    }
+
+    private void createWriter() {
+        auditEventDiskWriter = new AuditEventDiskWriter(config, auditLogService, rxEventBus, titusRuntime, testScheduler);
+    }
+
+    private List<File> rotatedFiles() {
+        File[] files = logFolder.listFiles((dir, name) -> name.startsWith(LOG_FILE_NAME + '.'));
+        return files == null ? new ArrayList<>() : Arrays.asList(files);
+    }
+
     private AuditLogEvent createEvent() {
         return new AuditLogEvent(Type.JOB_SUBMIT, "operand", "data", System.currentTimeMillis());
     }
@@ -87,4 +172,4 @@ public class AuditEventDiskWriterTest {
     private UserRequestEvent createHttpEvent() {
         return new UserRequestEvent("POST /api/v2/jobs", "userX", "jobId=123", System.currentTimeMillis());
     }
-}
\ No newline at end of file
+}
@@ -120,6 +120,34 @@ public class QuotaEventEmitterTest {
         assertThat(remaining.isOpen()).isTrue();
     }
 
+    @Test
+    public void testQuotaChangesAreEmittedToAllSubscribers() throws InterruptedException {
+        List<TitusRxSubscriber<EvictionEvent>> subscribers = asList(subscribeAndCheckSnapshot(), subscribeAndCheckSnapshot());
+
+        Job<BatchJobExt> job = newBatchJob(
+                5,
+                budget(numberOfHealthyPolicy(8), hourlyRatePercentage(50), singletonList(officeHourTimeWindow()))
+        );
+        when(quotasManager.findEvictionQuota(Reference.job(job.getId()))).thenReturn(Optional.of(EvictionQuota.jobQuota(job.getId(), 2, "Test")));
+        jobComponentStub.createJob(job);
+
+        for (TitusRxSubscriber<EvictionEvent> subscriber : subscribers) {
+            expectJobQuotaEvent(subscriber, job, 2);
+        }
+
+        // A late subscriber gets the current state in its snapshot
+        TitusRxSubscriber<EvictionEvent> lateSubscriber = new TitusRxSubscriber<>();
+        quotaEventEmitter.events(true).subscribe(lateSubscriber);
+        expectSystemQuota(lateSubscriber);
+        expectJobQuotaEvent(lateSubscriber, job, 2);
+        expectSnapshotEnd(lateSubscriber);
+
+        when(quotasManager.findEvictionQuota(Reference.job(job.getId()))).thenReturn(Optional.of(EvictionQuota.jobQuota(job.getId(), 5, "Test")));
+        for (TitusRxSubscriber<EvictionEvent> subscriber : asList(subscribers.get(0), subscribers.get(1), lateSubscriber)) {
+            expectJobQuotaEvent(subscriber, job, 5);
+        }
+    }
+
     private TitusRxSubscriber<EvictionEvent> subscribeAndCheckSnapshot() throws InterruptedException {
         TitusRxSubscriber<EvictionEvent> eventSubscriber = new TitusRxSubscriber<>();
         quotaEventEmitter.events(true).subscribe(eventSubscriber);
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.master.eviction.service.quota;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.netflix.titus.api.eviction.model.SystemDisruptionBudget;
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.ext.BatchJobExt;
+import com.netflix.titus.api.jobmanager.service.V3JobOperations;
+import com.netflix.titus.api.model.FixedIntervalTokenBucketRefillPolicy;
+import com.netflix.titus.api.model.TokenBucketPolicy;
+import com.netflix.titus.api.model.reference.Reference;
+import com.netflix.titus.common.runtime.TitusRuntime;
+import com.netflix.titus.common.runtime.TitusRuntimes;
+import com.netflix.titus.master.eviction.service.quota.system.SystemDisruptionBudgetResolver;
+import com.netflix.titus.master.eviction.service.quota.system.SystemQuotaController;
+import com.netflix.titus.testkit.model.job.JobComponentStub;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+
+import static com.netflix.titus.testkit.model.eviction.DisruptionBudgetGenerator.budget;
+import static com.netflix.titus.testkit.model.eviction.DisruptionBudgetGenerator.newBatchJob;
+import static com.netflix.titus.testkit.model.eviction.DisruptionBudgetGenerator.perTaskRelocationLimitPolicy;
+import static com.netflix.titus.testkit.model.eviction.DisruptionBudgetGenerator.unlimitedRate;
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TitusQuotasManagerTest {
+
+    private static final int JOB_COUNT = 20;
+    private static final int TASKS_PER_JOB = 10;
+    private static final int SYSTEM_QUOTA = 150;
+    private static final int THREAD_COUNT = 8;
+
+    private final TitusRuntime titusRuntime = TitusRuntimes.test();
+
+    private final JobComponentStub jobComponentStub = new JobComponentStub(titusRuntime);
+
+    private final V3JobOperations jobOperations = jobComponentStub.getJobOperations();
+
+    private final SystemDisruptionBudgetResolver budgetResolver = mock(SystemDisruptionBudgetResolver.class);
+
+    private SystemQuotaController systemQuotaController;
+    private TitusQuotasManager quotasManager;
+
+    @Before
+    public void setUp() {
+        when(budgetResolver.resolve()).thenReturn(Flux.just(newSystemDisruptionBudget(SYSTEM_QUOTA)));
+        systemQuotaController = new SystemQuotaController(budgetResolver, titusRuntime);
+        quotasManager = new TitusQuotasManager(jobOperations, jobComponentStub.getContainerHealthService(), systemQuotaController, titusRuntime);
+    }
+
+    @After
+    public void tearDown() {
+        quotasManager.shutdown();
+        systemQuotaController.shutdown();
+    }
+
+    @Test
+    public void testJobQuotaIsConsumedBeforeSystemQuota() {
+        Job<BatchJobExt> job = newJob();
+        quotasManager.enterActiveMode();
+
+        Task task = jobOperations.getTasks(job.getId()).get(0);
+        assertThat(quotasManager.tryConsumeQuota(job, task).isApproved()).isTrue();
+        assertThat(quotasManager.findEvictionQuota(Reference.system()).get().getQuota()).isEqualTo(SYSTEM_QUOTA - 1);
+
+        // The per task limit is reached, so the system quota must not be touched.
+        assertThat(quotasManager.tryConsumeQuota(job, task).isApproved()).isFalse();
+        assertThat(quotasManager.findEvictionQuota(Reference.system()).get().getQuota()).isEqualTo(SYSTEM_QUOTA - 1);
+    }
+
+    @Test
+    public void testUnknownJob() {
+        Job<BatchJobExt> job = newJob();
+        Task task = jobOperations.getTasks(job.getId()).get(0);
+        assertThat(quotasManager.tryConsumeQuota(job, task).isApproved()).isFalse();
+    }
+
+    @Test(timeout = 30_000)
+    public void testParallelConsumptionAcrossManyJobsIsExact() throws Exception {
+        List<Job<BatchJobExt>> jobs = new ArrayList<>();
+        for (int i = 0; i < JOB_COUNT; i++) {
+            jobs.add(newJob());
+        }
+        quotasManager.enterActiveMode();
+
+        // Each task is evicted twice, from different threads. The per task limit is one, so at most one
+        // eviction per task may succeed, and the total is capped by the system quota.
+        List<Runnable> requests = new ArrayList<>();
+        AtomicInteger approved = new AtomicInteger();
+        for (Job<BatchJobExt> job : jobs) {
+            for (Task task : jobOperations.getTasks(job.getId())) {
+                Runnable request = () -> {
+                    if (quotasManager.tryConsumeQuota(job, task).isApproved()) {
+                        approved.incrementAndGet();
+                    }
+                };
+                requests.add(request);
+                requests.add(request);
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        try {
+            CountDownLatch startLatch = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREAD_COUNT; i++) {
+                int offset = i;
+                futures.add(executor.submit(() -> {
+                    startLatch.await();
+                    for (int j = offset; j < requests.size(); j += THREAD_COUNT) {
+                        requests.get(j).run();
+                    }
+                    return null;
+                }));
+            }
+            startLatch.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(approved.get()).isEqualTo(SYSTEM_QUOTA);
+        assertThat(quotasManager.findEvictionQuota(Reference.system()).get().getQuota()).isEqualTo(0);
+    }
+
+    private Job<BatchJobExt> newJob() {
+        Job<BatchJobExt> job = newBatchJob(TASKS_PER_JOB, budget(perTaskRelocationLimitPolicy(1), unlimitedRate(), emptyList()));
+        jobComponentStub.createJobAndTasks(job);
+        return job;
+    }
+
+    /**
+     * System budget with all tokens available immediately, and no refill within the test time frame.
+     */
+    private static SystemDisruptionBudget newSystemDisruptionBudget(int quota) {
+        return SystemDisruptionBudget.newBuilder()
+                .withReference(Reference.system())
+                .withTokenBucketDescriptor(TokenBucketPolicy.newBuilder()
+                        .withInitialNumberOfTokens(quota)
+                        .withCapacity(quota)
+                        .withRefillPolicy(FixedIntervalTokenBucketRefillPolicy.newBuilder()
+                                .withNumberOfTokensPerInterval(0)
+                                .withIntervalMs(TimeUnit.HOURS.toMillis(1))
+                                .build()
+                        )
+                        .build()
+                )
+                .withTimeWindows(emptyList())
+                .build();
+    }
+}
@@ -40,6 +40,8 @@ import com.netflix.titus.master.eviction.service.quota.QuotaController;
 import com.netflix.titus.master.eviction.service.quota.QuotaTracker;
 import com.netflix.titus.master.eviction.service.quota.TimeWindowQuotaTracker;
 import com.netflix.titus.testkit.model.job.JobComponentStub;
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 
 import static com.netflix.titus.master.eviction.service.quota.job.JobQuotaController.buildQuotaControllers;
@@ -72,6 +74,18 @@ public class JobQuotaControllerTest {
 
     private final ContainerHealthService containerHealthService = jobComponentStub.getContainerHealthService();
 
+    private final TaskHealthCounters taskHealthCounters = new TaskHealthCounters(jobOperations, containerHealthService);
+
+    @Before
+    public void setUp() {
+        taskHealthCounters.enterActiveMode();
+    }
+
+    @After
+    public void tearDown() {
+        taskHealthCounters.shutdown();
+    }
+
     @Test
     public void testBuildQuotaTrackers() {
         testBuildQuotaTrackers(
@@ -108,7 +122,7 @@ public class JobQuotaControllerTest {
     }
 
     private void testBuildQuotaTrackers(Job<?> job, Class<?>... expectedTypes) {
-        List<QuotaTracker> trackers = buildQuotaTrackers(job, jobOperations, containerHealthService, titusRuntime);
+        List<QuotaTracker> trackers = buildQuotaTrackers(job, taskHealthCounters, titusRuntime);
         checkContains(trackers, expectedTypes);
     }
 
@@ -188,7 +202,7 @@ public class JobQuotaControllerTest {
         com.netflix.titus.api.model.reference.Reference jobReference = com.netflix.titus.api.model.reference.Reference.job(job.getId());
 
         scheduleJob(job, 10);
-        JobQuotaController jobController = new JobQuotaController(job, jobOperations, containerHealthService, titusRuntime);
+        JobQuotaController jobController = new JobQuotaController(job, jobOperations, taskHealthCounters, titusRuntime);
 
         assertThat(jobController.getQuota(jobReference).getQuota()).isEqualTo(0);
     }
@@ -199,7 +213,7 @@ public class JobQuotaControllerTest {
         com.netflix.titus.api.model.reference.Reference jobReference = com.netflix.titus.api.model.reference.Reference.job(job.getId());
 
         scheduleJob(job, 10);
-        JobQuotaController jobController = new JobQuotaController(job, jobOperations, containerHealthService, titusRuntime);
+        JobQuotaController jobController = new JobQuotaController(job, jobOperations, taskHealthCounters, titusRuntime);
 
         assertThat(jobController.getQuota(jobReference).getQuota()).isEqualTo(2);
 
@@ -213,7 +227,7 @@ public class JobQuotaControllerTest {
         com.netflix.titus.api.model.reference.Reference jobReference = com.netflix.titus.api.model.reference.Reference.job(job.getId());
 
         scheduleJob(job, 10);
-        JobQuotaController jobController = new JobQuotaController(job, jobOperations, containerHealthService, titusRuntime);
+        JobQuotaController jobController = new JobQuotaController(job, jobOperations, taskHealthCounters, titusRuntime);
 
         assertThat(jobController.getQuota(jobReference).getQuota()).isEqualTo(2);
 
@@ -233,7 +247,7 @@ public class JobQuotaControllerTest {
         com.netflix.titus.api.model.reference.Reference jobReference = com.netflix.titus.api.model.reference.Reference.job(job.getId());
 
         scheduleJob(job, 10);
-        JobQuotaController jobController = new JobQuotaController(job, jobOperations, containerHealthService, titusRuntime);
+        JobQuotaController jobController = new JobQuotaController(job, jobOperations, taskHealthCounters, titusRuntime);
 
         assertThat(jobController.getQuota(jobReference).getQuota()).isEqualTo(2);
 
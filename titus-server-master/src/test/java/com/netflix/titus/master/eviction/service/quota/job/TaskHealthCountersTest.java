@@ -0,0 +1,146 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.master.eviction.service.quota.job;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.netflix.titus.api.containerhealth.model.ContainerHealthState;
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.TaskState;
+import com.netflix.titus.api.jobmanager.model.job.ext.BatchJobExt;
+import com.netflix.titus.api.jobmanager.service.JobManagerException;
+import com.netflix.titus.api.jobmanager.service.V3JobOperations;
+import com.netflix.titus.common.runtime.TitusRuntime;
+import com.netflix.titus.common.runtime.TitusRuntimes;
+import com.netflix.titus.master.eviction.service.quota.job.TaskHealthCounters.JobCounters;
+import com.netflix.titus.testkit.model.job.JobComponentStub;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.netflix.titus.testkit.model.eviction.DisruptionBudgetGenerator.budget;
+import static com.netflix.titus.testkit.model.eviction.DisruptionBudgetGenerator.newBatchJob;
+import static com.netflix.titus.testkit.model.eviction.DisruptionBudgetGenerator.numberOfHealthyPolicy;
+import static com.netflix.titus.testkit.model.eviction.DisruptionBudgetGenerator.unlimitedRate;
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TaskHealthCountersTest {
+
+    private final TitusRuntime titusRuntime = TitusRuntimes.test();
+
+    private final JobComponentStub jobComponentStub = new JobComponentStub(titusRuntime);
+
+    private final V3JobOperations jobOperations = jobComponentStub.getJobOperations();
+
+    private final TaskHealthCounters taskHealthCounters = new TaskHealthCounters(jobOperations, jobComponentStub.getContainerHealthService());
+
+    @Before
+    public void setUp() {
+        taskHealthCounters.enterActiveMode();
+    }
+
+    @After
+    public void tearDown() {
+        taskHealthCounters.shutdown();
+    }
+
+    @Test
+    public void testCountersAreInitializedFromCurrentJobState() {
+        Job<BatchJobExt> job = newJob(4);
+        List<Task> tasks = jobOperations.getTasks(job.getId());
+        jobComponentStub.moveTaskToState(tasks.get(0), TaskState.Started);
+        jobComponentStub.moveTaskToState(tasks.get(1), TaskState.Started);
+        jobComponentStub.changeContainerHealth(tasks.get(1).getId(), ContainerHealthState.Unhealthy);
+
+        JobCounters counters = taskHealthCounters.getJobCounters(job.getId());
+        assertThat(counters.getStarted()).isEqualTo(2);
+        assertThat(counters.getHealthy()).isEqualTo(1);
+    }
+
+    @Test
+    public void testCountersAreUpdatedFromEvents() {
+        Job<BatchJobExt> job = newJob(4);
+        List<Task> tasks = jobOperations.getTasks(job.getId());
+
+        JobCounters counters = taskHealthCounters.getJobCounters(job.getId());
+        assertThat(counters.getStarted()).isEqualTo(0);
+        assertThat(counters.getHealthy()).isEqualTo(0);
+
+        tasks.forEach(task -> jobComponentStub.moveTaskToState(task, TaskState.Started));
+        assertThat(counters.getStarted()).isEqualTo(4);
+        assertThat(counters.getHealthy()).isEqualTo(4);
+
+        jobComponentStub.changeContainerHealth(tasks.get(0).getId(), ContainerHealthState.Unhealthy);
+        assertThat(counters.getStarted()).isEqualTo(4);
+        assertThat(counters.getHealthy()).isEqualTo(3);
+
+        jobComponentStub.moveTaskToState(tasks.get(0), TaskState.Finished);
+        jobComponentStub.moveTaskToState(tasks.get(1), TaskState.Finished);
+        assertThat(counters.getStarted()).isEqualTo(2);
+        assertThat(counters.getHealthy()).isEqualTo(2);
+    }
+
+    @Test
+    public void testCountersAreRemovedWhenJobFinishes() {
+        Job<BatchJobExt> job = newJob(1);
+        JobCounters counters = taskHealthCounters.getJobCounters(job.getId());
+        assertThat(taskHealthCounters.getJobCounters(job.getId())).isSameAs(counters);
+
+        jobComponentStub.moveJobToKillInitiatedState(job);
+        jobOperations.getTasks(job.getId()).forEach(jobComponentStub::forget);
+        jobComponentStub.finishJob(job);
+        assertThat(taskHealthCounters.getJobCounters(job.getId())).isNotSameAs(counters);
+    }
+
+    @Test
+    public void testCountersOfUnknownJobAreNotTracked() {
+        JobCounters counters = taskHealthCounters.getJobCounters("missingJobId");
+        assertThat(counters.getStarted()).isEqualTo(0);
+        assertThat(counters.getHealthy()).isEqualTo(0);
+        assertThat(taskHealthCounters.getJobCounters("missingJobId")).isNotSameAs(counters);
+    }
+
+    @Test
+    public void testFailedLoadIsRepeated() {
+        Job<BatchJobExt> job = newJob(2);
+        List<Task> tasks = jobOperations.getTasks(job.getId());
+        tasks.forEach(task -> jobComponentStub.moveTaskToState(task, TaskState.Started));
+
+        V3JobOperations failingJobOperations = mock(V3JobOperations.class);
+        when(failingJobOperations.getJob(job.getId())).thenReturn(Optional.of(job));
+        when(failingJobOperations.getTasks(job.getId()))
+                .thenThrow(JobManagerException.v3JobNotFound(job.getId()))
+                .thenReturn(jobOperations.getTasks(job.getId()));
+        TaskHealthCounters countersWithFailingLoad = new TaskHealthCounters(failingJobOperations, jobComponentStub.getContainerHealthService());
+
+        JobCounters counters = countersWithFailingLoad.getJobCounters(job.getId());
+        assertThat(counters.getStarted()).isEqualTo(0);
+        assertThat(counters.getStarted()).isEqualTo(2);
+        assertThat(counters.getHealthy()).isEqualTo(2);
+    }
+
+    private Job<BatchJobExt> newJob(int desired) {
+        Job<BatchJobExt> job = newBatchJob(desired, budget(numberOfHealthyPolicy(1), unlimitedRate(), emptyList()));
+        jobComponentStub.createJobAndTasks(job);
+        return job;
+    }
+}
@@ -27,6 +27,8 @@ import com.netflix.titus.api.model.reference.Reference;
 import com.netflix.titus.common.runtime.TitusRuntime;
 import com.netflix.titus.common.runtime.TitusRuntimes;
 import com.netflix.titus.testkit.model.job.JobComponentStub;
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 
 import static com.netflix.titus.master.eviction.service.quota.job.UnhealthyTasksLimitTracker.computeHealthyPoolSizeFromAbsoluteLimit;
@@ -46,6 +48,18 @@ public class UnhealthyTasksLimitTrackerTest {
 
     private final V3JobOperations jobOperations = jobComponentStub.getJobOperations();
 
+    private final TaskHealthCounters taskHealthCounters = new TaskHealthCounters(jobOperations, jobComponentStub.getContainerHealthService());
+
+    @Before
+    public void setUp() {
+        taskHealthCounters.enterActiveMode();
+    }
+
+    @After
+    public void tearDown() {
+        taskHealthCounters.shutdown();
+    }
+
     @Test
     public void testComputeHealthyPoolSizeFromPercentage() {
         assertThat(computeHealthyPoolSizeFromPercentage(newBatchJobWithPercentageLimit(0, 80))).isEqualTo(0);
@@ -65,22 +79,14 @@ public class UnhealthyTasksLimitTrackerTest {
     @Test
     public void testPercentageBasedQuota() {
         Job<BatchJobExt> job = newBatchJobWithPercentageLimit(10, 80);
-        UnhealthyTasksLimitTracker tracker = UnhealthyTasksLimitTracker.percentageLimit(
-                job,
-                jobOperations,
-                jobComponentStub.getContainerHealthService()
-        );
+        UnhealthyTasksLimitTracker tracker = UnhealthyTasksLimitTracker.percentageLimit(job, taskHealthCounters);
         testQuota(tracker, Reference.job(job.getId()));
     }
 
     @Test
     public void testAbsoluteLimitBasedQuota() {
         Job<?> job = newBatchJobWithAbsoluteLimit(10, 2);
-        UnhealthyTasksLimitTracker tracker = UnhealthyTasksLimitTracker.absoluteLimit(
-                job,
-                jobOperations,
-                jobComponentStub.getContainerHealthService()
-        );
+        UnhealthyTasksLimitTracker tracker = UnhealthyTasksLimitTracker.absoluteLimit(job, taskHealthCounters);
         testQuota(tracker, Reference.job(job.getId()));
     }
 
@@ -95,6 +101,14 @@ public class UnhealthyTasksLimitTrackerTest {
         // Now make one unhealthy
         jobComponentStub.changeContainerHealth(jobOperations.getTasks().get(0).getId(), ContainerHealthState.Unhealthy);
         assertThat(tracker.getQuota(jobReference).getQuota()).isEqualTo(1);
+
+        // And healthy again
+        jobComponentStub.changeContainerHealth(jobOperations.getTasks().get(0).getId(), ContainerHealthState.Healthy);
+        assertThat(tracker.getQuota(jobReference).getQuota()).isEqualTo(2);
+
+        // Finished tasks are not counted
+        jobComponentStub.moveTaskToState(jobOperations.getTasks().get(0), TaskState.Finished);
+        assertThat(tracker.getQuota(jobReference).getQuota()).isEqualTo(1);
     }
 
     private Job<BatchJobExt> newBatchJobWithPercentageLimit(int desired, int percentage) {
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.master.jobmanager.service.checkpoint;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.ext.BatchJobExt;
+import com.netflix.titus.testkit.model.job.JobGenerator;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JobSnapshotCheckpointFileTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testWriteAndRead() throws Exception {
+        File file = new File(temporaryFolder.getRoot(), "checkpoint");
+        JobSnapshotCheckpoint checkpoint = newCheckpoint();
+
+        long size = JobSnapshotCheckpointFile.write(file, checkpoint);
+        assertThat(file.length()).isEqualTo(size);
+        assertThat(JobSnapshotCheckpointFile.read(file)).contains(checkpoint);
+    }
+
+    @Test
+    public void testReadMissingFile() throws Exception {
+        assertThat(JobSnapshotCheckpointFile.read(new File(temporaryFolder.getRoot(), "missing"))).isEmpty();
+    }
+
+    @Test(expected = JobSnapshotCheckpointFile.CorruptedCheckpointException.class)
+    public void testCorruptedBodyIsDetected() throws Exception {
+        File file = new File(temporaryFolder.getRoot(), "checkpoint");
+        JobSnapshotCheckpointFile.write(file, newCheckpoint());
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            long position = raf.length() - 1;
+            raf.seek(position);
+            int last = raf.read();
+            raf.seek(position);
+            raf.write(last ^ 0xFF);
+        }
+        JobSnapshotCheckpointFile.read(file);
+    }
+
+    @Test(expected = JobSnapshotCheckpointFile.CorruptedCheckpointException.class)
+    public void testTruncatedFileIsDetected() throws Exception {
+        File file = new File(temporaryFolder.getRoot(), "checkpoint");
+        JobSnapshotCheckpointFile.write(file, newCheckpoint());
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() / 2);
+        }
+        JobSnapshotCheckpointFile.read(file);
+    }
+
+    private JobSnapshotCheckpoint newCheckpoint() {
+        Job<BatchJobExt> job = JobGenerator.oneBatchJob();
+        List<Task> tasks = new ArrayList<>(JobGenerator.batchTasks(job).getValues(3));
+        return new JobSnapshotCheckpoint(12345, Collections.singletonList(job), tasks);
+    }
+}
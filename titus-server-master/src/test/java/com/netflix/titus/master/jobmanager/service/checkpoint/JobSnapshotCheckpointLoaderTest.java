@@ -0,0 +1,150 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.master.jobmanager.service.checkpoint;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import com.netflix.titus.api.jobmanager.model.job.BatchJobTask;
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.ext.BatchJobExt;
+import com.netflix.titus.api.jobmanager.store.JobStore;
+import com.netflix.titus.common.runtime.TitusRuntime;
+import com.netflix.titus.common.runtime.TitusRuntimes;
+import com.netflix.titus.common.util.tuple.Pair;
+import com.netflix.titus.master.jobmanager.service.JobManagerConfiguration;
+import com.netflix.titus.testkit.model.job.JobGenerator;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import rx.Observable;
+import rx.schedulers.TestScheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class JobSnapshotCheckpointLoaderTest {
+
+    private static final long MAX_AGE_MS = 3_600_000;
+    private static final long SAFETY_MARGIN_MS = 60_000;
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final TestScheduler testScheduler = new TestScheduler();
+    private final TitusRuntime titusRuntime = TitusRuntimes.test(testScheduler);
+
+    private final JobManagerConfiguration configuration = mock(JobManagerConfiguration.class);
+    private final JobStore store = mock(JobStore.class);
+
+    private final Job<BatchJobExt> job = JobGenerator.oneBatchJob();
+    private final List<BatchJobTask> tasks = JobGenerator.batchTasks(job).getValues(2);
+
+    private File checkpointFile;
+    private JobSnapshotCheckpointLoader loader;
+
+    @Before
+    public void setUp() throws Exception {
+        checkpointFile = new File(temporaryFolder.getRoot(), "checkpoint");
+        when(configuration.isSnapshotCheckpointEnabled()).thenReturn(true);
+        when(configuration.getSnapshotCheckpointFile()).thenReturn(checkpointFile.getAbsolutePath());
+        when(configuration.getSnapshotCheckpointMaxAgeMs()).thenReturn(MAX_AGE_MS);
+        when(configuration.getSnapshotCheckpointSafetyMarginMs()).thenReturn(SAFETY_MARGIN_MS);
+        loader = new JobSnapshotCheckpointLoader(configuration, store, 10, titusRuntime);
+
+        testScheduler.advanceTimeBy(1, TimeUnit.HOURS);
+    }
+
+    @Test
+    public void testOnlyRecordsChangedAfterCheckpointAreReloaded() throws Exception {
+        long checkpointTime = testScheduler.now();
+        JobSnapshotCheckpointFile.write(checkpointFile, new JobSnapshotCheckpoint(checkpointTime, Collections.singletonList(job), Arrays.asList(tasks.get(0), tasks.get(1))));
+        testScheduler.advanceTimeBy(5, TimeUnit.MINUTES);
+
+        Task changedTask = tasks.get(1).toBuilder().withResubmitNumber(5).build();
+        Task newTask = JobGenerator.batchTasks(job).skip(2).getValue();
+
+        when(store.retrieveActiveJobWriteTimestamps()).thenReturn(Observable.just(Pair.of(job.getId(), checkpointTime - 2 * SAFETY_MARGIN_MS)));
+        when(store.retrieveActiveTaskWriteTimestamps()).thenReturn(Observable.just(
+                // tasks.get(0) was archived, and is no longer in the store
+                Pair.of(changedTask.getId(), checkpointTime + 1_000),
+                Pair.of(newTask.getId(), checkpointTime + 2_000)
+        ));
+        when(store.retrieveTask(changedTask.getId())).thenReturn(Observable.just(changedTask));
+        when(store.retrieveTask(newTask.getId())).thenReturn(Observable.just(newTask));
+
+        Optional<JobSnapshotCheckpoint> loaded = loader.load();
+        assertThat(loaded).isPresent();
+        assertThat(loaded.get().getJobs()).containsExactly(job);
+        assertThat(loaded.get().getTasks()).containsOnly(changedTask, newTask);
+        verify(store, never()).retrieveJob(job.getId());
+    }
+
+    @Test
+    public void testStaleCheckpointIsIgnored() throws Exception {
+        JobSnapshotCheckpointFile.write(checkpointFile, new JobSnapshotCheckpoint(testScheduler.now(), Collections.singletonList(job), Collections.emptyList()));
+        testScheduler.advanceTimeBy(MAX_AGE_MS + 1, TimeUnit.MILLISECONDS);
+
+        assertThat(loader.load()).isEmpty();
+        verify(store, never()).retrieveActiveJobWriteTimestamps();
+    }
+
+    @Test
+    public void testStoreWithoutWriteTimestampsFallsBackToFullLoad() throws Exception {
+        JobSnapshotCheckpointFile.write(checkpointFile, new JobSnapshotCheckpoint(testScheduler.now(), Collections.singletonList(job), Collections.emptyList()));
+        when(store.retrieveActiveJobWriteTimestamps()).thenReturn(Observable.error(new UnsupportedOperationException("not supported")));
+
+        assertThat(loader.load()).isEmpty();
+    }
+
+    @Test
+    public void testOnlyRecordsChangedAfterStandbySnapshotAreReloaded() {
+        long snapshotTime = testScheduler.now();
+        JobSnapshotCheckpoint standbySnapshot = new JobSnapshotCheckpoint(snapshotTime, Collections.singletonList(job), Arrays.asList(tasks.get(0), tasks.get(1)));
+        loader = new JobSnapshotCheckpointLoader(configuration, store, () -> Optional.of(standbySnapshot), 10, titusRuntime);
+        when(configuration.isSnapshotCheckpointEnabled()).thenReturn(false);
+
+        when(store.retrieveActiveJobWriteTimestamps()).thenReturn(Observable.just(Pair.of(job.getId(), snapshotTime - 2 * SAFETY_MARGIN_MS)));
+        when(store.retrieveActiveTaskWriteTimestamps()).thenReturn(Observable.just(
+                Pair.of(tasks.get(0).getId(), snapshotTime - 2 * SAFETY_MARGIN_MS),
+                // Updated after the snapshot, and removed between the write timestamp scan and the read
+                Pair.of(tasks.get(1).getId(), snapshotTime + 1_000)
+        ));
+        when(store.retrieveTask(tasks.get(1).getId())).thenReturn(Observable.empty());
+
+        Optional<JobSnapshotCheckpoint> loaded = loader.load();
+        assertThat(loaded).isPresent();
+        assertThat(loaded.get().getJobs()).containsExactly(job);
+        assertThat(loaded.get().getTasks()).containsExactly(tasks.get(0));
+        verify(store, never()).retrieveJob(job.getId());
+        verify(store, never()).retrieveTask(tasks.get(0).getId());
+    }
+
+    @Test
+    public void testMissingCheckpoint() {
+        assertThat(loader.load()).isEmpty();
+    }
+}
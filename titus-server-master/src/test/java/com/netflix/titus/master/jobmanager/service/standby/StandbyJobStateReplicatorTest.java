@@ -0,0 +1,273 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.master.jobmanager.service.standby;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import com.netflix.titus.api.jobmanager.model.job.BatchJobTask;
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.JobState;
+import com.netflix.titus.api.jobmanager.model.job.JobStatus;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.TaskState;
+import com.netflix.titus.api.jobmanager.model.job.TaskStatus;
+import com.netflix.titus.api.jobmanager.model.job.event.JobManagerEvent;
+import com.netflix.titus.api.jobmanager.model.job.ext.BatchJobExt;
+import com.netflix.titus.api.jobmanager.store.JobStore;
+import com.netflix.titus.common.runtime.TitusRuntime;
+import com.netflix.titus.common.runtime.TitusRuntimes;
+import com.netflix.titus.common.util.guice.ContainerEventBus;
+import com.netflix.titus.common.util.tuple.Pair;
+import com.netflix.titus.master.endpoint.grpc.GrpcEndpointConfiguration;
+import com.netflix.titus.master.jobmanager.service.JobManagerConfiguration;
+import com.netflix.titus.master.jobmanager.service.checkpoint.JobSnapshotCheckpoint;
+import com.netflix.titus.master.jobmanager.service.checkpoint.JobSnapshotCheckpointLoader;
+import com.netflix.titus.master.supervisor.service.MasterMonitor;
+import com.netflix.titus.runtime.connector.GrpcClientConfiguration;
+import com.netflix.titus.runtime.connector.common.replicator.ReplicatorEvent;
+import com.netflix.titus.runtime.connector.jobmanager.JobSnapshot;
+import com.netflix.titus.runtime.endpoint.common.EmptyLogStorageInfo;
+import com.netflix.titus.runtime.endpoint.metadata.CallMetadataResolver;
+import com.netflix.titus.runtime.endpoint.v3.grpc.V3GrpcModelConverters;
+import com.netflix.titus.testkit.model.job.JobGenerator;
+import org.junit.Before;
+import org.junit.Test;
+import rx.Observable;
+import rx.schedulers.TestScheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class StandbyJobStateReplicatorTest {
+
+    private static final long MAX_AGE_MS = 3_600_000;
+    private static final long SAFETY_MARGIN_MS = 60_000;
+
+    private static final long LEADER_TIME = 1_000_000;
+
+    private static final int TASK_COUNT = 5;
+
+    private final TestScheduler testScheduler = new TestScheduler();
+    private final TitusRuntime titusRuntime = TitusRuntimes.test(testScheduler);
+
+    private final JobManagerConfiguration configuration = mock(JobManagerConfiguration.class);
+    private final JobStore store = mock(JobStore.class);
+
+    private final StandbyJobStateReplicator replicator = new StandbyJobStateReplicator(
+            configuration,
+            mock(MasterMonitor.class),
+            mock(GrpcEndpointConfiguration.class),
+            mock(CallMetadataResolver.class),
+            mock(GrpcClientConfiguration.class),
+            store,
+            mock(ContainerEventBus.class),
+            titusRuntime
+    );
+
+    private final JobSnapshotCheckpointLoader loader = new JobSnapshotCheckpointLoader(
+            configuration, store, replicator::takeSnapshotAndStop, 10, titusRuntime
+    );
+
+    private final Job<BatchJobExt> job = newJob();
+    private final List<BatchJobTask> tasks = newTasks(job);
+
+    @Before
+    public void setUp() {
+        when(configuration.isSnapshotCheckpointEnabled()).thenReturn(false);
+        when(configuration.getSnapshotCheckpointMaxAgeMs()).thenReturn(MAX_AGE_MS);
+        when(configuration.getSnapshotCheckpointSafetyMarginMs()).thenReturn(SAFETY_MARGIN_MS);
+
+        when(store.retrieveJob(job.getId())).thenReturn(Observable.just(job));
+        tasks.forEach(task -> when(store.retrieveTask(task.getId())).thenReturn(Observable.just(task)));
+
+        testScheduler.advanceTimeBy(1, TimeUnit.HOURS);
+    }
+
+    @Test
+    public void testSnapshotTimeIsPreserved() {
+        long receiveTime = testScheduler.now();
+        replicator.onReplicatorEvent(newReplicatorEvent(receiveTime, tasks));
+        testScheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+        replicator.syncWithStore();
+
+        Optional<JobSnapshotCheckpoint> checkpoint = replicator.takeSnapshotAndStop();
+        assertThat(checkpoint).isPresent();
+        assertThat(checkpoint.get().getTimestamp()).isEqualTo(receiveTime);
+    }
+
+    @Test
+    public void testNoSnapshotBeforeStoreSync() {
+        replicator.onReplicatorEvent(newReplicatorEvent(testScheduler.now(), tasks));
+
+        assertThat(replicator.takeSnapshotAndStop()).isEmpty();
+        verify(store, never()).retrieveJob(job.getId());
+    }
+
+    @Test
+    public void testStatusTimestampsAndHistorySurviveHandoff() {
+        long receiveTime = testScheduler.now();
+        replicator.onReplicatorEvent(newReplicatorEvent(receiveTime, tasks));
+        replicator.syncWithStore();
+        testScheduler.advanceTimeBy(1, TimeUnit.MINUTES);
+
+        mockWriteTimestamps(receiveTime - 2 * SAFETY_MARGIN_MS, Collections.emptyList());
+
+        Optional<JobSnapshotCheckpoint> loaded = loader.load();
+        assertThat(loaded).isPresent();
+
+        Job<?> loadedJob = loaded.get().getJobs().get(0);
+        assertThat(loadedJob.getStatus()).isEqualTo(job.getStatus());
+        assertThat(loadedJob.getStatusHistory()).isEqualTo(job.getStatusHistory());
+
+        assertThat(loaded.get().getTasks()).containsOnlyElementsOf(tasks);
+        Task loadedTask = loaded.get().getTasks().stream().filter(t -> t.getId().equals(tasks.get(0).getId())).findFirst().get();
+        assertThat(loadedTask.getStatus()).isEqualTo(tasks.get(0).getStatus());
+        assertThat(loadedTask.getStatusHistory()).isEqualTo(tasks.get(0).getStatusHistory());
+    }
+
+    @Test
+    public void testUnchangedRecordsAreReadFromStoreOnce() {
+        replicator.onReplicatorEvent(newReplicatorEvent(testScheduler.now(), tasks));
+        replicator.syncWithStore();
+
+        testScheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+        BatchJobTask changedTask = tasks.get(0).toBuilder().withResubmitNumber(3).build();
+        when(store.retrieveTask(changedTask.getId())).thenReturn(Observable.just(changedTask));
+        List<BatchJobTask> updatedTasks = replace(tasks, changedTask);
+        replicator.onReplicatorEvent(newReplicatorEvent(testScheduler.now(), updatedTasks));
+        replicator.syncWithStore();
+
+        verify(store, times(1)).retrieveJob(job.getId());
+        verify(store, times(2)).retrieveTask(changedTask.getId());
+        verify(store, times(1)).retrieveTask(tasks.get(1).getId());
+        assertThat(replicator.takeSnapshotAndStop().get().getTasks()).containsOnlyElementsOf(updatedTasks);
+    }
+
+    @Test
+    public void testFailedStoreReadIsRetried() {
+        BatchJobTask task = tasks.get(0);
+        when(store.retrieveTask(task.getId())).thenReturn(Observable.error(new RuntimeException("simulated store error")));
+        replicator.onReplicatorEvent(newReplicatorEvent(testScheduler.now(), tasks));
+        replicator.syncWithStore();
+
+        when(store.retrieveTask(task.getId())).thenReturn(Observable.just(task));
+        replicator.syncWithStore();
+
+        verify(store, times(2)).retrieveTask(task.getId());
+        assertThat(replicator.takeSnapshotAndStop().get().getTasks()).contains(task);
+    }
+
+    @Test
+    public void testActivationReadsFewerRecordsThanColdBootstrap() {
+        long receiveTime = testScheduler.now();
+        replicator.onReplicatorEvent(newReplicatorEvent(receiveTime, tasks));
+        replicator.syncWithStore();
+        testScheduler.advanceTimeBy(1, TimeUnit.MINUTES);
+
+        // A single task was updated by the leader after the last standby store synchronization.
+        BatchJobTask changedTask = tasks.get(0).toBuilder().withResubmitNumber(3).build();
+        when(store.retrieveTask(changedTask.getId())).thenReturn(Observable.just(changedTask));
+        mockWriteTimestamps(receiveTime - 2 * SAFETY_MARGIN_MS, Collections.singletonList(Pair.of(changedTask.getId(), receiveTime + 1_000)));
+
+        Optional<JobSnapshotCheckpoint> loaded = loader.load();
+        assertThat(loaded).isPresent();
+        assertThat(loaded.get().getTasks()).containsOnlyElementsOf(replace(tasks, changedTask));
+
+        // A cold bootstrap reads the job and all TASK_COUNT tasks. The activation reads only the changed task (the
+        // other reads were done by the synchronization, while in the standby mode).
+        verify(store, never()).retrieveJobs();
+        verify(store, never()).retrieveTasksForJobs(any(), anyInt());
+        verify(store, times(1)).retrieveJob(job.getId());
+        verify(store, times(2)).retrieveTask(changedTask.getId());
+        tasks.subList(1, TASK_COUNT).forEach(task -> verify(store, times(1)).retrieveTask(task.getId()));
+    }
+
+    @Test
+    public void testStaleSnapshotIsIgnored() {
+        replicator.onReplicatorEvent(newReplicatorEvent(testScheduler.now(), tasks));
+        replicator.syncWithStore();
+        testScheduler.advanceTimeBy(MAX_AGE_MS + 1, TimeUnit.MILLISECONDS);
+
+        assertThat(loader.load()).isEmpty();
+        verify(store, never()).retrieveActiveJobWriteTimestamps();
+    }
+
+    /**
+     * Makes all records written at the given time, except the explicitly listed ones.
+     */
+    private void mockWriteTimestamps(long writeTime, List<Pair<String, Long>> taskOverrides) {
+        when(store.retrieveActiveJobWriteTimestamps()).thenReturn(Observable.just(Pair.of(job.getId(), writeTime)));
+        List<Pair<String, Long>> taskTimestamps = tasks.stream()
+                .map(task -> taskOverrides.stream()
+                        .filter(override -> override.getLeft().equals(task.getId()))
+                        .findFirst()
+                        .orElse(Pair.of(task.getId(), writeTime))
+                )
+                .collect(Collectors.toList());
+        when(store.retrieveActiveTaskWriteTimestamps()).thenReturn(Observable.from(taskTimestamps));
+    }
+
+    /**
+     * Creates an event with the job and tasks passed through the GRPC model, the same way as they are received by the replicator.
+     */
+    private ReplicatorEvent<JobSnapshot, JobManagerEvent<?>> newReplicatorEvent(long receiveTime, List<BatchJobTask> tasks) {
+        Job<?> replicatedJob = V3GrpcModelConverters.toCoreJob(V3GrpcModelConverters.toGrpcJob(job));
+        List<Task> replicatedTasks = tasks.stream()
+                .map(task -> V3GrpcModelConverters.toCoreTask(replicatedJob, V3GrpcModelConverters.toGrpcTask(task, EmptyLogStorageInfo.empty())))
+                .collect(Collectors.toList());
+        JobSnapshot snapshot = new JobSnapshot(
+                "test",
+                Collections.singletonMap(replicatedJob.getId(), replicatedJob),
+                Collections.singletonMap(replicatedJob.getId(), replicatedTasks)
+        );
+        return new ReplicatorEvent<>(snapshot, JobManagerEvent.snapshotMarker(), receiveTime);
+    }
+
+    private static List<BatchJobTask> replace(List<BatchJobTask> tasks, BatchJobTask replacement) {
+        return tasks.stream()
+                .map(task -> task.getId().equals(replacement.getId()) ? replacement : task)
+                .collect(Collectors.toList());
+    }
+
+    private static Job<BatchJobExt> newJob() {
+        JobStatus accepted = JobStatus.newBuilder().withState(JobState.Accepted).withReasonCode("test").withTimestamp(LEADER_TIME).build();
+        return JobGenerator.oneBatchJob().toBuilder()
+                .withStatus(accepted)
+                .withStatusHistory(Collections.emptyList())
+                .build();
+    }
+
+    private static List<BatchJobTask> newTasks(Job<BatchJobExt> job) {
+        List<TaskStatus> history = Collections.singletonList(
+                TaskStatus.newBuilder().withState(TaskState.Accepted).withReasonCode("test").withTimestamp(LEADER_TIME + 1_000).build()
+        );
+        TaskStatus launched = TaskStatus.newBuilder().withState(TaskState.Launched).withReasonCode("test").withTimestamp(LEADER_TIME + 2_000).build();
+        return JobGenerator.batchTasks(job).getValues(TASK_COUNT).stream()
+                .map(task -> task.toBuilder().withStatus(launched).withStatusHistory(history).build())
+                .collect(Collectors.toList());
+    }
+}
@@ -18,6 +18,7 @@ package com.netflix.titus.master.mesos;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import com.google.protobuf.InvalidProtocolBufferException;
@@ -88,11 +89,48 @@ public class DefaultV3TaskInfoFactoryTest {
         assertThat(containerInfo.getProcess().getCommandList()).containsExactly("some", "command");
     }
 
+    @Test
+    public void tasksOfTheSameJobGetTaskSpecificValues() throws InvalidProtocolBufferException {
+        DefaultV3TaskInfoFactory factory = new DefaultV3TaskInfoFactory(masterConfiguration, mock(MesosConfiguration.class));
+        Job<BatchJobExt> job = JobGenerator.batchJobs(JobDescriptorGenerator.oneTaskBatchJobDescriptor()).getValue();
+        List<BatchJobTask> tasks = JobGenerator.batchTasks(job).getValues(2);
+
+        TitanProtos.ContainerInfo first = TitanProtos.ContainerInfo.parseFrom(buildTaskInfo(factory, job, tasks.get(0)).getData());
+        TitanProtos.ContainerInfo second = TitanProtos.ContainerInfo.parseFrom(buildTaskInfo(factory, job, tasks.get(1)).getData());
+
+        assertThat(first.getTitusProvidedEnvMap()).containsEntry("TITUS_JOB_ID", job.getId()).containsEntry("TITUS_TASK_ID", tasks.get(0).getId());
+        assertThat(second.getTitusProvidedEnvMap()).containsEntry("TITUS_JOB_ID", job.getId()).containsEntry("TITUS_TASK_ID", tasks.get(1).getId());
+        assertThat(first.getNetworkConfigInfo().getSecurityGroupsList())
+                .isEqualTo(job.getJobDescriptor().getContainer().getSecurityProfile().getSecurityGroups())
+                .isEqualTo(second.getNetworkConfigInfo().getSecurityGroupsList());
+        assertThat(first.toBuilder().clearTitusProvidedEnv().build()).isEqualTo(second.toBuilder().clearTitusProvidedEnv().build());
+    }
+
+    @Test
+    public void jobDescriptorChangeIsAppliedToNextTasks() throws InvalidProtocolBufferException {
+        DefaultV3TaskInfoFactory factory = new DefaultV3TaskInfoFactory(masterConfiguration, mock(MesosConfiguration.class));
+        Job<BatchJobExt> job = JobGenerator.batchJobs(JobDescriptorGenerator.oneTaskBatchJobDescriptor()).getValue();
+        List<BatchJobTask> tasks = JobGenerator.batchTasks(job).getValues(2);
+        buildTaskInfo(factory, job, tasks.get(0));
+
+        JobDescriptor<BatchJobExt> jobDescriptor = job.getJobDescriptor();
+        Job<BatchJobExt> updatedJob = job.toBuilder().withJobDescriptor(jobDescriptor.toBuilder().withContainer(jobDescriptor.getContainer().toBuilder()
+                .withEntryPoint(Arrays.asList("updated", "entrypoint"))
+                .build()
+        ).build()).build();
+
+        TitanProtos.ContainerInfo containerInfo = TitanProtos.ContainerInfo.parseFrom(buildTaskInfo(factory, updatedJob, tasks.get(1)).getData());
+        assertThat(containerInfo.getEntrypointStr()).isEqualTo("updated entrypoint");
+    }
+
     private Protos.TaskInfo buildTaskInfo(DefaultV3TaskInfoFactory factory, JobDescriptor<BatchJobExt> jobDescriptor) {
         DataGenerator<Job<BatchJobExt>> jobs = JobGenerator.batchJobs(jobDescriptor);
         Job<BatchJobExt> job = jobs.getValue();
         DataGenerator<BatchJobTask> tasks = JobGenerator.batchTasks(job);
-        BatchJobTask task = tasks.getValue();
+        return buildTaskInfo(factory, job, tasks.getValue());
+    }
+
+    private Protos.TaskInfo buildTaskInfo(DefaultV3TaskInfoFactory factory, Job<BatchJobExt> job, BatchJobTask task) {
         V3ConstraintEvaluatorTransformer transformer = new V3ConstraintEvaluatorTransformer(masterConfiguration, new TaskCache(mock(V3JobOperations.class)));
 
         V3QueueableTask fenzoTask = new V3QueueableTask(Tier.Flex, null, job, task,
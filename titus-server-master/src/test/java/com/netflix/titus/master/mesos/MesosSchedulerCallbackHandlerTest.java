@@ -0,0 +1,144 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.master.mesos;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import com.netflix.titus.api.jobmanager.TaskAttributes;
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.JobFunctions;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.TaskState;
+import com.netflix.titus.api.jobmanager.model.job.TaskStatus;
+import com.netflix.titus.api.jobmanager.model.job.ext.BatchJobExt;
+import com.netflix.titus.api.jobmanager.service.V3JobOperations;
+import com.netflix.titus.common.runtime.TitusRuntime;
+import com.netflix.titus.common.runtime.TitusRuntimes;
+import com.netflix.titus.master.MetricConstants;
+import com.netflix.titus.master.config.MasterConfiguration;
+import com.netflix.titus.testkit.model.job.JobDescriptorGenerator;
+import com.netflix.titus.testkit.model.job.JobGenerator;
+import org.apache.mesos.Protos;
+import org.apache.mesos.SchedulerDriver;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import rx.Observer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MesosSchedulerCallbackHandlerTest {
+
+    private static final int CHUNK_SIZE = 2;
+
+    private final TitusRuntime titusRuntime = TitusRuntimes.test();
+
+    private final MasterConfiguration config = mock(MasterConfiguration.class);
+    private final MesosConfiguration mesosConfiguration = mock(MesosConfiguration.class);
+    private final V3JobOperations v3JobOperations = mock(V3JobOperations.class);
+    private final SchedulerDriver driver = mock(SchedulerDriver.class);
+
+    private final List<List<String>> reconciledChunks = new ArrayList<>();
+
+    private MesosSchedulerCallbackHandler handler;
+
+    @Before
+    public void setUp() {
+        when(mesosConfiguration.isReconcilerEnabled()).thenReturn(true);
+        when(mesosConfiguration.getReconcilerChunkSize()).thenReturn(CHUNK_SIZE);
+        when(mesosConfiguration.getReconcilerChunkTimeoutMs()).thenReturn(10_000L);
+        when(v3JobOperations.getTasks()).thenReturn(newStartedTasks(5));
+
+        this.handler = new MesosSchedulerCallbackHandler(
+                leases -> {
+                },
+                mock(Observer.class),
+                mock(Observer.class),
+                v3JobOperations,
+                Optional.empty(),
+                config,
+                mesosConfiguration,
+                titusRuntime
+        );
+    }
+
+    @After
+    public void tearDown() {
+        handler.shutdown();
+    }
+
+    @Test
+    public void testTasksAreReconciledInChunks() {
+        when(driver.reconcileTasks(anyCollection())).thenAnswer(invocation -> {
+            Collection<Protos.TaskStatus> chunk = invocation.getArgument(0);
+            recordChunk(chunk);
+            // Reply to the reconciliation request, as Mesos would do.
+            chunk.forEach(status -> handler.statusUpdate(driver, status.toBuilder()
+                    .setReason(Protos.TaskStatus.Reason.REASON_RECONCILIATION)
+                    .build()
+            ));
+            return Protos.Status.DRIVER_RUNNING;
+        });
+
+        handler.reconcileTasks(driver);
+
+        assertThat(reconciledChunks).extracting(List::size).containsExactly(2, 2, 1);
+        assertThat(chunkTimeouts()).isEqualTo(0);
+    }
+
+    @Test
+    public void testNextChunkIsSentAfterTimeout() {
+        when(mesosConfiguration.getReconcilerChunkTimeoutMs()).thenReturn(1L);
+        when(driver.reconcileTasks(anyCollection())).thenAnswer(invocation -> {
+            recordChunk(invocation.getArgument(0));
+            return Protos.Status.DRIVER_RUNNING;
+        });
+
+        handler.reconcileTasks(driver);
+
+        assertThat(reconciledChunks).extracting(List::size).containsExactly(2, 2, 1);
+        assertThat(chunkTimeouts()).isEqualTo(3);
+    }
+
+    private void recordChunk(Collection<Protos.TaskStatus> chunk) {
+        reconciledChunks.add(chunk.stream().map(status -> status.getTaskId().getValue()).collect(Collectors.toList()));
+    }
+
+    private long chunkTimeouts() {
+        return titusRuntime.getRegistry().counter(MetricConstants.METRIC_MESOS + "numReconcileChunkTimeouts").count();
+    }
+
+    private List<Task> newStartedTasks(int count) {
+        Job<BatchJobExt> job = JobGenerator.batchJobs(
+                JobDescriptorGenerator.oneTaskBatchJobDescriptor().but(JobFunctions.ofBatchSize(count))
+        ).getValue();
+        return JobGenerator.batchTasks(job).getValues(count).stream()
+                .map(task -> (Task) task.toBuilder()
+                        .withStatus(TaskStatus.newBuilder().withState(TaskState.Started).build())
+                        .addToTaskContext(TaskAttributes.TASK_ATTRIBUTES_AGENT_HOST, "host1")
+                        .build()
+                )
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.master.mesos;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import com.netflix.titus.api.jobmanager.model.job.BatchJobTask;
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.JobFunctions;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.TaskState;
+import com.netflix.titus.api.jobmanager.model.job.ext.BatchJobExt;
+import com.netflix.titus.api.jobmanager.service.V3JobOperations;
+import com.netflix.titus.api.jobmanager.service.V3JobOperations.Trigger;
+import com.netflix.titus.common.runtime.TitusRuntime;
+import com.netflix.titus.common.runtime.TitusRuntimes;
+import com.netflix.titus.common.util.tuple.Pair;
+import com.netflix.titus.master.VirtualMachineMasterService;
+import com.netflix.titus.testkit.model.job.JobDescriptorGenerator;
+import com.netflix.titus.testkit.model.job.JobGenerator;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import rx.Completable;
+import rx.schedulers.Schedulers;
+import rx.schedulers.TestScheduler;
+import rx.subjects.PublishSubject;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class WorkerStateMonitorTest {
+
+    private static final long BATCH_WINDOW_MS = 100;
+
+    private final TestScheduler testScheduler = Schedulers.test();
+    private final TitusRuntime titusRuntime = TitusRuntimes.test(testScheduler);
+
+    private final MesosConfiguration configuration = mock(MesosConfiguration.class);
+    private final VirtualMachineMasterService vmService = mock(VirtualMachineMasterService.class);
+    private final V3JobOperations v3JobOperations = mock(V3JobOperations.class);
+
+    private final PublishSubject<ContainerEvent> taskStatusSubject = PublishSubject.create();
+
+    private final Job<BatchJobExt> job = JobGenerator.batchJobs(
+            JobDescriptorGenerator.oneTaskBatchJobDescriptor().but(JobFunctions.ofBatchSize(2))
+    ).getValue();
+    private final List<BatchJobTask> tasks = JobGenerator.batchTasks(job).getValues(2);
+
+    @Before
+    public void setUp() {
+        when(configuration.getStatusUpdateBatchWindowMs()).thenReturn(BATCH_WINDOW_MS);
+        when(configuration.getStatusUpdateMaxBatchSize()).thenReturn(1000);
+        when(vmService.getTaskStatusObservable()).thenReturn(taskStatusSubject);
+
+        when(v3JobOperations.findTaskById(anyString())).thenReturn(Optional.empty());
+        for (Task task : tasks) {
+            when(v3JobOperations.findTaskById(task.getId())).thenReturn(Optional.of(Pair.of(job, task)));
+        }
+        when(v3JobOperations.updateTask(anyString(), any(), any(), anyString())).thenReturn(Completable.complete());
+        when(v3JobOperations.updateTasks(anyString(), any(), any(), anyString())).thenReturn(Completable.complete());
+
+        new WorkerStateMonitor(vmService, v3JobOperations, configuration, titusRuntime, testScheduler);
+    }
+
+    @Test
+    public void testUpdatesOfJobTasksAreAppliedInBatch() {
+        Task task1 = tasks.get(0);
+        Task task2 = tasks.get(1);
+
+        taskStatusSubject.onNext(newEvent(task1, TaskState.Launched));
+        taskStatusSubject.onNext(newEvent(task2, TaskState.Launched));
+        taskStatusSubject.onNext(newEvent(task1, TaskState.StartInitiated));
+        testScheduler.advanceTimeBy(BATCH_WINDOW_MS, TimeUnit.MILLISECONDS);
+
+        ArgumentCaptor<Map<String, Function<Task, Optional<Task>>>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(v3JobOperations).updateTasks(eq(job.getId()), captor.capture(), eq(Trigger.Mesos), anyString());
+        verify(v3JobOperations, never()).updateTask(anyString(), any(), any(), anyString());
+
+        Map<String, Function<Task, Optional<Task>>> updaters = captor.getValue();
+        assertThat(updaters).containsOnlyKeys(task1.getId(), task2.getId());
+        assertThat(updaters.get(task1.getId()).apply(task1).get().getStatus().getState()).isEqualTo(TaskState.StartInitiated);
+        assertThat(updaters.get(task2.getId()).apply(task2).get().getStatus().getState()).isEqualTo(TaskState.Launched);
+    }
+
+    @Test
+    public void testSingleTaskUpdateIsAppliedDirectly() {
+        Task task1 = tasks.get(0);
+
+        taskStatusSubject.onNext(newEvent(task1, TaskState.Launched));
+        testScheduler.advanceTimeBy(BATCH_WINDOW_MS, TimeUnit.MILLISECONDS);
+
+        verify(v3JobOperations).updateTask(eq(task1.getId()), any(), eq(Trigger.Mesos), anyString());
+        verify(v3JobOperations, never()).updateTasks(anyString(), any(), any(), anyString());
+    }
+
+    @Test
+    public void testUnknownTaskIsKilled() {
+        taskStatusSubject.onNext(new V3ContainerEvent("unknownTask", TaskState.Started, "normal", "test", 0, Optional.empty()));
+        testScheduler.advanceTimeBy(BATCH_WINDOW_MS, TimeUnit.MILLISECONDS);
+
+        verify(vmService).killTask("unknownTask");
+    }
+
+    private V3ContainerEvent newEvent(Task task, TaskState taskState) {
+        return new V3ContainerEvent(task.getId(), taskState, "normal", "test", testScheduler.now(), Optional.empty());
+    }
+}
@@ -25,6 +25,7 @@ import java.util.UUID;
 import java.util.concurrent.atomic.AtomicReference;
 
 import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.JobModelInterner;
 import com.netflix.titus.api.jobmanager.model.job.Task;
 import com.netflix.titus.api.jobmanager.model.job.event.JobManagerEvent;
 import com.netflix.titus.api.jobmanager.model.job.event.JobUpdateEvent;
@@ -50,7 +51,10 @@ public class GrpcJobReplicatorEventStream extends AbstractReplicatorEventStream<
 
     private static final Logger logger = LoggerFactory.getLogger(GrpcJobReplicatorEventStream.class);
 
+    private static final String METRIC_ROOT = "titus.dataReplicator.jobs";
+
     private final JobManagementClient client;
+    private final JobModelInterner interner;
 
     public GrpcJobReplicatorEventStream(JobManagementClient client,
                                         DataReplicatorMetrics metrics,
@@ -58,6 +62,7 @@ public class GrpcJobReplicatorEventStream extends AbstractReplicatorEventStream<
                                         Scheduler scheduler) {
         super(metrics, titusRuntime, scheduler);
         this.client = client;
+        this.interner = new JobModelInterner(METRIC_ROOT, titusRuntime.getRegistry());
     }
 
     @Override
@@ -111,13 +116,13 @@ public class GrpcJobReplicatorEventStream extends AbstractReplicatorEventStream<
                 switch (event.getNotificationCase()) {
                     case JOBUPDATE:
                         com.netflix.titus.grpc.protogen.Job job = event.getJobUpdate().getJob();
-                        jobsById.put(job.getId(), V3GrpcModelConverters.toCoreJob(job));
+                        jobsById.put(job.getId(), V3GrpcModelConverters.toCoreJob(job, interner));
                         break;
                     case TASKUPDATE:
                         com.netflix.titus.grpc.protogen.Task task = event.getTaskUpdate().getTask();
                         Job<?> taskJob = jobsById.get(task.getJobId());
                         if (taskJob != null) {
-                            tasksByJobId.computeIfAbsent(task.getJobId(), j -> new ArrayList<>()).add(V3GrpcModelConverters.toCoreTask(taskJob, task));
+                            tasksByJobId.computeIfAbsent(task.getJobId(), j -> new ArrayList<>()).add(V3GrpcModelConverters.toCoreTask(taskJob, task, interner));
                         } else {
                             titusRuntime.getCodeInvariants().inconsistent("Job record not found: jobId=%s, taskId=%s", task.getJobId(), task.getId());
                         }
@@ -144,7 +149,7 @@ public class GrpcJobReplicatorEventStream extends AbstractReplicatorEventStream<
 
             switch (event.getNotificationCase()) {
                 case JOBUPDATE:
-                    Job job = V3GrpcModelConverters.toCoreJob(event.getJobUpdate().getJob());
+                    Job job = V3GrpcModelConverters.toCoreJob(event.getJobUpdate().getJob(), interner);
                     newSnapshot = lastSnapshot.updateJob(job);
                     coreEvent = toJobCoreEvent(job);
                     break;
@@ -152,7 +157,7 @@ public class GrpcJobReplicatorEventStream extends AbstractReplicatorEventStream<
                     com.netflix.titus.grpc.protogen.Task task = event.getTaskUpdate().getTask();
                     Job<?> taskJob = lastSnapshot.getJobs().stream().filter(j -> j.getId().equals(task.getJobId())).findFirst().orElse(null);
                     if (taskJob != null) {
-                        Task coreTask = V3GrpcModelConverters.toCoreTask(taskJob, task);
+                        Task coreTask = V3GrpcModelConverters.toCoreTask(taskJob, task, interner);
                         newSnapshot = lastSnapshot.updateTask(coreTask);
                         coreEvent = toTaskCoreEvent(taskJob, coreTask);
                     } else {
@@ -45,6 +45,7 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.deser.Deserializers;
 import com.fasterxml.jackson.databind.module.SimpleDeserializers;
 import com.google.protobuf.Message;
+import com.netflix.titus.api.json.FieldsFilterWriterCache;
 import com.netflix.titus.api.json.ObjectMappers;
 import com.netflix.titus.common.util.StringExt;
 import com.netflix.titus.runtime.common.json.AssignableFromDeserializers;
@@ -68,8 +69,15 @@ public class JsonMessageReaderWriter implements MessageBodyReader<Object>, Messa
      */
     static final String FIELDS_PARAM = "fields";
 
+    /**
+     * Maximum number of distinct 'fields' projections with a cached writer.
+     */
+    private static final int MAX_FIELDS_FILTER_WRITERS = 256;
+
     private static final ObjectMapper MAPPER = createObjectMapper();
 
+    private static final FieldsFilterWriterCache FIELDS_FILTER_WRITERS = new FieldsFilterWriterCache(MAPPER, MAX_FIELDS_FILTER_WRITERS);
+
     private static final ObjectWriter COMPACT_ERROR_WRITER = MAPPER.writer().withView(ObjectMappers.PublicView.class);
 
     private static final Validator VALIDATION = Validation.buildDefaultValidatorFactory().getValidator();
@@ -160,7 +168,7 @@ public class JsonMessageReaderWriter implements MessageBodyReader<Object>, Messa
         if (fields.isEmpty()) {
             MAPPER.writeValue(entityStream, entity);
         } else {
-            ObjectMappers.applyFieldsFilter(MAPPER, fields).writeValue(entityStream, entity);
+            FIELDS_FILTER_WRITERS.getWriter(fields).writeValue(entityStream, entity);
         }
     }
 }
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.runtime.endpoint.v3.grpc;
+
+import com.netflix.spectator.api.Registry;
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.JobDescriptor;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.event.JobManagerEvent;
+import com.netflix.titus.api.jobmanager.model.job.event.JobUpdateEvent;
+import com.netflix.titus.api.jobmanager.model.job.event.TaskUpdateEvent;
+import com.netflix.titus.common.util.cache.Cache;
+import com.netflix.titus.common.util.cache.Caches;
+import com.netflix.titus.grpc.protogen.JobChangeNotification;
+import com.netflix.titus.runtime.endpoint.common.LogStorageInfo;
+
+/**
+ * Memoizes the core to GRPC model conversion of jobs and tasks. The core entities are immutable, so each instance
+ * needs to be converted at most once. The caches hold their keys weakly and compare them by identity, so an entry
+ * is released together with the core entity version it was created from. Job descriptors are memoized separately,
+ * as a job descriptor instance is shared by all versions of a job that differ only in the job state.
+ * <p>
+ * Hit/miss counters are exported under the '&lt;metricRoot&gt;.jobs', '&lt;metricRoot&gt;.jobDescriptors' and
+ * '&lt;metricRoot&gt;.tasks' roots (see {@link Caches}).
+ */
+public class GrpcModelConversionCache {
+
+    private final LogStorageInfo<Task> logStorageInfo;
+
+    private final Cache<JobDescriptor<?>, com.netflix.titus.grpc.protogen.JobDescriptor> jobDescriptors;
+    private final Cache<Job<?>, com.netflix.titus.grpc.protogen.Job> jobs;
+    private final Cache<Task, com.netflix.titus.grpc.protogen.Task> tasks;
+
+    public GrpcModelConversionCache(LogStorageInfo<Task> logStorageInfo,
+                                    long maxJobs,
+                                    long maxTasks,
+                                    String metricRoot,
+                                    Registry registry) {
+        this.logStorageInfo = logStorageInfo;
+        this.jobDescriptors = Caches.instrumentedIdentityCacheWithMaxSize(maxJobs, metricRoot + ".jobDescriptors", registry);
+        this.jobs = Caches.instrumentedIdentityCacheWithMaxSize(maxJobs, metricRoot + ".jobs", registry);
+        this.tasks = Caches.instrumentedIdentityCacheWithMaxSize(maxTasks, metricRoot + ".tasks", registry);
+    }
+
+    public void shutdown() {
+        jobDescriptors.shutdown();
+        jobs.shutdown();
+        tasks.shutdown();
+    }
+
+    public com.netflix.titus.grpc.protogen.Job toGrpcJob(Job<?> coreJob) {
+        return jobs.get(coreJob, job -> V3GrpcModelConverters.toGrpcJob(
+                job,
+                jobDescriptors.get(job.getJobDescriptor(), V3GrpcModelConverters::toGrpcJobDescriptor)
+        ));
+    }
+
+    public com.netflix.titus.grpc.protogen.Task toGrpcTask(Task coreTask) {
+        return tasks.get(coreTask, task -> V3GrpcModelConverters.toGrpcTask(task, logStorageInfo));
+    }
+
+    public JobChangeNotification toGrpcJobChangeNotification(JobManagerEvent<?> event) {
+        if (event instanceof JobUpdateEvent) {
+            JobUpdateEvent jobUpdateEvent = (JobUpdateEvent) event;
+            return JobChangeNotification.newBuilder()
+                    .setJobUpdate(JobChangeNotification.JobUpdate.newBuilder().setJob(toGrpcJob(jobUpdateEvent.getCurrent())))
+                    .build();
+        }
+
+        TaskUpdateEvent taskUpdateEvent = (TaskUpdateEvent) event;
+        return JobChangeNotification.newBuilder()
+                .setTaskUpdate(JobChangeNotification.TaskUpdate.newBuilder().setTask(toGrpcTask(taskUpdateEvent.getCurrent())))
+                .build();
+    }
+}
@@ -20,10 +20,12 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import com.google.common.base.Preconditions;
+import com.google.protobuf.Descriptors.FieldDescriptor;
 import com.netflix.titus.api.jobmanager.model.job.BatchJobTask;
 import com.netflix.titus.api.jobmanager.model.job.Container;
 import com.netflix.titus.api.jobmanager.model.job.ContainerResources;
@@ -32,6 +34,7 @@ import com.netflix.titus.api.jobmanager.model.job.Job;
 import com.netflix.titus.api.jobmanager.model.job.JobDescriptor;
 import com.netflix.titus.api.jobmanager.model.job.JobGroupInfo;
 import com.netflix.titus.api.jobmanager.model.job.JobModel;
+import com.netflix.titus.api.jobmanager.model.job.JobModelInterner;
 import com.netflix.titus.api.jobmanager.model.job.JobState;
 import com.netflix.titus.api.jobmanager.model.job.JobStatus;
 import com.netflix.titus.api.jobmanager.model.job.Owner;
@@ -68,6 +71,7 @@ import com.netflix.titus.api.jobmanager.model.job.retry.ExponentialBackoffRetryP
 import com.netflix.titus.api.jobmanager.model.job.retry.ImmediateRetryPolicy;
 import com.netflix.titus.api.jobmanager.model.job.retry.RetryPolicy;
 import com.netflix.titus.api.model.EfsMount;
+import com.netflix.titus.common.util.ProtobufFieldMask;
 import com.netflix.titus.common.util.StringExt;
 import com.netflix.titus.grpc.protogen.BatchJobSpec;
 import com.netflix.titus.grpc.protogen.Capacity;
@@ -101,6 +105,19 @@ import static com.netflix.titus.grpc.protogen.Day.Wednesday;
 
 public final class V3GrpcModelConverters {
 
+    private static final FieldDescriptor JOB_ID_FIELD = jobField("id");
+    private static final FieldDescriptor JOB_DESCRIPTOR_FIELD = jobField("jobDescriptor");
+    private static final FieldDescriptor JOB_STATUS_FIELD = jobField("status");
+    private static final FieldDescriptor JOB_STATUS_HISTORY_FIELD = jobField("statusHistory");
+
+    private static final FieldDescriptor TASK_ID_FIELD = taskField("id");
+    private static final FieldDescriptor TASK_JOB_ID_FIELD = taskField("jobId");
+    private static final FieldDescriptor TASK_STATUS_FIELD = taskField("status");
+    private static final FieldDescriptor TASK_STATUS_HISTORY_FIELD = taskField("statusHistory");
+    private static final FieldDescriptor TASK_CONTEXT_FIELD = taskField("taskContext");
+    private static final FieldDescriptor TASK_LOG_LOCATION_FIELD = taskField("logLocation");
+    private static final FieldDescriptor TASK_MIGRATION_DETAILS_FIELD = taskField("migrationDetails");
+
     private V3GrpcModelConverters() {
     }
 
@@ -112,6 +129,13 @@ public final class V3GrpcModelConverters {
                 .build();
     }
 
+    /**
+     * Converts a GRPC job to the core model, replacing its strings and immutable sub-objects with canonical instances.
+     */
+    public static Job toCoreJob(com.netflix.titus.grpc.protogen.Job grpcJob, JobModelInterner interner) {
+        return interner.intern(toCoreJob(grpcJob));
+    }
+
     public static JobStatus toCoreJobStatus(com.netflix.titus.grpc.protogen.JobStatus grpcJobStatus) {
         return JobModel.newJobStatus()
                 .withState(toCoreJobState(grpcJobStatus.getState()))
@@ -433,6 +457,13 @@ public final class V3GrpcModelConverters {
         return builder.build();
     }
 
+    /**
+     * Converts a GRPC task to the core model, replacing its strings with canonical instances.
+     */
+    public static Task toCoreTask(Job<?> job, com.netflix.titus.grpc.protogen.Task grpcTask, JobModelInterner interner) {
+        return interner.intern(toCoreTask(job, grpcTask));
+    }
+
     /**
      * We do not expose the {@link TwoLevelResource} data outside Titus, so we try to reconstruct this information
      * from the GRPC model.
@@ -817,32 +848,29 @@ public final class V3GrpcModelConverters {
     }
 
     public static com.netflix.titus.grpc.protogen.Job toGrpcJob(Job<?> coreJob) {
+        return toGrpcJob(coreJob, toGrpcJobDescriptor(coreJob.getJobDescriptor()));
+    }
+
+    /**
+     * Converts a core job, with its job descriptor already converted (a job descriptor is shared by job versions
+     * that differ only in the job state).
+     */
+    public static com.netflix.titus.grpc.protogen.Job toGrpcJob(Job<?> coreJob, com.netflix.titus.grpc.protogen.JobDescriptor grpcJobDescriptor) {
         return com.netflix.titus.grpc.protogen.Job.newBuilder()
                 .setId(coreJob.getId())
-                .setJobDescriptor(toGrpcJobDescriptor(coreJob.getJobDescriptor()))
+                .setJobDescriptor(grpcJobDescriptor)
                 .setStatus(toGrpcJobStatus(coreJob.getStatus()))
                 .addAllStatusHistory(toGrpcJobStatusHistory(coreJob.getStatusHistory()))
                 .build();
     }
 
     public static com.netflix.titus.grpc.protogen.Task toGrpcTask(Task coreTask, LogStorageInfo<Task> logStorageInfo) {
-        Map<String, String> taskContext = new HashMap<>(coreTask.getTaskContext());
-        taskContext.put(TASK_ATTRIBUTES_TASK_ORIGINAL_ID, coreTask.getOriginalId());
-        taskContext.put(TASK_ATTRIBUTES_RESUBMIT_NUMBER, Integer.toString(coreTask.getResubmitNumber()));
-        taskContext.put(TASK_ATTRIBUTES_SYSTEM_RESUBMIT_NUMBER, Integer.toString(coreTask.getSystemResubmitNumber()));
-        coreTask.getResubmitOf().ifPresent(resubmitOf -> taskContext.put(TASK_ATTRIBUTES_TASK_RESUBMIT_OF, resubmitOf));
-
-        if (coreTask instanceof BatchJobTask) {
-            BatchJobTask batchTask = (BatchJobTask) coreTask;
-            taskContext.put(TASK_ATTRIBUTES_TASK_INDEX, Integer.toString(batchTask.getIndex()));
-        }
-
         com.netflix.titus.grpc.protogen.Task.Builder taskBuilder = com.netflix.titus.grpc.protogen.Task.newBuilder()
                 .setId(coreTask.getId())
                 .setJobId(coreTask.getJobId())
                 .setStatus(toGrpcTaskStatus(coreTask.getStatus()))
                 .addAllStatusHistory(toGrpcTaskStatusHistory(coreTask.getStatusHistory()))
-                .putAllTaskContext(taskContext)
+                .putAllTaskContext(toGrpcTaskContext(coreTask))
                 .setLogLocation(toGrpcLogLocation(coreTask, logStorageInfo));
 
         if (coreTask instanceof ServiceJobTask) {
@@ -853,6 +881,81 @@ public final class V3GrpcModelConverters {
         return taskBuilder.build();
     }
 
+    /**
+     * Converts a core job into its GRPC counterpart, with only the fields included in the mask. Fields not in the
+     * mask are not converted at all, so this is much cheaper than the full conversion followed by {@link ProtobufFieldMask#apply}.
+     */
+    public static com.netflix.titus.grpc.protogen.Job toGrpcJob(Job<?> coreJob, ProtobufFieldMask mask) {
+        com.netflix.titus.grpc.protogen.Job.Builder jobBuilder = com.netflix.titus.grpc.protogen.Job.newBuilder();
+        if (mask.includes(JOB_ID_FIELD)) {
+            jobBuilder.setId(coreJob.getId());
+        }
+        if (mask.includes(JOB_DESCRIPTOR_FIELD)) {
+            jobBuilder.setJobDescriptor(mask.applyNested(JOB_DESCRIPTOR_FIELD, toGrpcJobDescriptor(coreJob.getJobDescriptor())));
+        }
+        if (mask.includes(JOB_STATUS_FIELD)) {
+            jobBuilder.setStatus(mask.applyNested(JOB_STATUS_FIELD, toGrpcJobStatus(coreJob.getStatus())));
+        }
+        if (mask.includes(JOB_STATUS_HISTORY_FIELD)) {
+            toGrpcJobStatusHistory(coreJob.getStatusHistory()).forEach(status ->
+                    jobBuilder.addStatusHistory(mask.applyNested(JOB_STATUS_HISTORY_FIELD, status))
+            );
+        }
+        return jobBuilder.build();
+    }
+
+    /**
+     * Converts a core task into its GRPC counterpart, with only the fields included in the mask.
+     * See {@link #toGrpcJob(Job, ProtobufFieldMask)}.
+     */
+    public static com.netflix.titus.grpc.protogen.Task toGrpcTask(Task coreTask, LogStorageInfo<Task> logStorageInfo, ProtobufFieldMask mask) {
+        com.netflix.titus.grpc.protogen.Task.Builder taskBuilder = com.netflix.titus.grpc.protogen.Task.newBuilder();
+        if (mask.includes(TASK_ID_FIELD)) {
+            taskBuilder.setId(coreTask.getId());
+        }
+        if (mask.includes(TASK_JOB_ID_FIELD)) {
+            taskBuilder.setJobId(coreTask.getJobId());
+        }
+        if (mask.includes(TASK_STATUS_FIELD)) {
+            taskBuilder.setStatus(mask.applyNested(TASK_STATUS_FIELD, toGrpcTaskStatus(coreTask.getStatus())));
+        }
+        if (mask.includes(TASK_STATUS_HISTORY_FIELD)) {
+            toGrpcTaskStatusHistory(coreTask.getStatusHistory()).forEach(status ->
+                    taskBuilder.addStatusHistory(mask.applyNested(TASK_STATUS_HISTORY_FIELD, status))
+            );
+        }
+        if (mask.includes(TASK_CONTEXT_FIELD)) {
+            Map<String, String> taskContext = toGrpcTaskContext(coreTask);
+            Optional<ProtobufFieldMask> contextMask = mask.getNestedMask(TASK_CONTEXT_FIELD);
+            if (contextMask.isPresent()) {
+                taskContext.keySet().removeIf(key -> !contextMask.get().includes(key));
+            }
+            taskBuilder.putAllTaskContext(taskContext);
+        }
+        if (mask.includes(TASK_LOG_LOCATION_FIELD)) {
+            taskBuilder.setLogLocation(mask.applyNested(TASK_LOG_LOCATION_FIELD, toGrpcLogLocation(coreTask, logStorageInfo)));
+        }
+        if (mask.includes(TASK_MIGRATION_DETAILS_FIELD) && coreTask instanceof ServiceJobTask) {
+            ServiceJobTask serviceTask = (ServiceJobTask) coreTask;
+            taskBuilder.setMigrationDetails(mask.applyNested(TASK_MIGRATION_DETAILS_FIELD, toGrpcMigrationDetails(serviceTask.getMigrationDetails())));
+        }
+        return taskBuilder.build();
+    }
+
+    private static Map<String, String> toGrpcTaskContext(Task coreTask) {
+        Map<String, String> taskContext = new HashMap<>(coreTask.getTaskContext());
+        taskContext.put(TASK_ATTRIBUTES_TASK_ORIGINAL_ID, coreTask.getOriginalId());
+        taskContext.put(TASK_ATTRIBUTES_RESUBMIT_NUMBER, Integer.toString(coreTask.getResubmitNumber()));
+        taskContext.put(TASK_ATTRIBUTES_SYSTEM_RESUBMIT_NUMBER, Integer.toString(coreTask.getSystemResubmitNumber()));
+        coreTask.getResubmitOf().ifPresent(resubmitOf -> taskContext.put(TASK_ATTRIBUTES_TASK_RESUBMIT_OF, resubmitOf));
+
+        if (coreTask instanceof BatchJobTask) {
+            BatchJobTask batchTask = (BatchJobTask) coreTask;
+            taskContext.put(TASK_ATTRIBUTES_TASK_INDEX, Integer.toString(batchTask.getIndex()));
+        }
+        return taskContext;
+    }
+
     public static <TASK> LogLocation toGrpcLogLocation(TASK task, LogStorageInfo<TASK> logStorageInfo) {
         LogLocation.Builder logLocationBuilder = LogLocation.newBuilder();
 
@@ -901,4 +1004,12 @@ public final class V3GrpcModelConverters {
                 )
                 .build();
     }
+
+    private static FieldDescriptor jobField(String name) {
+        return Preconditions.checkNotNull(com.netflix.titus.grpc.protogen.Job.getDescriptor().findFieldByName(name), "Unknown job field %s", name);
+    }
+
+    private static FieldDescriptor taskField(String name) {
+        return Preconditions.checkNotNull(com.netflix.titus.grpc.protogen.Task.getDescriptor().findFieldByName(name), "Unknown task field %s", name);
+    }
 }
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.runtime.endpoint.v3.grpc;
+
+import com.netflix.spectator.api.DefaultRegistry;
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.JobFunctions;
+import com.netflix.titus.api.jobmanager.model.job.JobState;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.ext.BatchJobExt;
+import com.netflix.titus.runtime.endpoint.common.EmptyLogStorageInfo;
+import com.netflix.titus.testkit.model.job.JobGenerator;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GrpcModelConversionCacheTest {
+
+    private final GrpcModelConversionCache cache = new GrpcModelConversionCache(
+            EmptyLogStorageInfo.empty(), 100, 100, "test", new DefaultRegistry()
+    );
+
+    @After
+    public void tearDown() {
+        cache.shutdown();
+    }
+
+    @Test
+    public void testJobIsConvertedOnce() {
+        Job<BatchJobExt> job = JobGenerator.oneBatchJob();
+
+        com.netflix.titus.grpc.protogen.Job grpcJob = cache.toGrpcJob(job);
+        assertThat(grpcJob).isEqualTo(V3GrpcModelConverters.toGrpcJob(job));
+        assertThat(cache.toGrpcJob(job)).isSameAs(grpcJob);
+    }
+
+    @Test
+    public void testJobDescriptorIsSharedBetweenJobVersions() {
+        Job<BatchJobExt> job = JobGenerator.oneBatchJob();
+        Job<?> updatedJob = JobFunctions.changeJobStatus(job, JobState.KillInitiated, "test");
+
+        com.netflix.titus.grpc.protogen.Job grpcJob = cache.toGrpcJob(job);
+        com.netflix.titus.grpc.protogen.Job grpcUpdatedJob = cache.toGrpcJob(updatedJob);
+
+        assertThat(grpcUpdatedJob).isNotSameAs(grpcJob);
+        assertThat(grpcUpdatedJob.getStatus().getState()).isEqualTo(com.netflix.titus.grpc.protogen.JobStatus.JobState.KillInitiated);
+        assertThat(grpcUpdatedJob.getJobDescriptor()).isSameAs(grpcJob.getJobDescriptor());
+    }
+
+    @Test
+    public void testTaskIsConvertedOnce() {
+        Task task = JobGenerator.oneBatchTask();
+
+        com.netflix.titus.grpc.protogen.Task grpcTask = cache.toGrpcTask(task);
+        assertThat(grpcTask).isEqualTo(V3GrpcModelConverters.toGrpcTask(task, EmptyLogStorageInfo.empty()));
+        assertThat(cache.toGrpcTask(task)).isSameAs(grpcTask);
+        assertThat(cache.toGrpcTask(task.toBuilder().build())).isNotSameAs(grpcTask);
+    }
+}
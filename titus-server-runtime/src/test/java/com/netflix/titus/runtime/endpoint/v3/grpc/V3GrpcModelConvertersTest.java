@@ -0,0 +1,124 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.runtime.endpoint.v3.grpc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.JobFunctions;
+import com.netflix.titus.api.jobmanager.model.job.JobState;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.TaskState;
+import com.netflix.titus.api.jobmanager.model.job.ext.ServiceJobExt;
+import com.netflix.titus.common.util.ProtobufCopy;
+import com.netflix.titus.common.util.ProtobufFieldMask;
+import com.netflix.titus.runtime.endpoint.common.EmptyLogStorageInfo;
+import com.netflix.titus.testkit.model.job.JobDescriptorGenerator;
+import com.netflix.titus.testkit.model.job.JobGenerator;
+import org.junit.Test;
+
+import static com.netflix.titus.api.jobmanager.TaskAttributes.TASK_ATTRIBUTES_RESUBMIT_NUMBER;
+import static com.netflix.titus.api.jobmanager.TaskAttributes.TASK_ATTRIBUTES_TASK_INDEX;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The masked converters build only the fields included in a mask, with their own field lists. These tests check
+ * that they produce the same result as the full conversion filtered with {@link ProtobufCopy}, for each top level
+ * field of the GRPC model, so a field added to the model but not to the masked converter is detected.
+ */
+public class V3GrpcModelConvertersTest {
+
+    private static final List<String> NESTED_JOB_FIELDS = Arrays.asList(
+            "jobDescriptor.owner",
+            "jobDescriptor.container.resources",
+            "status.state",
+            "statusHistory.state",
+            "id,status.reasonCode"
+    );
+
+    private static final List<String> NESTED_TASK_FIELDS = Arrays.asList(
+            "status.state",
+            "statusHistory.state",
+            "taskContext." + TASK_ATTRIBUTES_RESUBMIT_NUMBER,
+            "taskContext." + TASK_ATTRIBUTES_TASK_INDEX,
+            "logLocation.ui",
+            "migrationDetails.needsMigration",
+            "id,jobId,status.reasonCode"
+    );
+
+    private final Job<?> job = JobFunctions.changeJobStatus(JobGenerator.oneBatchJob(), JobState.KillInitiated, "test");
+
+    private final Job<ServiceJobExt> serviceJob = JobGenerator.serviceJobs(JobDescriptorGenerator.oneTaskServiceJobDescriptor()).getValue();
+
+    private final List<Task> tasks = Arrays.asList(
+            JobFunctions.changeTaskStatus(JobGenerator.oneBatchTask(), TaskState.Launched, "test", "test"),
+            JobFunctions.changeTaskStatus(JobGenerator.serviceTasks(serviceJob).getValue(), TaskState.Launched, "test", "test")
+    );
+
+    @Test
+    public void testMaskedJobConversion() {
+        for (List<String> fields : masksOf(com.netflix.titus.grpc.protogen.Job.getDescriptor().getFields(), NESTED_JOB_FIELDS)) {
+            ProtobufFieldMask mask = ProtobufFieldMask.compile(fields);
+            assertThat(V3GrpcModelConverters.toGrpcJob(job, mask))
+                    .describedAs("Job fields %s", fields)
+                    .isEqualTo(ProtobufCopy.copy(V3GrpcModelConverters.toGrpcJob(job), new HashSet<>(fields)));
+        }
+    }
+
+    @Test
+    public void testMaskedTaskConversion() {
+        for (Task task : tasks) {
+            for (List<String> fields : masksOf(com.netflix.titus.grpc.protogen.Task.getDescriptor().getFields(), NESTED_TASK_FIELDS)) {
+                ProtobufFieldMask mask = ProtobufFieldMask.compile(fields);
+                assertThat(V3GrpcModelConverters.toGrpcTask(task, EmptyLogStorageInfo.empty(), mask))
+                        .describedAs("Task %s fields %s", task.getId(), fields)
+                        .isEqualTo(ProtobufCopy.copy(V3GrpcModelConverters.toGrpcTask(task, EmptyLogStorageInfo.empty()), new HashSet<>(fields)));
+            }
+        }
+    }
+
+    @Test
+    public void testTaskContextKeysWithDotsAreSelectable() {
+        Task batchTask = tasks.get(0);
+        ProtobufFieldMask mask = ProtobufFieldMask.compile(Collections.singletonList("taskContext." + TASK_ATTRIBUTES_TASK_INDEX));
+        assertThat(V3GrpcModelConverters.toGrpcTask(batchTask, EmptyLogStorageInfo.empty(), mask).getTaskContextMap())
+                .containsOnlyKeys(TASK_ATTRIBUTES_TASK_INDEX);
+    }
+
+    /**
+     * Returns masks with each top level field alone, all top level fields, the given nested paths, and an empty mask.
+     */
+    private static List<List<String>> masksOf(List<FieldDescriptor> topLevelFields, List<String> nestedFields) {
+        List<List<String>> masks = new ArrayList<>();
+        List<String> allFields = new ArrayList<>();
+        for (FieldDescriptor field : topLevelFields) {
+            masks.add(Collections.singletonList(field.getName()));
+            allFields.add(field.getName());
+        }
+        masks.add(allFields);
+        for (String nested : nestedFields) {
+            masks.add(Arrays.asList(nested.split(",")));
+        }
+        masks.add(Collections.singletonList(""));
+        return masks;
+    }
+}
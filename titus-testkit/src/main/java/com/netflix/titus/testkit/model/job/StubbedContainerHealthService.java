@@ -43,6 +43,6 @@ class StubbedContainerHealthService implements ContainerHealthService {
 
     @Override
     public Flux<ContainerHealthEvent> events(boolean snapshot) {
-        return null;
+        return stubbedJobData.healthEvents();
     }
 }
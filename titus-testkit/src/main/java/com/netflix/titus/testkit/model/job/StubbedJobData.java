@@ -32,6 +32,7 @@ import java.util.stream.Collectors;
 import com.google.common.base.Preconditions;
 import com.netflix.titus.api.containerhealth.model.ContainerHealthState;
 import com.netflix.titus.api.containerhealth.model.ContainerHealthStatus;
+import com.netflix.titus.api.containerhealth.model.event.ContainerHealthEvent;
 import com.netflix.titus.api.jobmanager.TaskAttributes;
 import com.netflix.titus.api.jobmanager.model.job.BatchJobTask;
 import com.netflix.titus.api.jobmanager.model.job.Capacity;
@@ -54,6 +55,8 @@ import com.netflix.titus.common.data.generator.MutableDataGenerator;
 import com.netflix.titus.common.runtime.TitusRuntime;
 import com.netflix.titus.common.util.CollectionsExt;
 import com.netflix.titus.common.util.rx.ObservableExt;
+import reactor.core.publisher.DirectProcessor;
+import reactor.core.publisher.Flux;
 import rx.Observable;
 import rx.subjects.PublishSubject;
 
@@ -67,6 +70,8 @@ class StubbedJobData {
 
     private final PublishSubject<JobManagerEvent<?>> observeJobsSubject = PublishSubject.create();
 
+    private final DirectProcessor<ContainerHealthEvent> healthEventProcessor = DirectProcessor.create();
+
     StubbedJobData(TitusRuntime titusRuntime) {
         this.titusRuntime = titusRuntime;
     }
@@ -171,6 +176,10 @@ class StubbedJobData {
         return snapshot ? ObservableExt.fromCollection(this::getEventSnapshot).concatWith(observeJobsSubject) : observeJobsSubject;
     }
 
+    Flux<ContainerHealthEvent> healthEvents() {
+        return healthEventProcessor;
+    }
+
     private JobHolder getJobHolderByJobId(String jobId) {
         JobHolder jobHolder = jobHoldersById.get(jobId);
         if (jobHolder == null) {
@@ -327,13 +336,14 @@ class StubbedJobData {
         }
 
         void changeContainerHealth(String taskId, ContainerHealthState healthState) {
-            tasksHealthById.put(taskId, ContainerHealthStatus.newBuilder()
+            ContainerHealthStatus healthStatus = ContainerHealthStatus.newBuilder()
                     .withTaskId(taskId)
                     .withState(healthState)
                     .withReason("On demand change")
                     .withTimestamp(titusRuntime.getClock().wallTime())
-                    .build()
-            );
+                    .build();
+            tasksHealthById.put(taskId, healthStatus);
+            healthEventProcessor.onNext(ContainerHealthEvent.healthChanged(healthStatus));
         }
 
         Task moveTaskToState(Task task, TaskState newState) {
@@ -0,0 +1,362 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.testkit.perf.scale;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Stopwatch;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.Timer;
+import com.netflix.titus.api.agent.model.AgentInstanceGroup;
+import com.netflix.titus.api.agent.model.InstanceGroupLifecycleState;
+import com.netflix.titus.api.agent.model.InstanceGroupLifecycleStatus;
+import com.netflix.titus.api.agent.service.AgentManagementService;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.TaskState;
+import com.netflix.titus.api.jobmanager.model.job.event.TaskUpdateEvent;
+import com.netflix.titus.api.jobmanager.service.V3JobOperations;
+import com.netflix.titus.api.model.Tier;
+import com.netflix.titus.common.aws.AwsInstanceType;
+import com.netflix.titus.common.util.DateTimeExt;
+import com.netflix.titus.grpc.protogen.JobManagementServiceGrpc.JobManagementServiceBlockingStub;
+import com.netflix.titus.runtime.endpoint.v3.grpc.V3GrpcModelConverters;
+import com.netflix.titus.testkit.embedded.cell.master.EmbeddedTitusMaster;
+import com.netflix.titus.testkit.embedded.cloud.SimulatedCloud;
+import com.netflix.titus.testkit.embedded.cloud.model.SimulatedAgentGroupDescriptor;
+import com.netflix.titus.testkit.perf.load.LoadGenerator;
+import com.netflix.titus.testkit.perf.scale.ScaleReplayWorkload.JobSubmission;
+import com.netflix.titus.testkit.util.cli.CommandLineBuilder;
+import com.netflix.titus.testkit.util.cli.CommandLineFacade;
+import org.apache.commons.cli.Option;
+import org.apache.log4j.PropertyConfigurator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rx.Observable;
+import rx.Subscription;
+import rx.schedulers.Schedulers;
+
+/**
+ * In-process scale test, which boots an embedded TitusMaster on top of a simulated cloud with the requested number
+ * of agents, and replays a {@link ScaleReplayWorkload} against it. The run result is written as JSON
+ * ({@link ScaleReplayResult}), and includes:
+ * <ul>
+ * <li>scheduling latency - time from a task being accepted to being launched on an agent</li>
+ * <li>reconciliation loop time - from the job manager reconciliation framework loop timer</li>
+ * <li>heap memory usage - at the start, peak during the replay, and at the end</li>
+ * </ul>
+ * The master runs with its default configuration, so the results are representative for the production setup.
+ */
+public class ScaleReplayHarness {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScaleReplayHarness.class);
+
+    static {
+        PropertyConfigurator.configure(LoadGenerator.class.getClassLoader().getResource("embedded-log4j.properties"));
+    }
+
+    private static final String[] CRITICAL_INSTANCE_GROUPS = {"critical1", "critical2"};
+    private static final String[] FLEX_INSTANCE_GROUPS = {"flex1", "flex2"};
+
+    private static final String RECONCILIATION_LOOP_TIMER = "titus.reconciliation.framework.executionTime";
+
+    private static final long MEMORY_SAMPLING_INTERVAL_MS = 1_000;
+    private static final long BOOT_TIMEOUT_MS = 300_000;
+
+    private final int agentCount;
+    private final ScaleReplayWorkload workload;
+    private final Duration completionTimeout;
+
+    private final MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+    private final AtomicLong heapUsedPeak = new AtomicLong();
+
+    private final ConcurrentMap<String, Long> acceptedTimestamps = new ConcurrentHashMap<>();
+    private final List<Long> schedulingLatencies = Collections.synchronizedList(new ArrayList<>());
+
+    public ScaleReplayHarness(int agentCount, ScaleReplayWorkload workload, Duration completionTimeout) {
+        Preconditions.checkArgument(agentCount >= CRITICAL_INSTANCE_GROUPS.length + FLEX_INSTANCE_GROUPS.length,
+                "Too few agents: %s", agentCount);
+        this.agentCount = agentCount;
+        this.workload = workload;
+        this.completionTimeout = completionTimeout;
+    }
+
+    public ScaleReplayResult run() {
+        EmbeddedTitusMaster master = EmbeddedTitusMaster.aTitusMaster()
+                .withSimulatedCloud(newSimulatedCloud())
+                .withEnableREST(false)
+                .withProperty("titus.master.grpcServer.shutdownTimeoutMs", "0")
+                .build();
+
+        Subscription memorySamplingSubscription = null;
+        Subscription taskSubscription = null;
+        try {
+            Stopwatch bootTime = Stopwatch.createStarted();
+            master.boot();
+            activateInstanceGroups(master.getInstance(AgentManagementService.class));
+            logger.info("Embedded TitusMaster with {} agents ready in {}", agentCount, DateTimeExt.toTimeUnitString(bootTime.elapsed(TimeUnit.MILLISECONDS)));
+
+            taskSubscription = master.getInstance(V3JobOperations.class).observeJobs()
+                    .filter(event -> event instanceof TaskUpdateEvent)
+                    .subscribe(event -> onTaskUpdate(((TaskUpdateEvent) event).getCurrent()));
+
+            System.gc();
+            long heapUsedStart = heapUsed();
+            heapUsedPeak.set(heapUsedStart);
+            memorySamplingSubscription = Observable.interval(MEMORY_SAMPLING_INTERVAL_MS, MEMORY_SAMPLING_INTERVAL_MS, TimeUnit.MILLISECONDS, Schedulers.computation())
+                    .subscribe(tick -> heapUsedPeak.accumulateAndGet(heapUsed(), Math::max));
+
+            Timer reconciliationLoopTimer = master.getInstance(Registry.class).timer(RECONCILIATION_LOOP_TIMER);
+            long loopCountStart = reconciliationLoopTimer.count();
+            long loopTimeStart = reconciliationLoopTimer.totalTime();
+
+            Stopwatch replayTime = Stopwatch.createStarted();
+            replay(master.getV3BlockingGrpcClient(), replayTime);
+
+            int expectedTasks = workload.getTotalTasks();
+            boolean completed = awaitCondition(
+                    () -> schedulingLatencies.size() >= expectedTasks,
+                    completionTimeout.toMillis() - replayTime.elapsed(TimeUnit.MILLISECONDS)
+            );
+            if (!completed) {
+                logger.warn("Not all tasks launched within {}: launched={}, expected={}",
+                        completionTimeout, schedulingLatencies.size(), expectedTasks);
+            }
+            long replayTimeMs = replayTime.elapsed(TimeUnit.MILLISECONDS);
+
+            long loopCount = reconciliationLoopTimer.count() - loopCountStart;
+            long loopTimeNs = reconciliationLoopTimer.totalTime() - loopTimeStart;
+
+            List<Long> latencies;
+            synchronized (schedulingLatencies) {
+                latencies = new ArrayList<>(schedulingLatencies);
+            }
+            Collections.sort(latencies);
+
+            return ScaleReplayResult.newBuilder()
+                    .withAgents(agentCount)
+                    .withJobs(workload.getSubmissions().size())
+                    .withTasks(expectedTasks)
+                    .withLaunchedTasks(latencies.size())
+                    .withReplayTimeMs(replayTimeMs)
+                    .withSchedulingLatencyP50Ms(percentile(latencies, 50))
+                    .withSchedulingLatencyP90Ms(percentile(latencies, 90))
+                    .withSchedulingLatencyP99Ms(percentile(latencies, 99))
+                    .withSchedulingLatencyMaxMs(latencies.isEmpty() ? 0 : latencies.get(latencies.size() - 1))
+                    .withReconciliationLoops(loopCount)
+                    .withReconciliationLoopMeanMs(loopCount == 0 ? 0 : (double) TimeUnit.NANOSECONDS.toMicros(loopTimeNs) / loopCount / 1_000)
+                    .withHeapUsedStartMB(toMB(heapUsedStart))
+                    .withHeapUsedPeakMB(toMB(Math.max(heapUsedPeak.get(), heapUsed())))
+                    .withHeapUsedEndMB(toMB(heapUsed()))
+                    .build();
+        } finally {
+            if (memorySamplingSubscription != null) {
+                memorySamplingSubscription.unsubscribe();
+            }
+            if (taskSubscription != null) {
+                taskSubscription.unsubscribe();
+            }
+            master.shutdown();
+        }
+    }
+
+    private SimulatedCloud newSimulatedCloud() {
+        int groupCount = CRITICAL_INSTANCE_GROUPS.length + FLEX_INSTANCE_GROUPS.length;
+        int groupSize = agentCount / groupCount;
+        int remainder = agentCount % groupCount;
+
+        SimulatedCloud simulatedCloud = new SimulatedCloud();
+        simulatedCloud.createAgentInstanceGroups(
+                SimulatedAgentGroupDescriptor.awsInstanceGroup(CRITICAL_INSTANCE_GROUPS[0], AwsInstanceType.M4_4XLarge, groupSize + remainder),
+                SimulatedAgentGroupDescriptor.awsInstanceGroup(CRITICAL_INSTANCE_GROUPS[1], AwsInstanceType.M4_4XLarge, groupSize),
+                SimulatedAgentGroupDescriptor.awsInstanceGroup(FLEX_INSTANCE_GROUPS[0], AwsInstanceType.M4_4XLarge, groupSize),
+                SimulatedAgentGroupDescriptor.awsInstanceGroup(FLEX_INSTANCE_GROUPS[1], AwsInstanceType.M4_4XLarge, groupSize)
+        );
+        return simulatedCloud;
+    }
+
+    /**
+     * Instance groups are discovered by the agent cache in the inactive state. We wait for all of them with all
+     * their agents to be visible, and activate them in the same way as it is done for a new production stack.
+     */
+    private void activateInstanceGroups(AgentManagementService agentManagementService) {
+        Preconditions.checkState(
+                awaitCondition(() -> countAgents(agentManagementService) >= agentCount, BOOT_TIMEOUT_MS),
+                "Simulated agents not discovered within %sms", BOOT_TIMEOUT_MS
+        );
+        for (String instanceGroupId : CRITICAL_INSTANCE_GROUPS) {
+            activateInstanceGroup(agentManagementService, instanceGroupId, Tier.Critical);
+        }
+        for (String instanceGroupId : FLEX_INSTANCE_GROUPS) {
+            activateInstanceGroup(agentManagementService, instanceGroupId, Tier.Flex);
+        }
+    }
+
+    private void activateInstanceGroup(AgentManagementService agentManagementService, String instanceGroupId, Tier tier) {
+        agentManagementService.updateInstanceGroupTier(instanceGroupId, tier).await();
+        agentManagementService.updateInstanceGroupLifecycle(instanceGroupId, InstanceGroupLifecycleStatus.newBuilder()
+                .withState(InstanceGroupLifecycleState.Active)
+                .withDetail("Activated by the scale replay harness")
+                .withTimestamp(System.currentTimeMillis())
+                .build()
+        ).await();
+    }
+
+    private int countAgents(AgentManagementService agentManagementService) {
+        int count = 0;
+        for (AgentInstanceGroup instanceGroup : agentManagementService.getInstanceGroups()) {
+            count += agentManagementService.getAgentInstances(instanceGroup.getId()).size();
+        }
+        return count;
+    }
+
+    private void replay(JobManagementServiceBlockingStub client, Stopwatch replayTime) {
+        logger.info("Replaying {} job submissions with {} tasks in total", workload.getSubmissions().size(), workload.getTotalTasks());
+        for (JobSubmission submission : workload.getSubmissions()) {
+            long delayMs = submission.getOffsetMs() - replayTime.elapsed(TimeUnit.MILLISECONDS);
+            if (delayMs > 0) {
+                try {
+                    Thread.sleep(delayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Workload replay interrupted", e);
+                }
+            }
+            client.createJob(V3GrpcModelConverters.toGrpcJobDescriptor(submission.toJobDescriptor()));
+        }
+        logger.info("All jobs submitted in {}", DateTimeExt.toTimeUnitString(replayTime.elapsed(TimeUnit.MILLISECONDS)));
+    }
+
+    /**
+     * Scheduling latency is computed from the task status timestamps, so it does not depend on the event delivery
+     * delays. Task resubmits get new task ids, and are measured as separate tasks.
+     */
+    private void onTaskUpdate(Task task) {
+        TaskState state = task.getStatus().getState();
+        if (state == TaskState.Accepted) {
+            acceptedTimestamps.putIfAbsent(task.getId(), task.getStatus().getTimestamp());
+        } else if (state == TaskState.Launched) {
+            Long acceptedTimestamp = acceptedTimestamps.remove(task.getId());
+            if (acceptedTimestamp != null) {
+                schedulingLatencies.add(Math.max(0, task.getStatus().getTimestamp() - acceptedTimestamp));
+            }
+        }
+    }
+
+    private long heapUsed() {
+        return memoryMXBean.getHeapMemoryUsage().getUsed();
+    }
+
+    private static long toMB(long bytes) {
+        return bytes / (1024 * 1024);
+    }
+
+    private static boolean awaitCondition(Supplier<Boolean> condition, long timeoutMs) {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (!condition.get()) {
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Nearest-rank percentile of a sorted list.
+     */
+    @VisibleForTesting
+    static long percentile(List<Long> sorted, int percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.size());
+        return sorted.get(Math.max(0, Math.min(sorted.size(), rank) - 1));
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineFacade cliFacade = buildCliFacade(args);
+
+        int agentCount = getInt(cliFacade, "a", 2_000);
+        Duration timeout = Duration.ofSeconds(getInt(cliFacade, "t", 600));
+        String workloadFile = cliFacade.getString("w");
+        ScaleReplayWorkload workload = workloadFile == null
+                ? ScaleReplayWorkload.constantRate(500, 10, Duration.ofMillis(100), Duration.ofMinutes(10))
+                : ScaleReplayWorkload.readFrom(new File(workloadFile));
+
+        ScaleReplayResult result = new ScaleReplayHarness(agentCount, workload, timeout).run();
+
+        String outputFile = cliFacade.getString("o");
+        if (outputFile == null) {
+            System.out.println(result.toJson());
+        } else {
+            result.writeTo(new File(outputFile));
+            logger.info("Scale replay result written to {}: {}", outputFile, result);
+        }
+        System.exit(0);
+    }
+
+    private static int getInt(CommandLineFacade cliFacade, String optionName, int defaultValue) {
+        String value = cliFacade.getString(optionName);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    private static CommandLineFacade buildCliFacade(String[] args) {
+        CommandLineFacade cliFacade = CommandLineBuilder.newApacheCli()
+                .withOption(Option.builder("a").longOpt("agents").argName("agent_count").hasArg()
+                        .desc("Number of simulated agents (default 2000)")
+                        .build()
+                )
+                .withOption(Option.builder("w").longOpt("workload").argName("workload_file").hasArg()
+                        .desc("Recorded workload JSON file (default synthetic constant rate workload)")
+                        .build()
+                )
+                .withOption(Option.builder("o").longOpt("output").argName("result_file").hasArg()
+                        .desc("Result JSON file (default standard output)")
+                        .build()
+                )
+                .withOption(Option.builder("t").longOpt("timeout").argName("timeout_sec").hasArg()
+                        .desc("Maximum replay time in seconds, including waiting for all tasks to launch (default 600)")
+                        .build()
+                )
+                .build(args);
+
+        if (cliFacade.hasHelpOption()) {
+            cliFacade.printHelp("ScaleReplayHarness");
+            System.exit(-1);
+        }
+
+        return cliFacade;
+    }
+}
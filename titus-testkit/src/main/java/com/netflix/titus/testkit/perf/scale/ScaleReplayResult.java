@@ -0,0 +1,268 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.testkit.perf.scale;
+
+import java.io.File;
+import java.io.IOException;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.netflix.titus.api.json.ObjectMappers;
+
+/**
+ * {@link ScaleReplayHarness} run result. The JSON form has flat, stable property names, so results from different
+ * runs can be compared field by field.
+ */
+public class ScaleReplayResult {
+
+    private final int agents;
+    private final int jobs;
+    private final int tasks;
+    private final int launchedTasks;
+    private final long replayTimeMs;
+    private final long schedulingLatencyP50Ms;
+    private final long schedulingLatencyP90Ms;
+    private final long schedulingLatencyP99Ms;
+    private final long schedulingLatencyMaxMs;
+    private final long reconciliationLoops;
+    private final double reconciliationLoopMeanMs;
+    private final long heapUsedStartMB;
+    private final long heapUsedPeakMB;
+    private final long heapUsedEndMB;
+
+    @JsonCreator
+    public ScaleReplayResult(@JsonProperty("agents") int agents,
+                             @JsonProperty("jobs") int jobs,
+                             @JsonProperty("tasks") int tasks,
+                             @JsonProperty("launchedTasks") int launchedTasks,
+                             @JsonProperty("replayTimeMs") long replayTimeMs,
+                             @JsonProperty("schedulingLatencyP50Ms") long schedulingLatencyP50Ms,
+                             @JsonProperty("schedulingLatencyP90Ms") long schedulingLatencyP90Ms,
+                             @JsonProperty("schedulingLatencyP99Ms") long schedulingLatencyP99Ms,
+                             @JsonProperty("schedulingLatencyMaxMs") long schedulingLatencyMaxMs,
+                             @JsonProperty("reconciliationLoops") long reconciliationLoops,
+                             @JsonProperty("reconciliationLoopMeanMs") double reconciliationLoopMeanMs,
+                             @JsonProperty("heapUsedStartMB") long heapUsedStartMB,
+                             @JsonProperty("heapUsedPeakMB") long heapUsedPeakMB,
+                             @JsonProperty("heapUsedEndMB") long heapUsedEndMB) {
+        this.agents = agents;
+        this.jobs = jobs;
+        this.tasks = tasks;
+        this.launchedTasks = launchedTasks;
+        this.replayTimeMs = replayTimeMs;
+        this.schedulingLatencyP50Ms = schedulingLatencyP50Ms;
+        this.schedulingLatencyP90Ms = schedulingLatencyP90Ms;
+        this.schedulingLatencyP99Ms = schedulingLatencyP99Ms;
+        this.schedulingLatencyMaxMs = schedulingLatencyMaxMs;
+        this.reconciliationLoops = reconciliationLoops;
+        this.reconciliationLoopMeanMs = reconciliationLoopMeanMs;
+        this.heapUsedStartMB = heapUsedStartMB;
+        this.heapUsedPeakMB = heapUsedPeakMB;
+        this.heapUsedEndMB = heapUsedEndMB;
+    }
+
+    public int getAgents() {
+        return agents;
+    }
+
+    public int getJobs() {
+        return jobs;
+    }
+
+    public int getTasks() {
+        return tasks;
+    }
+
+    public int getLaunchedTasks() {
+        return launchedTasks;
+    }
+
+    public long getReplayTimeMs() {
+        return replayTimeMs;
+    }
+
+    public long getSchedulingLatencyP50Ms() {
+        return schedulingLatencyP50Ms;
+    }
+
+    public long getSchedulingLatencyP90Ms() {
+        return schedulingLatencyP90Ms;
+    }
+
+    public long getSchedulingLatencyP99Ms() {
+        return schedulingLatencyP99Ms;
+    }
+
+    public long getSchedulingLatencyMaxMs() {
+        return schedulingLatencyMaxMs;
+    }
+
+    public long getReconciliationLoops() {
+        return reconciliationLoops;
+    }
+
+    public double getReconciliationLoopMeanMs() {
+        return reconciliationLoopMeanMs;
+    }
+
+    public long getHeapUsedStartMB() {
+        return heapUsedStartMB;
+    }
+
+    public long getHeapUsedPeakMB() {
+        return heapUsedPeakMB;
+    }
+
+    public long getHeapUsedEndMB() {
+        return heapUsedEndMB;
+    }
+
+    public void writeTo(File file) throws IOException {
+        ObjectMappers.defaultMapper().writeValue(file, this);
+    }
+
+    public String toJson() {
+        try {
+            return ObjectMappers.defaultMapper().writeValueAsString(this);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static ScaleReplayResult readFrom(File file) throws IOException {
+        return ObjectMappers.defaultMapper().readValue(file, ScaleReplayResult.class);
+    }
+
+    @Override
+    public String toString() {
+        return "ScaleReplayResult{" +
+                "agents=" + agents +
+                ", jobs=" + jobs +
+                ", tasks=" + tasks +
+                ", launchedTasks=" + launchedTasks +
+                ", replayTimeMs=" + replayTimeMs +
+                ", schedulingLatencyP50Ms=" + schedulingLatencyP50Ms +
+                ", schedulingLatencyP90Ms=" + schedulingLatencyP90Ms +
+                ", schedulingLatencyP99Ms=" + schedulingLatencyP99Ms +
+                ", schedulingLatencyMaxMs=" + schedulingLatencyMaxMs +
+                ", reconciliationLoops=" + reconciliationLoops +
+                ", reconciliationLoopMeanMs=" + reconciliationLoopMeanMs +
+                ", heapUsedStartMB=" + heapUsedStartMB +
+                ", heapUsedPeakMB=" + heapUsedPeakMB +
+                ", heapUsedEndMB=" + heapUsedEndMB +
+                '}';
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private int agents;
+        private int jobs;
+        private int tasks;
+        private int launchedTasks;
+        private long replayTimeMs;
+        private long schedulingLatencyP50Ms;
+        private long schedulingLatencyP90Ms;
+        private long schedulingLatencyP99Ms;
+        private long schedulingLatencyMaxMs;
+        private long reconciliationLoops;
+        private double reconciliationLoopMeanMs;
+        private long heapUsedStartMB;
+        private long heapUsedPeakMB;
+        private long heapUsedEndMB;
+
+        private Builder() {
+        }
+
+        public Builder withAgents(int agents) {
+            this.agents = agents;
+            return this;
+        }
+
+        public Builder withJobs(int jobs) {
+            this.jobs = jobs;
+            return this;
+        }
+
+        public Builder withTasks(int tasks) {
+            this.tasks = tasks;
+            return this;
+        }
+
+        public Builder withLaunchedTasks(int launchedTasks) {
+            this.launchedTasks = launchedTasks;
+            return this;
+        }
+
+        public Builder withReplayTimeMs(long replayTimeMs) {
+            this.replayTimeMs = replayTimeMs;
+            return this;
+        }
+
+        public Builder withSchedulingLatencyP50Ms(long schedulingLatencyP50Ms) {
+            this.schedulingLatencyP50Ms = schedulingLatencyP50Ms;
+            return this;
+        }
+
+        public Builder withSchedulingLatencyP90Ms(long schedulingLatencyP90Ms) {
+            this.schedulingLatencyP90Ms = schedulingLatencyP90Ms;
+            return this;
+        }
+
+        public Builder withSchedulingLatencyP99Ms(long schedulingLatencyP99Ms) {
+            this.schedulingLatencyP99Ms = schedulingLatencyP99Ms;
+            return this;
+        }
+
+        public Builder withSchedulingLatencyMaxMs(long schedulingLatencyMaxMs) {
+            this.schedulingLatencyMaxMs = schedulingLatencyMaxMs;
+            return this;
+        }
+
+        public Builder withReconciliationLoops(long reconciliationLoops) {
+            this.reconciliationLoops = reconciliationLoops;
+            return this;
+        }
+
+        public Builder withReconciliationLoopMeanMs(double reconciliationLoopMeanMs) {
+            this.reconciliationLoopMeanMs = reconciliationLoopMeanMs;
+            return this;
+        }
+
+        public Builder withHeapUsedStartMB(long heapUsedStartMB) {
+            this.heapUsedStartMB = heapUsedStartMB;
+            return this;
+        }
+
+        public Builder withHeapUsedPeakMB(long heapUsedPeakMB) {
+            this.heapUsedPeakMB = heapUsedPeakMB;
+            return this;
+        }
+
+        public Builder withHeapUsedEndMB(long heapUsedEndMB) {
+            this.heapUsedEndMB = heapUsedEndMB;
+            return this;
+        }
+
+        public ScaleReplayResult build() {
+            return new ScaleReplayResult(agents, jobs, tasks, launchedTasks, replayTimeMs, schedulingLatencyP50Ms, schedulingLatencyP90Ms, schedulingLatencyP99Ms, schedulingLatencyMaxMs, reconciliationLoops, reconciliationLoopMeanMs, heapUsedStartMB, heapUsedPeakMB, heapUsedEndMB);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.testkit.perf.scale;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.Preconditions;
+import com.netflix.titus.api.jobmanager.model.job.JobDescriptor;
+import com.netflix.titus.api.json.ObjectMappers;
+import com.netflix.titus.testkit.perf.load.plan.catalog.JobDescriptorCatalog;
+import com.netflix.titus.testkit.perf.load.plan.catalog.JobDescriptorCatalog.ContainerResourceAllocation;
+
+/**
+ * Recorded job workload, replayed by {@link ScaleReplayHarness}. Each entry is a job submission with its offset
+ * from the beginning of the replay. Job descriptors are built from {@link JobDescriptorCatalog} profiles, so the
+ * recorded form stays small and independent of the job model changes.
+ */
+public class ScaleReplayWorkload {
+
+    public enum JobType {
+        Batch, Service
+    }
+
+    private final List<JobSubmission> submissions;
+
+    @JsonCreator
+    public ScaleReplayWorkload(@JsonProperty("submissions") List<JobSubmission> submissions) {
+        this.submissions = submissions.stream()
+                .sorted(Comparator.comparingLong(JobSubmission::getOffsetMs))
+                .collect(Collectors.toList());
+    }
+
+    public List<JobSubmission> getSubmissions() {
+        return submissions;
+    }
+
+    @JsonIgnore
+    public int getTotalTasks() {
+        return submissions.stream().mapToInt(JobSubmission::getSize).sum();
+    }
+
+    public void writeTo(File file) throws IOException {
+        ObjectMappers.defaultMapper().writeValue(file, this);
+    }
+
+    public static ScaleReplayWorkload readFrom(File file) throws IOException {
+        return ObjectMappers.defaultMapper().readValue(file, ScaleReplayWorkload.class);
+    }
+
+    /**
+     * Synthetic workload with a constant job submission rate, used when no recorded workload is provided.
+     */
+    public static ScaleReplayWorkload constantRate(int jobCount, int jobSize, Duration interval, Duration taskDuration) {
+        List<JobSubmission> submissions = new ArrayList<>();
+        for (int i = 0; i < jobCount; i++) {
+            JobType jobType = i % 2 == 0 ? JobType.Batch : JobType.Service;
+            submissions.add(new JobSubmission(i * interval.toMillis(), jobType, ContainerResourceAllocation.Small, jobSize, taskDuration.getSeconds()));
+        }
+        return new ScaleReplayWorkload(submissions);
+    }
+
+    public static class JobSubmission {
+
+        private final long offsetMs;
+        private final JobType jobType;
+        private final ContainerResourceAllocation allocation;
+        private final int size;
+        private final long durationSec;
+
+        @JsonCreator
+        public JobSubmission(@JsonProperty("offsetMs") long offsetMs,
+                             @JsonProperty("jobType") JobType jobType,
+                             @JsonProperty("allocation") ContainerResourceAllocation allocation,
+                             @JsonProperty("size") int size,
+                             @JsonProperty("durationSec") long durationSec) {
+            Preconditions.checkArgument(offsetMs >= 0, "Negative job submission offset: %s", offsetMs);
+            Preconditions.checkArgument(size > 0, "Job size must be greater than 0: %s", size);
+            this.offsetMs = offsetMs;
+            this.jobType = jobType == null ? JobType.Batch : jobType;
+            this.allocation = allocation == null ? ContainerResourceAllocation.Small : allocation;
+            this.size = size;
+            this.durationSec = durationSec;
+        }
+
+        public long getOffsetMs() {
+            return offsetMs;
+        }
+
+        public JobType getJobType() {
+            return jobType;
+        }
+
+        public ContainerResourceAllocation getAllocation() {
+            return allocation;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public long getDurationSec() {
+            return durationSec;
+        }
+
+        public JobDescriptor<?> toJobDescriptor() {
+            if (jobType == JobType.Service) {
+                return JobDescriptorCatalog.serviceJob(allocation, 0, size, size);
+            }
+            return JobDescriptorCatalog.batchJob(allocation, size, Duration.ofSeconds(durationSec));
+        }
+    }
+}
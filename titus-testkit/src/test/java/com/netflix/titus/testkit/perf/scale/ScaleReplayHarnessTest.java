@@ -0,0 +1,85 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.testkit.perf.scale;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.netflix.titus.testkit.junit.category.IntegrationTest;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ScaleReplayHarnessTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testPercentile() {
+        List<Long> sorted = Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+        assertThat(ScaleReplayHarness.percentile(sorted, 50)).isEqualTo(5);
+        assertThat(ScaleReplayHarness.percentile(sorted, 90)).isEqualTo(9);
+        assertThat(ScaleReplayHarness.percentile(sorted, 99)).isEqualTo(10);
+        assertThat(ScaleReplayHarness.percentile(sorted, 0)).isEqualTo(1);
+        assertThat(ScaleReplayHarness.percentile(Collections.emptyList(), 50)).isEqualTo(0);
+    }
+
+    @Test
+    @Category(IntegrationTest.class)
+    public void testReplayLaunchesAllTasks() {
+        ScaleReplayWorkload workload = ScaleReplayWorkload.constantRate(1, 3, Duration.ofMillis(100), Duration.ofMinutes(1));
+
+        ScaleReplayResult result = new ScaleReplayHarness(4, workload, Duration.ofMinutes(2)).run();
+
+        assertThat(result.getTasks()).isEqualTo(3);
+        assertThat(result.getLaunchedTasks()).isEqualTo(result.getTasks());
+        assertThat(result.getReconciliationLoops()).isGreaterThan(0);
+    }
+
+    @Test
+    public void testResultJsonRoundTrip() throws Exception {
+        ScaleReplayResult result = ScaleReplayResult.newBuilder()
+                .withAgents(2_000)
+                .withJobs(100)
+                .withTasks(1_000)
+                .withLaunchedTasks(990)
+                .withReplayTimeMs(60_000)
+                .withSchedulingLatencyP50Ms(100)
+                .withSchedulingLatencyP90Ms(500)
+                .withSchedulingLatencyP99Ms(2_000)
+                .withSchedulingLatencyMaxMs(5_000)
+                .withReconciliationLoops(1_000)
+                .withReconciliationLoopMeanMs(1.5)
+                .withHeapUsedStartMB(200)
+                .withHeapUsedPeakMB(800)
+                .withHeapUsedEndMB(600)
+                .build();
+
+        File file = temporaryFolder.newFile("result.json");
+        result.writeTo(file);
+        ScaleReplayResult loaded = ScaleReplayResult.readFrom(file);
+
+        assertThat(loaded.toString()).isEqualTo(result.toString());
+    }
+}
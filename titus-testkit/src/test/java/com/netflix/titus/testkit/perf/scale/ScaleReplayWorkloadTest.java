@@ -0,0 +1,74 @@
+/*
+ * Copyright 2018 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.testkit.perf.scale;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.Arrays;
+
+import com.netflix.titus.api.jobmanager.model.job.JobDescriptor;
+import com.netflix.titus.api.jobmanager.model.job.JobFunctions;
+import com.netflix.titus.testkit.perf.load.plan.catalog.JobDescriptorCatalog.ContainerResourceAllocation;
+import com.netflix.titus.testkit.perf.scale.ScaleReplayWorkload.JobSubmission;
+import com.netflix.titus.testkit.perf.scale.ScaleReplayWorkload.JobType;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ScaleReplayWorkloadTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testSubmissionsAreOrderedByOffset() {
+        ScaleReplayWorkload workload = new ScaleReplayWorkload(Arrays.asList(
+                new JobSubmission(2_000, JobType.Batch, ContainerResourceAllocation.Small, 5, 60),
+                new JobSubmission(1_000, JobType.Service, ContainerResourceAllocation.Large, 3, 0)
+        ));
+        assertThat(workload.getSubmissions()).extracting(JobSubmission::getOffsetMs).containsExactly(1_000L, 2_000L);
+        assertThat(workload.getTotalTasks()).isEqualTo(8);
+    }
+
+    @Test
+    public void testJsonRoundTrip() throws Exception {
+        ScaleReplayWorkload workload = ScaleReplayWorkload.constantRate(4, 10, Duration.ofMillis(100), Duration.ofMinutes(1));
+
+        File file = temporaryFolder.newFile("workload.json");
+        workload.writeTo(file);
+        ScaleReplayWorkload loaded = ScaleReplayWorkload.readFrom(file);
+
+        assertThat(loaded.getSubmissions()).hasSize(4);
+        assertThat(loaded.getTotalTasks()).isEqualTo(40);
+        assertThat(loaded.getSubmissions()).extracting(JobSubmission::getOffsetMs).containsExactly(0L, 100L, 200L, 300L);
+        assertThat(loaded.getSubmissions()).extracting(JobSubmission::getJobType)
+                .containsExactly(JobType.Batch, JobType.Service, JobType.Batch, JobType.Service);
+    }
+
+    @Test
+    public void testJobDescriptorSize() {
+        JobDescriptor<?> batch = new JobSubmission(0, JobType.Batch, ContainerResourceAllocation.Small, 7, 60).toJobDescriptor();
+        assertThat(JobFunctions.isBatchJob(batch)).isTrue();
+        assertThat(JobFunctions.asBatchJob(batch).getExtensions().getSize()).isEqualTo(7);
+
+        JobDescriptor<?> service = new JobSubmission(0, JobType.Service, ContainerResourceAllocation.Small, 3, 0).toJobDescriptor();
+        assertThat(JobFunctions.isServiceJob(service)).isTrue();
+        assertThat(JobFunctions.asServiceJob(service).getExtensions().getCapacity().getDesired()).isEqualTo(3);
+    }
+}